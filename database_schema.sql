@@ -38,6 +38,9 @@ CREATE TABLE IF NOT EXISTS `content` (
   `publishflg_keep` VARCHAR(1) DEFAULT NULL COMMENT '公開フラグ（1:公開、0:非公開）',
   INDEX `idx_type` (`type`),
   INDEX `idx_url` (`url`),
+  INDEX `idx_type_updated` (`type`, `updated`),
+  INDEX `idx_type_title` (`type`, `title`),
+  INDEX `idx_type_url` (`type`, `url`),
   INDEX `idx_schedule_published` (`schedule_published`),
   INDEX `idx_schedule_unpublished` (`schedule_unpublished`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='コンテンツ情報テーブル（下書き）';
@@ -74,6 +77,34 @@ CREATE TABLE IF NOT EXISTS `config` (
   `value` TEXT DEFAULT NULL COMMENT '設定値'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='設定情報テーブル';
 
+-- ============================================
+-- 5. file_metadataテーブル（アップロードファイルのメタデータ）
+-- ============================================
+CREATE TABLE IF NOT EXISTS `file_metadata` (
+  `file_name` VARCHAR(255) PRIMARY KEY COMMENT '保存ファイル名（contentテーブルのcontentカラムの値）',
+  `mime_type` VARCHAR(255) NOT NULL COMMENT 'MIMEタイプ',
+  `size` BIGINT NOT NULL COMMENT 'ファイルサイズ（バイト）',
+  `last_modified` BIGINT NOT NULL COMMENT '最終更新日時（エポックミリ秒）',
+  `sha256` CHAR(64) NOT NULL COMMENT 'ファイル内容のSHA-256（16進数）',
+  `created` VARCHAR(19) DEFAULT NULL COMMENT '登録日時（yyyy-MM-dd HH:mm形式）'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='アップロードファイルのメタデータテーブル';
+
+-- ============================================
+-- 6. content_renderedテーブル（事前描画済みの公開ページ）
+-- ============================================
+CREATE TABLE IF NOT EXISTS `content_rendered` (
+  `id` INT PRIMARY KEY COMMENT 'コンテンツID（content_publicテーブルのidと同じ）',
+  `url` VARCHAR(255) NOT NULL COMMENT 'URLパス',
+  `type` VARCHAR(50) DEFAULT NULL COMMENT 'コンテンツタイプ',
+  `content_hash` VARCHAR(64) NOT NULL COMMENT '描画元の内容のハッシュ（16進数）',
+  `shell_version` VARCHAR(32) NOT NULL COMMENT '描画に使用した外枠HTMLのバージョン',
+  `last_modified` BIGINT NOT NULL COMMENT '描画元の最終更新日時（エポックミリ秒）',
+  `body` LONGBLOB NOT NULL COMMENT 'レスポンス本文（UTF-8）',
+  `rendered` VARCHAR(19) DEFAULT NULL COMMENT '描画日時（yyyy-MM-dd HH:mm形式）',
+  INDEX `idx_url` (`url`),
+  FOREIGN KEY (`id`) REFERENCES `content_public`(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='事前描画済みの公開ページテーブル';
+
 -- ============================================
 -- 初期データの投入
 -- ============================================
@@ -119,3 +150,24 @@ ON DUPLICATE KEY UPDATE `name`=`name`;
 -- 5. content_publicテーブルについて
 --    contentテーブルの公開版です。公開フラグが'1'の場合、
 --    このテーブルにも同じデータが登録されます。
+--
+-- 6. file_metadataテーブルについて
+--    画像・ファイルのアップロード時に、MIMEタイプ・サイズ・最終更新日時・SHA-256を登録します。
+--    公開時はこの値を Content-Type / Content-Length / ETag に使用するため、
+--    配信のたびにファイルシステムへ問い合わせる必要がありません。
+--    このテーブルに登録されていないファイル（導入前にアップロードされたもの）は、
+--    従来どおりファイルシステムから情報を取得して配信します。
+--
+-- 7. content_renderedテーブルについて
+--    コンテンツ・CSS・JSの公開時に、テンプレート・構成要素・動画タグを組み立てた
+--    最終的なレスポンス本文を登録します。公開ページへのアクセスはURLによる1回の検索で応答します。
+--    テンプレート・構成要素・動画が変更された場合は登録内容を破棄し、
+--    次回アクセス時に描画し直して再登録します。
+--
+-- 8. 一覧のキーセットページネーションについて
+--    app.pagination.keyset が有効な場合（または cursor パラメータを指定した場合）、一覧は
+--    前のページの最後の行（ソート列の値, ID）より後の行を LIMIT 件だけ取得します。
+--    contentテーブルの idx_type_updated / idx_type_title / idx_type_url は、タイプで絞り込んだ行を
+--    ソート列（とID）の順に読むための索引です。既存のデータベースには次のSQLで追加してください。
+--      ALTER TABLE `content` ADD INDEX `idx_type_updated` (`type`, `updated`),
+--        ADD INDEX `idx_type_title` (`type`, `title`), ADD INDEX `idx_type_url` (`type`, `url`);
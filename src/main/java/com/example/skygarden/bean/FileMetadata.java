@@ -0,0 +1,42 @@
+package com.example.skygarden.bean;
+
+import java.io.Serializable;
+
+import lombok.Data;
+
+/**
+ * アップロードファイルのメタデータを保持するBeanクラス
+ *
+ * このクラスは file_metadata テーブルの1行を表します。
+ * 画像・ファイルのアップロード時に FileMetadataService が生成・登録し、
+ * 公開時は ContentMapper.resolvePage() で公開コンテンツと同じクエリで取得されます。
+ *
+ * フィールド説明:
+ * - fileName: 保存ファイル名（content テーブルの content カラムの値）
+ * - mimeType: Content-Type として返すMIMEタイプ
+ * - size: ファイルサイズ（バイト）
+ * - lastModified: 保存後のファイルの最終更新日時（エポックミリ秒）
+ * - sha256: ファイル内容のSHA-256（16進数、強いETagとして使用）
+ * - created: 登録日時（yyyy-MM-dd HH:mm形式）
+ *
+ * @see com.example.skygarden.service.FileMetadataService 登録処理
+ * @see com.example.skygarden.config.RequestRoutingFilter 利用元
+ */
+@Data
+public class FileMetadata implements Serializable {
+
+	/** シリアルバージョンUID */
+	private static final long serialVersionUID = 1L;
+	/** 保存ファイル名 */
+	String fileName;
+	/** MIMEタイプ */
+	String mimeType;
+	/** ファイルサイズ（バイト） */
+	Long size;
+	/** 最終更新日時（エポックミリ秒） */
+	Long lastModified;
+	/** SHA-256（16進数） */
+	String sha256;
+	/** 登録日時 */
+	String created;
+}
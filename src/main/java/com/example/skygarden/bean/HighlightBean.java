@@ -0,0 +1,28 @@
+package com.example.skygarden.bean;
+
+import java.io.Serializable;
+
+import lombok.Data;
+
+/**
+ * スニペット内で検索語に一致した範囲1件分の情報を保持するBeanクラス（DTO）
+ *
+ * 位置は SnippetBean#text の文字（UTF-16のコード単位）の位置で、
+ * JavaScript の String#substring にそのまま渡せます。
+ *
+ * フィールド説明:
+ * - start: 開始位置（この位置の文字を含む）
+ * - end: 終了位置（この位置の文字を含まない）
+ *
+ * @see SnippetBean 検索結果のスニペット
+ */
+@Data
+public class HighlightBean implements Serializable {
+
+	/** シリアルバージョンUID */
+	private static final long serialVersionUID = 1L;
+	/** 開始位置 */
+	int start = 0;
+	/** 終了位置 */
+	int end = 0;
+}
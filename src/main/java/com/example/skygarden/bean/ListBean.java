@@ -23,8 +23,10 @@ import lombok.Data;
  * - screenName: 画面名（コンテンツ、テンプレート、構成要素など）
  * - registerMessage: 登録・更新・削除後のメッセージ
  * - sortOutput: ソート選択プルダウンのHTML
- * - pagerOutput: ページネーションナビゲーションのHTML
+ * - pager: ページネーション情報（先頭・末尾・現在のページの前後のページ番号と前後のページのURL）
  * - results: コンテンツ一覧（各要素はid, title, url, type等を含むHashMap）
+ * - snippets: キーワード検索の結果のスニペット（コンテンツID → 本文の抜粋と検索語に一致した範囲、検索でない場合は空）
+ * - nextCursor / prevCursor: キーセットページネーションの前後のページのカーソル（ページがない場合・ページ番号で表示する場合は空文字）
  * 
  * @see ContentController コンテンツ管理APIコントローラー
  */
@@ -41,8 +43,14 @@ public class ListBean implements Serializable {
 	String registerMessage = "";
 	/** ソート選択用のHTMLオプション */
 	String sortOutput = "";
-	/** ページネーション用のHTML */
-	String pagerOutput = "";
+	/** ページネーション情報 */
+	PagerBean pager = new PagerBean();
 	/** コンテンツ一覧の結果リスト */
 	List<HashMap<String, String>> results = new ArrayList<HashMap<String, String>>();	
+	/** キーワード検索の結果のスニペット（コンテンツID → スニペット） */
+	HashMap<String, SnippetBean> snippets = new HashMap<String, SnippetBean>();
+	/** 次のページのカーソル（キーセットページネーション） */
+	String nextCursor = "";
+	/** 前のページのカーソル（キーセットページネーション） */
+	String prevCursor = "";
 }
@@ -0,0 +1,68 @@
+package com.example.skygarden.bean;
+
+import java.io.Serializable;
+import java.util.HashMap;
+
+import lombok.Data;
+
+/**
+ * 公開ページの描画に必要な情報を保持するBeanクラス
+ *
+ * このクラスは ContentMapper.resolvePage() の結果を保持し、
+ * RequestRoutingFilter から Content の描画処理まで受け渡されます。
+ * 公開コンテンツと、そのテンプレートの情報を1回のクエリでまとめて取得するため、
+ * 描画中に同じレコードを再取得する必要がありません。
+ *
+ * フィールド説明:
+ * - id / url / title / head / content / type / template / updated: 公開コンテンツ（content_public）の値
+ * - templateContent / templateUpdated: テンプレートのレイアウト定義（contentテーブル）
+ * - templateHead: テンプレートのヘッダー部分（content_publicテーブル）
+ * - fileMimeType / fileSize / fileLastModified / fileSha256: 画像・ファイルのメタデータ（file_metadataテーブル）
+ * - elements: 検証用ヘッダーの計算・描画で共有する構成要素（Content が必要になった時点で取得する）
+ * - references: 検証用ヘッダーの計算・描画で共有するショートコードの参照先（動画など、Content が必要になった時点で取得する）
+ *
+ * テンプレートが未設定または存在しない場合、template 系のフィールドは null になります。
+ *
+ * @see com.example.skygarden.mapper.ContentMapper#resolvePage(String) 取得処理
+ * @see com.example.skygarden.config.RequestRoutingFilter 利用元
+ */
+@Data
+public class PageModel implements Serializable {
+
+	/** シリアルバージョンUID */
+	private static final long serialVersionUID = 1L;
+	/** コンテンツID */
+	String id;
+	/** URLパス */
+	String url;
+	/** タイトル */
+	String title;
+	/** ヘッダー部分のHTML */
+	String head;
+	/** コンテンツ本文 */
+	String content;
+	/** コンテンツタイプ */
+	String type;
+	/** テンプレートID */
+	String template;
+	/** 更新日時 */
+	String updated;
+	/** テンプレートのレイアウト定義 */
+	String templateContent;
+	/** テンプレートの更新日時 */
+	String templateUpdated;
+	/** テンプレートのヘッダー部分のHTML */
+	String templateHead;
+	/** 画像・ファイルのMIMEタイプ（file_metadata、未登録の場合null） */
+	String fileMimeType;
+	/** 画像・ファイルのサイズ（file_metadata、未登録の場合null） */
+	Long fileSize;
+	/** 画像・ファイルの最終更新日時（file_metadata、未登録の場合null） */
+	Long fileLastModified;
+	/** 画像・ファイルのSHA-256（file_metadata、未登録の場合null） */
+	String fileSha256;
+	/** 取得済みの構成要素（構成要素ID → 構成要素の情報、未取得の場合null） */
+	transient HashMap<String, HashMap<String, String>> elements;
+	/** 取得済みのショートコードの参照先（公開コンテンツID → 公開コンテンツの情報、未取得の場合null） */
+	transient HashMap<String, HashMap<String, String>> references;
+}
@@ -0,0 +1,47 @@
+package com.example.skygarden.bean;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * ページネーション情報を保持するBeanクラス（DTO）
+ *
+ * このクラスは一覧画面のページネーションを、HTMLではなくデータとして
+ * View層（Thymeleafの fragments/common :: pager）とREST APIのレスポンスに渡すためのDTOです。
+ *
+ * ページ番号のリンクは全ページ分ではなく、先頭ページ・末尾ページ・現在のページの前後のみを保持します。
+ * 間が空く場合は省略（gap）の要素が入ります。
+ * 例（現在5000ページ目 / 全10000ページ）: 1 … 4998 4999 5000 5001 5002 … 10000
+ *
+ * フィールド説明:
+ * - page: 現在のページ番号（キーセットページネーションの場合は0）
+ * - totalPages: 総ページ数（キーセットページネーションの場合は0）
+ * - prevUrl: 前のページのURL（前のページがない場合は空文字）
+ * - nextUrl: 次のページのURL（次のページがない場合は空文字）
+ * - items: ページ番号のリンク
+ * - countLabel: 件数の表示（検索結果が上限を超えた場合の「1000+」など、ない場合は空文字）
+ *
+ * @see PagerItemBean ページ番号のリンク
+ * @see com.example.skygarden.util.PaginationUtil#createPager ページネーション情報の生成
+ */
+@Data
+public class PagerBean implements Serializable {
+
+	/** シリアルバージョンUID */
+	private static final long serialVersionUID = 1L;
+	/** 現在のページ番号 */
+	int page = 0;
+	/** 総ページ数 */
+	int totalPages = 0;
+	/** 前のページのURL */
+	String prevUrl = "";
+	/** 次のページのURL */
+	String nextUrl = "";
+	/** ページ番号のリンク（先頭・末尾・現在のページの前後） */
+	List<PagerItemBean> items = new ArrayList<PagerItemBean>();
+	/** 件数の表示 */
+	String countLabel = "";
+}
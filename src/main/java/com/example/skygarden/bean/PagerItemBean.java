@@ -0,0 +1,31 @@
+package com.example.skygarden.bean;
+
+import java.io.Serializable;
+
+import lombok.Data;
+
+/**
+ * ページネーションのページ番号1件分の情報を保持するBeanクラス（DTO）
+ *
+ * フィールド説明:
+ * - number: ページ番号（省略の場合は0）
+ * - url: ページのURL（現在のページ・省略の場合は空文字）
+ * - current: 現在のページかどうか
+ * - gap: ページ番号の省略（…）かどうか
+ *
+ * @see PagerBean ページネーション情報
+ */
+@Data
+public class PagerItemBean implements Serializable {
+
+	/** シリアルバージョンUID */
+	private static final long serialVersionUID = 1L;
+	/** ページ番号 */
+	int number = 0;
+	/** ページのURL */
+	String url = "";
+	/** 現在のページかどうか */
+	boolean current = false;
+	/** ページ番号の省略かどうか */
+	boolean gap = false;
+}
@@ -0,0 +1,73 @@
+package com.example.skygarden.bean;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * 再描画ジョブの進捗を保持するBeanクラス（DTO）
+ *
+ * このクラスは RenderJobService の進捗を管理画面に返すためのDTOです。
+ * REST APIのレスポンスとしてJSON形式でシリアライズされます。
+ *
+ * フィールド説明:
+ * - state: ジョブの状態（IDLE / RUNNING / STOPPING / STOPPED / COMPLETED）
+ * - sourceIds: 再描画のきっかけになったテンプレート・構成要素のID
+ * - total: 再描画の対象になったページ数
+ * - completed: 描画して登録したページ数
+ * - failed: 描画・登録に失敗したページ数（次回アクセス時に描画される）
+ * - deferred: 描画中に変更が続き、登録を見送ったページ数（次回アクセス時に描画される）
+ * - pending: 未処理のページ数
+ * - threads / batchSize: ワーカースレッド数と、1回の取得・登録でまとめて処理する件数
+ * - started / finished: 開始・終了日時（yyyy-MM-dd HH:mm形式）
+ * - elapsedMillis: 経過時間（ミリ秒）
+ * - pagesPerSecond: 1秒あたりの処理ページ数
+ * - lastError: 最後に発生したエラー
+ * - htmlMinifiedPages: HTMLを圧縮して描画したページ数（起動後の累計、ジョブ以外の描画を含む）
+ * - htmlBytesBefore / htmlBytesSaved: 圧縮前のバイト数と、圧縮で削減したバイト数（起動後の累計）
+ *
+ * @see com.example.skygarden.service.RenderJobService 進捗の管理
+ * @see com.example.skygarden.controller.RenderJobController 再描画ジョブAPIコントローラー
+ */
+@Data
+public class RenderJobStatus implements Serializable {
+
+	/** シリアルバージョンUID */
+	private static final long serialVersionUID = 1L;
+	/** ジョブの状態 */
+	String state;
+	/** 再描画のきっかけになったテンプレート・構成要素のID */
+	List<String> sourceIds = new ArrayList<String>();
+	/** 対象ページ数 */
+	int total;
+	/** 登録したページ数 */
+	int completed;
+	/** 失敗したページ数 */
+	int failed;
+	/** 登録を見送ったページ数 */
+	int deferred;
+	/** 未処理のページ数 */
+	int pending;
+	/** ワーカースレッド数 */
+	int threads;
+	/** 1回の取得・登録でまとめて処理する件数 */
+	int batchSize;
+	/** 開始日時 */
+	String started;
+	/** 終了日時 */
+	String finished;
+	/** 経過時間（ミリ秒） */
+	long elapsedMillis;
+	/** 1秒あたりの処理ページ数 */
+	double pagesPerSecond;
+	/** 最後に発生したエラー */
+	String lastError;
+	/** HTMLを圧縮して描画したページ数 */
+	long htmlMinifiedPages;
+	/** 圧縮前のHTMLのバイト数 */
+	long htmlBytesBefore;
+	/** HTMLの圧縮で削減したバイト数 */
+	long htmlBytesSaved;
+}
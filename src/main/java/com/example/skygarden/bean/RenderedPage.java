@@ -0,0 +1,49 @@
+package com.example.skygarden.bean;
+
+import java.io.Serializable;
+
+import lombok.Data;
+
+/**
+ * 事前描画済みの公開ページを保持するBeanクラス
+ *
+ * このクラスは content_rendered テーブルの1行を表します。
+ * 公開時に PageRenderService がテンプレート・構成要素・動画タグの組み立てまで済ませた
+ * レスポンス本文を登録し、RequestRoutingFilter は URL をキーとした1回のクエリで取得して返却します。
+ *
+ * フィールド説明:
+ * - id / url / type: 公開コンテンツ（content_public）の値
+ * - contentHash: 描画元の内容から計算したハッシュ（Content.getPageVersion の値）
+ * - shellVersion: 描画に使用した外枠HTMLのバージョン（HtmlShell.getVersion の値）
+ * - lastModified: 描画元の最終更新日時（エポックミリ秒）
+ * - body: レスポンス本文（UTF-8エンコード済み）
+ * - rendered: 描画日時（yyyy-MM-dd HH:mm形式）
+ *
+ * ETag は contentHash と shellVersion から生成するため、
+ * 公開時に描画したページとリクエスト時に描画したページで同じ値になります。
+ *
+ * @see com.example.skygarden.service.PageRenderService 登録処理
+ * @see com.example.skygarden.config.RequestRoutingFilter 利用元
+ */
+@Data
+public class RenderedPage implements Serializable {
+
+	/** シリアルバージョンUID */
+	private static final long serialVersionUID = 1L;
+	/** コンテンツID */
+	String id;
+	/** URLパス */
+	String url;
+	/** コンテンツタイプ */
+	String type;
+	/** 描画元の内容のハッシュ */
+	String contentHash;
+	/** 外枠HTMLのバージョン */
+	String shellVersion;
+	/** 最終更新日時（エポックミリ秒） */
+	Long lastModified;
+	/** レスポンス本文（UTF-8エンコード済み） */
+	byte[] body;
+	/** 描画日時 */
+	String rendered;
+}
@@ -0,0 +1,32 @@
+package com.example.skygarden.bean;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * 検索結果のスニペット（本文の抜粋）を保持するBeanクラス（DTO）
+ *
+ * このクラスはキーワード検索の結果一覧で、本文全体の代わりに
+ * 検索語の周辺の短い抜粋と、抜粋内で検索語に一致した範囲を
+ * View層（Thymeleafの fragments/common :: snippet）とREST APIのレスポンスに渡すためのDTOです。
+ *
+ * フィールド説明:
+ * - text: 本文の抜粋（タグを除いたテキスト、前後を省略した場合は「…」が付く）
+ * - highlights: text 内で検索語に一致した範囲（開始位置の昇順、重なりなし）
+ *
+ * @see HighlightBean 一致した範囲
+ * @see com.example.skygarden.util.SnippetUtil#create スニペットの生成
+ */
+@Data
+public class SnippetBean implements Serializable {
+
+	/** シリアルバージョンUID */
+	private static final long serialVersionUID = 1L;
+	/** 本文の抜粋 */
+	String text = "";
+	/** 検索語に一致した範囲 */
+	List<HighlightBean> highlights = new ArrayList<HighlightBean>();
+}
@@ -22,7 +22,7 @@ import lombok.Data;
  * - loginName: ログインユーザー名（ウェルカムメッセージ用）
  * - registerMessage: 登録・更新・削除後のメッセージ
  * - sortOutput: ソート選択プルダウンのHTML
- * - pagerOutput: ページネーションナビゲーションのHTML
+ * - pager: ページネーション情報（先頭・末尾・現在のページの前後のページ番号と前後のページのURL）
  * - results: ユーザー一覧（各要素はid, name, email, admin等を含むHashMap）
  * 
  * @see UserController ユーザー管理APIコントローラー
@@ -38,8 +38,8 @@ public class UserListBean implements Serializable {
 	String registerMessage = "";
 	/** ソート選択用のHTMLオプション */
 	String sortOutput = "";
-	/** ページネーション用のHTML */
-	String pagerOutput = "";
+	/** ページネーション情報 */
+	PagerBean pager = new PagerBean();
 	/** ユーザー一覧の結果リスト */
 	List<HashMap<String, String>> results = new ArrayList<HashMap<String, String>>();
 }
@@ -17,9 +17,34 @@ import lombok.Setter;
  * 
  * 対応する設定項目（application.properties）:
  * - app.pagination.page-size: 1ページあたりの表示件数（デフォルト: 20）
+ * - app.pagination.keyset: 一覧をキーセット（シーク）ページネーションで表示するかどうか（デフォルト: false）
+ * - app.pagination.count-refresh-seconds: タイプ別の件数キャッシュをデータベースから数え直す間隔（秒）（デフォルト: 300、0 = 数え直さない）
+ * - app.pagination.window: ページネーションで現在のページの前後に表示するページ数（デフォルト: 2）
+ * - app.pagination.search-count-limit: キーワード検索の件数を数える上限（デフォルト: 1000、超える場合は「1000+」と表示する）
+ * - app.search.index-enabled: 管理画面のキーワード検索に全文検索インデックス（バイグラム）を使用するかどうか（デフォルト: true）
+ * - app.search.snippet-length: 検索結果に表示するスニペット（本文の抜粋）の文字数（デフォルト: 120）
  * - app.file.preview-file-name: プレビューテンプレートファイル名（デフォルト: preview.html）
  * - app.file.upload-dir: 画像アップロードディレクトリ（デフォルト: uploads/images）
  * - app.file.file-upload-dir: ファイルアップロードディレクトリ（デフォルト: uploads/files）
+ * - app.cache.enabled: 公開ページキャッシュの有効・無効（デフォルト: true）
+ * - app.cache.page-max-entries: 公開ページキャッシュの最大件数（デフォルト: 1000）
+ * - app.cache.compression-enabled: キャッシュ登録時に gzip / deflate 版を作成するかどうか（デフォルト: true）
+ * - app.cache.compression-min-size: 圧縮版を作成する最小バイト数（デフォルト: 256）
+ * - app.cache.stale-while-revalidate-seconds: 無効化したページを描画中に返す無効化前のページとして保持する秒数（デフォルト: 30、0 = 保持しない）
+ * - app.http-cache.page: 公開HTMLページの Cache-Control（デフォルト: no-cache）
+ * - app.http-cache.stylesheet: CSSの Cache-Control（デフォルト: public, max-age=300）
+ * - app.http-cache.script: JavaScriptの Cache-Control（デフォルト: public, max-age=300）
+ * - app.http-cache.image: 画像の Cache-Control（デフォルト: public, max-age=86400）
+ * - app.http-cache.file: ダウンロードファイルの Cache-Control（デフォルト: 空 = 出力しない）
+ * - app.http-cache.fingerprinted: フィンガープリント付きURLの CSS・JavaScript の Cache-Control（デフォルト: public, max-age=31536000, immutable）
+ * - app.render.prerender-enabled: 公開時にページを描画して content_rendered テーブルに保持するかどうか（デフォルト: true）
+ * - app.render.job-threads: 再描画ジョブのワーカースレッド数（デフォルト: 0 = CPUコア数とDB接続プールから自動算出）
+ * - app.render.job-batch-size: 再描画ジョブが1回の取得・登録でまとめて処理する件数（デフォルト: 50）
+ * - app.render.job-on-change: テンプレート・構成要素・動画・スタイルシート・スクリプトの変更時に再描画ジョブを自動で開始するかどうか（デフォルト: true）
+ * - app.render.minify-assets: CSS・JavaScript のコメント・空白を取り除いて配信するかどうか（デフォルト: true）
+ * - app.render.fingerprint-assets: ヘッダーの CSS・JavaScript の参照を内容のハッシュを含むURLに書き換えるかどうか（デフォルト: true）
+ * - app.render.bundle-assets: 連続する CSS・JavaScript の参照を1つのURLにまとめるかどうか（デフォルト: false）
+ * - app.render.minify-html: 公開ページ（HTML）の描画結果からコメント・不要な空白を取り除くかどうか（デフォルト: true）
  * 
  * 使用例:
  * <pre>
@@ -41,9 +66,21 @@ public class AppProperties {
 	/** ページネーション関連の設定 */
 	private Pagination pagination = new Pagination();
 	
+	/** キーワード検索関連の設定 */
+	private Search search = new Search();
+	
 	/** ファイル関連の設定 */
 	private File file = new File();
 	
+	/** キャッシュ関連の設定 */
+	private Cache cache = new Cache();
+	
+	/** HTTPキャッシュ（Cache-Control）関連の設定 */
+	private HttpCache httpCache = new HttpCache();
+	
+	/** 公開ページの描画関連の設定 */
+	private Render render = new Render();
+	
 	/**
 	 * ページネーション設定
 	 */
@@ -54,6 +91,50 @@ public class AppProperties {
 		 * 1ページあたりの表示件数
 		 */
 		private int pageSize = 20;
+		
+		/**
+		 * 一覧をキーセット（シーク）ページネーションで表示するかどうか
+		 * 有効な場合はページ番号の代わりに前後のページへのリンク（カーソル）を表示し、後ろのページも先頭と同じコストで取得する
+		 * 無効な場合も、cursor パラメータが指定されたリクエストはキーセットページネーションで応答する
+		 */
+		private boolean keyset = false;
+		
+		/**
+		 * タイプ別の件数キャッシュをデータベースから数え直す間隔（秒）
+		 * 作成・削除時に件数を増減させるため通常は不要だが、他の経路での書き込みによるずれを補正する（0 = 数え直さない）
+		 */
+		private int countRefreshSeconds = 300;
+		
+		/**
+		 * キーワード検索の件数を数える上限
+		 * 上限を超える件数は数えず「1000+」のように表示する（0以下 = 上限なし）
+		 */
+		private int searchCountLimit = 1000;
+		
+		/**
+		 * ページネーションで現在のページの前後に表示するページ数
+		 * 先頭・末尾のページと合わせて表示し、それ以外のページ番号は省略する
+		 */
+		private int window = 2;
+	}
+	
+	/**
+	 * キーワード検索設定
+	 */
+	@Getter
+	@Setter
+	public static class Search {
+		/**
+		 * 管理画面のキーワード検索に全文検索インデックス（バイグラム）を使用するかどうか
+		 * 有効な場合は起動時に content テーブルを読み込んでメモリ上にインデックスを作成し、LIKE 検索によるテーブル走査を行わない
+		 */
+		private boolean indexEnabled = true;
+		
+		/**
+		 * 検索結果に表示するスニペット（検索語の周辺の本文の抜粋）の文字数
+		 * 検索結果の一覧は本文全体を返さず、この文字数の抜粋と検索語に一致した範囲のみを返す
+		 */
+		private int snippetLength = 120;
 	}
 	
 	/**
@@ -77,4 +158,124 @@ public class AppProperties {
 		 */
 		private String fileUploadDir = "uploads/files";
 	}
+	
+	/**
+	 * キャッシュ設定
+	 */
+	@Getter
+	@Setter
+	public static class Cache {
+		/**
+		 * 公開ページキャッシュを有効にするかどうか
+		 */
+		private boolean enabled = true;
+		
+		/**
+		 * 公開ページキャッシュの最大件数（超えた場合は最も古く参照されたものから破棄）
+		 */
+		private int pageMaxEntries = 1000;
+		
+		/**
+		 * キャッシュ登録時に gzip / deflate 版を作成するかどうか
+		 */
+		private boolean compressionEnabled = true;
+		
+		/**
+		 * 圧縮版を作成する最小バイト数（これより小さいページは圧縮しない）
+		 */
+		private int compressionMinSize = 256;
+		
+		/**
+		 * 無効化したページを無効化前のページとして保持する秒数（0の場合は保持しない）
+		 * 同じURLを描画中の間、描画の完了を待たずに無効化前のページを返す（stale-while-revalidate）
+		 */
+		private int staleWhileRevalidateSeconds = 30;
+	}
+	
+	/**
+	 * HTTPキャッシュ設定
+	 * コンテンツタイプごとの Cache-Control ヘッダーの値（空文字の場合は出力しない）
+	 */
+	@Getter
+	@Setter
+	public static class HttpCache {
+		/**
+		 * 公開HTMLページ（ETag / Last-Modified で毎回再検証させる）
+		 */
+		private String page = "no-cache";
+		
+		/**
+		 * CSS（stylesheet）
+		 */
+		private String stylesheet = "public, max-age=300";
+		
+		/**
+		 * JavaScript（script）
+		 */
+		private String script = "public, max-age=300";
+		
+		/**
+		 * 画像（image）
+		 */
+		private String image = "public, max-age=86400";
+		
+		/**
+		 * ダウンロードファイル（file）
+		 */
+		private String file = "";
+		
+		/**
+		 * フィンガープリント付きURL（内容のハッシュを含むスタイルシート・スクリプトのURL）の Cache-Control ヘッダー
+		 * 内容が変わるとURLも変わるため、長期間のキャッシュを許可する
+		 */
+		private String fingerprinted = "public, max-age=31536000, immutable";
+	}
+	
+	/**
+	 * 描画設定
+	 */
+	@Getter
+	@Setter
+	public static class Render {
+		/**
+		 * 公開時にページを描画して content_rendered テーブルに保持するかどうか
+		 */
+		private boolean prerenderEnabled = true;
+		
+		/**
+		 * 再描画ジョブのワーカースレッド数（0以下の場合は CPUコア数 - 1 と DB接続プールの半分の小さい方）
+		 */
+		private int jobThreads = 0;
+		
+		/**
+		 * 再描画ジョブが1回の取得・登録でまとめて処理する件数
+		 */
+		private int jobBatchSize = 50;
+		
+		/**
+		 * テンプレート・構成要素・動画・スタイルシート・スクリプトの変更時に再描画ジョブを自動で開始するかどうか
+		 */
+		private boolean jobOnChange = true;
+		
+		/**
+		 * 公開時にスタイルシート（CSS）・スクリプト（JS）のコメント・空白を取り除いて配信するかどうか
+		 */
+		private boolean minifyAssets = true;
+		
+		/**
+		 * ヘッダー部分のスタイルシート・スクリプトの参照を、内容のハッシュを含むURLに書き換えるかどうか
+		 */
+		private boolean fingerprintAssets = true;
+		
+		/**
+		 * 連続する同じ形のスタイルシート・スクリプトの参照を1つのURLにまとめて配信するかどうか
+		 */
+		private boolean bundleAssets = false;
+		
+		/**
+		 * 公開ページ（HTML）の描画結果からコメント・不要な空白を取り除いて保持するかどうか
+		 * pre / textarea / script / style の中身はそのまま残す
+		 */
+		private boolean minifyHtml = true;
+	}
 }
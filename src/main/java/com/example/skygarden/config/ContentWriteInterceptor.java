@@ -0,0 +1,110 @@
+package com.example.skygarden.config;
+
+import java.util.Map;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.mapper.ContentMapper;
+import com.example.skygarden.service.ContentChangeEvent;
+import com.example.skygarden.service.ContentChangeEvent.Operation;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * コンテンツ書き込み監視用のMyBatisインターセプター
+ *
+ * ContentMapper の更新系ステートメント（create / createPublic / update / updatePublic / delete）の
+ * 実行後に ContentChangeEvent を発行します。
+ * コントローラーやバッチなど、どこから書き込まれても同じイベントが発行されるため、
+ * キャッシュの無効化漏れを防ぐことができます。
+ *
+ * 登録方法:
+ * mybatis-spring-boot-starter は Interceptor 型のBeanを自動的に SqlSessionFactory に登録するため、
+ * @Component を付与するだけで有効になります。
+ *
+ * 注意事項:
+ * ステートメントが例外で終了した場合はイベントを発行しません。
+ * user / config テーブルへの書き込みは対象外です。
+ *
+ * @see ContentChangeEvent 発行されるイベント
+ */
+@Component
+@Slf4j
+@Intercepts({
+	@Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class })
+})
+public class ContentWriteInterceptor implements Interceptor {
+
+	/** ContentMapperのステートメントIDの接頭辞 */
+	private static final String STATEMENT_PREFIX = ContentMapper.class.getName() + ".";
+
+	/** イベント発行用のパブリッシャー */
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	/**
+	 * ステートメントを実行し、コンテンツへの書き込みであればイベントを発行する
+	 *
+	 * @param invocation 呼び出し情報
+	 * @return ステートメントの実行結果
+	 * @throws Throwable ステートメント実行時の例外
+	 */
+	@Override
+	public Object intercept(Invocation invocation) throws Throwable {
+		Object result = invocation.proceed();
+		MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+		Object parameter = invocation.getArgs()[1];
+		ContentChangeEvent event = toEvent(statement.getId(), parameter);
+		if (event != null) {
+			try {
+				eventPublisher.publishEvent(event);
+			} catch (Exception e) {
+				// 書き込み自体は成功しているため、リスナーの例外は呼び出し元に伝播させない
+				log.error("[ContentWriteInterceptor] listener error: " + e.toString(), e);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * ステートメントIDとパラメータからイベントを生成する
+	 *
+	 * @param statementId ステートメントID
+	 * @param parameter ステートメントのパラメータ
+	 * @return コンテンツ変更イベント（対象外の場合null）
+	 */
+	ContentChangeEvent toEvent(String statementId, Object parameter) {
+		if (statementId == null || !statementId.startsWith(STATEMENT_PREFIX) || !(parameter instanceof Map)) {
+			return null;
+		}
+		Map<?, ?> params = (Map<?, ?>) parameter;
+		String method = statementId.substring(STATEMENT_PREFIX.length());
+		switch (method) {
+			case "create":
+				return ContentChangeEvent.of(Constants.TABLE_CONTENT, Operation.CREATE, params);
+			case "createPublic":
+				return ContentChangeEvent.of(Constants.TABLE_CONTENT_PUBLIC, Operation.CREATE, params);
+			case "update":
+				return ContentChangeEvent.of(Constants.TABLE_CONTENT, Operation.UPDATE, params);
+			case "updatePublic":
+				return ContentChangeEvent.of(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE, params);
+			case "delete":
+				Object table = params.containsKey("table") ? params.get("table") : null;
+				if (Constants.TABLE_CONTENT.equals(table) || Constants.TABLE_CONTENT_PUBLIC.equals(table)) {
+					return ContentChangeEvent.of((String) table, Operation.DELETE, params);
+				}
+				return null;
+			default:
+				return null;
+		}
+	}
+}
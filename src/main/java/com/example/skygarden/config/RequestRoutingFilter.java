@@ -2,21 +2,32 @@ package com.example.skygarden.config;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.servlet.HandlerExecutionChain;
-import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
+import com.example.skygarden.bean.PageModel;
+import com.example.skygarden.bean.RenderedPage;
+import com.example.skygarden.config.RouteClassifier.Decision;
 import com.example.skygarden.constants.Constants;
-import com.example.skygarden.logic.CommonProc;
 import com.example.skygarden.logic.Content;
-import com.example.skygarden.mapper.ContentMapper;
+import com.example.skygarden.logic.HtmlShell;
+import com.example.skygarden.service.AssetFingerprintService;
+import com.example.skygarden.service.FileDeliveryService;
+import com.example.skygarden.service.PageRenderService;
+import com.example.skygarden.service.PageRenderService.Slots;
+import com.example.skygarden.service.PageCacheService;
+import com.example.skygarden.service.PageCacheService.CachedPage;
+import com.example.skygarden.service.UrlRoutingTable;
+import com.example.skygarden.service.UrlRoutingTable.Route;
+import com.example.skygarden.util.CompressionUtil;
+import com.example.skygarden.util.HttpCacheUtil;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -33,40 +44,66 @@ import lombok.extern.slf4j.Slf4j;
  * 
  * 処理フロー:
  * 1. /webadmin/** パスは常にコントローラーへ転送（早期リターン）
- * 2. Spring MVCのハンドラーマッピングをチェック
- *    - マッピングが存在する場合: フィルターチェーンを継続
- * 3. content_public テーブルでURLを検索
- *    - コンテンツが見つかった場合: タイプに応じてレスポンスを生成
+ * 2. RouteClassifier でパスを判定（判定結果はパス単位でキャッシュ）
+ *    - コントローラーのマッピングに一致する場合: フィルターチェーンを継続
+ * 3. 公開ページキャッシュを確認
+ *    - キャッシュが存在する場合: データベースを参照せずにキャッシュ内容を返却
+ *    - 同じURLを他のリクエストが描画中で、無効化前のページが残っている場合: 無効化前のページを返却（stale-while-revalidate）
+ * 4. ルーティングテーブルを確認
+ *    - 公開URLに存在しない場合: データベースを参照せずに404エラー処理へ
+ *    - 静的リソースで公開URLに存在しない場合: 静的リソースとして配信
+ * 5. content_rendered テーブルでURLを検索（公開時に描画済みのページ）
+ *    - 見つかった場合: テンプレートの組み立てを行わずに返却
+ * 6. content_public テーブルでURLを検索（テンプレート情報も同じクエリで取得）
+ *    - コンテンツが見つかった場合: タイプに応じてレスポンスを生成（HTML・CSS・JSは描画結果を content_rendered に登録）
+ *      同じURLへの同時リクエストの描画は PageRenderService.renderShared で1回にまとめる
  *    - 見つからない場合: 404エラー処理へ
  * 
+ * 条件付きGET（HTML・CSS・JS）:
+ * - ETag: 公開コンテンツ・テンプレート・構成要素・外枠HTMLのバージョンから生成（弱いETag）
+ * - Last-Modified: 公開コンテンツ・テンプレート・構成要素の更新日時のうち最も新しいもの
+ * - If-None-Match / If-Modified-Since が一致する場合は描画せずに304を返す（キャッシュ済みの場合も同様）
+ * - Cache-Control: app.http-cache.* でコンテンツタイプごとに設定
+ * 
+ * 圧縮（キャッシュ有効時）:
+ * - キャッシュ登録時に PageCacheService が gzip / deflate 版を作成する
+ * - Accept-Encoding に応じて圧縮版を選択し、Content-Encoding と Vary: Accept-Encoding を設定する
+ * 
  * コンテンツタイプ別の処理:
  * - 通常コンテンツ（空文字列）: HTMLページとして返却
  *   - テンプレートヘッダー + コンテンツヘッダー + コンテンツ本文
- *   - original.html をテンプレートとして使用
+ *   - original.html をテンプレートとして使用（HtmlShellService で分割済みのものを再利用）
+ *   - 描画処理は PageRenderService に委譲（公開時の事前描画と同じ処理）
  * - CSS（stylesheet）: text/css として返却
  * - JavaScript（script）: application/javascript として返却
  * - 画像（image）: バイナリファイルとして返却（適切なMIMEタイプ）
  * - ファイル（file）: ダウンロードファイルとして返却
+ *   - 画像・ファイルは FileDeliveryService で配信（transferTo / sendfile、Range / If-Range 対応）
+ * - フィンガープリント付きURL（/css/site.0123456789.css、/_bundle/3,5.0123456789.css）:
+ *   AssetFingerprintService で解決し、app.http-cache.fingerprinted（immutable）で返却
+ *   - アップロード時に登録したメタデータ（file_metadata）があれば、MIMEタイプ・サイズ・ETag にそれを使用
  * 
  * プレースホルダー置換:
  * - ###title###: コンテンツタイトル
  * - ###head###: ヘッダー部分（CSS、JS参照など）
  * - ###content###: コンテンツ本文（テンプレート・構成要素適用後）
  * 
- * @see Content#displayContent(String) コンテンツ表示処理
- * @see Content#getTemplateHead(String, String) テンプレートヘッダー取得
+ * @see Content#resolvePage(String) ページ情報取得
+ * @see Content#displayPage(PageModel) コンテンツ表示処理
+ * @see Content#getPageHead(PageModel) ヘッダー取得
+ * @see PageCacheService 公開ページキャッシュ
+ * @see PageRenderService 公開ページ描画
+ * @see UrlRoutingTable 公開URLルーティングテーブル
+ * @see AssetFingerprintService フィンガープリント付きURL
+ * @see RouteClassifier リクエストパスの振り分け判定
  */
 @Component
 @Slf4j
 public class RequestRoutingFilter extends OncePerRequestFilter {
 	
-	/** Spring MVCのリクエストマッピングハンドラー */
-	@Autowired
-	private RequestMappingHandlerMapping handlerMapping;
-	
-	/** コンテンツ管理用のMyBatis Mapper */
+	/** リクエストパスの振り分け判定 */
 	@Autowired
-	private ContentMapper mapper;
+	private RouteClassifier routeClassifier;
 	
 	/** コンテンツ管理のビジネスロジック */
 	@Autowired
@@ -75,6 +112,26 @@ public class RequestRoutingFilter extends OncePerRequestFilter {
 	/** アプリケーション設定プロパティ */
 	@Autowired
 	private AppProperties appProperties;
+	
+	/** 公開ページキャッシュ */
+	@Autowired
+	private PageCacheService pageCache;
+	
+	/** 公開ページ描画 */
+	@Autowired
+	private PageRenderService pageRenderer;
+	
+	/** 公開URLルーティングテーブル */
+	@Autowired
+	private UrlRoutingTable routingTable;
+	
+	/** 画像・ファイルの配信 */
+	@Autowired
+	private FileDeliveryService fileDelivery;
+	
+	/** スタイルシート・スクリプトのフィンガープリント付きURL */
+	@Autowired
+	private AssetFingerprintService assetFingerprints;
 
 	/**
 	 * リクエストをフィルタリングする
@@ -93,7 +150,6 @@ public class RequestRoutingFilter extends OncePerRequestFilter {
 			throws ServletException, IOException {
 		String path = request.getRequestURI();
 		String contentPath = path;
-		String rootpath = CommonProc.getRootPath();
 
 		// /webadmin/** パスは常にコントローラーに渡す（早期リターン）
 		if (path.startsWith(Constants.PATH_WEBADMIN)) {
@@ -102,9 +158,10 @@ public class RequestRoutingFilter extends OncePerRequestFilter {
 		}
 
 		//1.Mapping
+		Decision decision = Decision.CONTENT;
 		try {
-			HandlerExecutionChain handlerExecutionChain = handlerMapping.getHandler(request);
-			if (handlerExecutionChain != null) {
+			decision = routeClassifier.classify(path);
+			if (decision == Decision.CONTROLLER) {
 				filterChain.doFilter(request, response);
 				return;
 			}
@@ -117,52 +174,89 @@ public class RequestRoutingFilter extends OncePerRequestFilter {
 			if (contentPath.startsWith("/")) {
 				contentPath = contentPath.substring(1);
 			}
-			HashMap<String, String> result = mapper.searchByUrl(contentPath, Constants.TABLE_CONTENT_PUBLIC);
-			if (result != null && !result.isEmpty() && !Constants.EMPTY_STRING.equals(result.get("id"))) {
-				String id = result.get("id");
-				String type = result.get("type");
-				String head = Constants.EMPTY_STRING;
-				String title = Constants.EMPTY_STRING;
-				String contentResult = Constants.EMPTY_STRING;
-				String originalFilePath = Constants.EMPTY_STRING;
-				if (type == null || type.equals(Constants.CONTENT_TYPE_CONTENT)) {
-					originalFilePath = rootpath + "/original.html";
-					title = result.get("title");
-					head = content.getTemplateHead(id, Constants.TABLE_CONTENT_PUBLIC) + content.getHead(id, Constants.TABLE_CONTENT_PUBLIC);
-					contentResult = content.displayContent(id);
-					response.setContentType("text/html; charset=UTF-8");
-				} else if (type.equals(Constants.CONTENT_TYPE_STYLESHEET)) {
-					originalFilePath = rootpath + "/original.stylesheet.html";
-					contentResult = content.getStylesheet(id, Constants.TABLE_CONTENT_PUBLIC);
-					response.setContentType("text/css");
-				} else if (type.equals(Constants.CONTENT_TYPE_SCRIPT)) {
-					originalFilePath = rootpath + "/original.script.html";
-					contentResult = content.getContent(id, Constants.TABLE_CONTENT_PUBLIC);
-					response.setContentType("application/javascript");
+			CachedPage cached = pageCache.get(contentPath);
+			if (cached == null && pageRenderer.isRendering(contentPath)) {
+				// 他のリクエストが描画中の間は、描画を待たずに無効化前のページを返す
+				cached = pageCache.getStale(contentPath);
+			}
+			if (cached != null) {
+				writeCached(request, response, cached);
+				return;
+			}
+			// フィンガープリント付きURL（公開URLには存在しない）のスタイルシート・スクリプト
+			AssetFingerprintService.Resolved fingerprinted = assetFingerprints.resolve(contentPath);
+			if (fingerprinted != null) {
+				writeFingerprinted(request, response, contentPath, fingerprinted);
+				return;
+			}
+			Route route = routingTable.lookup(contentPath);
+			if (route == null && (routingTable.isLoaded() || decision == Decision.STATIC)) {
+				// 公開URLに存在しないため、データベースを参照せずに404へ
+				filterChain.doFilter(request, response);
+				return;
+			}
+			long cacheGeneration = pageCache.currentGeneration();
+			long renderGeneration = pageRenderer.currentGeneration();
+			if (route == null || PageRenderService.isRenderable(route.getType())) {
+				// 公開時に描画済みのページを1回のクエリで取得する（テンプレートの組み立ては行わない）
+				RenderedPage rendered = pageRenderer.findRendered(contentPath);
+				if (rendered != null) {
+					String etag = PageRenderService.etag(rendered.getContentHash(), rendered.getShellVersion());
+					long lastModified = rendered.getLastModified() != null ? rendered.getLastModified() : -1;
+					String cacheControl = getCacheControl(rendered.getType());
+					if (HttpCacheUtil.isNotModified(request, etag, lastModified)) {
+						HttpCacheUtil.writeNotModified(response, etag, lastModified, cacheControl);
+						return;
+					}
+					writeRendered(request, response, contentPath, cacheGeneration, rendered.getId(),
+							pageRenderer.getContentType(rendered.getType()), rendered.getBody(), etag, lastModified, cacheControl);
+					return;
+				}
+			}
+			// 公開コンテンツとテンプレートを1回のクエリで取得する
+			PageModel page = content.resolvePage(contentPath);
+			if (page != null) {
+				String id = page.getId();
+				String type = page.getType();
+				if (PageRenderService.isRenderable(type)) {
+					// 検証用ヘッダーは描画前に計算し、条件付きリクエストには描画せずに応答する
+					HtmlShell shell = pageRenderer.getShell(type);
+					String contentType = pageRenderer.getContentType(type);
+					String contentHash = content.getPageVersion(page);
+					String etag = PageRenderService.etag(contentHash, pageRenderer.getRenderVersion(type, shell));
+					long lastModified = content.getPageLastModified(page);
+					String cacheControl = getCacheControl(type);
+					if (HttpCacheUtil.isNotModified(request, etag, lastModified)) {
+						// 描画を行わずに304を返す
+						HttpCacheUtil.writeNotModified(response, etag, lastModified, cacheControl);
+						return;
+					}
+					if (pageCache.isEnabled() || pageRenderer.isEnabled()) {
+						// 保持するため、ページ全体を一度だけバイト配列に変換する
+						// 公開前から存在するページ・破棄されたページは、ここで描画結果を登録する
+						// 同じURLを同時に描画しようとしたリクエストは、1回の描画結果を共有する
+						RenderedPage rendered = pageRenderer.renderShared(contentPath, page, shell, contentHash,
+								lastModified, renderGeneration);
+						writeRendered(request, response, contentPath, cacheGeneration, id, contentType,
+								rendered.getBody(), etag, lastModified, cacheControl);
+					} else {
+						// 保持しない場合はページ全体を生成せずに直接書き込む
+						Slots slots = pageRenderer.getSlots(page);
+						response.setContentType(contentType);
+						response.setCharacterEncoding("UTF-8");
+						HttpCacheUtil.setValidators(response, etag, lastModified, cacheControl);
+						response.setContentLengthLong(shell.contentLength(slots.getTitle(), slots.getHead(), slots.getContent()));
+						try (OutputStream out = response.getOutputStream()) {
+							shell.writeTo(out, slots.getTitle(), slots.getHead(), slots.getContent());
+						}
+					}
+					return;
 				} else if (type.equals(Constants.CONTENT_TYPE_IMAGE)) {
 					// 画像ファイルの配信
-					String savedFileName = result.get("content");
+					String savedFileName = page.getContent();
 					if (savedFileName != null && !savedFileName.isEmpty()) {
-						String uploadDir = appProperties.getFile().getUploadDir();
-						Path imagePath = Paths.get(uploadDir, savedFileName);
-						
-						if (Files.exists(imagePath)) {
-							// MIMEタイプを判定
-							String mimeType = Files.probeContentType(imagePath);
-							if (mimeType == null) {
-								mimeType = "application/octet-stream";
-							}
-							
-							response.setContentType(mimeType);
-							response.setContentLengthLong(Files.size(imagePath));
-							
-							// キャッシュヘッダーを設定（1日間）
-							response.setHeader("Cache-Control", "public, max-age=86400");
-							
-							try (OutputStream out = response.getOutputStream()) {
-								Files.copy(imagePath, out);
-								out.flush();
-							}
+						Path imagePath = Paths.get(appProperties.getFile().getUploadDir(), savedFileName);
+						if (deliverUpload(request, response, page, imagePath, null, appProperties.getHttpCache().getImage())) {
 							return;
 						}
 					}
@@ -171,34 +265,18 @@ public class RequestRoutingFilter extends OncePerRequestFilter {
 					return;
 				} else if (type.equals(Constants.CONTENT_TYPE_FILE)) {
 					// ファイルのダウンロード配信
-					String savedFileName = result.get("content");
-					String originalFileName = result.get("head"); // 元のファイル名
+					String savedFileName = page.getContent();
+					String originalFileName = page.getHead(); // 元のファイル名
 					if (savedFileName != null && !savedFileName.isEmpty()) {
-						String uploadDir = appProperties.getFile().getFileUploadDir();
-						Path filePath = Paths.get(uploadDir, savedFileName);
-						
-						if (Files.exists(filePath)) {
-							// MIMEタイプを判定
-							String mimeType = Files.probeContentType(filePath);
-							if (mimeType == null) {
-								mimeType = "application/octet-stream";
-							}
-							
-							response.setContentType(mimeType);
-							response.setContentLengthLong(Files.size(filePath));
-							
-							// ダウンロード用のファイル名を設定（元のファイル名を使用）
-							String downloadFileName = (originalFileName != null && !originalFileName.isEmpty()) 
-								? originalFileName 
-								: savedFileName;
-							// 日本語ファイル名対応（RFC 5987）
-							String encodedFileName = java.net.URLEncoder.encode(downloadFileName, "UTF-8").replace("+", "%20");
-							response.setHeader("Content-Disposition", "attachment; filename=\"" + downloadFileName + "\"; filename*=UTF-8''" + encodedFileName);
-							
-							try (OutputStream out = response.getOutputStream()) {
-								Files.copy(filePath, out);
-								out.flush();
-							}
+						Path filePath = Paths.get(appProperties.getFile().getFileUploadDir(), savedFileName);
+						// ダウンロード用のファイル名を設定（元のファイル名を使用）
+						String downloadFileName = (originalFileName != null && !originalFileName.isEmpty()) 
+							? originalFileName 
+							: savedFileName;
+						// 日本語ファイル名対応（RFC 5987）
+						String encodedFileName = java.net.URLEncoder.encode(downloadFileName, "UTF-8").replace("+", "%20");
+						String disposition = "attachment; filename=\"" + downloadFileName + "\"; filename*=UTF-8''" + encodedFileName;
+						if (deliverUpload(request, response, page, filePath, disposition, appProperties.getHttpCache().getFile())) {
 							return;
 						}
 					}
@@ -206,21 +284,6 @@ public class RequestRoutingFilter extends OncePerRequestFilter {
 					filterChain.doFilter(request, response);
 					return;
 				}
-				
-				// 画像以外のコンテンツの場合のみ処理を継続
-				if (originalFilePath.isEmpty()) {
-					filterChain.doFilter(request, response);
-					return;
-				}
-				
-				String original = CommonProc.readFile(originalFilePath);
-				original = original.replaceAll(Constants.TEMPLATE_TITLE_PLACEHOLDER, title);
-				original = original.replaceAll(Constants.TEMPLATE_HEAD_PLACEHOLDER, head);
-				original = original.replaceAll(Constants.TEMPLATE_CONTENT_PLACEHOLDER, contentResult);
-				response.setCharacterEncoding("UTF-8");
-				response.getWriter().write(original);
-				response.getWriter().close();
-				return;
 			}
 		} catch (Exception e) {
 			log.info("[ContentPage Phase Error] " + e.toString());
@@ -229,4 +292,176 @@ public class RequestRoutingFilter extends OncePerRequestFilter {
 		filterChain.doFilter(request, response);
 		return;
 	}
+	
+	/**
+	 * 描画済みのページをレスポンスに書き込む
+	 * 公開ページキャッシュが有効な場合は圧縮版を作成してキャッシュに登録する
+	 * 
+	 * @param request HTTPリクエスト
+	 * @param response HTTPレスポンス
+	 * @param contentPath 公開URL
+	 * @param cacheGeneration 取得開始時のキャッシュ世代番号
+	 * @param id コンテンツID
+	 * @param contentType Content-Type ヘッダーの値
+	 * @param body レスポンス本文（UTF-8エンコード済み）
+	 * @param etag ETag ヘッダーの値
+	 * @param lastModified 最終更新日時（エポックミリ秒）
+	 * @param cacheControl Cache-Control ヘッダーの値
+	 * @throws IOException IO例外
+	 */
+	private void writeRendered(HttpServletRequest request, HttpServletResponse response, String contentPath,
+			long cacheGeneration, String id, String contentType, byte[] body, String etag, long lastModified,
+			String cacheControl) throws IOException {
+		if (pageCache.isEnabled()) {
+			CachedPage page = pageCache.createPage(id, contentType, body, etag, lastModified, cacheControl);
+			pageCache.put(contentPath, page, cacheGeneration);
+			writePage(request, response, page);
+			return;
+		}
+		response.setContentType(contentType);
+		response.setCharacterEncoding("UTF-8");
+		HttpCacheUtil.setValidators(response, etag, lastModified, cacheControl);
+		response.setContentLength(body.length);
+		try (OutputStream out = response.getOutputStream()) {
+			out.write(body);
+		}
+	}
+	
+	/**
+	 * フィンガープリント付きURLのスタイルシート・スクリプトをレスポンスに書き込む
+	 * ハッシュが現在の内容と一致する場合は、URLの内容が変わらないため長期間のキャッシュを許可してキャッシュに登録する
+	 * 一致しない場合（更新前のURL）は現在の内容を通常のキャッシュ設定で返し、キャッシュには登録しない
+	 * 
+	 * @param request HTTPリクエスト
+	 * @param response HTTPレスポンス
+	 * @param contentPath フィンガープリント付きURL
+	 * @param fingerprinted 解決結果
+	 * @throws IOException IO例外
+	 */
+	private void writeFingerprinted(HttpServletRequest request, HttpServletResponse response, String contentPath,
+			AssetFingerprintService.Resolved fingerprinted) throws IOException {
+		AssetFingerprintService.Asset asset = fingerprinted.getAsset();
+		String etag = HttpCacheUtil.weakEtag(asset.getFingerprint());
+		String cacheControl = fingerprinted.isCurrent()
+				? appProperties.getHttpCache().getFingerprinted()
+				: getCacheControl(asset.getType());
+		if (HttpCacheUtil.isNotModified(request, etag, -1)) {
+			HttpCacheUtil.writeNotModified(response, etag, -1, cacheControl);
+			return;
+		}
+		writeRendered(request, response, contentPath, pageCache.currentGeneration(),
+				fingerprinted.isCurrent() ? asset.getId() : null, pageRenderer.getContentType(asset.getType()),
+				asset.getBody().getBytes(StandardCharsets.UTF_8), etag, -1, cacheControl);
+	}
+	
+	/**
+	 * キャッシュ済みのページをレスポンスに書き込む
+	 * If-None-Match / If-Modified-Since が一致する場合は304を返す
+	 * 
+	 * @param request HTTPリクエスト
+	 * @param response HTTPレスポンス
+	 * @param cached キャッシュ済みのページ
+	 * @throws IOException IO例外
+	 */
+	private void writeCached(HttpServletRequest request, HttpServletResponse response, CachedPage cached) throws IOException {
+		if (HttpCacheUtil.isNotModified(request, cached.getEtag(), cached.getLastModified())) {
+			if (cached.hasCompressedVariants()) {
+				response.addHeader("Vary", "Accept-Encoding");
+			}
+			HttpCacheUtil.writeNotModified(response, cached.getEtag(), cached.getLastModified(), cached.getCacheControl());
+			return;
+		}
+		writePage(request, response, cached);
+	}
+	
+	/**
+	 * 生成済みのページをレスポンスに書き込む
+	 * Accept-Encoding に応じて圧縮済みの本文を選択する（圧縮処理は行わない）
+	 * 
+	 * @param request HTTPリクエスト
+	 * @param response HTTPレスポンス
+	 * @param page 生成済みのページ
+	 * @throws IOException IO例外
+	 */
+	private void writePage(HttpServletRequest request, HttpServletResponse response, CachedPage page) throws IOException {
+		String encoding = CompressionUtil.selectEncoding(request.getHeader("Accept-Encoding"),
+				page.getGzipBody() != null, page.getDeflateBody() != null);
+		byte[] body = page.getBody(encoding);
+		response.setContentType(page.getContentType());
+		response.setCharacterEncoding("UTF-8");
+		if (page.hasCompressedVariants()) {
+			response.addHeader("Vary", "Accept-Encoding");
+		}
+		if (encoding != null) {
+			response.setHeader("Content-Encoding", encoding);
+		}
+		HttpCacheUtil.setValidators(response, page.getEtag(), page.getLastModified(), page.getCacheControl());
+		response.setContentLength(body.length);
+		try (OutputStream out = response.getOutputStream()) {
+			out.write(body);
+		}
+	}
+	
+	/**
+	 * アップロードされた画像・ファイルを配信する
+	 * アップロード時に登録したメタデータがある場合は、ファイルシステムに問い合わせずに
+	 * Content-Type / Content-Length / ETag（SHA-256）を設定し、本文の送信時のみファイルを開く
+	 * メタデータがない場合（導入前のファイル）はファイルシステムから情報を取得する
+	 * 
+	 * @param request HTTPリクエスト
+	 * @param response HTTPレスポンス
+	 * @param page ページ情報
+	 * @param path 配信するファイル
+	 * @param disposition Content-Disposition ヘッダーの値（nullの場合は設定しない）
+	 * @param cacheControl Cache-Control ヘッダーの値
+	 * @return 配信した場合true、ファイルが存在しない場合false
+	 * @throws IOException IO例外
+	 */
+	private boolean deliverUpload(HttpServletRequest request, HttpServletResponse response, PageModel page, Path path,
+			String disposition, String cacheControl) throws IOException {
+		if (page.getFileSize() != null && page.getFileLastModified() != null && page.getFileSha256() != null) {
+			try {
+				if (disposition != null) {
+					response.setHeader("Content-Disposition", disposition);
+				}
+				fileDelivery.deliver(request, response, path, page.getFileMimeType(), page.getFileSize(),
+						page.getFileLastModified(), "\"" + page.getFileSha256() + "\"", cacheControl);
+				return true;
+			} catch (NoSuchFileException e) {
+				// メタデータはあるがファイルが削除されている場合は404へ
+				response.reset();
+				return false;
+			}
+		}
+		if (!Files.exists(path)) {
+			return false;
+		}
+		// MIMEタイプを判定
+		String mimeType = Files.probeContentType(path);
+		if (mimeType == null) {
+			mimeType = "application/octet-stream";
+		}
+		if (disposition != null) {
+			response.setHeader("Content-Disposition", disposition);
+		}
+		fileDelivery.deliver(request, response, path, mimeType, cacheControl);
+		return true;
+	}
+	
+	/**
+	 * コンテンツタイプに対応する Cache-Control ヘッダーの値を取得する
+	 * 
+	 * @param type コンテンツタイプ
+	 * @return Cache-Control ヘッダーの値（空文字の場合は出力しない）
+	 */
+	private String getCacheControl(String type) {
+		AppProperties.HttpCache httpCache = appProperties.getHttpCache();
+		if (Constants.CONTENT_TYPE_STYLESHEET.equals(type)) {
+			return httpCache.getStylesheet();
+		}
+		if (Constants.CONTENT_TYPE_SCRIPT.equals(type)) {
+			return httpCache.getScript();
+		}
+		return httpCache.getPage();
+	}
 }
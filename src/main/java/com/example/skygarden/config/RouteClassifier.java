@@ -0,0 +1,195 @@
+package com.example.skygarden.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * リクエストパスの振り分け判定
+ *
+ * RequestRoutingFilter が「コントローラーに渡すか」「CMSコンテンツとして処理するか」を判定するために使用します。
+ * 登録済みのリクエストマッピングと静的リソースの一覧を初回利用時に一度だけ構築し、
+ * 判定結果をパス単位でキャッシュするため、リクエストごとのハンドラー解決（HandlerExecutionChain の生成）が不要になります。
+ *
+ * 判定結果:
+ * - CONTROLLER: Spring MVCのマッピングに一致するパス
+ * - STATIC: classpath:/static/ 配下に存在するファイル
+ * - CONTENT: 上記以外（CMSコンテンツ候補）
+ *
+ * 注意事項:
+ * 判定はパスのみで行い、HTTPメソッド等の条件は考慮しません。
+ * メソッドが一致しない場合の応答（405など）はコントローラー側に委ねます。
+ * キャッシュ件数が上限に達した場合は全件破棄して作り直します。
+ *
+ * @see RequestRoutingFilter 利用元
+ */
+@Component
+@Slf4j
+public class RouteClassifier {
+
+	/** 判定結果のキャッシュ上限件数 */
+	private static final int MAX_CACHED_PATHS = 10000;
+
+	/** 静的リソースの配置場所 */
+	private static final String STATIC_LOCATION = "/static/";
+
+	/**
+	 * 判定結果
+	 */
+	public enum Decision {
+		/** コントローラーのマッピングに一致 */
+		CONTROLLER,
+		/** 静的リソース */
+		STATIC,
+		/** CMSコンテンツ候補 */
+		CONTENT
+	}
+
+	/** Spring MVCのリクエストマッピングハンドラー */
+	@Autowired
+	private RequestMappingHandlerMapping handlerMapping;
+
+	/** パス → 判定結果 */
+	private final Map<String, Decision> decisions = new ConcurrentHashMap<>();
+
+	/** ワイルドカードを含まないマッピングパス */
+	private volatile Set<String> exactPaths;
+
+	/** ワイルドカード・パス変数を含むマッピングパターン */
+	private volatile List<PathPattern> patterns;
+
+	/** 静的リソースのパス */
+	private volatile Set<String> staticPaths;
+
+	/**
+	 * リクエストパスを判定する
+	 *
+	 * @param path リクエストパス（先頭スラッシュあり）
+	 * @return 判定結果
+	 */
+	public Decision classify(String path) {
+		Decision decision = decisions.get(path);
+		if (decision != null) {
+			return decision;
+		}
+		initialize();
+		decision = resolve(path);
+		if (decisions.size() >= MAX_CACHED_PATHS) {
+			decisions.clear();
+		}
+		decisions.put(path, decision);
+		return decision;
+	}
+
+	/**
+	 * マッピング・静的リソースの一覧を構築し直し、判定結果のキャッシュを破棄する
+	 */
+	public synchronized void refresh() {
+		Set<String> exact = new HashSet<>();
+		List<PathPattern> patternList = new ArrayList<>();
+		for (RequestMappingInfo info : handlerMapping.getHandlerMethods().keySet()) {
+			for (String pattern : info.getPatternValues()) {
+				if (isLiteral(pattern)) {
+					exact.add(pattern);
+				} else {
+					patternList.add(PathPatternParser.defaultInstance.parse(pattern));
+				}
+			}
+		}
+		exactPaths = Collections.unmodifiableSet(exact);
+		patterns = Collections.unmodifiableList(patternList);
+		staticPaths = Collections.unmodifiableSet(scanStaticResources());
+		decisions.clear();
+		log.info("[RouteClassifier] " + exact.size() + " exact mappings, " + patternList.size()
+				+ " pattern mappings, " + staticPaths.size() + " static resources");
+	}
+
+	/**
+	 * 未構築の場合のみ一覧を構築する
+	 */
+	private void initialize() {
+		if (exactPaths == null) {
+			synchronized (this) {
+				if (exactPaths == null) {
+					refresh();
+				}
+			}
+		}
+	}
+
+	/**
+	 * 一覧からパスを判定する
+	 *
+	 * @param path リクエストパス
+	 * @return 判定結果
+	 */
+	private Decision resolve(String path) {
+		if (exactPaths.contains(path)) {
+			return Decision.CONTROLLER;
+		}
+		if (!patterns.isEmpty()) {
+			PathContainer container = PathContainer.parsePath(path);
+			for (PathPattern pattern : patterns) {
+				if (pattern.matches(container)) {
+					return Decision.CONTROLLER;
+				}
+			}
+		}
+		if (staticPaths.contains(path)) {
+			return Decision.STATIC;
+		}
+		return Decision.CONTENT;
+	}
+
+	/**
+	 * ワイルドカード・パス変数を含まないパターンかどうか
+	 *
+	 * @param pattern マッピングパターン
+	 * @return 含まない場合true
+	 */
+	private boolean isLiteral(String pattern) {
+		return pattern.indexOf('{') < 0 && pattern.indexOf('*') < 0 && pattern.indexOf('?') < 0;
+	}
+
+	/**
+	 * classpath:/static/ 配下のファイルを列挙する
+	 *
+	 * @return 静的リソースのパス（先頭スラッシュあり）
+	 */
+	private Set<String> scanStaticResources() {
+		Set<String> paths = new HashSet<>();
+		try {
+			Resource[] resources = new PathMatchingResourcePatternResolver().getResources("classpath*:static/**");
+			for (Resource resource : resources) {
+				if (!resource.isReadable()) {
+					continue;
+				}
+				String url = resource.getURL().toString();
+				int index = url.lastIndexOf(STATIC_LOCATION);
+				if (index >= 0 && index + STATIC_LOCATION.length() < url.length()) {
+					paths.add(url.substring(index + STATIC_LOCATION.length() - 1));
+				}
+			}
+		} catch (Exception e) {
+			log.info("[RouteClassifier] static resource scan error: " + e.toString());
+		}
+		return paths;
+	}
+}
@@ -182,4 +182,7 @@ public final class Constants {
 		{ "name", "ユーザ名(降順)" },
 		{ "name desc", "ユーザ名(昇順)" }
 	};
+	
+	public static final String DEFAULT_SORT_CONTENT = "updated desc";
+	public static final String DEFAULT_SORT_USER = "id";
 }
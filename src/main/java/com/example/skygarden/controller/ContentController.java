@@ -16,9 +16,12 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.example.skygarden.bean.ContentBean;
 import com.example.skygarden.bean.ListBean;
+import com.example.skygarden.bean.PagerBean;
 import com.example.skygarden.constants.Constants;
 import com.example.skygarden.logic.Content;
+import com.example.skygarden.logic.ListCursor;
 import com.example.skygarden.logic.Setting;
+import com.example.skygarden.logic.TemplateLayout;
 import com.example.skygarden.service.OpenAIService;
 import com.example.skygarden.util.ScreenNameConverter;
 
@@ -148,17 +151,16 @@ public class ContentController {
 					head = result.get("head") != null ? result.get("head") : Constants.EMPTY_STRING;
 					contentStr = result.get("content") != null ? result.get("content") : Constants.EMPTY_STRING;
 					if (!contentStr.equals(Constants.EMPTY_STRING)) {
-						String[] elements = contentStr.split(",");
-						for (String element : elements) {
-							if (element.equals(Constants.TEMPLATE_CONTENT_PLACEHOLDER)) {
+						TemplateLayout layout = TemplateLayout.parse(contentStr);
+						// 構成要素は1回のクエリでまとめて取得する
+						HashMap<String, HashMap<String, String>> elements = content.doSearchByIds(layout.getElementIds());
+						for (TemplateLayout.Segment segment : layout.getSegments()) {
+							if (segment.isContent()) {
 								HashMap<String, String> m = new HashMap<>();
 								m.put("content", Constants.FLAG_YES);
 								eleResults.add(m);
 							} else {
-								String elementId = element.replace(Constants.ELEMENT_PREFIX, Constants.EMPTY_STRING)
-										.replace(Constants.ELEMENT_FUNCTION_START, Constants.EMPTY_STRING)
-										.replace(Constants.ELEMENT_FUNCTION_END, Constants.EMPTY_STRING);
-								HashMap<String, String> eleResult = content.doSearch(elementId);
+								HashMap<String, String> eleResult = elements.get(segment.getElementId());
 								if (eleResult != null) {
 									HashMap<String, String> m = new HashMap<>();
 									m.put("id", eleResult.get("id"));
@@ -273,6 +275,7 @@ public class ContentController {
 	 * @param sort ソート順
 	 * @param page ページ番号
 	 * @param keyword 検索キーワード（オプション）
+	 * @param cursor キーセットページネーションのカーソル（オプション、指定時はページ番号の代わりに使用）
 	 * @param request HTTPリクエスト
 	 * @param response HTTPレスポンス
 	 * @param session HTTPセッション
@@ -281,7 +284,7 @@ public class ContentController {
 	 */
 	@GetMapping(Constants.API_GET_LIST)
 	@ResponseBody
-	public ListBean getListApi(@RequestParam(defaultValue = Constants.EMPTY_STRING) String mode, @RequestParam(defaultValue = Constants.EMPTY_STRING) String sort, @RequestParam(defaultValue = "1") String page, @RequestParam(defaultValue = Constants.EMPTY_STRING) String keyword, HttpServletRequest request, HttpServletResponse response, HttpSession session) throws IOException {
+	public ListBean getListApi(@RequestParam(defaultValue = Constants.EMPTY_STRING) String mode, @RequestParam(defaultValue = Constants.EMPTY_STRING) String sort, @RequestParam(defaultValue = "1") String page, @RequestParam(defaultValue = Constants.EMPTY_STRING) String keyword, @RequestParam(defaultValue = Constants.EMPTY_STRING) String cursor, HttpServletRequest request, HttpServletResponse response, HttpSession session) throws IOException {
 		ListBean bean = new ListBean();
 		String[][] sortOptions = Constants.SORT_OPTIONS_CONTENT;
 		StringBuffer sortOutput = new StringBuffer();
@@ -314,22 +317,36 @@ public class ContentController {
 		}
 		
 		List<HashMap<String, String>> results;
-		String pagerOutput;
+		PagerBean pager;
 		
 		// キーワードが指定されている場合は検索、そうでない場合は通常の一覧取得
-		if (keyword != null && !keyword.trim().isEmpty()) {
+		if (!cursor.isEmpty() || content.isKeysetPagination()) {
+			// キーセットページネーション（前後のページのカーソルを返す）
+			boolean search = keyword != null && !keyword.trim().isEmpty();
+			ListCursor.Page cursorPage = search
+					? content.searchListByCursor(sort, cursor, mode, keyword)
+					: content.getListByCursor(sort, cursor, mode);
+			results = cursorPage.getResults();
+			pager = content.getCursorPager(cursorPage, mode, sort, search ? keyword : Constants.EMPTY_STRING);
+			if (search) {
+				bean.setSnippets(content.getSearchSnippets(results, keyword));
+			}
+			bean.setNextCursor(cursorPage.getNextCursor() != null ? cursorPage.getNextCursor() : Constants.EMPTY_STRING);
+			bean.setPrevCursor(cursorPage.getPrevCursor() != null ? cursorPage.getPrevCursor() : Constants.EMPTY_STRING);
+		} else if (keyword != null && !keyword.trim().isEmpty()) {
 			results = content.searchList(sort, thisPage, mode, keyword);
-			pagerOutput = content.getSearchPager(thisPage, mode, sort, keyword);
+			pager = content.getSearchPager(thisPage, mode, sort, keyword);
+			bean.setSnippets(content.getSearchSnippets(results, keyword));
 		} else {
 			results = content.getList(sort, thisPage, mode);
-			pagerOutput = content.getPager(thisPage, mode, sort);
+			pager = content.getPager(thisPage, mode, sort);
 		}
 
 		bean.setLoginName(loginName);
 		bean.setScreenName(screenName);
 		bean.setRegisterMessage(registerMessage);
 		bean.setSortOutput(sortOutput.toString());
-		bean.setPagerOutput(pagerOutput);
+		bean.setPager(pager);
 		bean.setResults(results);
 		return bean;
 	}
@@ -402,17 +419,24 @@ public class ContentController {
 	 * 
 	 * @param type コンテンツタイプ（フィルタリング用、空文字列はすべて）
 	 * @param keyword 検索キーワード（オプション）
-	 * @param sort ソート順（デフォルト: updated desc）
+	 * @param sort ソート順（省略時: 検索の場合は関連度順、それ以外は updated desc）
 	 * @param page ページ番号（デフォルト: 1）
+	 * @param cursor キーセットページネーションのカーソル（オプション、指定時はページ番号の代わりに使用）
 	 * @return コンテンツ一覧情報を含むListBean
 	 */
 	@GetMapping("/api/contents")
 	@ResponseBody
 	public ListBean getContentsForLink(@RequestParam(defaultValue = Constants.EMPTY_STRING) String type,
 			@RequestParam(defaultValue = Constants.EMPTY_STRING) String keyword,
-			@RequestParam(defaultValue = "updated desc") String sort,
-			@RequestParam(defaultValue = "1") String page) {
+			@RequestParam(defaultValue = Constants.EMPTY_STRING) String sort,
+			@RequestParam(defaultValue = "1") String page,
+			@RequestParam(defaultValue = Constants.EMPTY_STRING) String cursor) {
 		ListBean bean = new ListBean();
+		boolean search = keyword != null && !keyword.trim().isEmpty();
+		if (sort.isEmpty() && !search) {
+			// 検索以外の一覧は更新日時の降順（検索時に空の場合は関連度順）
+			sort = Constants.DEFAULT_SORT_CONTENT;
+		}
 		int thisPage = 1;
 		try {
 			thisPage = Integer.valueOf(page);
@@ -421,19 +445,32 @@ public class ContentController {
 		}
 		
 		List<HashMap<String, String>> results;
-		String pagerOutput;
+		PagerBean pager;
 		
 		// キーワードが指定されている場合は検索、そうでない場合は通常の一覧取得
-		if (keyword != null && !keyword.trim().isEmpty()) {
+		if (!cursor.isEmpty() || content.isKeysetPagination()) {
+			// キーセットページネーション（前後のページのカーソルを返し、画面はカーソルで前後のページを読み込む）
+			ListCursor.Page cursorPage = search
+					? content.searchListByCursor(sort, cursor, type, keyword)
+					: content.getListByCursor(sort, cursor, type);
+			results = cursorPage.getResults();
+			pager = content.getCursorPager(cursorPage, type, sort, search ? keyword : Constants.EMPTY_STRING);
+			if (search) {
+				bean.setSnippets(content.getSearchSnippets(results, keyword));
+			}
+			bean.setNextCursor(cursorPage.getNextCursor() != null ? cursorPage.getNextCursor() : Constants.EMPTY_STRING);
+			bean.setPrevCursor(cursorPage.getPrevCursor() != null ? cursorPage.getPrevCursor() : Constants.EMPTY_STRING);
+		} else if (search) {
 			results = content.searchList(sort, thisPage, type, keyword);
-			pagerOutput = content.getSearchPager(thisPage, type, sort, keyword);
+			pager = content.getSearchPager(thisPage, type, sort, keyword);
+			bean.setSnippets(content.getSearchSnippets(results, keyword));
 		} else {
 			results = content.getList(sort, thisPage, type);
-			pagerOutput = content.getPager(thisPage, type, sort);
+			pager = content.getPager(thisPage, type, sort);
 		}
 		
 		bean.setResults(results);
-		bean.setPagerOutput(pagerOutput);
+		bean.setPager(pager);
 		return bean;
 	}
 	
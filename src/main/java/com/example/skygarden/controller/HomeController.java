@@ -11,9 +11,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import com.example.skygarden.bean.DirectoryNodeBean;
+import com.example.skygarden.bean.PagerBean;
+import com.example.skygarden.bean.SnippetBean;
 import com.example.skygarden.constants.Constants;
 import com.example.skygarden.logic.Content;
+import com.example.skygarden.logic.ListCursor;
 import com.example.skygarden.logic.Setting;
+import com.example.skygarden.logic.TemplateLayout;
 import com.example.skygarden.util.ScreenNameConverter;
 
 import jakarta.servlet.http.HttpSession;
@@ -70,6 +74,7 @@ public class HomeController {
      * @param sort ソート順
      * @param page ページ番号
      * @param keyword 検索キーワード（オプション）
+     * @param cursor キーセットページネーションのカーソル（オプション、指定時はページ番号の代わりに使用）
      * @param model モデル
      * @param session セッション
      * @return list.html
@@ -79,6 +84,7 @@ public class HomeController {
                        @RequestParam(required = false, defaultValue = "") String sort,
                        @RequestParam(required = false, defaultValue = "1") String page,
                        @RequestParam(required = false, defaultValue = "") String keyword,
+                       @RequestParam(required = false, defaultValue = "") String cursor,
                        Model model, HttpSession session) {
         try {
             String[][] sortOptions = Constants.SORT_OPTIONS_CONTENT;
@@ -110,15 +116,28 @@ public class HomeController {
             }
             
             List<HashMap<String, String>> results;
-            String pagerOutput;
+            PagerBean pager;
+            HashMap<String, SnippetBean> snippets = new HashMap<>();
             
             // キーワードが指定されている場合は検索、そうでない場合は通常の一覧取得
-            if (keyword != null && !keyword.trim().isEmpty()) {
+            if (!cursor.isEmpty() || content.isKeysetPagination()) {
+                // キーセットページネーション（前後のページへのリンクのみ）
+                boolean search = keyword != null && !keyword.trim().isEmpty();
+                ListCursor.Page cursorPage = search
+                        ? content.searchListByCursor(sort, cursor, mode, keyword)
+                        : content.getListByCursor(sort, cursor, mode);
+                results = cursorPage.getResults();
+                pager = content.getCursorPager(cursorPage, mode, sort, search ? keyword : Constants.EMPTY_STRING);
+                if (search) {
+                    snippets = content.getSearchSnippets(results, keyword);
+                }
+            } else if (keyword != null && !keyword.trim().isEmpty()) {
                 results = content.searchList(sort, thisPage, mode, keyword);
-                pagerOutput = content.getSearchPager(thisPage, mode, sort, keyword);
+                pager = content.getSearchPager(thisPage, mode, sort, keyword);
+                snippets = content.getSearchSnippets(results, keyword);
             } else {
                 results = content.getList(sort, thisPage, mode);
-                pagerOutput = content.getPager(thisPage, mode, sort);
+                pager = content.getPager(thisPage, mode, sort);
             }
             
             model.addAttribute("mode", mode);
@@ -127,7 +146,8 @@ public class HomeController {
             model.addAttribute("screenName", screenName);
             model.addAttribute("registerMessage", registerMessage);
             model.addAttribute("results", results != null ? results : new java.util.ArrayList<>());
-            model.addAttribute("pagerOutput", pagerOutput != null ? pagerOutput : "");
+            model.addAttribute("pager", pager != null ? pager : new PagerBean());
+            model.addAttribute("snippets", snippets != null ? snippets : new HashMap<>());
             model.addAttribute("sortOptions", sortOptions);
         } catch (Exception e) {
             e.printStackTrace();
@@ -135,7 +155,8 @@ public class HomeController {
             model.addAttribute("registerMessage", Constants.EMPTY_STRING);
             model.addAttribute("keyword", Constants.EMPTY_STRING);
             model.addAttribute("results", new java.util.ArrayList<>());
-            model.addAttribute("pagerOutput", Constants.EMPTY_STRING);
+            model.addAttribute("pager", new PagerBean());
+            model.addAttribute("snippets", new HashMap<>());
             model.addAttribute("sortOptions", Constants.SORT_OPTIONS_CONTENT);
         }
         return "list";
@@ -250,19 +271,18 @@ public class HomeController {
         List<HashMap<String, String>> eleResults = new java.util.ArrayList<>();
         
         if (!id.equals(Constants.EMPTY_STRING) && !contentStr.equals(Constants.EMPTY_STRING)) {
-            String[] elements = contentStr.split(",");
-            for (String element : elements) {
-                if (element.equals(Constants.TEMPLATE_CONTENT_PLACEHOLDER)) {
+            TemplateLayout layout = TemplateLayout.parse(contentStr);
+            // 構成要素は1回のクエリでまとめて取得する
+            HashMap<String, HashMap<String, String>> elements = content.doSearchByIds(layout.getElementIds());
+            for (TemplateLayout.Segment segment : layout.getSegments()) {
+                if (segment.isContent()) {
                     HashMap<String, String> m = new HashMap<>();
                     m.put("id", "content");
                     m.put("title", "");
                     m.put("code", "");
                     eleResults.add(m);
                 } else {
-                    String elementId = element.replace(Constants.ELEMENT_PREFIX, Constants.EMPTY_STRING)
-                            .replace(Constants.ELEMENT_FUNCTION_START, Constants.EMPTY_STRING)
-                            .replace(Constants.ELEMENT_FUNCTION_END, Constants.EMPTY_STRING);
-                    HashMap<String, String> eleResult = content.doSearch(elementId);
+                    HashMap<String, String> eleResult = elements.get(segment.getElementId());
                     if (eleResult != null) {
                         HashMap<String, String> m = new HashMap<>();
                         m.put("id", eleResult.get("id"));
@@ -433,6 +453,7 @@ public class HomeController {
      * 
      * @param sort ソート順
      * @param page ページ番号
+     * @param cursor キーセットページネーションのカーソル（オプション、指定時はページ番号の代わりに使用）
      * @param model モデル
      * @param session セッション
      * @return user-list.html
@@ -440,6 +461,7 @@ public class HomeController {
     @GetMapping("/user-list")
     public String userList(@RequestParam(required = false, defaultValue = Constants.EMPTY_STRING) String sort,
                           @RequestParam(required = false, defaultValue = "1") String page,
+                          @RequestParam(required = false, defaultValue = Constants.EMPTY_STRING) String cursor,
                           Model model, HttpSession session) {
         try {
             String[][] sortOptions = Constants.SORT_OPTIONS_USER;
@@ -457,19 +479,28 @@ public class HomeController {
                 thisPage = 1;
             }
             
-            List<HashMap<String, String>> results = user.getList(sort, thisPage);
-            String pagerOutput = user.getPager(thisPage, Constants.PATH_USER_LIST, sort);
+            List<HashMap<String, String>> results;
+            PagerBean pager;
+            if (!cursor.isEmpty() || user.isKeysetPagination()) {
+                // キーセットページネーション（前後のページへのリンクのみ）
+                ListCursor.Page cursorPage = user.getListByCursor(sort, cursor);
+                results = cursorPage.getResults();
+                pager = user.getCursorPager(cursorPage, Constants.PATH_USER_LIST, sort);
+            } else {
+                results = user.getList(sort, thisPage);
+                pager = user.getPager(thisPage, Constants.PATH_USER_LIST, sort);
+            }
             
             model.addAttribute("sort", sort);
             model.addAttribute("registerMessage", registerMessage);
             model.addAttribute("results", results != null ? results : new java.util.ArrayList<>());
-            model.addAttribute("pagerOutput", pagerOutput != null ? pagerOutput : Constants.EMPTY_STRING);
+            model.addAttribute("pager", pager != null ? pager : new PagerBean());
             model.addAttribute("sortOptions", sortOptions);
         } catch (Exception e) {
             e.printStackTrace();
             model.addAttribute("registerMessage", Constants.EMPTY_STRING);
             model.addAttribute("results", new java.util.ArrayList<>());
-            model.addAttribute("pagerOutput", Constants.EMPTY_STRING);
+            model.addAttribute("pager", new PagerBean());
             model.addAttribute("sortOptions", Constants.SORT_OPTIONS_USER);
         }
         return "user-list";
@@ -4,7 +4,6 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -24,6 +23,7 @@ import com.example.skygarden.constants.Constants;
 import com.example.skygarden.logic.CommonProc;
 import com.example.skygarden.mapper.ContentMapper;
 import com.example.skygarden.service.EmailService;
+import com.example.skygarden.service.FileMetadataService;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -52,6 +52,7 @@ import lombok.extern.slf4j.Slf4j;
  * - title: 画像タイトル
  * - head: サイズ情報（JSON形式）
  * - content: 保存されたファイル名
+ * - file_metadata: MIMEタイプ・サイズ・最終更新日時・SHA-256（FileMetadataService で登録）
  * 
  * @see ContentMapper データベース操作
  * @see AppProperties アプリケーション設定
@@ -69,6 +70,10 @@ public class ImageController {
 	@Autowired
 	private AppProperties appProperties;
 	
+	/** アップロードファイルのメタデータ管理サービス */
+	@Autowired
+	private FileMetadataService fileMetadataService;
+	
 	/** メール送信サービス */
 	@Autowired(required = false)
 	private EmailService emailService;
@@ -154,7 +159,8 @@ public class ImageController {
 				
 				// ファイルを保存
 				Path filePath = uploadPath.resolve(savedFileName);
-				Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+				// 保存と同時にMIMEタイプ・サイズ・SHA-256をメタデータとして登録する
+				fileMetadataService.store(file, filePath);
 				log.info("Image saved: {}", filePath.toString());
 			}
 			
@@ -48,10 +48,10 @@ import lombok.extern.slf4j.Slf4j;
  * 
  * コンテンツでの使用方法:
  * コンテンツ内で [movie id=XXX] タグを使用すると、
- * Content.convertMovieTags() メソッドによりYouTube埋め込みコードに変換されます。
+ * MovieShortcodeHandler によりYouTube埋め込みコードに変換されます。
  * 
  * @see ContentMapper データベース操作
- * @see Content#convertMovieTags(String) 動画タグ変換処理
+ * @see com.example.skygarden.service.MovieShortcodeHandler 動画タグ変換処理
  */
 @RestController
 @RequestMapping(Constants.PATH_WEBADMIN)
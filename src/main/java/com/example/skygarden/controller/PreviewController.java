@@ -14,6 +14,8 @@ import com.example.skygarden.config.AppProperties;
 import com.example.skygarden.constants.Constants;
 import com.example.skygarden.logic.CommonProc;
 import com.example.skygarden.logic.Content;
+import com.example.skygarden.logic.HtmlShell;
+import com.example.skygarden.service.HtmlShellService;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -35,7 +37,7 @@ import lombok.extern.slf4j.Slf4j;
  * 1. テンプレートが指定されている場合、テンプレートのヘッダー情報を取得
  * 2. コンテンツ本文にテンプレートと構成要素を適用
  * 3. [movie id=XXX] タグをYouTube埋め込みコードに変換
- * 4. preview.html テンプレートに ###title###, ###head###, ###content### を挿入
+ * 4. preview.html テンプレート（HtmlShellService で分割済み）に ###title###, ###head###, ###content### を挿入
  * 5. 完成したHTMLをレスポンスとして返却
  * 
  * プレースホルダー:
@@ -51,6 +53,9 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PreviewController {
 	
+	/** プレビューファイルが存在しない場合のデフォルトHTML */
+	private static final HtmlShell DEFAULT_PREVIEW_SHELL = HtmlShell.parse("<!DOCTYPE html><html lang=\"ja\"><head><meta charset=\"UTF-8\"><meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\"><title>###title###</title>###head###</head><body>###content###</body></html>");
+	
 	/** コンテンツ管理のビジネスロジック */
 	@Autowired
 	private Content content;
@@ -58,6 +63,10 @@ public class PreviewController {
 	/** アプリケーション設定プロパティ */
 	@Autowired
 	private AppProperties appProperties;
+	
+	/** HTMLシェルキャッシュ */
+	@Autowired
+	private HtmlShellService htmlShellService;
 
 	/**
 	 * コンテンツのプレビューを生成する
@@ -91,22 +100,15 @@ public class PreviewController {
 		String previewFilePath = CommonProc.getRootPath() + "/" + appProperties.getFile().getPreviewFileName();
 		log.info("Preview file path: {}", previewFilePath);
 		
-		String previewFile = CommonProc.readFile(previewFilePath);
+		HtmlShell previewShell = htmlShellService.getShell(previewFilePath);
 		
 		// プレビューファイルが空の場合はデフォルトのHTMLを使用
-		if (previewFile == null || previewFile.isEmpty()) {
+		if (previewShell.isEmpty()) {
 			log.warn("Preview file not found or empty: {}", previewFilePath);
-			previewFile = "<!DOCTYPE html><html lang=\"ja\"><head><meta charset=\"UTF-8\"><meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\"><title>###title###</title>###head###</head><body>###content###</body></html>";
+			previewShell = DEFAULT_PREVIEW_SHELL;
 		}
 		
-		// 正規表現の特殊文字をエスケープ
-		String escapedTitle = java.util.regex.Matcher.quoteReplacement(title != null ? title : Constants.EMPTY_STRING);
-		String escapedHead = java.util.regex.Matcher.quoteReplacement(resultHead);
-		String escapedContent = java.util.regex.Matcher.quoteReplacement(reasultContent);
-		
-		previewFile = previewFile.replaceAll(Constants.TEMPLATE_TITLE_PLACEHOLDER, escapedTitle);
-		previewFile = previewFile.replaceAll(Constants.TEMPLATE_HEAD_PLACEHOLDER, escapedHead);
-		previewFile = previewFile.replaceAll(Constants.TEMPLATE_CONTENT_PLACEHOLDER, escapedContent);
+		String previewFile = previewShell.render(title, resultHead, reasultContent);
 		
 		response.setContentType("text/html; charset=UTF-8");
 		response.setCharacterEncoding("UTF-8");
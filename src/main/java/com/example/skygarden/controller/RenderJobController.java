@@ -0,0 +1,85 @@
+package com.example.skygarden.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.skygarden.bean.RenderJobStatus;
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.service.RenderJobService;
+
+/**
+ * 公開ページの再描画ジョブに関するREST APIコントローラー
+ *
+ * このコントローラーはテンプレート・構成要素の変更後に、影響する公開ページを
+ * バックグラウンドで描画し直すジョブの開始・停止・進捗確認のAPIエンドポイントを定義します。
+ *
+ * 主な機能:
+ * - 再描画ジョブの開始（テンプレート・構成要素IDを指定、省略時は停止したジョブの再開）
+ * - 再描画ジョブの停止（処理中のバッチの完了後に停止）
+ * - 進捗・処理速度の取得
+ *
+ * 使用方法:
+ * - 例: curl -X POST "http://localhost:8080/webadmin/render-job/start?ids=3,5"
+ * - 例: curl http://localhost:8080/webadmin/render-job
+ *
+ * @see RenderJobService 再描画ジョブ
+ * @see RenderJobStatus 進捗
+ */
+@RestController
+@RequestMapping(Constants.PATH_WEBADMIN)
+public class RenderJobController {
+
+	/** 公開ページの再描画ジョブ */
+	@Autowired
+	private RenderJobService renderJob;
+
+	/**
+	 * 再描画ジョブの進捗を取得する
+	 *
+	 * @return 進捗
+	 */
+	@GetMapping("/render-job")
+	@ResponseBody
+	public RenderJobStatus getStatus() {
+		return renderJob.getStatus();
+	}
+
+	/**
+	 * 再描画ジョブを開始する
+	 *
+	 * @param ids テンプレート・構成要素・動画のID（カンマ区切り、空の場合は再開）
+	 * @return 進捗
+	 */
+	@PostMapping("/render-job/start")
+	@ResponseBody
+	public RenderJobStatus start(@RequestParam(defaultValue = "") String ids) {
+		List<String> idList = new ArrayList<>();
+		if (ids != null) {
+			for (String id : ids.split(",")) {
+				if (!id.trim().isEmpty()) {
+					idList.add(id.trim());
+				}
+			}
+		}
+		return renderJob.start(idList);
+	}
+
+	/**
+	 * 再描画ジョブを停止する
+	 *
+	 * @return 進捗
+	 */
+	@PostMapping("/render-job/stop")
+	@ResponseBody
+	public RenderJobStatus stop() {
+		return renderJob.stop();
+	}
+}
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.skygarden.bean.PagerBean;
 import com.example.skygarden.bean.UserBean;
 import com.example.skygarden.bean.UserListBean;
 import com.example.skygarden.constants.Constants;
@@ -151,12 +152,12 @@ public class UserController {
 			}
 		}
 		List<HashMap<String, String>> results = user.getList(sort, thisPage);
-		String pagerOutput = user.getPager(thisPage, Constants.PATH_USER_LIST, sort);
+		PagerBean pager = user.getPager(thisPage, Constants.PATH_USER_LIST, sort);
 		UserListBean bean = new UserListBean();
 		bean.setLoginName(loginName);
 		bean.setRegisterMessage(registerMessage);
 		bean.setSortOutput(sortOutput.toString());
-		bean.setPagerOutput(pagerOutput);
+		bean.setPager(pager);
 		bean.setResults(results);
 		return bean;
 	}
@@ -129,7 +129,7 @@ public class Batch {
 		for (HashMap<String, String> resultItem : results) {
 			String id = resultItem.get("id");
 			try {
-				mapper.delete(Constants.TABLE_CONTENT_PUBLIC, id);
+				mapper.delete(Constants.TABLE_CONTENT_PUBLIC, id, null);
 				mapper.clearScheduleUnpublished(id);
 			} catch (Exception e) {
 				log.error("バッチ処理エラー: " + e.toString());
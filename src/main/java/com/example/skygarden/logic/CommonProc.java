@@ -3,6 +3,7 @@ package com.example.skygarden.logic;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
@@ -21,6 +22,7 @@ import lombok.extern.slf4j.Slf4j;
  * 主な機能:
  * - ファイル読み込み（readFile）
  * - 現在日時の文字列生成（createNow）
+ * - 日時文字列のエポックミリ秒への変換（toEpochMillis）
  * - アプリケーションルートパスの取得（getRootPath）
  * 
  * 使用例:
@@ -82,6 +84,26 @@ public class CommonProc {
 		return format.format(nowDate);
 	}
 	
+	/**
+	 * 日時文字列をエポックミリ秒に変換する
+	 * フォーマット: "yyyy-MM-dd HH:mm"（秒以降が付いている場合は切り捨てる）
+	 * 
+	 * @param dateTime 日時文字列
+	 * @return エポックミリ秒（null・解析できない場合は-1）
+	 */
+	public static long toEpochMillis(String dateTime) {
+		if (dateTime == null || dateTime.length() < Constants.DATE_FORMAT_DATETIME.length()) {
+			return -1;
+		}
+		try {
+			SimpleDateFormat format = new SimpleDateFormat(Constants.DATE_FORMAT_DATETIME);
+			format.setLenient(false);
+			return format.parse(dateTime.substring(0, Constants.DATE_FORMAT_DATETIME.length())).getTime();
+		} catch (ParseException e) {
+			return -1;
+		}
+	}
+	
 	/**
 	 * アプリケーションのルートパスを取得する
 	 * JAR/WARファイルの親ディレクトリを返す
@@ -1,23 +1,41 @@
 package com.example.skygarden.logic;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.example.skygarden.bean.DirectoryNodeBean;
+import com.example.skygarden.bean.PageModel;
+import com.example.skygarden.bean.PagerBean;
+import com.example.skygarden.bean.SnippetBean;
 import com.example.skygarden.config.AppProperties;
 import com.example.skygarden.constants.Constants;
 import com.example.skygarden.mapper.ContentMapper;
+import com.example.skygarden.service.AssetFingerprintService;
+import com.example.skygarden.service.AssetMinifyService;
+import com.example.skygarden.service.ContentCountService;
+import com.example.skygarden.service.ContentSearchIndex;
 import com.example.skygarden.service.EmailService;
+import com.example.skygarden.service.FileMetadataService;
+import com.example.skygarden.service.ShortcodeService;
+import com.example.skygarden.service.TemplateLayoutService;
 import com.example.skygarden.util.PaginationUtil;
 import com.example.skygarden.util.ScreenNameConverter;
+import com.example.skygarden.util.SnippetUtil;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -33,10 +51,10 @@ import jakarta.servlet.http.HttpSession;
  * - コンテンツのCRUD操作（作成・読取・更新・削除）
  * - テンプレートと構成要素の組み合わせによるコンテンツ生成
  * - スケジュール公開・非公開の管理
- * - ページネーション
+ * - ページネーション（ページ番号・キーセット（ListCursor））
  * - URL重複チェック
  * - URLディレクトリツリーの生成
- * - [movie id=XXX] タグのYouTube埋め込みコード変換
+ * - [movie id=XXX] などのショートコードの変換（ShortcodeService）
  * 
  * テンプレートシステム:
  * テンプレートのcontentフィールドには構成要素の配置が保存されます。
@@ -65,6 +83,34 @@ public class Content {
 	/** メール送信サービス */
 	@Autowired(required = false)
 	private EmailService emailService;
+	
+	/** テンプレートレイアウトキャッシュサービス */
+	@Autowired
+	private TemplateLayoutService templateLayoutService;
+	
+	/** ショートコードの解析・描画サービス */
+	@Autowired
+	private ShortcodeService shortcodeService;
+	
+	/** CSS・JSの圧縮結果キャッシュサービス */
+	@Autowired
+	private AssetMinifyService assetMinifyService;
+	
+	/** スタイルシート・スクリプトのフィンガープリント付きURLサービス */
+	@Autowired
+	private AssetFingerprintService assetFingerprintService;
+	
+	/** タイプ別のコンテンツ件数キャッシュサービス */
+	@Autowired
+	private ContentCountService contentCountService;
+	
+	/** コンテンツ全文検索インデックス */
+	@Autowired
+	private ContentSearchIndex contentSearchIndex;
+
+	/** アップロードファイルのメタデータ管理サービス */
+	@Autowired
+	private FileMetadataService fileMetadataService;
 
 	/**
 	 * コンテンツをIDで検索する
@@ -76,6 +122,17 @@ public class Content {
 		return mapper.search(id, Constants.TABLE_CONTENT);
 	}
 
+	/**
+	 * 複数のIDでコンテンツをまとめて検索する
+	 * IDの件数に関わらず1回のクエリで取得する
+	 * 
+	 * @param ids コンテンツIDのリスト
+	 * @return コンテンツID → コンテンツ情報のMap（存在しないIDは含まれない）
+	 */
+	public HashMap<String, HashMap<String, String>> doSearchByIds(List<String> ids) {
+		return searchByIds(ids, Constants.TABLE_CONTENT);
+	}
+
 	/**
 	 * コンテンツ一覧を取得する（ページネーション対応）
 	 * 
@@ -93,60 +150,210 @@ public class Content {
 	/**
 	 * キーワードでコンテンツを検索する（ページネーション対応）
 	 * タイトル、URL、コンテンツ本文を対象に部分一致検索を行う
+	 * 全文検索インデックスの読み込みが完了している場合はインデックスで絞り込み、
+	 * ソート順の指定がなければ関連度順で返す（読み込み前はデータベースを検索する）
+	 * 本文は取得しないため、一覧に表示する抜粋は getSearchSnippets で生成する
 	 * 
 	 * @param sort ソート順
 	 * @param page ページ番号
 	 * @param type コンテンツタイプ（フィルタリング用）
 	 * @param keyword 検索キーワード
-	 * @return 検索結果のコンテンツ一覧
+	 * @return 検索結果のコンテンツ一覧（一覧用のカラムのみ）
 	 */
 	public List<HashMap<String, String>> searchList(String sort, int page, String type, String keyword) {
 		int pageSize = appProperties.getPagination().getPageSize();
 		int offset = PaginationUtil.calculateOffset(page, pageSize);
+		if (contentSearchIndex.isLoaded()) {
+			ContentSearchIndex.Result result = contentSearchIndex.search(type, keyword, sort, offset, pageSize);
+			return selectByIdsInOrder(result.getIds());
+		}
 		return mapper.searchByKeyword(Constants.TABLE_CONTENT, type, keyword, sort, pageSize, offset);
 	}
 
 	/**
-	 * 検索結果用のページネーションHTMLを生成する
+	 * 検索結果に表示するスニペット（検索語の周辺の本文の抜粋と一致した範囲）を生成する
+	 * 全文検索インデックスの読み込みが完了している場合はインデックスが保持する本文から、
+	 * それ以外の場合は検索時に取得した本文の一部（snippet_source）から生成する
+	 * 一覧のレスポンスに本文を含めないため、検索結果の snippet_source は取り除く
+	 * 
+	 * @param results 検索結果のコンテンツ一覧（searchList / searchListByCursor の結果）
+	 * @param keyword 検索キーワード
+	 * @return コンテンツID → スニペット
+	 */
+	public HashMap<String, SnippetBean> getSearchSnippets(List<HashMap<String, String>> results, String keyword) {
+		HashMap<String, SnippetBean> snippets = new HashMap<>();
+		if (results == null || results.isEmpty()) {
+			return snippets;
+		}
+		int length = appProperties.getSearch().getSnippetLength();
+		if (contentSearchIndex.isLoaded()) {
+			List<String> ids = new ArrayList<>();
+			for (HashMap<String, String> row : results) {
+				ids.add(row.get("id"));
+			}
+			snippets = contentSearchIndex.snippets(ids, keyword, length);
+		}
+		List<String> terms = ContentSearchIndex.terms(keyword);
+		for (HashMap<String, String> row : results) {
+			String source = row.remove("snippet_source");
+			String id = row.get("id");
+			if (id != null && !snippets.containsKey(id)) {
+				snippets.put(id, SnippetUtil.create(SnippetUtil.toPlainText(source), terms, length));
+			}
+		}
+		return snippets;
+	}
+
+	/**
+	 * 指定したIDのコンテンツの一覧用のカラムを、IDの順に取得する
+	 * 
+	 * @param ids コンテンツIDのリスト（表示順）
+	 * @return コンテンツ一覧（存在しないIDは含まれない）
+	 */
+	private List<HashMap<String, String>> selectByIdsInOrder(List<String> ids) {
+		List<HashMap<String, String>> results = new ArrayList<>();
+		if (ids == null || ids.isEmpty()) {
+			return results;
+		}
+		HashMap<String, HashMap<String, String>> rows = new HashMap<>();
+		List<HashMap<String, String>> selected = mapper.selectSummariesByIds(ids, Constants.TABLE_CONTENT);
+		if (selected != null) {
+			for (HashMap<String, String> row : selected) {
+				rows.put(row.get("id"), row);
+			}
+		}
+		for (String id : ids) {
+			HashMap<String, String> row = rows.get(id);
+			if (row != null) {
+				results.add(row);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * 一覧をキーセットページネーションで表示するかどうか
+	 * 
+	 * @return app.pagination.keyset が有効な場合true
+	 */
+	public boolean isKeysetPagination() {
+		return appProperties.getPagination().isKeyset();
+	}
+
+	/**
+	 * コンテンツ一覧を取得する（キーセットページネーション）
+	 * カーソルが示す行の後（前）から1ページ分を取得するため、何ページ目でも同じコストで取得できる
+	 * 
+	 * @param sort ソート順（選択肢にない場合は更新日時の降順）
+	 * @param cursor カーソル文字列（空文字の場合は先頭ページ）
+	 * @param type コンテンツタイプ（フィルタリング用）
+	 * @return 1ページ分のコンテンツ一覧と前後のページのカーソル
+	 */
+	public ListCursor.Page getListByCursor(String sort, String cursor, String type) {
+		ListCursor position = ListCursor.parse(cursor,
+				ListCursor.resolveSort(sort, Constants.SORT_OPTIONS_CONTENT, Constants.DEFAULT_SORT_CONTENT));
+		int pageSize = appProperties.getPagination().getPageSize();
+		List<HashMap<String, String>> rows = mapper.selectAllKeyset(Constants.TABLE_CONTENT, type, position.getColumn(),
+				position.isQueryDescending(), position.getValue(), position.getId(), pageSize + 1);
+		return position.page(rows, pageSize);
+	}
+
+	/**
+	 * キーワードでコンテンツを検索する（キーセットページネーション）
+	 * タイトル、URL、コンテンツ本文を対象に部分一致検索を行う
+	 * 全文検索インデックスの読み込みが完了している場合はインデックスで絞り込み、
+	 * カーソルが示すコンテンツより後（前）のIDを取得する（読み込み前はデータベースを検索する）
+	 * 
+	 * @param sort ソート順（選択肢にない場合は更新日時の降順）
+	 * @param cursor カーソル文字列（空文字の場合は先頭ページ）
+	 * @param type コンテンツタイプ（フィルタリング用）
+	 * @param keyword 検索キーワード
+	 * @return 1ページ分の検索結果と前後のページのカーソル
+	 */
+	public ListCursor.Page searchListByCursor(String sort, String cursor, String type, String keyword) {
+		ListCursor position = ListCursor.parse(cursor,
+				ListCursor.resolveSort(sort, Constants.SORT_OPTIONS_CONTENT, Constants.DEFAULT_SORT_CONTENT));
+		int pageSize = appProperties.getPagination().getPageSize();
+		if (contentSearchIndex.isLoaded()) {
+			List<String> ids = contentSearchIndex.searchAfter(type, keyword, position.getColumn(),
+					position.isQueryDescending(), position.getValue(), position.getId(), pageSize + 1);
+			return position.page(selectByIdsInOrder(ids), pageSize);
+		}
+		List<HashMap<String, String>> rows = mapper.searchByKeywordKeyset(Constants.TABLE_CONTENT, type, keyword,
+				position.getColumn(), position.isQueryDescending(), position.getValue(), position.getId(), pageSize + 1);
+		return position.page(rows, pageSize);
+	}
+
+	/**
+	 * キーセットページネーション用のページネーション情報を生成する（前後のページへのリンクのみ、総件数は数えない）
+	 * 
+	 * @param page 表示中のページ
+	 * @param mode モード（URL生成用）
+	 * @param sort ソート順
+	 * @param keyword 検索キーワード（空文字の場合はURLに含めない）
+	 * @return ページネーション情報
+	 */
+	public PagerBean getCursorPager(ListCursor.Page page, String mode, String sort, String keyword) {
+		PagerBean pager = new PagerBean();
+		String pageUrl = ScreenNameConverter.getPageUrlByMode(mode);
+		String separator = pageUrl.contains("?") ? "&" : "?";
+		String query = "&sort=" + sort;
+		if (keyword != null && !keyword.isEmpty()) {
+			query += "&keyword=" + java.net.URLEncoder.encode(keyword, StandardCharsets.UTF_8);
+		}
+		//Previous
+		if (page.getPrevCursor() != null) {
+			pager.setPrevUrl(pageUrl + separator + "cursor=" + page.getPrevCursor() + query);
+		}
+		//Next
+		if (page.getNextCursor() != null) {
+			pager.setNextUrl(pageUrl + separator + "cursor=" + page.getNextCursor() + query);
+		}
+		return pager;
+	}
+
+	/**
+	 * 検索結果用のページネーション情報を生成する
 	 * 
 	 * @param page 現在のページ番号
 	 * @param mode モード（URL生成用）
 	 * @param sort ソート順
 	 * @param keyword 検索キーワード
-	 * @return ページネーション用のHTML文字列
+	 * @return ページネーション情報
 	 */
-	public String getSearchPager(int page, String mode, String sort, String keyword) {
-		StringBuffer output = new StringBuffer();
-		int contentSize = mapper.getContentSizeByKeyword(Constants.TABLE_CONTENT, mode, keyword);
+	public PagerBean getSearchPager(int page, String mode, String sort, String keyword) {
 		int pageSize = appProperties.getPagination().getPageSize();
+		int countLimit = appProperties.getPagination().getSearchCountLimit();
+		int contentSize;
+		boolean overLimit = false;
+		if (contentSearchIndex.isLoaded()) {
+			// 全文検索インデックスでは一致したコンテンツをすべて数えても走査が発生しないため、正確な件数を表示する
+			contentSize = contentSearchIndex.count(mode, keyword);
+		} else if (countLimit > 0) {
+			// 上限（表示中のページまでの件数の方が多い場合はその件数）+1件まで数え、超えた分は「上限+」と表示する
+			int limit = Math.max(countLimit, page * pageSize) + 1;
+			contentSize = mapper.getContentSizeByKeywordLimit(Constants.TABLE_CONTENT, mode, keyword, limit);
+			if (contentSize >= limit) {
+				contentSize = limit - 1;
+				overLimit = true;
+			}
+		} else {
+			contentSize = mapper.getContentSizeByKeyword(Constants.TABLE_CONTENT, mode, keyword);
+		}
 		int totalPages = PaginationUtil.calculateTotalPages(contentSize, pageSize);
-		String pageUrl = ScreenNameConverter.getPageUrlByMode(mode);
 		String encodedKeyword = "";
 		try {
 			encodedKeyword = java.net.URLEncoder.encode(keyword, "UTF-8");
 		} catch (Exception e) {
 			encodedKeyword = keyword;
 		}
-		//Previous
-		if (1 < page && totalPages != 0) {
-			String separator = pageUrl.contains("?") ? "&" : "?";
-			output.append("<li class=\"page-item me-4\"><a class=\"page-link sky-pagination-link\" href=\"" + pageUrl + separator + "page=" + (page - 1) + "&sort=" + sort + "&keyword=" + encodedKeyword + "\" aria-label=\"Previous\"><span aria-hidden=\"true\">&laquo;</span></a></li>");
-		}
-		//PageNum
-		for (int i = 1; i <= totalPages; i++) {
-			if (i == page) {
-				output.append("<li class=\"page-item mx-2\">" + i + "</span></li>");
-			} else {
-				String separator = pageUrl.contains("?") ? "&" : "?";
-				output.append("<li class=\"page-item mx-2\"><a class=\"page-link sky-pagination-link\" href=\"" + pageUrl + separator + "page=" + i + "&sort=" + sort + "&keyword=" + encodedKeyword + "\">" + i + "</a></li>");
-			}
-		}
-		//Next
-		if (page < totalPages) {
-			String separator = pageUrl.contains("?") ? "&" : "?";
-			output.append("<li class=\"page-item ms-4\"><a class=\"page-link sky-pagination-link\" href=\"" + pageUrl + separator + "page=" + (page + 1) + "&sort=" + sort + "&keyword=" + encodedKeyword + "\" aria-label=\"Next\"><span aria-hidden=\"true\">&raquo;</span></a></li>");
+		PagerBean pager = PaginationUtil.createPager(page, totalPages, overLimit, ScreenNameConverter.getPageUrlByMode(mode),
+				"&sort=" + sort + "&keyword=" + encodedKeyword, appProperties.getPagination().getWindow());
+		if (overLimit) {
+			// 数えた件数（表示中のページまでの件数が上限より多い場合はその件数）を表示する
+			pager.setCountLabel(contentSize + "+");
 		}
-		return output.toString();
+		return pager;
 	}
 
 	/**
@@ -452,15 +659,15 @@ public class Content {
 
 	/**
 	 * スタイルシート（CSS）を取得する
-	 * 改行コードを削除して返す
+	 * コメント・空白を取り除いて返す（キャッシュには登録しない）
 	 * 
 	 * @param id コンテンツID
 	 * @param table テーブル名
 	 * @return スタイルシート文字列
 	 */
 	public String getStylesheet(String id, String table) {
-		String output = mapper.searchContentByAttribute(id, "content", table).replaceAll("\r\n", "");
-		return output;
+		String source = mapper.searchContentByAttribute(id, "content", table);
+		return assetMinifyService.getMinified(null, Constants.CONTENT_TYPE_STYLESHEET, null, source);
 	}
 
 	/**
@@ -524,32 +731,288 @@ public class Content {
 	 * @return 整形されたHTML文字列
 	 */
 	public String displayContent(String id) {
-		StringBuffer output = new StringBuffer();
 		HashMap<String, String> result = mapper.search(id, "content_public");
+		ShortcodeDocument body = shortcodeService.getDocument(id, result.get("updated"), result.get("content"));
 		String templateId = result.get("template");
 		if (templateId != null && !templateId.equals(Constants.EMPTY_STRING)) {
 			HashMap<String, String> tempResult = mapper.search(templateId, Constants.TABLE_CONTENT);
-			String tempCon = tempResult.get("content");
-			if (tempCon != null && !tempCon.equals(Constants.EMPTY_STRING)) {
-				String[] elements = tempCon.split(",");
-				for (int i = 0; i < elements.length; i++) {
-					String templateContent = elements[i];
-					if (templateContent.equals(Constants.TEMPLATE_CONTENT_PLACEHOLDER)) {
-						output.append(result.get("content"));
-					} else {
-						String elementId = templateContent.replace(Constants.ELEMENT_PREFIX, Constants.EMPTY_STRING)
-								.replace(Constants.ELEMENT_FUNCTION_START, Constants.EMPTY_STRING)
-								.replace(Constants.ELEMENT_FUNCTION_END, Constants.EMPTY_STRING);
-						HashMap<String, String> eleResult = mapper.search(elementId, Constants.TABLE_CONTENT);
-						output.append(eleResult.get("content"));
-					}
+			TemplateLayout layout = templateLayoutService.getLayout(templateId, tempResult);
+			return shortcodeService.render(layoutDocuments(layout, searchByIds(layout.getElementIds(), Constants.TABLE_CONTENT), body));
+		}
+		// [movie id=xxx]などのショートコードを変換
+		return shortcodeService.render(List.of(body));
+	}
+
+	/**
+	 * 公開URLからページの描画に必要な情報を取得する
+	 * 公開コンテンツとテンプレートの情報を1回のクエリで取得する
+	 * 
+	 * @param url 公開URL（先頭スラッシュなし）
+	 * @return ページ情報（存在しない場合null）
+	 */
+	public PageModel resolvePage(String url) {
+		PageModel page = mapper.resolvePage(url);
+		if (page == null || page.getId() == null || page.getId().equals(Constants.EMPTY_STRING)) {
+			return null;
+		}
+		return page;
+	}
+
+	/**
+	 * ページのヘッダー部分を取得する
+	 * テンプレートのヘッダー + コンテンツのヘッダーを連結して返す
+	 * サイト内のスタイルシート・スクリプトの参照はフィンガープリント付きURLに書き換える（AssetFingerprintService）
+	 * 
+	 * @param page ページ情報
+	 * @return ヘッダー部分のHTML
+	 */
+	public String getPageHead(PageModel page) {
+		String templateHead = hasTemplate(page) && page.getTemplateHead() != null ? page.getTemplateHead() : Constants.EMPTY_STRING;
+		String head = page.getHead() != null ? page.getHead() : Constants.EMPTY_STRING;
+		// サイト内のスタイルシート・スクリプトの参照をフィンガープリント付きURLに書き換える
+		return assetFingerprintService.rewriteHead(templateHead + head);
+	}
+
+	/**
+	 * ページ情報から公開用のコンテンツを整形する
+	 * displayContent(String) と同じ結果を、追加のクエリなし（構成要素の取得を除く）で生成する
+	 * 
+	 * @param page ページ情報
+	 * @return 整形されたHTML文字列
+	 */
+	public String displayPage(PageModel page) {
+		// [movie id=xxx]などのショートコードを変換
+		List<ShortcodeDocument> documents = getPageDocuments(page);
+		return shortcodeService.render(documents, getPageReferences(page, documents));
+	}
+
+	/**
+	 * ページのバージョン文字列を取得する（ETag の生成に使用）
+	 * 公開コンテンツの値に加え、通常コンテンツの場合はテンプレートと構成要素の更新日時・本文、
+	 * ショートコードの参照先（動画など）の更新日時・内容も含めたハッシュ値を返す
+	 * 更新日時は分単位のため、同じ分の中での更新も検出できるよう本文もハッシュに含める
+	 * 
+	 * @param page ページ情報
+	 * @return バージョン文字列（16進数）
+	 */
+	public String getPageVersion(PageModel page) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		updateDigest(digest, page.getId());
+		updateDigest(digest, page.getUpdated());
+		updateDigest(digest, page.getType());
+		updateDigest(digest, page.getTitle());
+		updateDigest(digest, page.getHead());
+		updateDigest(digest, page.getContent());
+		// 参照しているスタイルシート・スクリプトが変わるとヘッダーのURLも変わる
+		updateDigest(digest, getPageHead(page));
+		if (isContentPage(page) && hasTemplate(page)) {
+			updateDigest(digest, page.getTemplate());
+			updateDigest(digest, page.getTemplateUpdated());
+			updateDigest(digest, page.getTemplateContent());
+			updateDigest(digest, page.getTemplateHead());
+			TemplateLayout layout = getPageLayout(page);
+			HashMap<String, HashMap<String, String>> elements = getPageElements(page, layout);
+			for (String elementId : layout.getElementIds()) {
+				HashMap<String, String> element = elements.get(elementId);
+				updateDigest(digest, elementId);
+				updateDigest(digest, element != null ? element.get("updated") : null);
+				updateDigest(digest, element != null ? element.get("content") : null);
+			}
+		}
+		if (isContentPage(page)) {
+			HashMap<String, HashMap<String, String>> references = getPageReferences(page, getPageDocuments(page));
+			for (String referenceId : new TreeSet<>(references.keySet())) {
+				HashMap<String, String> reference = references.get(referenceId);
+				updateDigest(digest, referenceId);
+				updateDigest(digest, reference.get("type"));
+				updateDigest(digest, reference.get("updated"));
+				updateDigest(digest, reference.get("content"));
+			}
+		}
+		return HexFormat.of().formatHex(digest.digest(), 0, 16);
+	}
+
+	/**
+	 * ページの最終更新日時を取得する（Last-Modified の生成に使用）
+	 * 公開コンテンツ・テンプレート・構成要素・ショートコードの参照先の更新日時のうち最も新しいものを返す
+	 * 
+	 * @param page ページ情報
+	 * @return 最終更新日時（エポックミリ秒、不明な場合は-1）
+	 */
+	public long getPageLastModified(PageModel page) {
+		long lastModified = CommonProc.toEpochMillis(page.getUpdated());
+		if (isContentPage(page) && hasTemplate(page)) {
+			lastModified = Math.max(lastModified, CommonProc.toEpochMillis(page.getTemplateUpdated()));
+			TemplateLayout layout = getPageLayout(page);
+			for (HashMap<String, String> element : getPageElements(page, layout).values()) {
+				lastModified = Math.max(lastModified, CommonProc.toEpochMillis(element.get("updated")));
+			}
+		}
+		if (isContentPage(page)) {
+			for (HashMap<String, String> reference : getPageReferences(page, getPageDocuments(page)).values()) {
+				lastModified = Math.max(lastModified, CommonProc.toEpochMillis(reference.get("updated")));
+			}
+		}
+		return lastModified;
+	}
+
+	/**
+	 * 複数ページの構成要素をまとめて取得する
+	 * 各ページのテンプレートで使用している構成要素を1回のクエリで取得し、ページごとに設定する
+	 * （ページ単位で取得した場合と同じ内容になる）
+	 * 
+	 * @param pages ページ情報のリスト
+	 */
+	public void loadPageElements(List<PageModel> pages) {
+		Set<String> ids = new LinkedHashSet<>();
+		for (PageModel page : pages) {
+			if (needsElements(page)) {
+				ids.addAll(getPageLayout(page).getElementIds());
+			}
+		}
+		if (ids.isEmpty()) {
+			return;
+		}
+		HashMap<String, HashMap<String, String>> results = searchByIds(new ArrayList<>(ids), Constants.TABLE_CONTENT);
+		for (PageModel page : pages) {
+			if (!needsElements(page)) {
+				continue;
+			}
+			HashMap<String, HashMap<String, String>> elements = new HashMap<>();
+			for (String elementId : getPageLayout(page).getElementIds()) {
+				HashMap<String, String> element = results.get(elementId);
+				if (element != null) {
+					elements.put(elementId, element);
 				}
 			}
+			page.setElements(elements);
+		}
+	}
+
+	/**
+	 * ページ情報からスタイルシート（CSS）を取得する
+	 * 公開時に圧縮した結果（コメント・空白を取り除いたもの）を返す
+	 * 
+	 * @param page ページ情報
+	 * @return スタイルシート文字列
+	 */
+	public String getStylesheet(PageModel page) {
+		return assetMinifyService.getMinified(page);
+	}
+
+	/**
+	 * ページ情報からスクリプト（JS）を取得する
+	 * 公開時に圧縮した結果（コメント・空白を取り除いたもの）を返す
+	 * 
+	 * @param page ページ情報
+	 * @return スクリプト文字列
+	 */
+	public String getScript(PageModel page) {
+		return assetMinifyService.getMinified(page);
+	}
+
+	/**
+	 * ページにテンプレートが設定されているかどうか
+	 * 
+	 * @param page ページ情報
+	 * @return テンプレートが設定されている場合true
+	 */
+	private boolean hasTemplate(PageModel page) {
+		return page.getTemplate() != null && !page.getTemplate().equals(Constants.EMPTY_STRING);
+	}
+
+	/**
+	 * ページが通常コンテンツ（HTMLページ）かどうか
+	 * 
+	 * @param page ページ情報
+	 * @return 通常コンテンツの場合true
+	 */
+	private boolean isContentPage(PageModel page) {
+		return page.getType() == null || page.getType().equals(Constants.CONTENT_TYPE_CONTENT);
+	}
+
+	/**
+	 * ページの構成要素が未取得かどうか
+	 * 
+	 * @param page ページ情報
+	 * @return テンプレートを使用する通常コンテンツで、構成要素が未取得の場合true
+	 */
+	private boolean needsElements(PageModel page) {
+		return isContentPage(page) && hasTemplate(page) && page.getElements() == null;
+	}
+
+	/**
+	 * ページのテンプレートのコンパイル済みレイアウトを取得する
+	 * 
+	 * @param page ページ情報
+	 * @return コンパイル済みレイアウト
+	 */
+	private TemplateLayout getPageLayout(PageModel page) {
+		return templateLayoutService.getLayout(page.getTemplate(), page.getTemplateUpdated(), page.getTemplateContent());
+	}
+
+	/**
+	 * ページの構成要素を取得する
+	 * 取得済みの場合は再利用し、検証用ヘッダーの計算と描画で同じ構成要素を二重に取得しない
+	 * 
+	 * @param page ページ情報
+	 * @param layout コンパイル済みレイアウト
+	 * @return 構成要素ID → 構成要素の情報
+	 */
+	private HashMap<String, HashMap<String, String>> getPageElements(PageModel page, TemplateLayout layout) {
+		if (page.getElements() == null) {
+			page.setElements(searchByIds(layout.getElementIds(), Constants.TABLE_CONTENT));
+		}
+		return page.getElements();
+	}
+
+	/**
+	 * ページを構成するコンパイル済み文書を出力順に取得する（テンプレートがある場合は構成要素を含む）
+	 * 
+	 * @param page ページ情報
+	 * @return コンパイル済み文書のリスト
+	 */
+	private List<ShortcodeDocument> getPageDocuments(PageModel page) {
+		ShortcodeDocument body = shortcodeService.getDocument(page.getId(), page.getUpdated(), page.getContent());
+		if (hasTemplate(page)) {
+			TemplateLayout layout = getPageLayout(page);
+			return layoutDocuments(layout, getPageElements(page, layout), body);
+		}
+		return List.of(body);
+	}
+
+	/**
+	 * ページのショートコードの参照先を取得する（取得済みの場合は再取得しない）
+	 * 
+	 * @param page ページ情報
+	 * @param documents ページを構成するコンパイル済み文書
+	 * @return 公開コンテンツID → 公開コンテンツの情報
+	 */
+	private HashMap<String, HashMap<String, String>> getPageReferences(PageModel page, List<ShortcodeDocument> documents) {
+		if (page.getReferences() == null) {
+			page.setReferences(shortcodeService.findReferences(documents));
+		}
+		return page.getReferences();
+	}
+
+	/**
+	 * ダイジェストに値を追加する（値の区切りとnullを区別して追加する）
+	 * 
+	 * @param digest ダイジェスト
+	 * @param value 値
+	 */
+	private void updateDigest(MessageDigest digest, String value) {
+		if (value == null) {
+			digest.update((byte) 1);
 		} else {
-			output.append(result.get("content"));
+			digest.update(value.getBytes(StandardCharsets.UTF_8));
 		}
-		// [movie id=xxx]タグをYouTube埋め込みコードに変換
-		return convertMovieTags(output.toString());
+		digest.update((byte) 0);
 	}
 
 	/**
@@ -561,132 +1024,77 @@ public class Content {
 	 * @return 整形されたHTML文字列
 	 */
 	public String previewContent(String content, String templateId) {
-		StringBuffer output = new StringBuffer();
+		// 保存前の本文のため、キャッシュに登録せずに解析する
+		ShortcodeDocument body = shortcodeService.parse(content);
 		if (templateId != null && !templateId.equals(Constants.EMPTY_STRING)) {
 			HashMap<String, String> tempResult = mapper.search(templateId, Constants.TABLE_CONTENT);
-			String tempCon = tempResult.get("content");
-			if (tempCon != null && !tempCon.equals(Constants.EMPTY_STRING)) {
-				String[] elements = tempCon.split(",");
-				for (int i = 0; i < elements.length; i++) {
-					String templateContent = elements[i];
-					if (templateContent.equals(Constants.TEMPLATE_CONTENT_PLACEHOLDER)) {
-						output.append(content);
-					} else {
-						String elementId = templateContent.replace(Constants.ELEMENT_PREFIX, Constants.EMPTY_STRING)
-								.replace(Constants.ELEMENT_FUNCTION_START, Constants.EMPTY_STRING)
-								.replace(Constants.ELEMENT_FUNCTION_END, Constants.EMPTY_STRING);
-						HashMap<String, String> eleResult = mapper.search(elementId, Constants.TABLE_CONTENT);
-						output.append(eleResult.get("content"));
-					}
+			TemplateLayout layout = templateLayoutService.getLayout(templateId, tempResult);
+			return shortcodeService.render(layoutDocuments(layout, searchByIds(layout.getElementIds(), Constants.TABLE_CONTENT), body));
+		}
+		// [movie id=xxx]などのショートコードを変換
+		return shortcodeService.render(List.of(body));
+	}
+
+	/**
+	 * コンパイル済みレイアウトのセグメントの順に、構成要素とコンテンツ本文の文書を並べる
+	 * 構成要素が存在しない場合、または本文がnullの場合は含めない
+	 * 構成要素は本文ごとに解析結果がキャッシュされるため、同じ構成要素を使う他のページでも再利用される
+	 * 
+	 * @param layout コンパイル済みレイアウト
+	 * @param elements 構成要素ID → 構成要素の情報
+	 * @param content コンテンツ本文の文書
+	 * @return 出力順の文書のリスト
+	 */
+	private List<ShortcodeDocument> layoutDocuments(TemplateLayout layout, HashMap<String, HashMap<String, String>> elements, ShortcodeDocument content) {
+		List<ShortcodeDocument> documents = new ArrayList<>();
+		for (TemplateLayout.Segment segment : layout.getSegments()) {
+			if (segment.isContent()) {
+				documents.add(content);
+			} else {
+				HashMap<String, String> eleResult = elements.get(segment.getElementId());
+				if (eleResult != null && eleResult.get("content") != null) {
+					documents.add(shortcodeService.getDocument(segment.getElementId(), eleResult.get("updated"), eleResult.get("content")));
 				}
 			}
-		} else {
-			output.append(content);
 		}
-		// [movie id=xxx]タグをYouTube埋め込みコードに変換
-		return convertMovieTags(output.toString());
+		return documents;
 	}
-	
+
 	/**
-	 * [movie id=xxx]または[movie id=xxx, width=xxx, height=xxx]タグをYouTube埋め込みコードに変換する
+	 * 複数のIDでコンテンツをまとめて検索し、IDをキーとするMapに変換する
 	 * 
-	 * @param content 変換対象のコンテンツ
-	 * @return 変換後のコンテンツ
+	 * @param ids コンテンツIDのリスト
+	 * @param table テーブル名
+	 * @return コンテンツID → コンテンツ情報のMap
 	 */
-	private String convertMovieTags(String content) {
-		if (content == null || content.isEmpty()) {
-			return content;
+	private HashMap<String, HashMap<String, String>> searchByIds(List<String> ids, String table) {
+		HashMap<String, HashMap<String, String>> results = new HashMap<>();
+		if (ids == null || ids.isEmpty()) {
+			return results;
 		}
-		
-		// [movie id=xxx]または[movie id=xxx, width=xxx, height=xxx]のパターンを検索して変換
-		// 対応形式: [movie id=11], [movie id=11, width=560px], [movie id=11, height=315px], [movie id=11, width=560px, height=315px]
-		java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
-			"\\[movie\\s+id=(\\d+)(?:,\\s*width=([^,\\]]+))?(?:,\\s*height=([^\\]]+))?\\]"
-		);
-		java.util.regex.Matcher matcher = pattern.matcher(content);
-		StringBuffer result = new StringBuffer();
-		
-		while (matcher.find()) {
-			String movieId = matcher.group(1);
-			String width = matcher.group(2);
-			String height = matcher.group(3);
-			
-			// 動画コンテンツを取得（公開テーブルから）
-			HashMap<String, String> movieResult = mapper.search(movieId, Constants.TABLE_CONTENT_PUBLIC);
-			
-			String replacement;
-			if (movieResult != null && Constants.CONTENT_TYPE_MOVIE.equals(movieResult.get("type"))) {
-				String videoId = movieResult.get("content"); // YouTube ビデオID
-				if (videoId != null && !videoId.isEmpty()) {
-					// YouTube埋め込みコードを生成
-					if (width != null || height != null) {
-						// サイズ指定がある場合は固定サイズで表示
-						String widthStyle = (width != null && !width.trim().isEmpty()) ? width.trim() : "560px";
-						String heightStyle = (height != null && !height.trim().isEmpty()) ? height.trim() : "315px";
-						replacement = "<div class=\"sky-movie-container\">"
-							+ "<iframe src=\"https://www.youtube.com/embed/" + videoId + "\" "
-							+ "width=\"" + widthStyle + "\" "
-							+ "height=\"" + heightStyle + "\" "
-							+ "frameborder=\"0\" "
-							+ "allow=\"accelerometer; autoplay; clipboard-write; encrypted-media; gyroscope; picture-in-picture\" "
-							+ "allowfullscreen></iframe></div>";
-					} else {
-						// サイズ指定がない場合はレスポンシブ（16:9比率）
-						replacement = "<div class=\"sky-movie-container\" style=\"position:relative;padding-bottom:56.25%;height:0;overflow:hidden;max-width:100%;\">"
-							+ "<iframe src=\"https://www.youtube.com/embed/" + videoId + "\" "
-							+ "style=\"position:absolute;top:0;left:0;width:100%;height:100%;\" "
-							+ "frameborder=\"0\" "
-							+ "allow=\"accelerometer; autoplay; clipboard-write; encrypted-media; gyroscope; picture-in-picture\" "
-							+ "allowfullscreen></iframe></div>";
-					}
-				} else {
-					replacement = "<!-- Movie ID " + movieId + ": Video ID not found -->";
-				}
-			} else {
-				replacement = "<!-- Movie ID " + movieId + ": Not found or not published -->";
+		List<HashMap<String, String>> rows = mapper.searchByIds(ids, table);
+		if (rows != null) {
+			for (HashMap<String, String> row : rows) {
+				results.put(row.get("id"), row);
 			}
-			
-			matcher.appendReplacement(result, java.util.regex.Matcher.quoteReplacement(replacement));
 		}
-		matcher.appendTail(result);
-		
-		return result.toString();
+		return results;
 	}
-
+	
 	/**
-	 * ページネーション用のHTMLを生成する
+	 * ページネーション情報を生成する
 	 * 
 	 * @param page 現在のページ番号
 	 * @param mode モード（URL生成用）
 	 * @param sort ソート順
-	 * @return ページネーション用のHTML文字列
+	 * @return ページネーション情報
 	 */
-	public String getPager(int page, String mode, String sort) {
-		StringBuffer output = new StringBuffer();
-		int contentSize = mapper.getContentSize(Constants.TABLE_CONTENT, mode);
+	public PagerBean getPager(int page, String mode, String sort) {
+		int contentSize = contentCountService.getCount(mode);
 		int pageSize = appProperties.getPagination().getPageSize();
 		int totalPages = PaginationUtil.calculateTotalPages(contentSize, pageSize);
-		String pageUrl = ScreenNameConverter.getPageUrlByMode(mode);
-		//Previous
-		if (1 < page && totalPages != 0) {
-			String separator = pageUrl.contains("?") ? "&" : "?";
-			output.append("<li class=\"page-item me-4\"><a class=\"page-link sky-pagination-link\" href=\"" + pageUrl + separator + "page=" + (page - 1) + "&sort=" + sort + "\" aria-label=\"Previous\"><span aria-hidden=\"true\">&laquo;</span></a></li>");
-		}
-		//PageNum
-		for (int i = 1; i <= totalPages; i++) {
-			if (i == page) {
-				output.append("<li class=\"page-item mx-2\">" + i + "</span></li>");
-			} else {
-				String separator = pageUrl.contains("?") ? "&" : "?";
-				output.append("<li class=\"page-item mx-2\"><a class=\"page-link sky-pagination-link\" href=\"" + pageUrl + separator + "page=" + i + "&sort=" + sort + "\">" + i + "</a></li>");
-			}
-		}
-		//Next
-		if (page < totalPages) {
-			String separator = pageUrl.contains("?") ? "&" : "?";
-			output.append("<li class=\"page-item ms-4\"><a class=\"page-link sky-pagination-link\" href=\"" + pageUrl + separator + "page=" + (page + 1) + "&sort=" + sort + "\" aria-label=\"Next\"><span aria-hidden=\"true\">&raquo;</span></a></li>");
-		}
-		return output.toString();
+		return PaginationUtil.createPager(page, totalPages, false, ScreenNameConverter.getPageUrlByMode(mode),
+				"&sort=" + sort, appProperties.getPagination().getWindow());
 	}
 
 	/**
@@ -703,6 +1111,7 @@ public class Content {
 	/**
 	 * コンテンツを削除する
 	 * 公開テーブルからも削除する
+	 * 画像・ファイルの場合はファイルのメタデータも削除する
 	 * 
 	 * @param id 削除するコンテンツID
 	 * @param mode モード（削除後のリダイレクト先を決定する）
@@ -712,10 +1121,15 @@ public class Content {
 	 */
 	public boolean doDelete(String id, String mode, HttpServletResponse response, HttpSession session) {
 		try {
-			mapper.delete("content", id);
+			String type = mapper.searchContentByAttribute(id, "type", Constants.TABLE_CONTENT);
+			// 画像・ファイルは content にファイル名を保持している
+			boolean upload = Constants.CONTENT_TYPE_IMAGE.equals(type) || Constants.CONTENT_TYPE_FILE.equals(type);
+			String fileName = upload ? mapper.searchContentByAttribute(id, "content", Constants.TABLE_CONTENT) : null;
+			mapper.delete(Constants.TABLE_CONTENT, id, type);
+			fileMetadataService.delete(fileName);
 			String public_id = mapper.searchContentByAttribute(id, "id", "content_public");
 					if (public_id != null && !public_id.equals(Constants.EMPTY_STRING)) {
-			mapper.delete(Constants.TABLE_CONTENT_PUBLIC, id);
+			mapper.delete(Constants.TABLE_CONTENT_PUBLIC, id, type);
 		}
 		session.setAttribute(Constants.SESSION_REGISTER_MESSAGE, Constants.MESSAGE_DELETE_SUCCESS);
 	} catch (Exception e) {
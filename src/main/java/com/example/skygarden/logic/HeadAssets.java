@@ -0,0 +1,324 @@
+package com.example.skygarden.logic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.example.skygarden.constants.Constants;
+
+import lombok.Getter;
+
+/**
+ * ヘッダー部分（headタグ内）のスタイルシート・スクリプト参照
+ *
+ * テンプレート・コンテンツのヘッダー部分を解析し、
+ * サイト内の絶対パス（"/" で始まるURL）を参照している次のタグを、出現順の不変リストとして保持するクラスです。
+ * - &lt;link rel="stylesheet" href="/..."&gt;
+ * - &lt;script src="/..."&gt;&lt;/script&gt;（本文が空のもの）
+ *
+ * 各参照はタグ全体と属性値（URL）の範囲を保持するため、
+ * 呼び出し側はURLだけを置き換えたり、同じ形のタグをまとめたりできます。
+ * 外部URL（"//" や "https://"）、クエリ・フラグメント付きのURL、相対パスは対象外です。
+ *
+ * このクラスのインスタンスは不変で、複数スレッドから共有できます。
+ *
+ * @see com.example.skygarden.service.AssetFingerprintService 参照の書き換え
+ * @see com.example.skygarden.service.ContentDependencyGraph 参照の依存関係
+ */
+public final class HeadAssets {
+
+	/** 空のヘッダー */
+	public static final HeadAssets EMPTY = new HeadAssets(Constants.EMPTY_STRING, Collections.emptyList());
+
+	/**
+	 * 参照の種類
+	 */
+	public enum Kind {
+		/** スタイルシート（link タグ） */
+		STYLESHEET,
+		/** スクリプト（script タグ） */
+		SCRIPT
+	}
+
+	/**
+	 * スタイルシート・スクリプトの参照
+	 */
+	@Getter
+	public static final class Reference {
+		/** 参照の種類 */
+		private final Kind kind;
+		/** タグの開始位置 */
+		private final int tagStart;
+		/** タグの終了位置（script の場合は終了タグを含む、この位置の文字は含まない） */
+		private final int tagEnd;
+		/** 属性値の開始位置 */
+		private final int valueStart;
+		/** 属性値の終了位置（この位置の文字は含まない） */
+		private final int valueEnd;
+		/** 公開URL（先頭スラッシュなし） */
+		private final String url;
+
+		private Reference(Kind kind, int tagStart, int tagEnd, int valueStart, int valueEnd, String url) {
+			this.kind = kind;
+			this.tagStart = tagStart;
+			this.tagEnd = tagEnd;
+			this.valueStart = valueStart;
+			this.valueEnd = valueEnd;
+			this.url = url;
+		}
+	}
+
+	/** 元のヘッダー部分 */
+	@Getter
+	private final String source;
+
+	/** 参照の不変リスト（出現順） */
+	@Getter
+	private final List<Reference> references;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param source 元のヘッダー部分
+	 * @param references 参照のリスト
+	 */
+	private HeadAssets(String source, List<Reference> references) {
+		this.source = source;
+		this.references = Collections.unmodifiableList(references);
+	}
+
+	/**
+	 * ヘッダー部分を解析する
+	 *
+	 * @param head ヘッダー部分
+	 * @return 解析結果（空・nullの場合は EMPTY）
+	 */
+	public static HeadAssets parse(String head) {
+		if (head == null || head.indexOf('<') < 0) {
+			return head == null || head.isEmpty() ? EMPTY : new HeadAssets(head, Collections.emptyList());
+		}
+		List<Reference> references = new ArrayList<>();
+		int i = head.indexOf('<');
+		while (i >= 0) {
+			int next = i + 1;
+			if (startsWithTag(head, i, "link")) {
+				int end = tagEnd(head, i);
+				if (end < 0) {
+					break;
+				}
+				String rel = attribute(head, i + 5, end, "rel");
+				int[] href = attributeRange(head, i + 5, end, "href");
+				if (rel != null && rel.toLowerCase().contains("stylesheet") && href != null) {
+					addReference(references, head, Kind.STYLESHEET, i, end + 1, href);
+				}
+				next = end + 1;
+			} else if (startsWithTag(head, i, "script")) {
+				int end = tagEnd(head, i);
+				if (end < 0) {
+					break;
+				}
+				int[] src = attributeRange(head, i + 7, end, "src");
+				int close = closingScript(head, end + 1);
+				if (src != null && close >= 0) {
+					addReference(references, head, Kind.SCRIPT, i, close, src);
+					next = close;
+				} else {
+					// スクリプトの本文中の文字列はタグとして扱わない
+					next = skipScriptBody(head, end + 1);
+				}
+			}
+			i = head.indexOf('<', next);
+		}
+		return new HeadAssets(head, references);
+	}
+
+	/**
+	 * 参照があるかどうか
+	 *
+	 * @return 参照がある場合true
+	 */
+	public boolean hasReferences() {
+		return !references.isEmpty();
+	}
+
+	/**
+	 * 公開URLの一覧を取得する
+	 *
+	 * @return 公開URLのリスト（出現順）
+	 */
+	public List<String> getUrls() {
+		List<String> urls = new ArrayList<>();
+		for (Reference reference : references) {
+			urls.add(reference.getUrl());
+		}
+		return urls;
+	}
+
+	/**
+	 * 属性値がサイト内の絶対パスの場合に参照として追加する
+	 *
+	 * @param references 追加先
+	 * @param head ヘッダー部分
+	 * @param kind 参照の種類
+	 * @param tagStart タグの開始位置
+	 * @param tagEnd タグの終了位置
+	 * @param value 属性値の範囲
+	 */
+	private static void addReference(List<Reference> references, String head, Kind kind, int tagStart, int tagEnd, int[] value) {
+		String path = head.substring(value[0], value[1]);
+		if (path.length() < 2 || path.charAt(0) != '/' || path.charAt(1) == '/'
+				|| path.indexOf('?') >= 0 || path.indexOf('#') >= 0) {
+			return;
+		}
+		references.add(new Reference(kind, tagStart, tagEnd, value[0], value[1], path.substring(1)));
+	}
+
+	/**
+	 * 指定位置が指定名の開始タグかどうか（大文字・小文字は区別しない）
+	 *
+	 * @param head ヘッダー部分
+	 * @param start "&lt;" の位置
+	 * @param name タグ名
+	 * @return 開始タグの場合true
+	 */
+	private static boolean startsWithTag(String head, int start, String name) {
+		int end = start + 1 + name.length();
+		if (end >= head.length() || !head.regionMatches(true, start + 1, name, 0, name.length())) {
+			return false;
+		}
+		char c = head.charAt(end);
+		return Character.isWhitespace(c) || c == '>' || c == '/';
+	}
+
+	/**
+	 * タグの終了位置（"&gt;"）を取得する
+	 * 引用符で囲まれた属性値の中の "&gt;" は終了として扱わない
+	 *
+	 * @param head ヘッダー部分
+	 * @param start "&lt;" の位置
+	 * @return "&gt;" の位置（見つからない場合-1）
+	 */
+	private static int tagEnd(String head, int start) {
+		char quote = 0;
+		for (int i = start + 1; i < head.length(); i++) {
+			char c = head.charAt(i);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+			} else if (c == '"' || c == '\'') {
+				quote = c;
+			} else if (c == '>') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * script タグの本文が空の場合に、終了タグの直後の位置を取得する
+	 *
+	 * @param head ヘッダー部分
+	 * @param start 開始タグの直後の位置
+	 * @return 終了タグの直後の位置（本文が空でない・終了タグが無い場合-1）
+	 */
+	private static int closingScript(String head, int start) {
+		int i = start;
+		while (i < head.length() && Character.isWhitespace(head.charAt(i))) {
+			i++;
+		}
+		String close = "</script>";
+		if (head.regionMatches(true, i, close, 0, close.length())) {
+			return i + close.length();
+		}
+		return -1;
+	}
+
+	/**
+	 * script タグの本文を読み飛ばす
+	 *
+	 * @param head ヘッダー部分
+	 * @param start 開始タグの直後の位置
+	 * @return 終了タグの位置（終了タグが無い場合はヘッダー部分の末尾）
+	 */
+	private static int skipScriptBody(String head, int start) {
+		String close = "</script";
+		for (int i = head.indexOf('<', start); i >= 0; i = head.indexOf('<', i + 1)) {
+			if (head.regionMatches(true, i, close, 0, close.length())) {
+				return i;
+			}
+		}
+		return head.length();
+	}
+
+	/**
+	 * タグ内の属性値を取得する
+	 *
+	 * @param head ヘッダー部分
+	 * @param start 属性の開始位置（タグ名の直後）
+	 * @param end タグの終了位置（"&gt;" の位置）
+	 * @param name 属性名
+	 * @return 属性値（無い場合null）
+	 */
+	private static String attribute(String head, int start, int end, String name) {
+		int[] range = attributeRange(head, start, end, name);
+		return range != null ? head.substring(range[0], range[1]) : null;
+	}
+
+	/**
+	 * タグ内の属性値の範囲を取得する
+	 *
+	 * @param head ヘッダー部分
+	 * @param start 属性の開始位置（タグ名の直後）
+	 * @param end タグの終了位置（"&gt;" の位置）
+	 * @param name 属性名
+	 * @return 属性値の開始位置・終了位置（無い場合null）
+	 */
+	private static int[] attributeRange(String head, int start, int end, String name) {
+		int i = start;
+		while (i < end) {
+			while (i < end && (Character.isWhitespace(head.charAt(i)) || head.charAt(i) == '/')) {
+				i++;
+			}
+			int nameStart = i;
+			while (i < end && !Character.isWhitespace(head.charAt(i)) && head.charAt(i) != '=' && head.charAt(i) != '/') {
+				i++;
+			}
+			int nameEnd = i;
+			while (i < end && Character.isWhitespace(head.charAt(i))) {
+				i++;
+			}
+			int valueStart = i;
+			int valueEnd = i;
+			if (i < end && head.charAt(i) == '=') {
+				i++;
+				while (i < end && Character.isWhitespace(head.charAt(i))) {
+					i++;
+				}
+				if (i < end && (head.charAt(i) == '"' || head.charAt(i) == '\'')) {
+					char quote = head.charAt(i);
+					valueStart = i + 1;
+					valueEnd = head.indexOf(quote, valueStart);
+					if (valueEnd < 0 || valueEnd > end) {
+						return null;
+					}
+					i = valueEnd + 1;
+				} else {
+					valueStart = i;
+					while (i < end && !Character.isWhitespace(head.charAt(i))) {
+						i++;
+					}
+					valueEnd = i;
+				}
+			}
+			if (nameEnd == nameStart) {
+				i++;
+				continue;
+			}
+			if (nameEnd - nameStart == name.length() && head.regionMatches(true, nameStart, name, 0, name.length())) {
+				return new int[] { valueStart, valueEnd };
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,290 @@
+package com.example.skygarden.logic;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.util.Utf8Util;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * 分割済みHTMLシェル
+ *
+ * original.html / original.stylesheet.html / original.script.html / preview.html などの
+ * 外枠HTMLを、固定文字列とプレースホルダー（スロット）の並びに分割して保持するクラスです。
+ * 描画時は各セグメントを順に連結するだけで済むため、正規表現による置換が不要になります。
+ *
+ * スロットの種類:
+ * - TITLE: ###title###
+ * - HEAD: ###head###
+ * - CONTENT: ###content###
+ *
+ * 固定文字列は読み込み時にUTF-8へエンコードしておき、writeTo でそのままレスポンスへ書き込みます。
+ *
+ * 置換値は文字列としてそのまま挿入されるため、
+ * replaceAll で問題となっていた "$" や "\" を含むコンテンツも正しく出力されます。
+ *
+ * このクラスのインスタンスは不変で、複数スレッドから共有できます。
+ *
+ * @see com.example.skygarden.service.HtmlShellService シェルのキャッシュ
+ */
+public final class HtmlShell {
+
+	/** 空のシェル */
+	public static final HtmlShell EMPTY = new HtmlShell(Collections.emptyList(), 0, "0");
+
+	/**
+	 * セグメントの種類
+	 */
+	public enum SegmentType {
+		/** 固定文字列 */
+		TEXT,
+		/** タイトルの挿入位置 */
+		TITLE,
+		/** ヘッダーの挿入位置 */
+		HEAD,
+		/** コンテンツ本文の挿入位置 */
+		CONTENT
+	}
+
+	/**
+	 * シェルを構成するセグメント
+	 */
+	@Getter
+	public static final class Segment {
+		/** セグメントの種類 */
+		private final SegmentType type;
+		/** 固定文字列（TEXT以外はnull） */
+		private final String text;
+		/** 固定文字列のUTF-8バイト列（TEXT以外はnull） */
+		@Getter(AccessLevel.NONE)
+		private final byte[] bytes;
+
+		private Segment(SegmentType type, String text) {
+			this.type = type;
+			this.text = text;
+			this.bytes = text != null ? text.getBytes(StandardCharsets.UTF_8) : null;
+		}
+	}
+
+	/** セグメントの不変リスト */
+	@Getter
+	private final List<Segment> segments;
+
+	/** 固定文字列の合計長 */
+	private final int staticLength;
+
+	/** 固定文字列のUTF-8バイト数の合計 */
+	private final long staticByteLength;
+
+	/** 元のHTMLから計算したバージョン文字列（ETag の生成に使用） */
+	@Getter
+	private final String version;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param segments セグメントのリスト
+	 * @param staticLength 固定文字列の合計長
+	 * @param version バージョン文字列
+	 */
+	private HtmlShell(List<Segment> segments, int staticLength, String version) {
+		this.segments = Collections.unmodifiableList(segments);
+		this.staticLength = staticLength;
+		this.version = version;
+		long byteLength = 0;
+		for (Segment segment : segments) {
+			if (segment.bytes != null) {
+				byteLength += segment.bytes.length;
+			}
+		}
+		this.staticByteLength = byteLength;
+	}
+
+	/**
+	 * HTMLをセグメントに分割する
+	 *
+	 * @param html 外枠HTML
+	 * @return 分割済みシェル（空・nullの場合は EMPTY）
+	 */
+	public static HtmlShell parse(String html) {
+		if (html == null || html.isEmpty()) {
+			return EMPTY;
+		}
+		List<Segment> segments = new ArrayList<>();
+		int staticLength = 0;
+		int position = 0;
+		while (position < html.length()) {
+			int next = html.indexOf("###", position);
+			SegmentType slot = null;
+			String placeholder = null;
+			while (next >= 0) {
+				if (html.startsWith(Constants.TEMPLATE_TITLE_PLACEHOLDER, next)) {
+					slot = SegmentType.TITLE;
+					placeholder = Constants.TEMPLATE_TITLE_PLACEHOLDER;
+				} else if (html.startsWith(Constants.TEMPLATE_HEAD_PLACEHOLDER, next)) {
+					slot = SegmentType.HEAD;
+					placeholder = Constants.TEMPLATE_HEAD_PLACEHOLDER;
+				} else if (html.startsWith(Constants.TEMPLATE_CONTENT_PLACEHOLDER, next)) {
+					slot = SegmentType.CONTENT;
+					placeholder = Constants.TEMPLATE_CONTENT_PLACEHOLDER;
+				}
+				if (slot != null) {
+					break;
+				}
+				next = html.indexOf("###", next + 1);
+			}
+			int end = next >= 0 ? next : html.length();
+			if (end > position) {
+				segments.add(new Segment(SegmentType.TEXT, html.substring(position, end)));
+				staticLength += end - position;
+			}
+			if (slot == null) {
+				break;
+			}
+			segments.add(new Segment(slot, null));
+			position = next + placeholder.length();
+		}
+		return new HtmlShell(segments, staticLength, Integer.toHexString(html.hashCode()) + "-" + Integer.toHexString(html.length()));
+	}
+
+	/**
+	 * スロットに値を挿入してHTMLを生成する
+	 *
+	 * @param title タイトル（nullの場合は空文字）
+	 * @param head ヘッダー部分（nullの場合は空文字）
+	 * @param content コンテンツ本文（nullの場合は空文字）
+	 * @return 生成したHTML
+	 */
+	public String render(String title, String head, String content) {
+		String[] values = slotValues(title, head, content);
+		int capacity = staticLength;
+		for (Segment segment : segments) {
+			if (segment.getType() != SegmentType.TEXT) {
+				capacity += valueOf(segment.getType(), values).length();
+			}
+		}
+		StringBuilder output = new StringBuilder(capacity);
+		for (Segment segment : segments) {
+			if (segment.getType() == SegmentType.TEXT) {
+				output.append(segment.getText());
+			} else {
+				output.append(valueOf(segment.getType(), values));
+			}
+		}
+		return output.toString();
+	}
+
+	/**
+	 * スロットに値を挿入した場合のUTF-8バイト数を計算する
+	 * Content-Length ヘッダーの値として使用する
+	 *
+	 * @param title タイトル
+	 * @param head ヘッダー部分
+	 * @param content コンテンツ本文
+	 * @return バイト数
+	 */
+	public long contentLength(String title, String head, String content) {
+		String[] values = slotValues(title, head, content);
+		long length = staticByteLength;
+		for (Segment segment : segments) {
+			if (segment.getType() != SegmentType.TEXT) {
+				length += Utf8Util.length(valueOf(segment.getType(), values));
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * スロットに値を挿入したHTMLを出力先へ直接書き込む
+	 * 固定文字列は事前にエンコードしたバイト列をそのまま書き込み、
+	 * 挿入値は一定サイズごとにエンコードして書き込むため、ページ全体の文字列・バイト配列は生成しない
+	 *
+	 * @param out 出力先
+	 * @param title タイトル
+	 * @param head ヘッダー部分
+	 * @param content コンテンツ本文
+	 * @throws IOException 書き込みに失敗した場合
+	 */
+	public void writeTo(OutputStream out, String title, String head, String content) throws IOException {
+		String[] values = slotValues(title, head, content);
+		for (Segment segment : segments) {
+			if (segment.getType() == SegmentType.TEXT) {
+				out.write(segment.bytes);
+			} else {
+				Utf8Util.write(out, valueOf(segment.getType(), values));
+			}
+		}
+	}
+
+	/**
+	 * スロットに値を挿入したHTMLをUTF-8のバイト配列として生成する
+	 * キャッシュに保持する場合に使用する（配列は必要なサイズで一度だけ確保する）
+	 *
+	 * @param title タイトル
+	 * @param head ヘッダー部分
+	 * @param content コンテンツ本文
+	 * @return UTF-8のバイト配列
+	 */
+	public byte[] toBytes(String title, String head, String content) {
+		long length = contentLength(title, head, content);
+		ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(length, Integer.MAX_VALUE - 8));
+		try {
+			writeTo(out, title, head, content);
+		} catch (IOException e) {
+			// ByteArrayOutputStream は IOException を送出しない
+			throw new IllegalStateException(e);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * セグメントが存在しないかどうか
+	 *
+	 * @return セグメントが存在しない場合true
+	 */
+	public boolean isEmpty() {
+		return segments.isEmpty();
+	}
+
+	/**
+	 * スロットに挿入する値を配列にまとめる（nullは空文字に置き換える）
+	 *
+	 * @param title タイトル
+	 * @param head ヘッダー部分
+	 * @param content コンテンツ本文
+	 * @return TITLE, HEAD, CONTENT の順の値
+	 */
+	private static String[] slotValues(String title, String head, String content) {
+		return new String[] {
+			title != null ? title : Constants.EMPTY_STRING,
+			head != null ? head : Constants.EMPTY_STRING,
+			content != null ? content : Constants.EMPTY_STRING
+		};
+	}
+
+	/**
+	 * スロットの種類に対応する値を取得する
+	 *
+	 * @param type スロットの種類
+	 * @param values slotValues の戻り値
+	 * @return 挿入する値
+	 */
+	private static String valueOf(SegmentType type, String[] values) {
+		switch (type) {
+			case TITLE:
+				return values[0];
+			case HEAD:
+				return values[1];
+			default:
+				return values[2];
+		}
+	}
+}
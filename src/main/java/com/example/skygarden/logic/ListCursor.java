@@ -0,0 +1,234 @@
+package com.example.skygarden.logic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * 一覧のキーセット（シーク）ページネーションの位置
+ *
+ * 一覧の前ページ・次ページの境界となる行の（ソート列の値, ID）を保持するクラスです。
+ * LIMIT / OFFSET では OFFSET より前の行をすべて読み飛ばすため後ろのページほど遅くなりますが、
+ * 境界の行より後（前）の行を「ソート列, ID」の順に LIMIT 件だけ取得することで、
+ * 何ページ目でも同じコストで取得できます（ContentMapper.selectAllKeyset / searchByKeywordKeyset）。
+ *
+ * カーソル文字列:
+ * 向き・ソート順・ID・ソート列の値を Base64（URLセーフ）で符号化した文字列で、画面・APIにはこの文字列のみを渡します。
+ * 解析できない文字列や、現在のソート順と異なるソート順のカーソルは先頭ページとして扱います。
+ *
+ * ソート順:
+ * Constants.SORT_OPTIONS_* の値（"updated"、"updated desc" など）のみ受け付け、それ以外は既定のソート順とします。
+ * ソート列の値が同じ行はIDの順（ソート順と同じ向き）に並べます。
+ * ソート列が NULL の行は、昇順では先頭、降順では末尾に並びます（MySQL の ORDER BY と同じ）。
+ *
+ * このクラスのインスタンスは不変です。
+ *
+ * @see Content#getListByCursor(String, String, String) コンテンツ一覧
+ * @see User#getListByCursor(String, String) ユーザー一覧
+ */
+@Getter
+public final class ListCursor {
+
+	/** カーソル文字列の向き（次のページ） */
+	private static final String FORWARD = "n";
+
+	/** カーソル文字列の向き（前のページ） */
+	private static final String BACKWARD = "p";
+
+	/** 降順を表すソート順の接尾辞 */
+	private static final String DESC_SUFFIX = " desc";
+
+	/** ソート順（Constants.SORT_OPTIONS_* の値） */
+	private final String sort;
+
+	/** ソート列 */
+	private final String column;
+
+	/** ソート順が降順かどうか */
+	private final boolean descending;
+
+	/** 前のページを取得するかどうか（境界の行より前の行を取得する） */
+	private final boolean backward;
+
+	/** 境界の行のソート列の値（NULLの場合null） */
+	private final String value;
+
+	/** 境界の行のID（先頭ページの場合null） */
+	private final Long id;
+
+	/**
+	 * キーセットページネーションで取得した1ページ分の一覧
+	 */
+	@Getter
+	public static final class Page {
+		/** 一覧（表示順） */
+		private final List<HashMap<String, String>> results;
+		/** 次のページのカーソル（次のページがない場合null） */
+		private final String nextCursor;
+		/** 前のページのカーソル（前のページがない場合null） */
+		private final String prevCursor;
+
+		private Page(List<HashMap<String, String>> results, String nextCursor, String prevCursor) {
+			this.results = results;
+			this.nextCursor = nextCursor;
+			this.prevCursor = prevCursor;
+		}
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param sort ソート順
+	 * @param backward 前のページを取得するかどうか
+	 * @param value 境界の行のソート列の値
+	 * @param id 境界の行のID
+	 */
+	private ListCursor(String sort, boolean backward, String value, Long id) {
+		this.sort = sort;
+		this.descending = sort.endsWith(DESC_SUFFIX);
+		this.column = descending ? sort.substring(0, sort.length() - DESC_SUFFIX.length()) : sort;
+		this.backward = backward;
+		this.value = value;
+		this.id = id;
+	}
+
+	/**
+	 * ソート順を選択肢の値に限定する
+	 *
+	 * @param sort 指定されたソート順
+	 * @param options ソート順の選択肢（Constants.SORT_OPTIONS_*）
+	 * @param defaultSort 既定のソート順
+	 * @return 選択肢に含まれる場合は指定されたソート順、それ以外は既定のソート順
+	 */
+	public static String resolveSort(String sort, String[][] options, String defaultSort) {
+		if (sort != null) {
+			for (String[] option : options) {
+				if (option[0].equals(sort)) {
+					return sort;
+				}
+			}
+		}
+		return defaultSort;
+	}
+
+	/**
+	 * 先頭ページの位置を生成する
+	 *
+	 * @param sort ソート順（resolveSort で限定した値）
+	 * @return 先頭ページの位置
+	 */
+	public static ListCursor first(String sort) {
+		return new ListCursor(sort, false, null, null);
+	}
+
+	/**
+	 * カーソル文字列を解析する
+	 *
+	 * @param token カーソル文字列（null・空文字の場合は先頭ページ）
+	 * @param sort ソート順（resolveSort で限定した値）
+	 * @return ページの位置（解析できない場合・ソート順が異なる場合は先頭ページ）
+	 */
+	public static ListCursor parse(String token, String sort) {
+		if (token == null || token.isEmpty()) {
+			return first(sort);
+		}
+		String decoded;
+		try {
+			decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			return first(sort);
+		}
+		String[] parts = decoded.split("\n", 4);
+		if (parts.length != 4 || !(FORWARD.equals(parts[0]) || BACKWARD.equals(parts[0])) || !parts[1].equals(sort)
+				|| !(parts[3].equals("-") || parts[3].startsWith("="))) {
+			return first(sort);
+		}
+		Long id;
+		try {
+			id = Long.valueOf(parts[2]);
+		} catch (NumberFormatException e) {
+			return first(sort);
+		}
+		String value = parts[3].equals("-") ? null : parts[3].substring(1);
+		return new ListCursor(sort, BACKWARD.equals(parts[0]), value, id);
+	}
+
+	/**
+	 * カーソル文字列に変換する
+	 *
+	 * @return カーソル文字列（先頭ページの場合null）
+	 */
+	public String encode() {
+		if (id == null) {
+			return null;
+		}
+		String raw = (backward ? BACKWARD : FORWARD) + "\n" + sort + "\n" + id + "\n" + (value == null ? "-" : "=" + value);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * 先頭ページかどうか
+	 *
+	 * @return 境界の行がない場合true
+	 */
+	public boolean isFirst() {
+		return id == null;
+	}
+
+	/**
+	 * 取得時の並び順が降順かどうか
+	 * 前のページは境界の行から逆向きに取得するため、ソート順と逆になる
+	 *
+	 * @return 降順で取得する場合true
+	 */
+	public boolean isQueryDescending() {
+		return descending != backward;
+	}
+
+	/**
+	 * 取得した行から1ページ分の一覧と前後のページのカーソルを生成する
+	 * 取得件数は pageSize + 1 件とし、超えた分で続きのページがあるかどうかを判定する
+	 *
+	 * @param rows 取得した行（取得時の並び順、最大 pageSize + 1 件）
+	 * @param pageSize 1ページあたりの表示件数
+	 * @return 1ページ分の一覧
+	 */
+	public Page page(List<HashMap<String, String>> rows, int pageSize) {
+		List<HashMap<String, String>> results = rows != null ? new ArrayList<>(rows) : new ArrayList<>();
+		boolean more = results.size() > pageSize;
+		if (more) {
+			results = new ArrayList<>(results.subList(0, pageSize));
+		}
+		if (backward) {
+			Collections.reverse(results);
+		}
+		if (results.isEmpty()) {
+			return new Page(results, null, null);
+		}
+		boolean hasNext = backward || more;
+		boolean hasPrev = backward ? more : !isFirst();
+		String next = hasNext ? boundary(results.get(results.size() - 1), false).encode() : null;
+		String prev = hasPrev ? boundary(results.get(0), true).encode() : null;
+		return new Page(results, next, prev);
+	}
+
+	/**
+	 * 行を境界とする位置を生成する
+	 *
+	 * @param row 境界の行
+	 * @param toBackward 前のページを取得する場合true
+	 * @return ページの位置（IDを解析できない場合は先頭ページ）
+	 */
+	private ListCursor boundary(HashMap<String, String> row, boolean toBackward) {
+		try {
+			return new ListCursor(sort, toBackward, row.get(column), Long.valueOf(row.get("id")));
+		} catch (NumberFormatException e) {
+			return first(sort);
+		}
+	}
+}
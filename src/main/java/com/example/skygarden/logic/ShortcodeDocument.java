@@ -0,0 +1,237 @@
+package com.example.skygarden.logic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.skygarden.constants.Constants;
+
+import lombok.Getter;
+
+/**
+ * コンパイル済みショートコード文書
+ *
+ * コンテンツ本文（"[movie id=11, width=560px]" などのショートコードを含むHTML）を一度だけ解析し、
+ * 文字列部分とショートコード部分のセグメントの不変リストとして保持するクラスです。
+ * 表示処理はこのリストを順に辿るだけで済むため、リクエストごとの正規表現による走査が不要になります。
+ *
+ * セグメントの種類:
+ * - TEXT: そのまま出力する文字列（元の本文の範囲を保持し、文字列を複製しない）
+ * - SHORTCODE: ショートコード（名前・属性・元の文字列を保持）
+ *
+ * 解析ルール:
+ * - "[" + 名前 + (空白 + 属性) + "]" の形式で、名前が登録済みのものだけをショートコードとして扱う
+ * - 属性はカンマ区切りの "キー=値"（キー・値の前後の空白は除去する）
+ * - "]" が無い、途中に "[" がある、名前の直後が空白・"]" でない場合は文字列として扱う
+ *
+ * このクラスのインスタンスは不変で、複数スレッドから共有できます。
+ *
+ * @see com.example.skygarden.service.ShortcodeService 文書のキャッシュ・描画
+ */
+public final class ShortcodeDocument {
+
+	/** 空の文書 */
+	public static final ShortcodeDocument EMPTY = new ShortcodeDocument(Constants.EMPTY_STRING, Collections.emptyList());
+
+	/**
+	 * セグメントの種類
+	 */
+	public enum SegmentType {
+		/** 文字列 */
+		TEXT,
+		/** ショートコード */
+		SHORTCODE
+	}
+
+	/**
+	 * 文書を構成するセグメント
+	 */
+	@Getter
+	public static final class Segment {
+		/** セグメントの種類 */
+		private final SegmentType type;
+		/** 元の本文での開始位置 */
+		private final int start;
+		/** 元の本文での終了位置（この位置の文字は含まない） */
+		private final int end;
+		/** ショートコード名（TEXTの場合null） */
+		private final String name;
+		/** 属性（出現順、TEXTの場合は空） */
+		private final Map<String, String> attributes;
+		/** 元の文字列 */
+		private final String raw;
+
+		private Segment(SegmentType type, int start, int end, String name, Map<String, String> attributes, String raw) {
+			this.type = type;
+			this.start = start;
+			this.end = end;
+			this.name = name;
+			this.attributes = attributes;
+			this.raw = raw;
+		}
+
+		/**
+		 * ショートコードかどうか
+		 *
+		 * @return ショートコードの場合true
+		 */
+		public boolean isShortcode() {
+			return type == SegmentType.SHORTCODE;
+		}
+
+		/**
+		 * 属性の値を取得する
+		 *
+		 * @param key 属性名
+		 * @return 属性の値（無い場合null）
+		 */
+		public String getAttribute(String key) {
+			return attributes.get(key);
+		}
+	}
+
+	/** 元の本文 */
+	@Getter
+	private final String source;
+
+	/** セグメントの不変リスト */
+	@Getter
+	private final List<Segment> segments;
+
+	/** ショートコードを含むかどうか */
+	private final boolean hasShortcodes;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param source 元の本文
+	 * @param segments セグメントのリスト
+	 */
+	private ShortcodeDocument(String source, List<Segment> segments) {
+		this.source = source;
+		this.segments = Collections.unmodifiableList(segments);
+		boolean found = false;
+		for (Segment segment : segments) {
+			found |= segment.isShortcode();
+		}
+		this.hasShortcodes = found;
+	}
+
+	/**
+	 * コンテンツ本文を解析する
+	 *
+	 * @param source コンテンツ本文
+	 * @param names ショートコードとして扱う名前
+	 * @return コンパイル済み文書（空・nullの場合は EMPTY）
+	 */
+	public static ShortcodeDocument parse(String source, Set<String> names) {
+		if (source == null || source.isEmpty()) {
+			return EMPTY;
+		}
+		List<Segment> segments = new ArrayList<>();
+		int textStart = 0;
+		int open = source.indexOf('[');
+		while (open >= 0) {
+			int close = source.indexOf(']', open + 1);
+			if (close < 0) {
+				break;
+			}
+			Segment shortcode = parseShortcode(source, open, close, names);
+			if (shortcode == null) {
+				open = source.indexOf('[', open + 1);
+				continue;
+			}
+			if (open > textStart) {
+				segments.add(text(textStart, open));
+			}
+			segments.add(shortcode);
+			textStart = close + 1;
+			open = source.indexOf('[', textStart);
+		}
+		if (textStart < source.length()) {
+			segments.add(text(textStart, source.length()));
+		}
+		return new ShortcodeDocument(source, segments);
+	}
+
+	/**
+	 * "[" から "]" までをショートコードとして解析する
+	 *
+	 * @param source コンテンツ本文
+	 * @param open "[" の位置
+	 * @param close "]" の位置
+	 * @param names ショートコードとして扱う名前
+	 * @return ショートコードのセグメント（ショートコードでない場合null）
+	 */
+	private static Segment parseShortcode(String source, int open, int close, Set<String> names) {
+		int nameEnd = open + 1;
+		while (nameEnd < close && isNameChar(source.charAt(nameEnd))) {
+			nameEnd++;
+		}
+		String name = source.substring(open + 1, nameEnd);
+		if (name.isEmpty() || !names.contains(name)) {
+			return null;
+		}
+		if (nameEnd < close && !Character.isWhitespace(source.charAt(nameEnd))) {
+			return null;
+		}
+		String body = source.substring(nameEnd, close);
+		if (body.indexOf('[') >= 0) {
+			return null;
+		}
+		Map<String, String> attributes = new LinkedHashMap<>();
+		for (String token : body.split(",")) {
+			int eq = token.indexOf('=');
+			if (eq > 0) {
+				attributes.put(token.substring(0, eq).trim(), token.substring(eq + 1).trim());
+			} else if (!token.trim().isEmpty()) {
+				attributes.put(token.trim(), "");
+			}
+		}
+		return new Segment(SegmentType.SHORTCODE, open, close + 1, name, Collections.unmodifiableMap(attributes),
+				source.substring(open, close + 1));
+	}
+
+	/**
+	 * 文字列のセグメントを生成する
+	 *
+	 * @param start 開始位置
+	 * @param end 終了位置
+	 * @return 文字列のセグメント
+	 */
+	private static Segment text(int start, int end) {
+		return new Segment(SegmentType.TEXT, start, end, null, Collections.emptyMap(), null);
+	}
+
+	/**
+	 * ショートコード名に使用できる文字かどうか
+	 *
+	 * @param c 文字
+	 * @return 英数字・"_"・"-" の場合true
+	 */
+	private static boolean isNameChar(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+	}
+
+	/**
+	 * ショートコードを含むかどうか
+	 *
+	 * @return 含む場合true
+	 */
+	public boolean hasShortcodes() {
+		return hasShortcodes;
+	}
+
+	/**
+	 * 文字列のセグメントを出力先に追加する
+	 *
+	 * @param output 出力先
+	 * @param segment 文字列のセグメント
+	 */
+	public void appendText(StringBuilder output, Segment segment) {
+		output.append(source, segment.getStart(), segment.getEnd());
+	}
+}
@@ -0,0 +1,136 @@
+package com.example.skygarden.logic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.example.skygarden.constants.Constants;
+
+import lombok.Getter;
+
+/**
+ * コンパイル済みテンプレートレイアウト
+ *
+ * テンプレートのcontentフィールド（"###element(ID),###content###,###element(ID)" 形式）を
+ * 一度だけ解析し、セグメントの不変リストとして保持するクラスです。
+ * 表示処理はこのリストを順に辿るだけで済むため、リクエストごとの文字列分割・置換が不要になります。
+ *
+ * セグメントの種類:
+ * - ELEMENT: 構成要素の参照（構成要素IDを保持）
+ * - CONTENT: コンテンツ本文の挿入位置
+ *
+ * 解析ルール:
+ * - カンマで分割し、前後の空白を除去する
+ * - "###content###" はコンテンツ本文の挿入位置として扱う
+ * - それ以外は "###"・"element("・")" を取り除いた文字列を構成要素IDとして扱う
+ * - 空のトークンは無視する
+ *
+ * このクラスのインスタンスは不変で、複数スレッドから共有できます。
+ *
+ * @see com.example.skygarden.service.TemplateLayoutService レイアウトのキャッシュ
+ */
+public final class TemplateLayout {
+
+	/** 空のレイアウト */
+	public static final TemplateLayout EMPTY = new TemplateLayout(Collections.emptyList());
+
+	/**
+	 * セグメントの種類
+	 */
+	public enum SegmentType {
+		/** 構成要素の参照 */
+		ELEMENT,
+		/** コンテンツ本文の挿入位置 */
+		CONTENT
+	}
+
+	/**
+	 * レイアウトを構成するセグメント
+	 */
+	@Getter
+	public static final class Segment {
+		/** セグメントの種類 */
+		private final SegmentType type;
+		/** 構成要素ID（CONTENTの場合null） */
+		private final String elementId;
+
+		private Segment(SegmentType type, String elementId) {
+			this.type = type;
+			this.elementId = elementId;
+		}
+
+		/**
+		 * コンテンツ本文の挿入位置かどうか
+		 *
+		 * @return コンテンツ本文の挿入位置の場合true
+		 */
+		public boolean isContent() {
+			return type == SegmentType.CONTENT;
+		}
+	}
+
+	/** セグメントの不変リスト */
+	@Getter
+	private final List<Segment> segments;
+
+	/** 参照される構成要素IDの不変リスト（重複なし・出現順） */
+	@Getter
+	private final List<String> elementIds;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param segments セグメントのリスト
+	 */
+	private TemplateLayout(List<Segment> segments) {
+		this.segments = Collections.unmodifiableList(segments);
+		Set<String> ids = new LinkedHashSet<>();
+		for (Segment segment : segments) {
+			if (!segment.isContent()) {
+				ids.add(segment.getElementId());
+			}
+		}
+		this.elementIds = Collections.unmodifiableList(new ArrayList<>(ids));
+	}
+
+	/**
+	 * テンプレートのcontentフィールドを解析する
+	 *
+	 * @param templateContent テンプレートのcontentフィールド
+	 * @return コンパイル済みレイアウト（空・nullの場合は EMPTY）
+	 */
+	public static TemplateLayout parse(String templateContent) {
+		if (templateContent == null || templateContent.isEmpty()) {
+			return EMPTY;
+		}
+		List<Segment> segments = new ArrayList<>();
+		for (String token : templateContent.split(",")) {
+			token = token.trim();
+			if (token.isEmpty()) {
+				continue;
+			}
+			if (token.equals(Constants.TEMPLATE_CONTENT_PLACEHOLDER)) {
+				segments.add(new Segment(SegmentType.CONTENT, null));
+			} else {
+				String elementId = token.replace(Constants.ELEMENT_PREFIX, Constants.EMPTY_STRING)
+						.replace(Constants.ELEMENT_FUNCTION_START, Constants.EMPTY_STRING)
+						.replace(Constants.ELEMENT_FUNCTION_END, Constants.EMPTY_STRING);
+				if (!elementId.isEmpty()) {
+					segments.add(new Segment(SegmentType.ELEMENT, elementId));
+				}
+			}
+		}
+		return segments.isEmpty() ? EMPTY : new TemplateLayout(segments);
+	}
+
+	/**
+	 * セグメントが存在しないかどうか
+	 *
+	 * @return セグメントが存在しない場合true
+	 */
+	public boolean isEmpty() {
+		return segments.isEmpty();
+	}
+}
@@ -7,6 +7,7 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.example.skygarden.bean.PagerBean;
 import com.example.skygarden.config.AppProperties;
 import com.example.skygarden.constants.Constants;
 import com.example.skygarden.mapper.ContentMapper;
@@ -26,8 +27,8 @@ import jakarta.servlet.http.HttpSession;
  * - ユーザーの新規作成
  * - ユーザー情報の更新
  * - ユーザー情報の取得（IDによる検索）
- * - ユーザー一覧の取得（ページネーション・ソート対応）
- * - ページネーションHTMLの生成
+ * - ユーザー一覧の取得（ページネーション・ソート対応、キーセットページネーション（ListCursor）にも対応）
+ * - ページネーション情報（PagerBean）の生成
  * 
  * ユーザー属性:
  * - id: ユーザーID（自動採番）
@@ -130,6 +131,32 @@ public class User {
 		return mapper.selectAllLimit(Constants.TABLE_USER, sort, Constants.EMPTY_STRING, pageSize, offset);
 	}
 
+	/**
+	 * 一覧をキーセットページネーションで表示するかどうか
+	 * 
+	 * @return app.pagination.keyset が有効な場合true
+	 */
+	public boolean isKeysetPagination() {
+		return appProperties.getPagination().isKeyset();
+	}
+
+	/**
+	 * ユーザー一覧を取得する（キーセットページネーション）
+	 * カーソルが示す行の後（前）から1ページ分を取得するため、何ページ目でも同じコストで取得できる
+	 * 
+	 * @param sort ソート順（選択肢にない場合はIDの昇順）
+	 * @param cursor カーソル文字列（空文字の場合は先頭ページ）
+	 * @return 1ページ分のユーザー一覧と前後のページのカーソル
+	 */
+	public ListCursor.Page getListByCursor(String sort, String cursor) {
+		ListCursor position = ListCursor.parse(cursor,
+				ListCursor.resolveSort(sort, Constants.SORT_OPTIONS_USER, Constants.DEFAULT_SORT_USER));
+		int pageSize = appProperties.getPagination().getPageSize();
+		List<HashMap<String, String>> rows = mapper.selectAllKeyset(Constants.TABLE_USER, Constants.EMPTY_STRING,
+				position.getColumn(), position.isQueryDescending(), position.getValue(), position.getId(), pageSize + 1);
+		return position.page(rows, pageSize);
+	}
+
 	/**
 	 * ユーザーIDでユーザー情報を取得する
 	 * 
@@ -141,34 +168,39 @@ public class User {
 	}
 
 	/**
-	 * ページネーション用のHTMLを生成する
+	 * ページネーション情報を生成する
 	 * 
 	 * @param page 現在のページ番号
 	 * @param pageUrl ページURL
 	 * @param sort ソート順
-	 * @return ページネーション用のHTML文字列
+	 * @return ページネーション情報
 	 */
-	public String getPager(int page, String pageUrl, String sort) {
-		StringBuffer output = new StringBuffer();
+	public PagerBean getPager(int page, String pageUrl, String sort) {
 		int contentSize = mapper.getContentSize(Constants.TABLE_USER, Constants.EMPTY_STRING);
 		int pageSize = appProperties.getPagination().getPageSize();
 		int totalPages = PaginationUtil.calculateTotalPages(contentSize, pageSize);
+		return PaginationUtil.createPager(page, totalPages, false, pageUrl, "&sort=" + sort,
+				appProperties.getPagination().getWindow());
+	}
+
+	/**
+	 * キーセットページネーション用のページネーション情報を生成する（前後のページへのリンクのみ、総件数は数えない）
+	 * 
+	 * @param page 表示中のページ
+	 * @param pageUrl ページURL
+	 * @param sort ソート順
+	 * @return ページネーション情報
+	 */
+	public PagerBean getCursorPager(ListCursor.Page page, String pageUrl, String sort) {
+		PagerBean pager = new PagerBean();
 		//Prev
-		if (1 < page && totalPages != 0) {
-			output.append("<li class=\"page-item me-4\"><a class=\"page-link sky-pagination-link\" href=\"" + pageUrl + "?page=" + (page - 1) + "&sort=" + sort + "\" aria-label=\"Previous\"><span aria-hidden=\"true\">&laquo;</span></a></li>");
-		}
-		//PageNum
-		for (int i = 1; i <= totalPages; i++) {
-			if (i == page) {
-				output.append("<li class=\"page-item mx-2\">" + i + "</span></li>");
-			} else {
-				output.append("<li class=\"page-item mx-2\"><a class=\"page-link sky-pagination-link\" href=\"" + pageUrl + "?page=" + i + "&sort=" + sort + "\">" + i + "</a></li>");
-			}
+		if (page.getPrevCursor() != null) {
+			pager.setPrevUrl(pageUrl + "?cursor=" + page.getPrevCursor() + "&sort=" + sort);
 		}
 		//Next
-		if (page < totalPages) {
-			output.append("<li class=\"page-item ms-4\"><a class=\"page-link sky-pagination-link\" href=\"" + pageUrl + "?page=" + (page + 1) + "&sort=" + sort + "\" aria-label=\"Next\"><span aria-hidden=\"true\">&raquo;</span></a></li>");
+		if (page.getNextCursor() != null) {
+			pager.setNextUrl(pageUrl + "?cursor=" + page.getNextCursor() + "&sort=" + sort);
 		}
-		return output.toString();
+		return pager;
 	}
 }
\ No newline at end of file
@@ -6,6 +6,10 @@ import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import com.example.skygarden.bean.FileMetadata;
+import com.example.skygarden.bean.PageModel;
+import com.example.skygarden.bean.RenderedPage;
+
 /**
  * コンテンツ管理用のMyBatis Mapperインターフェース
  * 
@@ -17,6 +21,8 @@ import org.apache.ibatis.annotations.Param;
  * - content_public: 公開中のコンテンツ
  * - user: ユーザー情報
  * - config: 設定情報
+ * - file_metadata: アップロードファイルのメタデータ
+ * - content_rendered: 事前描画済みの公開ページ
  * 
  * 主な機能:
  * - ユーザー関連: 取得、作成、更新
@@ -110,11 +116,47 @@ public interface ContentMapper {
 	 */
 	HashMap<String, String> search(@Param("id") String id, @Param("table") String table);
 	
+	/**
+	 * 複数のIDでコンテンツをまとめて検索する
+	 * テンプレートの構成要素を1回のクエリで取得するために使用する
+	 * 取得カラムは id, title, content, type, elementcolor, updated に限定する
+	 */
+	List<HashMap<String, String>> searchByIds(@Param("ids") List<String> ids, @Param("table") String table);
+	
+	/**
+	 * 複数のIDでコンテンツの一覧用のカラムをまとめて取得する
+	 * 全文検索インデックスで絞り込んだ1ページ分の一覧を取得するために使用する
+	 * 本文（content）・ヘッダー（head）は一覧に表示する画像・動画の情報のみ取得する
+	 */
+	List<HashMap<String, String>> selectSummariesByIds(@Param("ids") List<String> ids, @Param("table") String table);
+	
 	/**
 	 * URLでコンテンツを検索する
 	 */
 	HashMap<String, String> searchByUrl(@Param("url") String url, @Param("table") String table);
 	
+	/**
+	 * 公開URLからページの描画に必要な情報を取得する
+	 * 公開コンテンツとテンプレート（レイアウト定義・ヘッダー）を1回のクエリで取得する
+	 */
+	PageModel resolvePage(@Param("url") String url);
+	
+	/**
+	 * 複数の公開コンテンツIDからページの描画に必要な情報をまとめて取得する
+	 * 
+	 * @param ids 公開コンテンツIDのリスト
+	 * @return ページ情報のリスト（存在しないIDは含まれない）
+	 */
+	List<PageModel> resolvePagesByIds(@Param("ids") List<String> ids);
+	
+	/**
+	 * 描画対象（コンテンツ・CSS・JS）の公開コンテンツIDを取得する
+	 * 
+	 * @param missingOnly trueの場合、事前描画済みのページが登録されていないIDのみ取得する
+	 * @return 公開コンテンツIDのリスト（ID順）
+	 */
+	List<String> getRenderablePageIds(@Param("missingOnly") boolean missingOnly);
+	
 	/**
 	 * コンテンツの特定の属性値を取得する
 	 */
@@ -134,6 +176,23 @@ public interface ContentMapper {
 			@Param("sort") String sort, @Param("type") String type,
 			@Param("limit") int limit, @Param("offset") int offset);
 	
+	/**
+	 * コンテンツ一覧を取得する（キーセットページネーション）
+	 * 境界の行（afterValue, afterId）より後の行を「ソート列, ID」の順に limit 件取得する
+	 * OFFSET を使用しないため、何ページ目でも同じコストで取得できる
+	 * 
+	 * @param table テーブル名
+	 * @param type コンテンツタイプ（userテーブルの場合は使用しない）
+	 * @param column ソート列（ListCursor で選択肢に限定した値）
+	 * @param descending 降順で取得する場合true
+	 * @param afterValue 境界の行のソート列の値（NULLの場合null）
+	 * @param afterId 境界の行のID（先頭ページの場合null）
+	 * @param limit 取得件数
+	 */
+	List<HashMap<String, String>> selectAllKeyset(@Param("table") String table, @Param("type") String type,
+			@Param("column") String column, @Param("descending") boolean descending,
+			@Param("afterValue") String afterValue, @Param("afterId") Long afterId, @Param("limit") int limit);
+	
 	/**
 	 * 最後に作成されたコンテンツのIDを取得する
 	 */
@@ -164,10 +223,87 @@ public interface ContentMapper {
 	 */
 	List<HashMap<String, String>> getUrlList();
 	
+	/**
+	 * 公開コンテンツのルーティング情報（id, url, type, updated）を全件取得する
+	 */
+	List<HashMap<String, String>> getPublicRoutes();
+	
+	/**
+	 * 全文検索インデックス用にコンテンツ（id, type, title, url, content, updated）をID順に取得する
+	 * 
+	 * @param afterId このIDより後のコンテンツのみ取得する（null の場合は全件）
+	 */
+	List<HashMap<String, String>> getSearchDocuments(@Param("afterId") Integer afterId);
+	
+	/**
+	 * テンプレート・構成要素の依存関係の情報（id, type, content）を全件取得する
+	 * 構成要素の content は動画タグを含む場合のみ取得する
+	 */
+	List<HashMap<String, String>> getLayoutDependencies();
+	
+	/**
+	 * 公開コンテンツ（通常コンテンツ・テンプレート・スタイルシート・スクリプト）の依存関係の情報
+	 * （id, url, type, template, content, head）を全件取得する
+	 * content は通常コンテンツが動画タグを含む場合のみ、head は link / script タグを含む場合のみ取得する
+	 */
+	List<HashMap<String, String>> getPageDependencies();
+	
+	/**
+	 * アップロードファイルのメタデータを登録する（同じファイル名が存在する場合は更新）
+	 */
+	void upsertFileMetadata(FileMetadata metadata);
+	
+	/**
+	 * アップロードファイルのメタデータを削除する
+	 * 
+	 * @param fileName ファイル名
+	 */
+	void deleteFileMetadata(@Param("fileName") String fileName);
+	
+	/**
+	 * 公開URLから事前描画済みのページを取得する
+	 */
+	RenderedPage getRenderedPage(@Param("url") String url);
+	
+	/**
+	 * 事前描画済みのページを登録する（同じIDが存在する場合は更新）
+	 */
+	void upsertRenderedPage(RenderedPage page);
+	
+	/**
+	 * 事前描画済みのページを削除する
+	 * 
+	 * @return 削除件数
+	 */
+	int deleteRenderedPage(@Param("id") String id);
+	
+	/**
+	 * 事前描画済みのページを全件削除する
+	 */
+	void deleteAllRenderedPages();
+	
+	/**
+	 * 事前描画済みのページをまとめて削除する
+	 * 
+	 * @param ids コンテンツIDのリスト
+	 */
+	void deleteRenderedPages(@Param("ids") List<String> ids);
+	
+	/**
+	 * 事前描画済みのページをまとめて登録する（既存の場合は更新）
+	 * 
+	 * @param pages 描画済みのページのリスト
+	 */
+	void upsertRenderedPages(@Param("pages") List<RenderedPage> pages);
+	
 	/**
 	 * コンテンツを削除する
+	 * 
+	 * @param table テーブル名
+	 * @param id 削除するコンテンツID
+	 * @param type 削除するコンテンツのタイプ（SQLでは使用せず、ContentChangeEvent に含める。不明な場合null）
 	 */
-	void delete(@Param("table") String table, @Param("id") String id);
+	void delete(@Param("table") String table, @Param("id") String id, @Param("type") String type);
 	
 	/**
 	 * スケジュール公開対象のコンテンツIDを取得する
@@ -192,14 +328,46 @@ public interface ContentMapper {
 	/**
 	 * キーワードでコンテンツを検索する（ページネーション対応）
 	 * タイトル、URL、コンテンツ本文を対象に部分一致検索を行う
+	 * 一覧用のカラムと、本文のキーワードの前後（snippet_source）のみ取得する
 	 */
 	List<HashMap<String, String>> searchByKeyword(@Param("table") String table,
 			@Param("type") String type, @Param("keyword") String keyword,
 			@Param("sort") String sort, @Param("limit") int limit, @Param("offset") int offset);
 	
+	/**
+	 * キーワードでコンテンツを検索する（キーセットページネーション）
+	 * 境界の行（afterValue, afterId）より後の行を「ソート列, ID」の順に limit 件取得する
+	 * 一覧用のカラムと、本文のキーワードの前後（snippet_source）のみ取得する
+	 * 
+	 * @param table テーブル名
+	 * @param type コンテンツタイプ
+	 * @param keyword 検索キーワード
+	 * @param column ソート列（ListCursor で選択肢に限定した値）
+	 * @param descending 降順で取得する場合true
+	 * @param afterValue 境界の行のソート列の値（NULLの場合null）
+	 * @param afterId 境界の行のID（先頭ページの場合null）
+	 * @param limit 取得件数
+	 */
+	List<HashMap<String, String>> searchByKeywordKeyset(@Param("table") String table, @Param("type") String type,
+			@Param("keyword") String keyword, @Param("column") String column, @Param("descending") boolean descending,
+			@Param("afterValue") String afterValue, @Param("afterId") Long afterId, @Param("limit") int limit);
+	
 	/**
 	 * キーワード検索結果の総件数を取得する
 	 */
 	int getContentSizeByKeyword(@Param("table") String table, @Param("type") String type,
 			@Param("keyword") String keyword);
+	
+	/**
+	 * キーワード検索結果の件数を上限付きで取得する
+	 * 一致する行を limit 件見つけた時点で走査を打ち切るため、一致件数が多い場合も全件を数えない
+	 * 
+	 * @param table テーブル名
+	 * @param type コンテンツタイプ
+	 * @param keyword 検索キーワード
+	 * @param limit 数える件数の上限
+	 * @return 検索結果の件数（limit を超える場合は limit）
+	 */
+	int getContentSizeByKeywordLimit(@Param("table") String table, @Param("type") String type,
+			@Param("keyword") String keyword, @Param("limit") int limit);
 }
@@ -0,0 +1,681 @@
+package com.example.skygarden.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import com.example.skygarden.bean.PageModel;
+import com.example.skygarden.config.AppProperties;
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.logic.HeadAssets;
+import com.example.skygarden.mapper.ContentMapper;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * スタイルシート・スクリプトのフィンガープリント付きURLサービス
+ *
+ * CMSで管理している公開スタイルシート（stylesheet）・スクリプト（script）に、
+ * 配信内容（AssetMinifyService で圧縮した本文）のハッシュを含むURLを割り当てます。
+ * URLは内容が変わると変わるため、ブラウザは Cache-Control: immutable で長期間保持でき、
+ * 再訪問時にはスタイルシート・スクリプトのリクエストが発生しません。
+ *
+ * URLの形式:
+ * - 単体: "/css/site.css" → "/css/site.0123456789.css"（拡張子の前にハッシュ10桁を挿入）
+ * - まとめ配信（バンドル）: "/_bundle/3,5,7.0123456789.css"（公開コンテンツIDを出現順にカンマ区切り）
+ *
+ * ヘッダーの書き換え:
+ * Content.getPageHead の結果（テンプレート・コンテンツのヘッダー）を描画時に rewriteHead で書き換えます。
+ * app.render.bundle-assets が有効な場合、空白だけを挟んで連続する同じ形のタグ
+ * （URL以外が同一の link / script タグ）を1つのバンドルURLにまとめます（最大 MAX_BUNDLE_SIZE 件）。
+ * 相対パスの url() / @import を含むスタイルシートは、バンドルURL（別のディレクトリ）では
+ * 参照先が変わってしまうため、まとめずに単体のURLで配信します。
+ *
+ * 配信:
+ * RequestRoutingFilter が resolve でURLを解決し、ハッシュが現在の内容と一致する場合は
+ * app.http-cache.fingerprinted（既定: public, max-age=31536000, immutable）で配信します。
+ * 古いハッシュのURLには、現在の内容を通常のキャッシュ設定で返します。
+ * バンドルURLは app.render.bundle-assets が有効な場合のみ、rewriteHead が生成したIDの組み合わせだけを解決します
+ * （リクエストのURLから任意の組み合わせのバンドルを作成しない）。
+ * 登録済みの組み合わせは起動中のみ保持するため、描画結果を保持する側は getBundleVersion を描画時のバージョンに含めます。
+ *
+ * キャッシュの破棄:
+ * ContentChangeEvent を受け取り、公開・削除されたスタイルシート・スクリプトのエントリを破棄します。
+ * 参照しているページの再描画は ContentDependencyGraph を利用する各サービスが行います。
+ *
+ * @see HeadAssets ヘッダーの参照の解析
+ * @see AssetMinifyService 配信する本文
+ */
+@Service
+@Slf4j
+public class AssetFingerprintService {
+
+	/** ハッシュの桁数（16進数） */
+	public static final int FINGERPRINT_LENGTH = 10;
+
+	/** バンドルURLの接頭辞（先頭スラッシュなし） */
+	public static final String BUNDLE_PREFIX = "_bundle/";
+
+	/** 1つのバンドルにまとめる最大件数 */
+	public static final int MAX_BUNDLE_SIZE = 20;
+
+	/** スタイルシートの参照（url() / @import の参照先） */
+	private static final Pattern CSS_REFERENCE = Pattern.compile(
+			"url\\(\\s*['\"]?([^'\")\\s]*)|@import\\s*['\"]([^'\"]*)", Pattern.CASE_INSENSITIVE);
+
+	/** コンテンツ管理用のMyBatis Mapper */
+	@Autowired
+	private ContentMapper mapper;
+
+	/** CSS・JSの圧縮結果キャッシュサービス */
+	@Autowired
+	private AssetMinifyService assetMinifyService;
+
+	/** 公開URLルーティングテーブル */
+	@Autowired
+	private UrlRoutingTable routingTable;
+
+	/** アプリケーション設定プロパティ */
+	@Autowired
+	private AppProperties appProperties;
+
+	/** 公開URL → スタイルシート・スクリプト（対象外のURLは NOT_ASSET） */
+	private final Map<String, Asset> assets = new HashMap<>();
+
+	/** 公開コンテンツIDのカンマ区切り → バンドル */
+	private final Map<String, Asset> bundles = new HashMap<>();
+
+	/**
+	 * rewriteHead が生成したバンドルの公開コンテンツIDのカンマ区切り
+	 * 配信済みのHTMLが参照している可能性があるため、clear・変更イベントでは破棄しない
+	 */
+	private final Set<String> bundleKeys = new HashSet<>();
+
+	/** assets の破棄回数（取得中に破棄された古い内容を登録しないために使用） */
+	private long assetsVersion = 0;
+
+	/** bundles の破棄回数（取得中に破棄された古い内容を登録しないために使用） */
+	private long bundlesVersion = 0;
+
+	/** 起動ごとに異なるバンドルのバージョン（getBundleVersion） */
+	private final String bundleEpoch = Long.toString(System.currentTimeMillis(), 36);
+
+	/** 対象外のURLを表すエントリ（データベースへの再問い合わせを避けるため登録する） */
+	private static final Asset NOT_ASSET = new Asset(null, null, null, null, null);
+
+	/**
+	 * 配信するスタイルシート・スクリプト（単体またはバンドル）
+	 */
+	@Getter
+	public static class Asset {
+		/** 公開コンテンツID（バンドルの場合はカンマ区切り） */
+		private final String id;
+		/** 公開URL（先頭スラッシュなし、バンドルの場合はハッシュを含むバンドルURL） */
+		private final String url;
+		/** コンテンツタイプ */
+		private final String type;
+		/** 配信する本文 */
+		private final String body;
+		/** 本文のハッシュ */
+		private final String fingerprint;
+		/** バンドルにまとめられるかどうか（相対パスの参照を含むスタイルシートはまとめない） */
+		private final boolean bundlable;
+
+		/**
+		 * コンストラクタ
+		 *
+		 * @param id 公開コンテンツID
+		 * @param url 公開URL
+		 * @param type コンテンツタイプ
+		 * @param body 配信する本文
+		 * @param fingerprint 本文のハッシュ
+		 */
+		public Asset(String id, String url, String type, String body, String fingerprint) {
+			this.id = id;
+			this.url = url;
+			this.type = type;
+			this.body = body;
+			this.fingerprint = fingerprint;
+			this.bundlable = body != null
+					&& !(Constants.CONTENT_TYPE_STYLESHEET.equals(type) && hasRelativeReference(body));
+		}
+
+		/**
+		 * 公開コンテンツIDのリストを取得する
+		 *
+		 * @return 公開コンテンツIDのリスト（バンドルの場合は出現順）
+		 */
+		public List<String> getIds() {
+			return List.of(id.split(","));
+		}
+	}
+
+	/**
+	 * フィンガープリント付きURLの解決結果
+	 */
+	@Getter
+	public static class Resolved {
+		/** 配信するスタイルシート・スクリプト */
+		private final Asset asset;
+		/** URLのハッシュが現在の内容と一致するかどうか */
+		private final boolean current;
+
+		/**
+		 * コンストラクタ
+		 *
+		 * @param asset 配信するスタイルシート・スクリプト
+		 * @param current URLのハッシュが現在の内容と一致するかどうか
+		 */
+		public Resolved(Asset asset, boolean current) {
+			this.asset = asset;
+			this.current = current;
+		}
+	}
+
+	/**
+	 * フィンガープリント付きURLが有効かどうか
+	 *
+	 * @return 有効な場合true
+	 */
+	public boolean isEnabled() {
+		return appProperties.getRender().isFingerprintAssets();
+	}
+
+	/**
+	 * バンドルURLが有効かどうか
+	 *
+	 * @return フィンガープリント付きURLとまとめ配信がともに有効な場合true
+	 */
+	public boolean isBundleEnabled() {
+		return isEnabled() && appProperties.getRender().isBundleAssets();
+	}
+
+	/**
+	 * バンドルのバージョンを取得する
+	 * 登録済みのバンドルは起動中のみ保持するため、以前の起動で描画したHTMLのバンドルURLは解決できない。
+	 * 描画結果を保持する側（PageRenderService）はこの値を描画時のバージョンに含め、再起動後に描画し直す
+	 *
+	 * @return バンドルが無効な場合は空文字、有効な場合は起動ごとに異なる値
+	 */
+	public String getBundleVersion() {
+		return isBundleEnabled() ? bundleEpoch : Constants.EMPTY_STRING;
+	}
+
+	/**
+	 * 公開URLのスタイルシート・スクリプトを取得する
+	 *
+	 * @param url 公開URL（先頭スラッシュなし）
+	 * @return スタイルシート・スクリプト（対象外の場合null）
+	 */
+	public Asset getAsset(String url) {
+		long version;
+		synchronized (assets) {
+			Asset asset = assets.get(url);
+			if (asset != null) {
+				return asset != NOT_ASSET ? asset : null;
+			}
+			version = assetsVersion;
+		}
+		UrlRoutingTable.Route route = routingTable.lookup(url);
+		if (route == null && routingTable.isLoaded()) {
+			// 公開URLに存在しない（公開前の可能性があるため登録しない）
+			return null;
+		}
+		Asset asset = NOT_ASSET;
+		if (route == null || isAssetType(route.getType())) {
+			PageModel page = mapper.resolvePage(url);
+			if (page != null && page.getId() != null && isAssetType(page.getType())) {
+				String body = assetMinifyService.getMinified(page);
+				asset = new Asset(page.getId(), url, page.getType(), body, fingerprint(body));
+			}
+		}
+		synchronized (assets) {
+			// 取得中に破棄された場合は古い内容の可能性があるため登録しない
+			// ルーティングテーブルの読み込み前は、任意のURLを対象外として登録しない
+			if (version == assetsVersion && (route != null || asset != NOT_ASSET)) {
+				assets.put(url, asset);
+			}
+		}
+		return asset != NOT_ASSET ? asset : null;
+	}
+
+	/**
+	 * バンドルを取得する（rewriteHead から使用）
+	 * IDの組み合わせを登録し、resolve でバンドルURLを解決できるようにする
+	 *
+	 * @param ids 公開コンテンツID（出現順）
+	 * @return バンドル（存在しないID・タイプの異なるコンテンツ・まとめられないスタイルシートを含む場合null）
+	 */
+	public Asset getBundle(List<String> ids) {
+		String key = String.join(",", ids);
+		long version;
+		synchronized (bundles) {
+			Asset bundle = bundles.get(key);
+			if (bundle != null) {
+				return bundle;
+			}
+			version = bundlesVersion;
+		}
+		Asset bundle = createBundle(ids);
+		if (bundle != null) {
+			synchronized (bundles) {
+				bundleKeys.add(key);
+				if (version == bundlesVersion) {
+					bundles.put(key, bundle);
+				}
+			}
+		}
+		return bundle;
+	}
+
+	/**
+	 * 登録済みのIDの組み合わせのバンドルを取得する（resolve から使用）
+	 * 未登録の組み合わせは作成しない。作成したバンドルはハッシュがリクエストと一致する場合のみ保持する
+	 *
+	 * @param key 公開コンテンツIDのカンマ区切り
+	 * @param fingerprint リクエストのURLのハッシュ
+	 * @return バンドル（未登録の組み合わせ・作成できない場合null）
+	 */
+	private Asset findBundle(String key, String fingerprint) {
+		List<String> ids = parseIds(key);
+		if (ids == null) {
+			return null;
+		}
+		long version;
+		synchronized (bundles) {
+			if (!bundleKeys.contains(key)) {
+				return null;
+			}
+			Asset bundle = bundles.get(key);
+			if (bundle != null) {
+				return bundle;
+			}
+			version = bundlesVersion;
+		}
+		Asset bundle = createBundle(ids);
+		if (bundle != null && fingerprint.equals(bundle.getFingerprint())) {
+			synchronized (bundles) {
+				if (version == bundlesVersion) {
+					bundles.put(key, bundle);
+				}
+			}
+		}
+		return bundle;
+	}
+
+	/**
+	 * バンドルを作成する
+	 *
+	 * @param ids 公開コンテンツID（出現順）
+	 * @return バンドル（存在しないID・タイプの異なるコンテンツ・まとめられないスタイルシートを含む場合null）
+	 */
+	private Asset createBundle(List<String> ids) {
+		String key = String.join(",", ids);
+		Map<String, PageModel> pages = new HashMap<>();
+		List<PageModel> rows = mapper.resolvePagesByIds(ids);
+		if (rows != null) {
+			for (PageModel page : rows) {
+				pages.put(page.getId(), page);
+			}
+		}
+		String type = null;
+		StringBuilder body = new StringBuilder();
+		for (String id : ids) {
+			PageModel page = pages.get(id);
+			if (page == null || !isAssetType(page.getType()) || (type != null && !type.equals(page.getType()))) {
+				return null;
+			}
+			type = page.getType();
+			if (body.length() > 0) {
+				// 前のスクリプトが ";" で終わっていない場合に備えて区切る
+				body.append(Constants.CONTENT_TYPE_SCRIPT.equals(type) ? ";\n" : "\n");
+			}
+			String minified = assetMinifyService.getMinified(page);
+			if (Constants.CONTENT_TYPE_STYLESHEET.equals(type) && hasRelativeReference(minified)) {
+				return null;
+			}
+			body.append(minified);
+		}
+		String bundleBody = body.toString();
+		String fingerprint = fingerprint(bundleBody);
+		return new Asset(key, bundleUrl(ids, type, fingerprint), type, bundleBody, fingerprint);
+	}
+
+	/**
+	 * ヘッダー部分のスタイルシート・スクリプトの参照をフィンガープリント付きURLに書き換える
+	 *
+	 * @param head ヘッダー部分
+	 * @return 書き換えたヘッダー部分（無効な場合・参照が無い場合はそのまま）
+	 */
+	public String rewriteHead(String head) {
+		if (head == null || head.indexOf('<') < 0 || !isEnabled()) {
+			return head;
+		}
+		HeadAssets parsed = HeadAssets.parse(head);
+		if (!parsed.hasReferences()) {
+			return head;
+		}
+		boolean bundle = appProperties.getRender().isBundleAssets();
+		List<HeadAssets.Reference> references = parsed.getReferences();
+		StringBuilder output = new StringBuilder(head.length());
+		int position = 0;
+		int i = 0;
+		while (i < references.size()) {
+			HeadAssets.Reference first = references.get(i);
+			Asset asset = getAsset(first.getUrl());
+			if (asset == null) {
+				i++;
+				continue;
+			}
+			// 連続する同じ形のタグをまとめる（同じIDが続く場合・最大件数に達した場合はそこで区切る）
+			List<String> ids = new ArrayList<>();
+			ids.add(asset.getId());
+			int last = i;
+			while (bundle && asset.isBundlable() && last + 1 < references.size() && ids.size() < MAX_BUNDLE_SIZE) {
+				HeadAssets.Reference next = references.get(last + 1);
+				Asset nextAsset = isBundlable(head, references.get(last), next) ? getAsset(next.getUrl()) : null;
+				if (nextAsset == null || !asset.getType().equals(nextAsset.getType()) || !nextAsset.isBundlable()
+						|| ids.contains(nextAsset.getId())) {
+					break;
+				}
+				ids.add(nextAsset.getId());
+				last++;
+			}
+			String url = asset.getUrl();
+			String fingerprint = asset.getFingerprint();
+			if (ids.size() > 1) {
+				Asset bundled = getBundle(ids);
+				if (bundled == null) {
+					last = i;
+				} else {
+					url = bundled.getUrl();
+					fingerprint = null;
+				}
+			}
+			output.append(head, position, first.getValueStart());
+			output.append('/').append(fingerprint != null ? fingerprintedUrl(url, fingerprint) : url);
+			output.append(head, first.getValueEnd(), first.getTagEnd());
+			position = references.get(last).getTagEnd();
+			i = last + 1;
+		}
+		output.append(head, position, head.length());
+		return output.toString();
+	}
+
+	/**
+	 * フィンガープリント付きURLを解決する
+	 *
+	 * @param path リクエストのパス（先頭スラッシュなし）
+	 * @return 解決結果（フィンガープリント付きURLでない場合・対象が存在しない場合null）
+	 */
+	public Resolved resolve(String path) {
+		if (path == null || !isEnabled()) {
+			return null;
+		}
+		int slash = path.lastIndexOf('/');
+		int dot = path.indexOf('.', slash + 1);
+		int hashStart = -1;
+		int hashEnd = -1;
+		// 最後のセグメントの "." で区切られた部分からハッシュを探す
+		while (dot >= 0) {
+			int next = path.indexOf('.', dot + 1);
+			int end = next >= 0 ? next : path.length();
+			if (end - dot - 1 == FINGERPRINT_LENGTH && isHex(path, dot + 1, end)) {
+				hashStart = dot;
+				hashEnd = end;
+			}
+			dot = next;
+		}
+		if (hashStart < 0 || routingTable.lookup(path) != null) {
+			return null;
+		}
+		String fingerprint = path.substring(hashStart + 1, hashEnd);
+		String url = path.substring(0, hashStart) + path.substring(hashEnd);
+		Asset asset;
+		if (url.startsWith(BUNDLE_PREFIX)) {
+			if (!isBundleEnabled()) {
+				return null;
+			}
+			int extension = url.lastIndexOf('.');
+			asset = findBundle(url.substring(BUNDLE_PREFIX.length(), extension > 0 ? extension : url.length()), fingerprint);
+			if (asset != null && !url.equals(unfingerprintedUrl(asset))) {
+				asset = null;
+			}
+		} else {
+			asset = getAsset(url);
+		}
+		if (asset == null) {
+			return null;
+		}
+		return new Resolved(asset, fingerprint.equals(asset.getFingerprint()));
+	}
+
+	/**
+	 * 全エントリを破棄する（登録済みのバンドルのIDの組み合わせは残す）
+	 */
+	public void clear() {
+		synchronized (assets) {
+			assets.clear();
+			assetsVersion++;
+		}
+		synchronized (bundles) {
+			bundles.clear();
+			bundlesVersion++;
+		}
+	}
+
+	/**
+	 * キャッシュ件数を取得する（対象外のURLを含む）
+	 *
+	 * @return キャッシュ件数
+	 */
+	public int size() {
+		synchronized (assets) {
+			return assets.size();
+		}
+	}
+
+	/**
+	 * コンテンツ変更イベントを受け取り、変更されたスタイルシート・スクリプトのエントリを破棄する
+	 * 参照しているページの再描画（PageRenderService・RenderJobService）より先に破棄するため、最初に実行する
+	 *
+	 * @param event コンテンツ変更イベント
+	 */
+	@EventListener
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void onContentChange(ContentChangeEvent event) {
+		String id = event.getId();
+		boolean delete = event.getOperation() == ContentChangeEvent.Operation.DELETE;
+		if (!delete && !event.isPublicTable()) {
+			return;
+		}
+		if (id == null) {
+			clear();
+			return;
+		}
+		synchronized (assets) {
+			assetsVersion++;
+			assets.values().removeIf(asset -> id.equals(asset.getId()));
+			if (event.getUrl() != null) {
+				// 対象外として登録されていたURLに公開された場合
+				assets.remove(event.getUrl());
+			}
+		}
+		synchronized (bundles) {
+			bundlesVersion++;
+			bundles.values().removeIf(bundle -> bundle.getIds().contains(id));
+		}
+	}
+
+	/**
+	 * 公開URLにハッシュを挿入する
+	 *
+	 * @param url 公開URL（先頭スラッシュなし）
+	 * @param fingerprint ハッシュ
+	 * @return フィンガープリント付きURL（"css/site.css" → "css/site.0123456789.css"）
+	 */
+	public static String fingerprintedUrl(String url, String fingerprint) {
+		int slash = url.lastIndexOf('/');
+		int dot = url.lastIndexOf('.');
+		if (dot <= slash + 1) {
+			return url + "." + fingerprint;
+		}
+		return url.substring(0, dot) + "." + fingerprint + url.substring(dot);
+	}
+
+	/**
+	 * 本文のハッシュを求める
+	 *
+	 * @param body 本文
+	 * @return SHA-256 の先頭 FINGERPRINT_LENGTH 桁（16進数）
+	 */
+	public static String fingerprint(String body) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] hash = digest.digest(body.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(hash).substring(0, FINGERPRINT_LENGTH);
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-256 は全てのJava実装で利用可能
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * バンドルURLを生成する
+	 *
+	 * @param ids 公開コンテンツID
+	 * @param type コンテンツタイプ
+	 * @param fingerprint ハッシュ
+	 * @return バンドルURL（先頭スラッシュなし）
+	 */
+	private static String bundleUrl(List<String> ids, String type, String fingerprint) {
+		String extension = Constants.CONTENT_TYPE_SCRIPT.equals(type) ? ".js" : ".css";
+		return BUNDLE_PREFIX + String.join(",", ids) + "." + fingerprint + extension;
+	}
+
+	/**
+	 * バンドルURLからハッシュを除いたURLを取得する
+	 *
+	 * @param bundle バンドル
+	 * @return ハッシュを除いたバンドルURL
+	 */
+	private static String unfingerprintedUrl(Asset bundle) {
+		return bundle.getUrl().replace("." + bundle.getFingerprint(), Constants.EMPTY_STRING);
+	}
+
+	/**
+	 * 前の参照と次の参照をまとめられるかどうか
+	 * 間が空白だけで、URL以外のタグの内容が同一の場合にまとめる
+	 *
+	 * @param head ヘッダー部分
+	 * @param previous 前の参照
+	 * @param next 次の参照
+	 * @return まとめられる場合true
+	 */
+	private static boolean isBundlable(String head, HeadAssets.Reference previous, HeadAssets.Reference next) {
+		if (previous.getKind() != next.getKind()) {
+			return false;
+		}
+		for (int i = previous.getTagEnd(); i < next.getTagStart(); i++) {
+			if (!Character.isWhitespace(head.charAt(i))) {
+				return false;
+			}
+		}
+		return head.substring(previous.getTagStart(), previous.getValueStart()).equals(head.substring(next.getTagStart(), next.getValueStart()))
+				&& head.substring(previous.getValueEnd(), previous.getTagEnd()).equals(head.substring(next.getValueEnd(), next.getTagEnd()));
+	}
+
+	/**
+	 * カンマ区切りのIDを解析する
+	 * 順序はスタイルシート・スクリプトの適用順のため並べ替えず、rewriteHead が生成しない形は受け付けない
+	 *
+	 * @param value カンマ区切りのID
+	 * @return IDのリスト（数字以外・先頭が0のID・重複を含む場合、MAX_BUNDLE_SIZE を超える場合null）
+	 */
+	private static List<String> parseIds(String value) {
+		String[] values = value.split(",", MAX_BUNDLE_SIZE + 1);
+		if (values.length < 2 || values.length > MAX_BUNDLE_SIZE) {
+			return null;
+		}
+		List<String> ids = new ArrayList<>();
+		for (String id : values) {
+			if (id.isEmpty() || id.charAt(0) == '0' || !id.chars().allMatch(c -> c >= '0' && c <= '9') || ids.contains(id)) {
+				return null;
+			}
+			ids.add(id);
+		}
+		return ids;
+	}
+
+	/**
+	 * スタイルシートが相対パスの参照（url() / @import）を含むかどうか
+	 * "/" で始まるパス・スキーム付きのURL・data: URL・"#" で始まる参照は、配信するURLによらないため対象外
+	 *
+	 * @param css スタイルシート
+	 * @return 相対パスの参照を含む場合true
+	 */
+	static boolean hasRelativeReference(String css) {
+		if (css.indexOf('(') < 0 && css.indexOf('@') < 0) {
+			return false;
+		}
+		Matcher matcher = CSS_REFERENCE.matcher(css);
+		while (matcher.find()) {
+			String reference = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+			if (reference.isEmpty() || reference.startsWith("/") || reference.startsWith("#")) {
+				continue;
+			}
+			int colon = reference.indexOf(':');
+			int slash = reference.indexOf('/');
+			if (colon > 0 && (slash < 0 || colon < slash)) {
+				// スキーム付き（http: / https: / data: など）
+				continue;
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 指定範囲が16進数（小文字）かどうか
+	 *
+	 * @param value 文字列
+	 * @param start 開始位置
+	 * @param end 終了位置
+	 * @return 16進数の場合true
+	 */
+	private static boolean isHex(String value, int start, int end) {
+		for (int i = start; i < end; i++) {
+			char c = value.charAt(i);
+			if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * スタイルシート・スクリプトのタイプかどうか
+	 *
+	 * @param type コンテンツタイプ
+	 * @return スタイルシート・スクリプトの場合true
+	 */
+	private static boolean isAssetType(String type) {
+		return Constants.CONTENT_TYPE_STYLESHEET.equals(type) || Constants.CONTENT_TYPE_SCRIPT.equals(type);
+	}
+}
@@ -0,0 +1,172 @@
+package com.example.skygarden.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.skygarden.bean.PageModel;
+import com.example.skygarden.config.AppProperties;
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.util.AssetMinifier;
+
+/**
+ * スタイルシート（CSS）・スクリプト（JS）の圧縮結果キャッシュサービス
+ *
+ * 公開コンテンツ（content_public）のCSS・JSを AssetMinifier で圧縮し、
+ * コンテンツIDと更新日時（updated）の組をキーとして保持します。
+ * 配信時（RequestRoutingFilter → PageRenderService）は保持した圧縮結果を使用するため、
+ * リクエストごとの文字列処理は行いません。
+ *
+ * 圧縮のタイミング:
+ * ContentWriteInterceptor が発行する ContentChangeEvent を受け取り、
+ * content_public への公開時に圧縮して登録します。
+ * 編集用の content テーブルの本文は圧縮せず、元のまま編集できます。
+ * キャッシュに無い場合、または更新日時・本文が変わっている場合は、取得時に圧縮して登録します。
+ *
+ * app.render.minify-assets=false の場合は圧縮せずに本文をそのまま返します。
+ *
+ * @see AssetMinifier 圧縮処理
+ */
+@Service
+public class AssetMinifyService {
+
+	/** アプリケーション設定プロパティ */
+	@Autowired
+	private AppProperties appProperties;
+
+	/** コンテンツID → キャッシュエントリ */
+	private final Map<String, Entry> assets = new HashMap<>();
+
+	/**
+	 * キャッシュエントリ
+	 */
+	private static class Entry {
+		/** コンテンツタイプ */
+		private final String type;
+		/** 圧縮時の更新日時 */
+		private final String updated;
+		/** 圧縮前の本文 */
+		private final String source;
+		/** 圧縮後の本文 */
+		private final String minified;
+
+		private Entry(String type, String updated, String source, String minified) {
+			this.type = type;
+			this.updated = updated;
+			this.source = source;
+			this.minified = minified;
+		}
+	}
+
+	/**
+	 * 圧縮が有効かどうか
+	 *
+	 * @return 有効な場合true
+	 */
+	public boolean isEnabled() {
+		return appProperties.getRender().isMinifyAssets();
+	}
+
+	/**
+	 * ページ情報から圧縮後のCSS・JSを取得する
+	 *
+	 * @param page ページ情報
+	 * @return 圧縮後の本文
+	 */
+	public String getMinified(PageModel page) {
+		return getMinified(page.getId(), page.getType(), page.getUpdated(), page.getContent());
+	}
+
+	/**
+	 * 圧縮後のCSS・JSを取得する
+	 * キャッシュに無い場合、または更新日時・本文が変わっている場合は圧縮して登録する
+	 *
+	 * @param id コンテンツID（nullの場合は登録しない）
+	 * @param type コンテンツタイプ（stylesheet / script）
+	 * @param updated 更新日時
+	 * @param source 圧縮前の本文
+	 * @return 圧縮後の本文（本文が無い場合は空文字）
+	 */
+	public String getMinified(String id, String type, String updated, String source) {
+		if (source == null) {
+			return Constants.EMPTY_STRING;
+		}
+		if (!isEnabled()) {
+			return source;
+		}
+		if (id == null) {
+			return AssetMinifier.minify(type, source);
+		}
+		synchronized (assets) {
+			Entry entry = assets.get(id);
+			if (entry != null && Objects.equals(entry.type, type) && Objects.equals(entry.updated, updated)
+					&& entry.source.equals(source)) {
+				return entry.minified;
+			}
+		}
+		String minified = AssetMinifier.minify(type, source);
+		synchronized (assets) {
+			assets.put(id, new Entry(type, updated, source, minified));
+		}
+		return minified;
+	}
+
+	/**
+	 * 指定IDのエントリを破棄する
+	 *
+	 * @param id コンテンツID
+	 */
+	public void evict(String id) {
+		synchronized (assets) {
+			assets.remove(id);
+		}
+	}
+
+	/**
+	 * 全エントリを破棄する
+	 */
+	public void clear() {
+		synchronized (assets) {
+			assets.clear();
+		}
+	}
+
+	/**
+	 * キャッシュ件数を取得する
+	 *
+	 * @return キャッシュ件数
+	 */
+	public int size() {
+		synchronized (assets) {
+			return assets.size();
+		}
+	}
+
+	/**
+	 * コンテンツ変更イベントを受け取り、公開されたCSS・JSを圧縮して登録する
+	 *
+	 * @param event コンテンツ変更イベント
+	 */
+	@EventListener
+	public void onContentChange(ContentChangeEvent event) {
+		String id = event.getId();
+		if (!event.isPublicTable() || id == null) {
+			return;
+		}
+		if (event.getOperation() == ContentChangeEvent.Operation.DELETE) {
+			evict(id);
+			return;
+		}
+		String type = event.getType();
+		if (Constants.CONTENT_TYPE_STYLESHEET.equals(type) || Constants.CONTENT_TYPE_SCRIPT.equals(type)) {
+			getMinified(id, type, event.getUpdated(), event.getContent());
+		} else {
+			// CSS・JSから他のタイプに変更された場合
+			evict(id);
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package com.example.skygarden.service;
+
+import java.util.Map;
+
+import com.example.skygarden.constants.Constants;
+
+import lombok.Getter;
+
+/**
+ * コンテンツ変更イベント
+ *
+ * ContentMapper 経由で content / content_public テーブルに書き込みが行われた際に
+ * ContentWriteInterceptor から発行されるイベントです。
+ * キャッシュなど、コンテンツの変更に追従する必要がある処理は
+ * このイベントを @EventListener で受け取ります。
+ *
+ * 対象となるMapperメソッド:
+ * - create / createPublic: 作成（CREATE）
+ * - update / updatePublic: 更新（UPDATE）
+ * - delete: 削除（DELETE）
+ *
+ * 注意事項:
+ * DELETE の場合、パラメータには id と table と type（呼び出し元が指定した場合のみ）しか含まれないため、
+ * url / title / template / head / content / updated は null になります。
+ * また、create（contentテーブル）の場合は採番前のため id が null になります。
+ *
+ * @see com.example.skygarden.config.ContentWriteInterceptor イベント発行元
+ */
+@Getter
+public class ContentChangeEvent {
+
+	/**
+	 * 変更操作の種類
+	 */
+	public enum Operation {
+		CREATE, UPDATE, DELETE
+	}
+
+	/** 書き込み対象のテーブル名（content または content_public） */
+	private final String table;
+
+	/** 変更操作の種類 */
+	private final Operation operation;
+
+	/** コンテンツID */
+	private final String id;
+
+	/** URLパス */
+	private final String url;
+
+	/** タイトル */
+	private final String title;
+
+	/** コンテンツタイプ */
+	private final String type;
+
+	/** テンプレートID */
+	private final String template;
+
+	/** ヘッダー部分（headタグ内） */
+	private final String head;
+
+	/** コンテンツ本文 */
+	private final String content;
+
+	/** 更新日時 */
+	private final String updated;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param table テーブル名
+	 * @param operation 変更操作の種類
+	 * @param id コンテンツID
+	 * @param url URLパス
+	 * @param type コンテンツタイプ
+	 * @param template テンプレートID
+	 * @param content コンテンツ本文
+	 * @param updated 更新日時
+	 */
+	public ContentChangeEvent(String table, Operation operation, String id, String url, String type,
+			String template, String content, String updated) {
+		this(table, operation, id, url, type, template, null, content, updated);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param table テーブル名
+	 * @param operation 変更操作の種類
+	 * @param id コンテンツID
+	 * @param url URLパス
+	 * @param type コンテンツタイプ
+	 * @param template テンプレートID
+	 * @param head ヘッダー部分（headタグ内）
+	 * @param content コンテンツ本文
+	 * @param updated 更新日時
+	 */
+	public ContentChangeEvent(String table, Operation operation, String id, String url, String type,
+			String template, String head, String content, String updated) {
+		this(table, operation, id, url, null, type, template, head, content, updated);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param table テーブル名
+	 * @param operation 変更操作の種類
+	 * @param id コンテンツID
+	 * @param url URLパス
+	 * @param title タイトル
+	 * @param type コンテンツタイプ
+	 * @param template テンプレートID
+	 * @param head ヘッダー部分（headタグ内）
+	 * @param content コンテンツ本文
+	 * @param updated 更新日時
+	 */
+	public ContentChangeEvent(String table, Operation operation, String id, String url, String title, String type,
+			String template, String head, String content, String updated) {
+		this.table = table;
+		this.operation = operation;
+		this.id = id;
+		this.url = url;
+		this.title = title;
+		this.type = type;
+		this.template = template;
+		this.head = head;
+		this.content = content;
+		this.updated = updated;
+	}
+
+	/**
+	 * Mapperのパラメータからイベントを生成する
+	 *
+	 * @param table テーブル名
+	 * @param operation 変更操作の種類
+	 * @param params Mapperメソッドのパラメータ（@Param名をキーとするMap）
+	 * @return コンテンツ変更イベント
+	 */
+	public static ContentChangeEvent of(String table, Operation operation, Map<?, ?> params) {
+		return new ContentChangeEvent(table, operation,
+				valueOf(params, "id"),
+				valueOf(params, "url"),
+				valueOf(params, "title"),
+				valueOf(params, "type"),
+				valueOf(params, "template"),
+				valueOf(params, "head"),
+				valueOf(params, "content"),
+				valueOf(params, "updated"));
+	}
+
+	/**
+	 * 公開テーブル（content_public）への書き込みかどうか
+	 *
+	 * @return 公開テーブルへの書き込みの場合true
+	 */
+	public boolean isPublicTable() {
+		return Constants.TABLE_CONTENT_PUBLIC.equals(table);
+	}
+
+	/**
+	 * 他のコンテンツの表示結果に影響するタイプ（テンプレート・構成要素・動画）かどうか
+	 *
+	 * @return テンプレート・構成要素・動画の場合true
+	 */
+	public boolean isSharedType() {
+		return Constants.CONTENT_TYPE_TEMPLATE.equals(type)
+				|| Constants.CONTENT_TYPE_ELEMENT.equals(type)
+				|| Constants.CONTENT_TYPE_MOVIE.equals(type);
+	}
+
+	/**
+	 * 配信時に他のページから参照されるタイプ（スタイルシート・スクリプト）かどうか
+	 * 公開ページのヘッダーには、これらの内容から求めたフィンガープリント付きのURLが埋め込まれる
+	 *
+	 * @return スタイルシート・スクリプトの場合true
+	 */
+	public boolean isAssetType() {
+		return Constants.CONTENT_TYPE_STYLESHEET.equals(type)
+				|| Constants.CONTENT_TYPE_SCRIPT.equals(type);
+	}
+
+	/**
+	 * パラメータMapから文字列値を取得する
+	 *
+	 * @param params パラメータMap
+	 * @param key キー
+	 * @return 値の文字列表現（存在しない場合null）
+	 */
+	private static String valueOf(Map<?, ?> params, String key) {
+		if (params == null || !params.containsKey(key)) {
+			return null;
+		}
+		Object value = params.get(key);
+		return value != null ? String.valueOf(value) : null;
+	}
+}
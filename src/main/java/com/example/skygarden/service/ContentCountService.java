@@ -0,0 +1,139 @@
+package com.example.skygarden.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.skygarden.config.AppProperties;
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.mapper.ContentMapper;
+
+/**
+ * タイプ別のコンテンツ件数キャッシュサービス
+ *
+ * 一覧画面のページネーションは表示のたびに総件数を必要としますが、
+ * COUNT(id) はタイプに一致する行をすべて数えるため、件数が増えるほど一覧の表示が遅くなります。
+ * このサービスはタイプ別の件数を保持し、作成・削除のたびに増減させることで、
+ * 一覧の表示ではテーブルを数えないようにします。
+ *
+ * 件数の更新:
+ * - 作成: ContentChangeEvent（content テーブルの CREATE）を受け取り、該当タイプの件数を1増やす
+ * - 削除: ContentChangeEvent（content テーブルの DELETE）を受け取り、該当タイプの件数を1減らす
+ * - タイプが不明な作成・削除（呼び出し元がタイプを渡さない削除など）は、全タイプの件数を破棄して数え直す
+ * - 一度も数えていないタイプ、または app.pagination.count-refresh-seconds を過ぎたタイプは
+ *   取得時にデータベースから数え直す（増減の取りこぼしによるずれを補正する）
+ *
+ * 注意事項:
+ * content_public テーブルへの書き込みは件数に影響しません。
+ * 件数はアプリケーションのインスタンスごとに保持します。
+ *
+ * @see com.example.skygarden.logic.Content#getPager(int, String, String) 件数の利用元
+ */
+@Service
+public class ContentCountService {
+
+	/** コンテンツ管理用のMyBatis Mapper */
+	@Autowired
+	private ContentMapper mapper;
+
+	/** アプリケーション設定プロパティ */
+	@Autowired
+	private AppProperties appProperties;
+
+	/** タイプ → 件数 */
+	private final Map<String, Entry> counts = new HashMap<>();
+
+	/**
+	 * キャッシュエントリ
+	 */
+	private static class Entry {
+		/** 件数 */
+		private int count;
+		/** データベースから数えた時刻（ミリ秒） */
+		private final long loadedAt;
+
+		private Entry(int count, long loadedAt) {
+			this.count = count;
+			this.loadedAt = loadedAt;
+		}
+	}
+
+	/**
+	 * タイプ別のコンテンツ件数を取得する
+	 * 保持していない場合、または数え直す間隔を過ぎている場合はデータベースから数える
+	 *
+	 * @param type コンテンツタイプ
+	 * @return コンテンツ件数
+	 */
+	public int getCount(String type) {
+		String key = type != null ? type : Constants.EMPTY_STRING;
+		long now = System.currentTimeMillis();
+		synchronized (counts) {
+			Entry entry = counts.get(key);
+			if (entry != null && !isExpired(entry, now)) {
+				return entry.count;
+			}
+		}
+		int count = mapper.getContentSize(Constants.TABLE_CONTENT, key);
+		synchronized (counts) {
+			counts.put(key, new Entry(count, now));
+		}
+		return count;
+	}
+
+	/**
+	 * 全タイプの件数を破棄する（次回取得時に数え直す）
+	 */
+	public void clear() {
+		synchronized (counts) {
+			counts.clear();
+		}
+	}
+
+	/**
+	 * コンテンツ変更イベントを受け取り、contentテーブルへの作成であれば件数を増やし、削除であれば減らす
+	 *
+	 * @param event コンテンツ変更イベント
+	 */
+	@EventListener
+	public void onContentChange(ContentChangeEvent event) {
+		if (event.isPublicTable() || event.getOperation() == ContentChangeEvent.Operation.UPDATE) {
+			return;
+		}
+		if (event.getType() == null) {
+			clear();
+			return;
+		}
+		add(event.getType(), event.getOperation() == ContentChangeEvent.Operation.CREATE ? 1 : -1);
+	}
+
+	/**
+	 * 保持している件数を増減させる（保持していないタイプは次回取得時に数えるため何もしない）
+	 *
+	 * @param type コンテンツタイプ
+	 * @param delta 増減数
+	 */
+	private void add(String type, int delta) {
+		synchronized (counts) {
+			Entry entry = counts.get(type);
+			if (entry != null) {
+				entry.count = Math.max(0, entry.count + delta);
+			}
+		}
+	}
+
+	/**
+	 * 数え直す間隔を過ぎているかどうか
+	 *
+	 * @param entry キャッシュエントリ
+	 * @param now 現在時刻（ミリ秒）
+	 * @return 数え直す必要がある場合true
+	 */
+	private boolean isExpired(Entry entry, long now) {
+		int refreshSeconds = appProperties.getPagination().getCountRefreshSeconds();
+		return refreshSeconds > 0 && now - entry.loadedAt >= refreshSeconds * 1000L;
+	}
+}
@@ -0,0 +1,573 @@
+package com.example.skygarden.service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.logic.HeadAssets;
+import com.example.skygarden.logic.TemplateLayout;
+import com.example.skygarden.mapper.ContentMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * コンテンツ依存関係グラフ
+ *
+ * 公開ページの表示結果が、どのテンプレート・構成要素・動画・スタイルシート・スクリプトに依存しているかをメモリ上に保持します。
+ * キャッシュや事前描画済みのページは、このグラフを使って変更の影響を受けるページだけを
+ * 破棄・再描画できます（全件破棄を避けるため）。
+ *
+ * 保持する依存関係:
+ * - 構成要素ID → 参照しているテンプレート（テンプレートの "###element(ID)"）
+ * - テンプレートID → 使用している公開ページ（content_public の template カラム）
+ * - 動画ID → 参照している公開ページ・構成要素（本文の "[movie id=ID]"）
+ * - スタイルシート・スクリプトの公開URL → 参照している公開ページ・テンプレート（ヘッダーの link / script タグ）
+ *   ヘッダーのURLは AssetFingerprintService によって内容のハッシュを含むURLに書き換えられるため、
+ *   スタイルシート・スクリプトの変更時には参照しているページも描画し直す必要がある
+ *
+ * 参照元（ページ・テンプレート・構成要素）ごとに参照先を保持し、逆引きを同時に更新します。
+ * 参照先が削除されても参照元の情報は残るため、削除時にも影響するページを求めることができます。
+ * なお、テンプレート・構成要素は表示時と同じく content テーブル（下書き）の値を使用します。
+ * テンプレートのヘッダーは表示時と同じく content_public テーブルの値を使用します。
+ *
+ * 読み込み:
+ * アプリケーション起動完了時（ApplicationReadyEvent）に全件を読み込みます。
+ * 読み込みが完了するまでは isLoaded() が false を返し、getAffectedPages は null を返します。
+ *
+ * 更新:
+ * ContentWriteInterceptor が発行する ContentChangeEvent を受け取り、差分で更新します。
+ * - content へのテンプレート・構成要素の作成・更新: 参照している構成要素・動画を登録し直す
+ * - content_public へのコンテンツの作成・更新: テンプレート・参照している動画・スタイルシート・スクリプトを登録し直す
+ * - content_public へのテンプレートの作成・更新: ヘッダーで参照しているスタイルシート・スクリプトを登録し直す
+ * - content_public へのスタイルシート・スクリプトの作成・更新: ID → 公開URL を登録する
+ * - 削除: 該当IDが参照元となっている依存関係を削除
+ * - 採番前の作成（IDなし）のテンプレート・構成要素: 全件を読み込み直す
+ *
+ * 変更の影響:
+ * getAffectedPages(ContentChangeEvent) が、変更イベントで表示結果が変わる公開ページ（イベントの対象自身を除く）を求めます。
+ * キャッシュ・事前描画済みページはどちらもこの結果で破棄するため、無効化の判定はこのクラスにのみ持ちます。
+ * - テンプレート・構成要素・動画の書き込み・削除: 参照しているページ
+ * - 公開されたスタイルシート・スクリプトの書き込み・削除: ヘッダーで参照しているページ
+ * - その他の書き込み: なし（対象自身の破棄は利用側で行う）
+ *
+ * @see PageCacheService 利用元（キャッシュの無効化）
+ * @see PageRenderService 利用元（事前描画済みページの無効化）
+ */
+@Service
+@Slf4j
+public class ContentDependencyGraph {
+
+	/** 動画タグ（[movie id=xxx, ...]）から動画IDを取り出すパターン */
+	private static final Pattern MOVIE_ID_PATTERN = Pattern.compile("\\[movie\\s+id=(\\d+)");
+
+	/** コンテンツ管理用のMyBatis Mapper */
+	@Autowired
+	private ContentMapper mapper;
+
+	/** テンプレートID → 参照している構成要素ID */
+	private final Map<String, Set<String>> elementsByTemplate = new HashMap<>();
+
+	/** 構成要素ID → 参照しているテンプレートID（逆引き） */
+	private final Map<String, Set<String>> templatesByElement = new HashMap<>();
+
+	/** 公開ページID → テンプレートID */
+	private final Map<String, String> templateByPage = new HashMap<>();
+
+	/** テンプレートID → 使用している公開ページID（逆引き） */
+	private final Map<String, Set<String>> pagesByTemplate = new HashMap<>();
+
+	/** 参照元（公開ページ・構成要素）ID → 参照している動画ID */
+	private final Map<String, Set<String>> moviesByReferrer = new HashMap<>();
+
+	/** 動画ID → 参照している公開ページ・構成要素ID（逆引き） */
+	private final Map<String, Set<String>> referrersByMovie = new HashMap<>();
+
+	/** 参照元（公開ページ・テンプレート）ID → ヘッダーで参照しているスタイルシート・スクリプトの公開URL */
+	private final Map<String, Set<String>> assetsByReferrer = new HashMap<>();
+
+	/** スタイルシート・スクリプトの公開URL → 参照している公開ページ・テンプレートID（逆引き） */
+	private final Map<String, Set<String>> referrersByAsset = new HashMap<>();
+
+	/** スタイルシート・スクリプトのID → 公開URL（削除後も残す） */
+	private final Map<String, String> assetUrlById = new HashMap<>();
+
+	/** 全件読み込みが完了しているかどうか */
+	private volatile boolean loaded = false;
+
+	/**
+	 * アプリケーション起動完了時に全件を読み込む
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		try {
+			reload();
+		} catch (Exception e) {
+			// 読み込みに失敗した場合、利用側は全件破棄で動作する
+			log.error("[ContentDependencyGraph] load error: " + e.toString(), e);
+		}
+	}
+
+	/**
+	 * content / content_public から依存関係を全件読み込み直す
+	 */
+	public synchronized void reload() {
+		List<HashMap<String, String>> layouts = mapper.getLayoutDependencies();
+		List<HashMap<String, String>> pages = mapper.getPageDependencies();
+		elementsByTemplate.clear();
+		templatesByElement.clear();
+		templateByPage.clear();
+		pagesByTemplate.clear();
+		moviesByReferrer.clear();
+		referrersByMovie.clear();
+		assetsByReferrer.clear();
+		referrersByAsset.clear();
+		assetUrlById.clear();
+		if (layouts != null) {
+			for (HashMap<String, String> row : layouts) {
+				registerLayout(row.get("id"), row.get("type"), row.get("content"));
+			}
+		}
+		if (pages != null) {
+			for (HashMap<String, String> row : pages) {
+				registerPublic(row.get("id"), row.get("url"), row.get("type"), row.get("template"), row.get("content"),
+						row.get("head"));
+			}
+		}
+		loaded = true;
+		log.info("[ContentDependencyGraph] loaded " + elementsByTemplate.size() + " templates, "
+				+ templateByPage.size() + " pages, " + referrersByMovie.size() + " movies, "
+				+ referrersByAsset.size() + " assets");
+	}
+
+	/**
+	 * 全件読み込みが完了しているかどうか
+	 *
+	 * @return 読み込み済みの場合true
+	 */
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * 構成要素を参照しているテンプレートを取得する
+	 *
+	 * @param elementId 構成要素ID
+	 * @return テンプレートIDの集合
+	 */
+	public synchronized Set<String> getTemplatesForElement(String elementId) {
+		return copyOf(templatesByElement.get(elementId));
+	}
+
+	/**
+	 * テンプレートを使用している公開ページを取得する
+	 *
+	 * @param templateId テンプレートID
+	 * @return 公開ページIDの集合
+	 */
+	public synchronized Set<String> getPagesForTemplate(String templateId) {
+		return copyOf(pagesByTemplate.get(templateId));
+	}
+
+	/**
+	 * 動画を表示している公開ページを取得する（構成要素経由で参照しているページを含む）
+	 *
+	 * @param movieId 動画ID
+	 * @return 公開ページIDの集合
+	 */
+	public synchronized Set<String> getPagesForMovie(String movieId) {
+		Set<String> pages = new LinkedHashSet<>();
+		Set<String> referrers = referrersByMovie.get(movieId);
+		if (referrers != null) {
+			for (String referrer : referrers) {
+				if (templateByPage.containsKey(referrer)) {
+					pages.add(referrer);
+				} else {
+					pages.addAll(pagesForElement(referrer));
+				}
+			}
+		}
+		return pages;
+	}
+
+	/**
+	 * スタイルシート・スクリプトをヘッダーで参照している公開ページを取得する（テンプレート経由で参照しているページを含む）
+	 *
+	 * @param url スタイルシート・スクリプトの公開URL（先頭スラッシュなし）
+	 * @return 公開ページIDの集合
+	 */
+	public synchronized Set<String> getPagesForAsset(String url) {
+		Set<String> pages = new LinkedHashSet<>();
+		Set<String> referrers = url != null ? referrersByAsset.get(url) : null;
+		if (referrers != null) {
+			for (String referrer : referrers) {
+				if (templateByPage.containsKey(referrer)) {
+					pages.add(referrer);
+				} else {
+					pages.addAll(copyOf(pagesByTemplate.get(referrer)));
+				}
+			}
+		}
+		return pages;
+	}
+
+	/**
+	 * 指定IDのコンテンツが変更された場合に表示結果が変わる公開ページを取得する
+	 * IDはテーブル内で一意のため、テンプレート・構成要素・動画・スタイルシート・スクリプトのいずれとしての参照もまとめて返す
+	 * 指定IDのページ自身は含まない
+	 *
+	 * @param id 変更されたコンテンツのID
+	 * @return 公開ページIDの集合（読み込み前で判定できない場合null）
+	 */
+	public synchronized Set<String> getAffectedPages(String id) {
+		if (!loaded || id == null) {
+			return null;
+		}
+		Set<String> pages = new LinkedHashSet<>();
+		pages.addAll(copyOf(pagesByTemplate.get(id)));
+		pages.addAll(pagesForElement(id));
+		pages.addAll(getPagesForMovie(id));
+		pages.addAll(getPagesForAsset(assetUrlById.get(id)));
+		pages.remove(id);
+		return pages;
+	}
+
+	/**
+	 * スタイルシート・スクリプトが変更された場合に表示結果が変わる公開ページを取得する
+	 * イベントの受け取り順は保証されないため、登録前の ID → 公開URL の代わりに変更後の公開URLでも求める
+	 *
+	 * @param id 変更されたスタイルシート・スクリプトのID
+	 * @param url 変更後の公開URL（先頭スラッシュなし、不明な場合null）
+	 * @return 公開ページIDの集合（読み込み前で判定できない場合null）
+	 */
+	public synchronized Set<String> getAffectedPages(String id, String url) {
+		Set<String> pages = getAffectedPages(id);
+		if (pages != null) {
+			pages.addAll(getPagesForAsset(url));
+			pages.remove(id);
+		}
+		return pages;
+	}
+
+	/**
+	 * 変更イベントで表示結果が変わる公開ページを取得する（PageCacheService / PageRenderService の無効化に使用）
+	 * イベントの対象のページ自身は含まない（対象自身の破棄・再描画は利用側で行う）
+	 *
+	 * @param event コンテンツ変更イベント
+	 * @return 公開ページIDの集合（読み込み前・IDのない削除など、判定できない場合null）
+	 */
+	public Set<String> getAffectedPages(ContentChangeEvent event) {
+		String id = event.getId();
+		if (event.getOperation() == ContentChangeEvent.Operation.DELETE) {
+			return getAffectedPages(id);
+		}
+		if (event.isSharedType()) {
+			if (id == null) {
+				// 採番前の作成はまだ参照されていない（読み込み前は判定できない）
+				return isLoaded() ? Collections.emptySet() : null;
+			}
+			return getAffectedPages(id);
+		}
+		if (event.isAssetType() && event.isPublicTable() && id != null) {
+			// ヘッダーのフィンガープリント付きURLが変わるため、参照しているページも影響を受ける
+			return getAffectedPages(id, event.getUrl());
+		}
+		return Collections.emptySet();
+	}
+
+	/**
+	 * コンテンツ変更イベントを受け取り、依存関係を更新する
+	 *
+	 * @param event コンテンツ変更イベント
+	 */
+	@EventListener
+	public synchronized void onContentChange(ContentChangeEvent event) {
+		if (!loaded) {
+			return;
+		}
+		String id = event.getId();
+		if (id == null) {
+			// 採番前の作成は参照元のIDが分からないため、テンプレート・構成要素の場合は読み込み直す
+			if (Constants.CONTENT_TYPE_TEMPLATE.equals(event.getType())
+					|| Constants.CONTENT_TYPE_ELEMENT.equals(event.getType())) {
+				reloadQuietly();
+			}
+			return;
+		}
+		if (event.getOperation() == ContentChangeEvent.Operation.DELETE) {
+			// contentテーブルの削除は外部キー（ON DELETE CASCADE）で公開テーブルにも波及する
+			// スタイルシート・スクリプトの ID → 公開URL は、削除後も参照しているページを求められるよう残す
+			unregisterPage(id);
+			unregisterAssets(id);
+			if (!event.isPublicTable()) {
+				unregisterLayout(id);
+			}
+			return;
+		}
+		if (event.isPublicTable()) {
+			unregisterPage(id);
+			unregisterAssets(id);
+			registerPublic(id, event.getUrl(), event.getType(), event.getTemplate(), event.getContent(), event.getHead());
+		} else {
+			unregisterLayout(id);
+			registerLayout(id, event.getType(), event.getContent());
+		}
+	}
+
+	/**
+	 * テンプレート・構成要素の依存関係を登録する
+	 *
+	 * @param id コンテンツID
+	 * @param type コンテンツタイプ
+	 * @param content 本文
+	 */
+	private void registerLayout(String id, String type, String content) {
+		if (id == null) {
+			return;
+		}
+		if (Constants.CONTENT_TYPE_TEMPLATE.equals(type)) {
+			Set<String> elements = new LinkedHashSet<>(TemplateLayout.parse(content).getElementIds());
+			elementsByTemplate.put(id, elements);
+			for (String elementId : elements) {
+				templatesByElement.computeIfAbsent(elementId, key -> new HashSet<>()).add(id);
+			}
+		} else if (Constants.CONTENT_TYPE_ELEMENT.equals(type)) {
+			registerMovies(id, content);
+		}
+	}
+
+	/**
+	 * テンプレート・構成要素の依存関係を削除する
+	 *
+	 * @param id コンテンツID
+	 */
+	private void unregisterLayout(String id) {
+		Set<String> elements = elementsByTemplate.remove(id);
+		if (elements != null) {
+			for (String elementId : elements) {
+				removeFrom(templatesByElement, elementId, id);
+			}
+		}
+		if (!templateByPage.containsKey(id)) {
+			unregisterMovies(id);
+		}
+	}
+
+	/**
+	 * content_public の行の依存関係を登録する
+	 *
+	 * @param id コンテンツID
+	 * @param url 公開URL
+	 * @param type コンテンツタイプ
+	 * @param template テンプレートID
+	 * @param content 本文
+	 * @param head ヘッダー部分
+	 */
+	private void registerPublic(String id, String url, String type, String template, String content, String head) {
+		if (id == null) {
+			return;
+		}
+		if (isContentPage(type)) {
+			registerPage(id, template, content);
+			registerAssets(id, head);
+		} else if (Constants.CONTENT_TYPE_TEMPLATE.equals(type)) {
+			registerAssets(id, head);
+		} else if (isAssetType(type) && url != null) {
+			assetUrlById.put(id, url);
+		}
+	}
+
+	/**
+	 * 公開ページの依存関係を登録する
+	 *
+	 * @param id 公開ページID
+	 * @param template テンプレートID
+	 * @param content 本文
+	 */
+	private void registerPage(String id, String template, String content) {
+		if (id == null) {
+			return;
+		}
+		String templateId = template != null ? template : Constants.EMPTY_STRING;
+		templateByPage.put(id, templateId);
+		if (!templateId.isEmpty()) {
+			pagesByTemplate.computeIfAbsent(templateId, key -> new HashSet<>()).add(id);
+		}
+		registerMovies(id, content);
+	}
+
+	/**
+	 * 公開ページの依存関係を削除する
+	 *
+	 * @param id 公開ページID
+	 */
+	private void unregisterPage(String id) {
+		if (!templateByPage.containsKey(id)) {
+			return;
+		}
+		String templateId = templateByPage.remove(id);
+		if (templateId != null && !templateId.isEmpty()) {
+			removeFrom(pagesByTemplate, templateId, id);
+		}
+		unregisterMovies(id);
+	}
+
+	/**
+	 * 本文中の動画タグから動画の参照を登録する
+	 *
+	 * @param referrerId 参照元ID
+	 * @param content 本文
+	 */
+	private void registerMovies(String referrerId, String content) {
+		if (content == null || !content.contains("[movie")) {
+			return;
+		}
+		Matcher matcher = MOVIE_ID_PATTERN.matcher(content);
+		Set<String> movies = new LinkedHashSet<>();
+		while (matcher.find()) {
+			movies.add(matcher.group(1));
+		}
+		if (movies.isEmpty()) {
+			return;
+		}
+		moviesByReferrer.put(referrerId, movies);
+		for (String movieId : movies) {
+			referrersByMovie.computeIfAbsent(movieId, key -> new HashSet<>()).add(referrerId);
+		}
+	}
+
+	/**
+	 * 参照元の動画の参照を削除する
+	 *
+	 * @param referrerId 参照元ID
+	 */
+	private void unregisterMovies(String referrerId) {
+		Set<String> movies = moviesByReferrer.remove(referrerId);
+		if (movies != null) {
+			for (String movieId : movies) {
+				removeFrom(referrersByMovie, movieId, referrerId);
+			}
+		}
+	}
+
+	/**
+	 * ヘッダー部分のスタイルシート・スクリプトの参照を登録する
+	 *
+	 * @param referrerId 参照元（公開ページ・テンプレート）ID
+	 * @param head ヘッダー部分
+	 */
+	private void registerAssets(String referrerId, String head) {
+		if (head == null || head.indexOf('<') < 0) {
+			return;
+		}
+		Set<String> urls = new LinkedHashSet<>(HeadAssets.parse(head).getUrls());
+		if (urls.isEmpty()) {
+			return;
+		}
+		assetsByReferrer.put(referrerId, urls);
+		for (String url : urls) {
+			referrersByAsset.computeIfAbsent(url, key -> new HashSet<>()).add(referrerId);
+		}
+	}
+
+	/**
+	 * 参照元のスタイルシート・スクリプトの参照を削除する
+	 *
+	 * @param referrerId 参照元ID
+	 */
+	private void unregisterAssets(String referrerId) {
+		Set<String> urls = assetsByReferrer.remove(referrerId);
+		if (urls != null) {
+			for (String url : urls) {
+				removeFrom(referrersByAsset, url, referrerId);
+			}
+		}
+	}
+
+	/**
+	 * 構成要素を表示している公開ページを取得する
+	 *
+	 * @param elementId 構成要素ID
+	 * @return 公開ページIDの集合
+	 */
+	private Set<String> pagesForElement(String elementId) {
+		Set<String> pages = new LinkedHashSet<>();
+		Set<String> templates = templatesByElement.get(elementId);
+		if (templates != null) {
+			for (String templateId : templates) {
+				pages.addAll(copyOf(pagesByTemplate.get(templateId)));
+			}
+		}
+		return pages;
+	}
+
+	/**
+	 * 読み込み直す（失敗した場合は未読み込みの状態に戻す）
+	 */
+	private void reloadQuietly() {
+		try {
+			reload();
+		} catch (Exception e) {
+			loaded = false;
+			log.error("[ContentDependencyGraph] reload error: " + e.toString(), e);
+		}
+	}
+
+	/**
+	 * 通常コンテンツ（HTMLページ）のタイプかどうか
+	 *
+	 * @param type コンテンツタイプ
+	 * @return 通常コンテンツの場合true
+	 */
+	private static boolean isContentPage(String type) {
+		return type == null || type.equals(Constants.CONTENT_TYPE_CONTENT);
+	}
+
+	/**
+	 * スタイルシート・スクリプトのタイプかどうか
+	 *
+	 * @param type コンテンツタイプ
+	 * @return スタイルシート・スクリプトの場合true
+	 */
+	private static boolean isAssetType(String type) {
+		return Constants.CONTENT_TYPE_STYLESHEET.equals(type) || Constants.CONTENT_TYPE_SCRIPT.equals(type);
+	}
+
+	/**
+	 * 逆引きMapから値を取り除く（空になった場合はキーごと削除する）
+	 *
+	 * @param index 逆引きMap
+	 * @param key キー
+	 * @param value 取り除く値
+	 */
+	private static void removeFrom(Map<String, Set<String>> index, String key, String value) {
+		Set<String> values = index.get(key);
+		if (values != null) {
+			values.remove(value);
+			if (values.isEmpty()) {
+				index.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * 集合の複製を取得する
+	 *
+	 * @param values 集合（nullの場合は空集合）
+	 * @return 複製
+	 */
+	private static Set<String> copyOf(Set<String> values) {
+		return values != null ? new LinkedHashSet<>(values) : new LinkedHashSet<>();
+	}
+}
@@ -0,0 +1,808 @@
+package com.example.skygarden.service;
+
+import java.text.Collator;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.skygarden.bean.SnippetBean;
+import com.example.skygarden.config.AppProperties;
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.mapper.ContentMapper;
+import com.example.skygarden.util.SnippetUtil;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * コンテンツ全文検索インデックス
+ *
+ * 管理画面のキーワード検索（一覧画面・リンク挿入用のコンテンツ一覧API）は
+ * title / url / content の LIKE '%キーワード%' で検索するため、インデックスが使えず
+ * 検索のたびに content テーブルを全件走査します。
+ * このサービスは content テーブルのタイトル・URL・本文からN-gram（1文字・2文字）の転置インデックスを
+ * メモリ上に作成し、キーワードを含む可能性のあるコンテンツだけを調べることで、
+ * 件数が増えても検索時間がほぼ変わらないようにします。
+ * 単語の区切りを持たない日本語でも、2文字ずつの組み合わせ（バイグラム）で検索できます。
+ *
+ * 検索:
+ * - キーワードは NFKC 正規化・小文字化した上で空白で分割し、すべての語を含むコンテンツを検索する（AND検索）
+ * - 語のバイグラム（1文字の語は1文字）の転置リストのうち最も短いものから候補を絞り込み、
+ *   最後に正規化済みの本文に語が含まれることを確認する（LIKE 検索と同じく部分一致）
+ * - 並び順の指定がない場合は関連度（タイトル > URL > 本文の順に重み付けした出現回数）、
+ *   同じ関連度の場合は更新日時の新しい順
+ * - 件数は一致したコンテンツをすべて数えた正確な件数
+ * - タイトル・URLの並び替え（キーセットページネーションを含む）は、データベースの照合順序 utf8mb4_unicode_ci に合わせ、
+ *   Collator（Unicode照合アルゴリズムの第1レベル）で大文字・小文字、アクセントを区別せずに比較する
+ *   照合規則の版の違い（MySQL は UCA 4.0.0）により、一部の記号・文字の並びがデータベースの検索と異なる場合がある
+ * - 一覧に表示するスニペット（本文の抜粋）は、保持しているタグを除いた本文から生成する（snippets）
+ *
+ * 読み込み・更新:
+ * - アプリケーション起動完了時（ApplicationReadyEvent）に content テーブルを全件読み込む
+ *   読み込みが完了するまでは isLoaded() が false を返し、利用側はデータベースを検索する
+ * - 全件読み込みの間に受け取ったイベントは保留し、読み込んだ内容を登録した後に順に適用する
+ *   （読み込み中の書き込みが読み込み結果に含まれない場合も失われない）
+ * - ContentWriteInterceptor が発行する ContentChangeEvent を受け取り、差分で更新する
+ *   - content への更新: 該当IDのコンテンツを登録し直す
+ *   - content への作成: 採番前のため id を持たないので、インデックス済みの最大IDより後のコンテンツを読み込む
+ *   - content の削除: 該当IDのコンテンツを削除する
+ *   - content_public への書き込み: 下書きの検索に影響しないため無視
+ *
+ * app.search.index-enabled が false の場合は読み込みを行わず、常にデータベースを検索させます。
+ *
+ * 注意事項:
+ * インデックス・正規化済みの本文・タグを除いた本文はアプリケーションのインスタンスごとにメモリ上に保持します。
+ *
+ * @see com.example.skygarden.logic.Content#searchList(String, int, String, String) 利用元
+ * @see com.example.skygarden.logic.Content#searchListByCursor(String, String, String, String) 利用元（キーセットページネーション）
+ * @see ContentChangeEvent 更新のトリガー
+ */
+@Service
+@Slf4j
+public class ContentSearchIndex {
+
+	/** 正規化済みの本文でタイトル・URL・本文を区切る文字（検索語に含まれないため語が境界をまたいで一致しない） */
+	private static final char FIELD_SEPARATOR = '\u0000';
+
+	/** 関連度: タイトルに含まれる場合の1回あたりの重み */
+	private static final int TITLE_WEIGHT = 10;
+
+	/** 関連度: URLに含まれる場合の1回あたりの重み */
+	private static final int URL_WEIGHT = 5;
+
+	/** 関連度: 本文に含まれる回数の上限（長い本文ほど有利にならないようにする） */
+	private static final int MAX_CONTENT_HITS = 10;
+
+	/** コンテンツ管理用のMyBatis Mapper */
+	@Autowired
+	private ContentMapper mapper;
+
+	/** アプリケーション設定プロパティ */
+	@Autowired
+	private AppProperties appProperties;
+
+	/** N-gram → コンテンツIDの集合（転置インデックス） */
+	private Map<String, Set<Integer>> postings = new HashMap<>();
+
+	/** コンテンツID → 検索対象のコンテンツ */
+	private Map<Integer, Document> documents = new HashMap<>();
+
+	/** インデックス済みの最大のコンテンツID（作成時の差分読み込み用） */
+	private int maxId = 0;
+
+	/** インデックスの読み書きのロック（検索は並行して行い、更新時のみ排他する） */
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** 全件読み込みが完了しているかどうか */
+	private volatile boolean loaded = false;
+
+	/** 全件読み込み中に受け取ったイベント（読み込み中でない場合null、書き込みロックを取得して操作する） */
+	private List<ContentChangeEvent> pending = null;
+
+	/**
+	 * 検索対象のコンテンツ
+	 */
+	private static class Document {
+		/** コンテンツID */
+		private final int id;
+		/** コンテンツタイプ */
+		private final String type;
+		/** タイトル */
+		private final String title;
+		/** URLパス */
+		private final String url;
+		/** 更新日時 */
+		private final String updated;
+		/** 正規化済みのタイトル・URL・本文（FIELD_SEPARATOR 区切り） */
+		private final String text;
+		/** text 内のタイトルの終了位置 */
+		private final int titleEnd;
+		/** text 内のURLの終了位置 */
+		private final int urlEnd;
+		/** タグを除いた本文（スニペット用） */
+		private final String plain;
+
+		private Document(int id, String type, String title, String url, String content, String updated) {
+			this.id = id;
+			this.type = type != null ? type : Constants.EMPTY_STRING;
+			this.title = title;
+			this.url = url;
+			this.updated = updated;
+			String normalizedTitle = normalize(title);
+			String normalizedUrl = normalize(url);
+			this.titleEnd = normalizedTitle.length();
+			this.urlEnd = titleEnd + 1 + normalizedUrl.length();
+			this.text = normalizedTitle + FIELD_SEPARATOR + normalizedUrl + FIELD_SEPARATOR + normalize(content);
+			this.plain = SnippetUtil.toPlainText(content);
+		}
+	}
+
+	/**
+	 * 検索結果（1ページ分のコンテンツIDと一致した総件数）
+	 */
+	@Getter
+	public static class Result {
+		/** 1ページ分のコンテンツID（表示順） */
+		private final List<String> ids;
+		/** 一致したコンテンツの総件数 */
+		private final int total;
+
+		/**
+		 * コンストラクタ
+		 *
+		 * @param ids 1ページ分のコンテンツID
+		 * @param total 一致したコンテンツの総件数
+		 */
+		public Result(List<String> ids, int total) {
+			this.ids = ids;
+			this.total = total;
+		}
+	}
+
+	/**
+	 * 検索に一致したコンテンツと関連度
+	 */
+	private static class Hit {
+		/** コンテンツ */
+		private final Document document;
+		/** 関連度 */
+		private final int score;
+
+		private Hit(Document document, int score) {
+			this.document = document;
+			this.score = score;
+		}
+	}
+
+	/**
+	 * アプリケーション起動完了時に全件を読み込む
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (!appProperties.getSearch().isIndexEnabled()) {
+			return;
+		}
+		try {
+			reload();
+		} catch (Exception e) {
+			// 読み込みに失敗した場合はデータベース検索のまま動作させる
+			log.error("[ContentSearchIndex] load error: " + e.toString(), e);
+		}
+	}
+
+	/**
+	 * content テーブルから全件を読み込み直す
+	 */
+	public void reload() {
+		// 読み込みの間に受け取ったイベントを保留し、読み込んだ内容を登録した後に適用する
+		lock.writeLock().lock();
+		try {
+			pending = new ArrayList<>();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		List<HashMap<String, String>> rows;
+		try {
+			rows = mapper.getSearchDocuments(null);
+		} catch (RuntimeException e) {
+			lock.writeLock().lock();
+			try {
+				pending = null;
+			} finally {
+				lock.writeLock().unlock();
+			}
+			throw e;
+		}
+		ContentChangeEvent created = null;
+		lock.writeLock().lock();
+		try {
+			postings = new HashMap<>();
+			documents = new HashMap<>();
+			maxId = 0;
+			addRows(rows);
+			for (ContentChangeEvent event : pending) {
+				if (isCreatedWithoutId(event)) {
+					created = event;
+				} else {
+					apply(event);
+				}
+			}
+			pending = null;
+			loaded = true;
+			log.info("[ContentSearchIndex] loaded " + documents.size() + " documents, " + postings.size() + " grams");
+		} finally {
+			lock.writeLock().unlock();
+		}
+		if (created != null) {
+			// 読み込み中に作成されたコンテンツが読み込み結果に含まれない場合に備えて、最大IDより後を読み込む
+			loadCreated(created);
+		}
+	}
+
+	/**
+	 * 全件読み込みが完了しているかどうか
+	 * false の場合、検索結果は信頼できないためデータベースを検索すること
+	 *
+	 * @return 読み込み済みの場合true
+	 */
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * 登録件数を取得する
+	 *
+	 * @return 登録件数
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return documents.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * キーワードでコンテンツを検索し、1ページ分のコンテンツIDと総件数を取得する
+	 *
+	 * @param type コンテンツタイプ
+	 * @param keyword 検索キーワード（空白区切りで複数指定した場合はすべてを含むコンテンツ、空の場合はタイプの全件）
+	 * @param sort ソート順（"updated desc" など、空文字・選択肢にない列の場合は関連度順）
+	 * @param offset 取得開始位置
+	 * @param limit 取得件数
+	 * @return 検索結果
+	 */
+	public Result search(String type, String keyword, String sort, int offset, int limit) {
+		List<String> terms = terms(keyword);
+		List<Hit> hits;
+		lock.readLock().lock();
+		try {
+			hits = match(type, terms, true);
+		} finally {
+			lock.readLock().unlock();
+		}
+		hits.sort(comparator(sort));
+		List<String> ids = new ArrayList<>();
+		int end = Math.min(hits.size(), Math.max(offset, 0) + Math.max(limit, 0));
+		for (int i = Math.max(offset, 0); i < end; i++) {
+			ids.add(String.valueOf(hits.get(i).document.id));
+		}
+		return new Result(ids, hits.size());
+	}
+
+	/**
+	 * キーワードでコンテンツを検索し、境界のコンテンツより後（キーセットページネーション）のコンテンツIDを取得する
+	 * 並び順・境界の条件は ContentMapper.searchByKeywordKeyset と同じ（ソート列の値が同じ場合はIDの順、NULLは昇順で先頭）
+	 *
+	 * @param type コンテンツタイプ
+	 * @param keyword 検索キーワード
+	 * @param column ソート列（id / updated / title / url）
+	 * @param descending 降順で取得する場合true
+	 * @param afterValue 境界のコンテンツのソート列の値
+	 * @param afterId 境界のコンテンツID（null の場合は先頭から）
+	 * @param limit 取得件数
+	 * @return コンテンツID（取得時の並び順）
+	 */
+	public List<String> searchAfter(String type, String keyword, String column, boolean descending, String afterValue,
+			Long afterId, int limit) {
+		List<String> terms = terms(keyword);
+		List<Hit> hits;
+		lock.readLock().lock();
+		try {
+			hits = match(type, terms, false);
+		} finally {
+			lock.readLock().unlock();
+		}
+		Comparator<Hit> comparator = comparator(column + (descending ? " desc" : Constants.EMPTY_STRING));
+		if (afterId != null) {
+			Hit boundary = boundary(column, afterValue, afterId);
+			hits.removeIf(hit -> comparator.compare(hit, boundary) <= 0);
+		}
+		hits.sort(comparator);
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < hits.size() && i < limit; i++) {
+			ids.add(String.valueOf(hits.get(i).document.id));
+		}
+		return ids;
+	}
+
+	/**
+	 * キーワードに一致するコンテンツの件数を取得する
+	 *
+	 * @param type コンテンツタイプ
+	 * @param keyword 検索キーワード
+	 * @return 一致したコンテンツの件数
+	 */
+	public int count(String type, String keyword) {
+		List<String> terms = terms(keyword);
+		lock.readLock().lock();
+		try {
+			return match(type, terms, false).size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 検索結果に表示するスニペット（検索語の周辺の本文の抜粋と一致した範囲）を生成する
+	 * データベースから本文を読み込まず、インデックスに保持しているタグを除いた本文から生成する
+	 *
+	 * @param ids コンテンツIDのリスト
+	 * @param keyword 検索キーワード
+	 * @param length 抜粋の文字数
+	 * @return コンテンツID → スニペット（インデックスにないIDは含まれない）
+	 */
+	public HashMap<String, SnippetBean> snippets(List<String> ids, String keyword, int length) {
+		List<String> terms = terms(keyword);
+		HashMap<String, SnippetBean> snippets = new HashMap<>();
+		if (ids == null) {
+			return snippets;
+		}
+		lock.readLock().lock();
+		try {
+			for (String id : ids) {
+				Integer key = parseId(id);
+				Document document = key != null ? documents.get(key) : null;
+				if (document != null) {
+					snippets.put(id, SnippetUtil.create(document.plain, terms, length));
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return snippets;
+	}
+
+	/**
+	 * コンテンツ変更イベントを受け取り、インデックスを更新する
+	 *
+	 * @param event コンテンツ変更イベント
+	 */
+	@EventListener
+	public void onContentChange(ContentChangeEvent event) {
+		if (event.isPublicTable()) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			if (pending != null) {
+				// 全件読み込み中は保留し、読み込み完了時に適用する
+				pending.add(event);
+				return;
+			}
+			if (!loaded) {
+				return;
+			}
+			if (!isCreatedWithoutId(event)) {
+				apply(event);
+				return;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+		loadCreated(event);
+	}
+
+	/**
+	 * 作成されたコンテンツ（インデックス済みの最大IDより後）を読み込んで登録する
+	 * 採番されたIDがイベントに含まれないため、データベースから読み込む（ロックを取得せずに呼び出すこと）
+	 *
+	 * @param event 作成のイベント（読み込みの間に全件読み込みが始まった場合に保留する）
+	 */
+	private void loadCreated(ContentChangeEvent event) {
+		int afterId;
+		lock.readLock().lock();
+		try {
+			afterId = maxId;
+		} finally {
+			lock.readLock().unlock();
+		}
+		List<HashMap<String, String>> rows = mapper.getSearchDocuments(afterId);
+		lock.writeLock().lock();
+		try {
+			if (pending != null) {
+				pending.add(event);
+				return;
+			}
+			addRows(rows);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 更新・削除のイベントをインデックスに適用する（書き込みロックを取得した状態で呼び出すこと）
+	 *
+	 * @param event コンテンツ変更イベント
+	 */
+	private void apply(ContentChangeEvent event) {
+		Integer id = parseId(event.getId());
+		if (id == null) {
+			return;
+		}
+		remove(id);
+		if (event.getOperation() != ContentChangeEvent.Operation.DELETE) {
+			add(new Document(id, event.getType(), event.getTitle(), event.getUrl(), event.getContent(),
+					event.getUpdated()));
+		}
+	}
+
+	/**
+	 * 採番前のため id を持たない作成のイベントかどうか
+	 *
+	 * @param event コンテンツ変更イベント
+	 * @return id を持たない作成のイベントの場合true
+	 */
+	private static boolean isCreatedWithoutId(ContentChangeEvent event) {
+		return event.getOperation() == ContentChangeEvent.Operation.CREATE && event.getId() == null;
+	}
+
+	/**
+	 * 検索語に一致するコンテンツを取得する（読み取りロックを取得した状態で呼び出すこと）
+	 *
+	 * @param type コンテンツタイプ
+	 * @param terms 正規化済みの検索語
+	 * @param scoring 関連度を計算する場合true
+	 * @return 一致したコンテンツ
+	 */
+	private List<Hit> match(String type, List<String> terms, boolean scoring) {
+		String typeKey = type != null ? type : Constants.EMPTY_STRING;
+		List<Hit> hits = new ArrayList<>();
+		Candidates candidates = candidates(terms);
+		for (Integer id : candidates.ids) {
+			Document document = documents.get(id);
+			if (document == null || !typeKey.equals(document.type) || !candidates.containsAll(id)) {
+				continue;
+			}
+			int score = 0;
+			boolean matched = true;
+			for (String term : terms) {
+				int termScore = score(document, term, scoring);
+				if (termScore < 0) {
+					matched = false;
+					break;
+				}
+				score += termScore;
+			}
+			if (matched) {
+				hits.add(new Hit(document, score));
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * 候補のコンテンツID（最も短い転置リスト）と、候補が満たす必要のある残りの転置リスト
+	 */
+	private static class Candidates {
+		/** 候補のコンテンツID */
+		private final Set<Integer> ids;
+		/** 候補が含まれている必要のある転置リスト */
+		private final List<Set<Integer>> others;
+
+		private Candidates(Set<Integer> ids, List<Set<Integer>> others) {
+			this.ids = ids;
+			this.others = others;
+		}
+
+		private boolean containsAll(Integer id) {
+			for (Set<Integer> other : others) {
+				if (!other.contains(id)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * 検索語のN-gramの転置リストから候補を求める
+	 *
+	 * @param terms 正規化済みの検索語
+	 * @return 候補（検索語がない場合は全件、転置リストにないN-gramがある場合は空）
+	 */
+	private Candidates candidates(List<String> terms) {
+		if (terms.isEmpty()) {
+			return new Candidates(documents.keySet(), Collections.emptyList());
+		}
+		List<Set<Integer>> lists = new ArrayList<>();
+		for (String term : terms) {
+			for (String gram : queryGrams(term)) {
+				Set<Integer> posting = postings.get(gram);
+				if (posting == null) {
+					return new Candidates(Collections.emptySet(), Collections.emptyList());
+				}
+				lists.add(posting);
+			}
+		}
+		lists.sort(Comparator.comparingInt(Set::size));
+		return new Candidates(lists.get(0), lists.subList(1, lists.size()));
+	}
+
+	/**
+	 * コンテンツに含まれる検索語の関連度を求める
+	 *
+	 * @param document コンテンツ
+	 * @param term 正規化済みの検索語
+	 * @param scoring 関連度を計算する場合true（false の場合は含まれるかどうかのみ調べる）
+	 * @return 関連度（含まれない場合-1）
+	 */
+	private static int score(Document document, String term, boolean scoring) {
+		int index = document.text.indexOf(term);
+		if (index < 0) {
+			return -1;
+		}
+		if (!scoring) {
+			return 0;
+		}
+		int score = 0;
+		int contentHits = 0;
+		while (index >= 0) {
+			if (index < document.titleEnd) {
+				score += TITLE_WEIGHT;
+			} else if (index < document.urlEnd) {
+				score += URL_WEIGHT;
+			} else {
+				score++;
+				if (++contentHits >= MAX_CONTENT_HITS) {
+					break;
+				}
+			}
+			index = document.text.indexOf(term, index + term.length());
+		}
+		return score;
+	}
+
+	/**
+	 * ソート順から並び替えの比較方法を求める
+	 * 列が id / updated / title / url 以外の場合は関連度の高い順（同じ場合は更新日時の新しい順）
+	 * title / url はデータベース（utf8mb4_unicode_ci）と同じく大文字・小文字、アクセントを区別せずに比較する
+	 *
+	 * @param sort ソート順（"title desc" など）
+	 * @return 比較方法
+	 */
+	private static Comparator<Hit> comparator(String sort) {
+		String[] parts = sort != null ? sort.trim().split("\\s+") : new String[0];
+		String column = parts.length > 0 ? parts[0].toLowerCase(Locale.ROOT) : Constants.EMPTY_STRING;
+		boolean descending = parts.length > 1 && "desc".equalsIgnoreCase(parts[1]);
+		Comparator<Hit> byId = Comparator.comparingInt(hit -> hit.document.id);
+		Comparator<Object> collation = collator();
+		Comparator<Hit> comparator;
+		switch (column) {
+			case "id":
+				comparator = byId;
+				break;
+			case "updated":
+				comparator = Comparator.comparing(hit -> hit.document.updated, Comparator.nullsFirst(Comparator.naturalOrder()));
+				break;
+			case "title":
+				comparator = Comparator.comparing(hit -> hit.document.title, Comparator.nullsFirst(collation));
+				break;
+			case "url":
+				comparator = Comparator.comparing(hit -> hit.document.url, Comparator.nullsFirst(collation));
+				break;
+			default:
+				Comparator<Hit> byUpdated = Comparator.comparing(hit -> hit.document.updated,
+						Comparator.nullsFirst(Comparator.naturalOrder()));
+				return Comparator.<Hit>comparingInt(hit -> hit.score).reversed()
+						.thenComparing(byUpdated.reversed())
+						.thenComparing(byId.reversed());
+		}
+		comparator = comparator.thenComparing(byId);
+		return descending ? comparator.reversed() : comparator;
+	}
+
+	/**
+	 * データベースの照合順序（utf8mb4_unicode_ci）に合わせた文字列の比較方法を生成する
+	 * Unicode照合アルゴリズムの第1レベル（文字の種類）のみで比較し、大文字・小文字、アクセントの違いは同じとみなす
+	 * 1つの Collator を共有すると並行する検索の比較が同期されるため、比較方法ごとに生成する
+	 *
+	 * @return 比較方法
+	 */
+	private static Comparator<Object> collator() {
+		Collator collator = Collator.getInstance(Locale.ROOT);
+		collator.setStrength(Collator.PRIMARY);
+		return collator;
+	}
+
+	/**
+	 * キーセットページネーションの境界のコンテンツを比較用に生成する
+	 *
+	 * @param column ソート列
+	 * @param value 境界のコンテンツのソート列の値
+	 * @param id 境界のコンテンツID
+	 * @return 比較用の検索結果
+	 */
+	private static Hit boundary(String column, String value, Long id) {
+		String title = "title".equals(column) ? value : null;
+		String url = "url".equals(column) ? value : null;
+		String updated = "updated".equals(column) ? value : null;
+		return new Hit(new Document(id.intValue(), null, title, url, null, updated), 0);
+	}
+
+	/**
+	 * 読み込んだ行をインデックスに登録する（書き込みロックを取得した状態で呼び出すこと）
+	 *
+	 * @param rows コンテンツの行（id, type, title, url, content, updated）
+	 */
+	private void addRows(List<HashMap<String, String>> rows) {
+		if (rows == null) {
+			return;
+		}
+		for (HashMap<String, String> row : rows) {
+			Integer id = parseId(row.get("id"));
+			if (id == null) {
+				continue;
+			}
+			remove(id);
+			add(new Document(id, row.get("type"), row.get("title"), row.get("url"), row.get("content"),
+					row.get("updated")));
+		}
+	}
+
+	/**
+	 * コンテンツをインデックスに登録する（書き込みロックを取得した状態で呼び出すこと）
+	 *
+	 * @param document コンテンツ
+	 */
+	private void add(Document document) {
+		documents.put(document.id, document);
+		for (String gram : grams(document.text)) {
+			postings.computeIfAbsent(gram, key -> new HashSet<>()).add(document.id);
+		}
+		maxId = Math.max(maxId, document.id);
+	}
+
+	/**
+	 * コンテンツをインデックスから削除する（書き込みロックを取得した状態で呼び出すこと）
+	 *
+	 * @param id コンテンツID
+	 */
+	private void remove(Integer id) {
+		Document document = documents.remove(id);
+		if (document == null) {
+			return;
+		}
+		for (String gram : grams(document.text)) {
+			Set<Integer> posting = postings.get(gram);
+			if (posting != null) {
+				posting.remove(id);
+				if (posting.isEmpty()) {
+					postings.remove(gram);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 正規化済みの本文に含まれるN-gram（1文字・2文字）を求める
+	 * 空白・区切り文字を含むN-gramは検索語に現れないため除く
+	 *
+	 * @param text 正規化済みの本文
+	 * @return N-gramの集合
+	 */
+	static Set<String> grams(String text) {
+		Set<String> grams = new HashSet<>();
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (isBreak(c)) {
+				continue;
+			}
+			grams.add(String.valueOf(c));
+			if (i + 1 < text.length() && !isBreak(text.charAt(i + 1))) {
+				grams.add(text.substring(i, i + 2));
+			}
+		}
+		return grams;
+	}
+
+	/**
+	 * 検索語の候補を絞り込むN-gramを求める（1文字の語はその文字、2文字以上の語はバイグラム）
+	 *
+	 * @param term 正規化済みの検索語
+	 * @return N-gramの集合
+	 */
+	static Set<String> queryGrams(String term) {
+		Set<String> grams = new LinkedHashSet<>();
+		if (term.length() == 1) {
+			grams.add(term);
+			return grams;
+		}
+		for (int i = 0; i + 1 < term.length(); i++) {
+			grams.add(term.substring(i, i + 2));
+		}
+		return grams;
+	}
+
+	/**
+	 * キーワードを正規化して検索語に分割する
+	 *
+	 * @param keyword 検索キーワード
+	 * @return 検索語（重複を除く）
+	 */
+	public static List<String> terms(String keyword) {
+		List<String> terms = new ArrayList<>();
+		for (String term : normalize(keyword).split("\\s+")) {
+			if (!term.isEmpty() && !terms.contains(term)) {
+				terms.add(term);
+			}
+		}
+		return terms;
+	}
+
+	/**
+	 * 検索用に文字列を正規化する（NFKC 正規化で全角英数・半角カナなどの表記を揃え、小文字にする）
+	 *
+	 * @param value 文字列
+	 * @return 正規化した文字列（null の場合は空文字）
+	 */
+	static String normalize(String value) {
+		if (value == null || value.isEmpty()) {
+			return Constants.EMPTY_STRING;
+		}
+		return Normalizer.normalize(value, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT)
+				.replace(FIELD_SEPARATOR, ' ');
+	}
+
+	/**
+	 * N-gramの区切りとなる文字（空白・フィールドの区切り）かどうか
+	 *
+	 * @param c 文字
+	 * @return 区切りの場合true
+	 */
+	private static boolean isBreak(char c) {
+		return c == FIELD_SEPARATOR || Character.isWhitespace(c);
+	}
+
+	/**
+	 * コンテンツIDを数値に変換する
+	 *
+	 * @param id コンテンツID
+	 * @return 数値のID（変換できない場合null）
+	 */
+	private static Integer parseId(String id) {
+		if (id == null) {
+			return null;
+		}
+		try {
+			return Integer.valueOf(id.trim());
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+}
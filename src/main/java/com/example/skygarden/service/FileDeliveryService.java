@@ -0,0 +1,363 @@
+package com.example.skygarden.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+
+import com.example.skygarden.util.HttpCacheUtil;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ファイル配信サービス
+ *
+ * RequestRoutingFilter から画像（image）・ファイル（file）コンテンツの本文を配信します。
+ * ファイルの内容はヒープに読み込まず、FileChannel.transferTo でレスポンスへ転送します。
+ *
+ * ゼロコピー転送:
+ * サーブレットコンテナが sendfile に対応している場合（Tomcat の NIO コネクタ等）は、
+ * リクエスト属性でファイルと範囲を指定し、コンテナにカーネル経由で送信させます。
+ * 対応していない場合や複数範囲の場合は FileChannel.transferTo で転送します。
+ *
+ * 範囲リクエスト（RFC 9110）:
+ * - Accept-Ranges: bytes を常に返す
+ * - Range: 1範囲の場合は 206 と Content-Range、複数範囲の場合は multipart/byteranges で返す
+ * - If-Range: ETag（強い比較）または Last-Modified が一致しない場合は Range を無視して全体を返す
+ * - 満たせない範囲のみの場合は 416 と Content-Range: bytes *&#47;サイズ を返す
+ * - 解釈できない Range、または範囲の数が多すぎる場合は Range を無視して全体を返す
+ *
+ * 条件付きGET:
+ * ETag / Last-Modified を設定し、If-None-Match / If-Modified-Since が一致する場合は 304 を返します。
+ *
+ * @see com.example.skygarden.config.RequestRoutingFilter 利用元
+ */
+@Service
+@Slf4j
+public class FileDeliveryService {
+
+	/** 1リクエストで受け付ける範囲の最大数（これを超える場合は全体を返す） */
+	private static final int MAX_RANGES = 20;
+
+	/** sendfile 対応を示すリクエスト属性（Tomcat） */
+	static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+
+	/** sendfile の対象ファイル名を指定するリクエスト属性（Tomcat） */
+	static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+
+	/** sendfile の開始位置を指定するリクエスト属性（Tomcat） */
+	static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+
+	/** sendfile の終了位置（この位置を含まない）を指定するリクエスト属性（Tomcat） */
+	static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+	/**
+	 * バイト範囲
+	 */
+	@Getter
+	public static class ByteRange {
+		/** 開始位置 */
+		private final long start;
+		/** 終了位置（この位置を含む） */
+		private final long end;
+
+		/**
+		 * コンストラクタ
+		 *
+		 * @param start 開始位置
+		 * @param end 終了位置（この位置を含む）
+		 */
+		public ByteRange(long start, long end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		/**
+		 * 範囲のバイト数を取得する
+		 *
+		 * @return バイト数
+		 */
+		public long length() {
+			return end - start + 1;
+		}
+	}
+
+	/**
+	 * ファイルを配信する
+	 * サイズ・最終更新日時はファイルシステムから取得し、ETag はそれらから生成する
+	 *
+	 * @param request HTTPリクエスト
+	 * @param response HTTPレスポンス
+	 * @param path 配信するファイル
+	 * @param mimeType Content-Type ヘッダーの値
+	 * @param cacheControl Cache-Control ヘッダーの値（空の場合は出力しない）
+	 * @throws IOException 読み込み・書き込みに失敗した場合
+	 */
+	public void deliver(HttpServletRequest request, HttpServletResponse response, Path path, String mimeType,
+			String cacheControl) throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		long size = attributes.size();
+		long lastModified = attributes.lastModifiedTime().toMillis();
+		String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+		deliver(request, response, path, mimeType, size, lastModified, etag, cacheControl);
+	}
+
+	/**
+	 * ファイルを配信する
+	 *
+	 * @param request HTTPリクエスト
+	 * @param response HTTPレスポンス
+	 * @param path 配信するファイル
+	 * @param mimeType Content-Type ヘッダーの値
+	 * @param size ファイルサイズ
+	 * @param lastModified 最終更新日時（エポックミリ秒）
+	 * @param etag ETag ヘッダーの値（強いETag）
+	 * @param cacheControl Cache-Control ヘッダーの値（空の場合は出力しない）
+	 * @throws IOException 読み込み・書き込みに失敗した場合
+	 */
+	public void deliver(HttpServletRequest request, HttpServletResponse response, Path path, String mimeType,
+			long size, long lastModified, String etag, String cacheControl) throws IOException {
+		response.setHeader("Accept-Ranges", "bytes");
+		if (HttpCacheUtil.isNotModified(request, etag, lastModified)) {
+			HttpCacheUtil.writeNotModified(response, etag, lastModified, cacheControl);
+			return;
+		}
+		HttpCacheUtil.setValidators(response, etag, lastModified, cacheControl);
+		boolean head = "HEAD".equals(request.getMethod());
+
+		List<ByteRange> ranges = null;
+		if (isRangeApplicable(request, etag, lastModified)) {
+			ranges = parseRanges(request.getHeader("Range"), size);
+		}
+		if (ranges == null) {
+			// 全体を返す
+			response.setContentType(mimeType);
+			response.setContentLengthLong(size);
+			if (!head) {
+				send(request, response, path, new ByteRange(0, size - 1), size);
+			}
+			return;
+		}
+		if (ranges.isEmpty()) {
+			response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+			response.setHeader("Content-Range", "bytes */" + size);
+			return;
+		}
+		response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+		if (ranges.size() == 1) {
+			ByteRange range = ranges.get(0);
+			response.setContentType(mimeType);
+			response.setHeader("Content-Range", contentRange(range, size));
+			response.setContentLengthLong(range.length());
+			if (!head) {
+				send(request, response, path, range, size);
+			}
+			return;
+		}
+		sendMultipart(response, path, mimeType, ranges, size, head);
+	}
+
+	/**
+	 * Range ヘッダーを解析する
+	 *
+	 * @param header Range ヘッダーの値
+	 * @param size ファイルサイズ
+	 * @return 範囲のリスト（Range を無視する場合null、満たせる範囲がない場合は空のリスト）
+	 */
+	static List<ByteRange> parseRanges(String header, long size) {
+		if (header == null || !header.startsWith("bytes=")) {
+			return null;
+		}
+		String[] specs = header.substring("bytes=".length()).split(",");
+		if (specs.length > MAX_RANGES) {
+			return null;
+		}
+		List<ByteRange> ranges = new ArrayList<>();
+		try {
+			for (String spec : specs) {
+				String value = spec.trim();
+				int dash = value.indexOf('-');
+				if (dash < 0) {
+					return null;
+				}
+				String first = value.substring(0, dash).trim();
+				String last = value.substring(dash + 1).trim();
+				if (first.isEmpty()) {
+					// 末尾から n バイト
+					long suffix = Long.parseLong(last);
+					if (suffix < 0) {
+						return null;
+					}
+					if (suffix > 0 && size > 0) {
+						ranges.add(new ByteRange(Math.max(0, size - suffix), size - 1));
+					}
+					continue;
+				}
+				long start = Long.parseLong(first);
+				long end = last.isEmpty() ? size - 1 : Long.parseLong(last);
+				if (start < 0 || end < start) {
+					return null;
+				}
+				if (start < size) {
+					ranges.add(new ByteRange(start, Math.min(end, size - 1)));
+				}
+			}
+		} catch (NumberFormatException e) {
+			return null;
+		}
+		return ranges;
+	}
+
+	/**
+	 * Range ヘッダーを適用するかどうか（If-Range の判定）
+	 *
+	 * @param request HTTPリクエスト
+	 * @param etag 現在のETag
+	 * @param lastModified 現在の最終更新日時
+	 * @return 適用する場合true
+	 */
+	private boolean isRangeApplicable(HttpServletRequest request, String etag, long lastModified) {
+		String method = request.getMethod();
+		if (!"GET".equals(method) && !"HEAD".equals(method)) {
+			return false;
+		}
+		String ifRange = request.getHeader("If-Range");
+		if (ifRange == null) {
+			return true;
+		}
+		ifRange = ifRange.trim();
+		if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+			// If-Range では強い比較を行う（弱いETagは一致しない）
+			return !ifRange.startsWith("W/") && etag != null && !etag.startsWith("W/") && ifRange.equals(etag);
+		}
+		try {
+			long since = request.getDateHeader("If-Range");
+			return since >= 0 && lastModified >= 0 && since / 1000 == lastModified / 1000;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * 1つの範囲を送信する
+	 * sendfile に対応している場合はコンテナに送信を委ね、対応していない場合は transferTo で転送する
+	 *
+	 * @param request HTTPリクエスト
+	 * @param response HTTPレスポンス
+	 * @param path 配信するファイル
+	 * @param range 送信する範囲
+	 * @param size ファイルサイズ
+	 * @throws NoSuchFileException ファイルが存在しない場合（本文の送信前に送出するため、呼び出し元でレスポンスをリセットできる）
+	 * @throws IOException 読み込み・書き込みに失敗した場合
+	 */
+	private void send(HttpServletRequest request, HttpServletResponse response, Path path, ByteRange range, long size)
+			throws IOException {
+		if (size == 0) {
+			return;
+		}
+		if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+			// コンテナはヘッダーの送信後にファイルを開くため、存在しない場合はここで検出する
+			if (!Files.isRegularFile(path)) {
+				throw new NoSuchFileException(path.toString());
+			}
+			request.setAttribute(SENDFILE_FILENAME_ATTR, path.toAbsolutePath().toString());
+			request.setAttribute(SENDFILE_START_ATTR, Long.valueOf(range.getStart()));
+			request.setAttribute(SENDFILE_END_ATTR, Long.valueOf(range.getEnd() + 1));
+			return;
+		}
+		try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ);
+				WritableByteChannel out = Channels.newChannel(response.getOutputStream())) {
+			transfer(file, range, out);
+		}
+	}
+
+	/**
+	 * 複数の範囲を multipart/byteranges で送信する
+	 *
+	 * @param response HTTPレスポンス
+	 * @param path 配信するファイル
+	 * @param mimeType 各パートの Content-Type
+	 * @param ranges 送信する範囲
+	 * @param size ファイルサイズ
+	 * @param head HEADリクエストの場合true（本文を送信しない）
+	 * @throws IOException 読み込み・書き込みに失敗した場合
+	 */
+	private void sendMultipart(HttpServletResponse response, Path path, String mimeType, List<ByteRange> ranges,
+			long size, boolean head) throws IOException {
+		String boundary = UUID.randomUUID().toString().replace("-", "");
+		List<byte[]> partHeaders = new ArrayList<>();
+		long length = 0;
+		for (ByteRange range : ranges) {
+			byte[] partHeader = ("\r\n--" + boundary + "\r\nContent-Type: " + mimeType
+					+ "\r\nContent-Range: " + contentRange(range, size) + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+			partHeaders.add(partHeader);
+			length += partHeader.length + range.length();
+		}
+		byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+		length += closing.length;
+
+		response.setContentType("multipart/byteranges; boundary=" + boundary);
+		response.setContentLengthLong(length);
+		if (head) {
+			return;
+		}
+		try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ);
+				OutputStream stream = response.getOutputStream()) {
+			WritableByteChannel out = Channels.newChannel(stream);
+			for (int i = 0; i < ranges.size(); i++) {
+				stream.write(partHeaders.get(i));
+				transfer(file, ranges.get(i), out);
+			}
+			stream.write(closing);
+		}
+	}
+
+	/**
+	 * ファイルの指定範囲を出力先へ転送する
+	 * transferTo は指定より少ないバイト数で戻ることがあるため、全て転送するまで繰り返す
+	 *
+	 * @param file 転送元のファイル
+	 * @param range 転送する範囲
+	 * @param out 転送先
+	 * @throws IOException 読み込み・書き込みに失敗した場合
+	 */
+	private void transfer(FileChannel file, ByteRange range, WritableByteChannel out) throws IOException {
+		long position = range.getStart();
+		long remaining = range.length();
+		while (remaining > 0) {
+			long transferred = file.transferTo(position, remaining, out);
+			if (transferred <= 0) {
+				// ファイルが途中で短くなった場合
+				throw new IOException("unexpected end of file: " + position);
+			}
+			position += transferred;
+			remaining -= transferred;
+		}
+	}
+
+	/**
+	 * Content-Range ヘッダーの値を生成する
+	 *
+	 * @param range 範囲
+	 * @param size ファイルサイズ
+	 * @return Content-Range ヘッダーの値
+	 */
+	private static String contentRange(ByteRange range, long size) {
+		return "bytes " + range.getStart() + "-" + range.getEnd() + "/" + size;
+	}
+}
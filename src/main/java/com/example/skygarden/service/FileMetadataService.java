@@ -0,0 +1,130 @@
+package com.example.skygarden.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.skygarden.bean.FileMetadata;
+import com.example.skygarden.logic.CommonProc;
+import com.example.skygarden.mapper.ContentMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * アップロードファイルのメタデータ管理サービス
+ *
+ * 画像・ファイルのアップロード時にファイルを保存し、
+ * MIMEタイプ・サイズ・最終更新日時・SHA-256 を file_metadata テーブルに登録します。
+ * SHA-256 は保存時に流れるデータから計算するため、ファイルを読み直す必要はありません。
+ *
+ * 画像・ファイルのコンテンツを削除した場合は、メタデータも削除します。
+ *
+ * 公開時は RequestRoutingFilter がこのメタデータを Content-Type / Content-Length / ETag に使用し、
+ * 本文を送信するまでファイルシステムにアクセスしません。
+ *
+ * MIMEタイプの判定:
+ * 保存後のファイルに対して Files.probeContentType を一度だけ実行し、
+ * 判定できない場合は application/octet-stream とします（公開時に使用するため、ブラウザが送信した Content-Type は使用しません）。
+ *
+ * @see com.example.skygarden.controller.ImageController 画像アップロード
+ * @see com.example.skygarden.controller.FileController ファイルアップロード
+ * @see com.example.skygarden.config.RequestRoutingFilter 利用元
+ */
+@Service
+@Slf4j
+public class FileMetadataService {
+
+	/** MIMEタイプが判定できない場合の値 */
+	private static final String DEFAULT_MIME_TYPE = "application/octet-stream";
+
+	/** コンテンツ管理用のMyBatis Mapper */
+	@Autowired
+	private ContentMapper mapper;
+
+	/**
+	 * アップロードされたファイルを保存し、メタデータを登録する
+	 * メタデータの登録に失敗した場合もファイルの保存は成功として扱う（配信時はファイルシステムから情報を取得する）
+	 *
+	 * @param file アップロードされたファイル
+	 * @param target 保存先のパス
+	 * @return 登録したメタデータ
+	 * @throws IOException ファイルの保存に失敗した場合
+	 */
+	public FileMetadata store(MultipartFile file, Path target) throws IOException {
+		MessageDigest digest = newDigest();
+		long size;
+		try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+			size = Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		FileMetadata metadata = new FileMetadata();
+		metadata.setFileName(target.getFileName().toString());
+		metadata.setMimeType(detectMimeType(target));
+		metadata.setSize(size);
+		metadata.setLastModified(Files.getLastModifiedTime(target).toMillis());
+		metadata.setSha256(HexFormat.of().formatHex(digest.digest()));
+		metadata.setCreated(CommonProc.createNow());
+		try {
+			mapper.upsertFileMetadata(metadata);
+		} catch (Exception e) {
+			log.error("[FileMetadataService] register error: " + metadata.getFileName() + " " + e.toString(), e);
+		}
+		return metadata;
+	}
+
+	/**
+	 * ファイルのメタデータを削除する
+	 * 画像・ファイルのコンテンツを削除した場合に呼び出す（削除に失敗した場合もコンテンツの削除は成功として扱う）
+	 *
+	 * @param fileName ファイル名（null・空の場合は何もしない）
+	 */
+	public void delete(String fileName) {
+		if (fileName == null || fileName.isEmpty()) {
+			return;
+		}
+		try {
+			mapper.deleteFileMetadata(fileName);
+		} catch (Exception e) {
+			log.error("[FileMetadataService] delete error: " + fileName + " " + e.toString(), e);
+		}
+	}
+
+	/**
+	 * MIMEタイプを判定する
+	 *
+	 * @param path 保存したファイル
+	 * @return MIMEタイプ
+	 */
+	private String detectMimeType(Path path) {
+		String mimeType = null;
+		try {
+			mimeType = Files.probeContentType(path);
+		} catch (IOException e) {
+			log.info("[FileMetadataService] probe error: " + e.toString());
+		}
+		return mimeType != null && !mimeType.isEmpty() ? mimeType : DEFAULT_MIME_TYPE;
+	}
+
+	/**
+	 * SHA-256 のダイジェストを生成する
+	 *
+	 * @return ダイジェスト
+	 */
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,223 @@
+package com.example.skygarden.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.skygarden.logic.CommonProc;
+import com.example.skygarden.logic.HtmlShell;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * HTMLシェルキャッシュサービス
+ *
+ * original.html などの外枠HTMLを初回利用時に読み込み、HtmlShell に分割して保持します。
+ * 以降のリクエストではファイルの読み込み・正規表現による置換を行いません。
+ *
+ * 再読み込み:
+ * 読み込んだファイルのディレクトリを WatchService で監視し、
+ * ファイルが作成・変更・削除された場合はキャッシュを破棄します（次回利用時に再読み込み）。
+ * このとき、古いシェルで生成された公開ページキャッシュも破棄します。
+ * イベントを取りこぼした場合（OVERFLOW）は、すべてのシェルと公開ページキャッシュを破棄します。
+ * 読み込み中に変更を検出した場合は、読み込んだ内容が古い可能性があるため登録したエントリを破棄します。
+ * 監視を登録できない環境では、利用のたびに最終更新日時を比較して再読み込みを判定します。
+ *
+ * @see HtmlShell 分割済みHTMLシェル
+ * @see com.example.skygarden.config.RequestRoutingFilter 利用元
+ * @see com.example.skygarden.controller.PreviewController 利用元
+ */
+@Service
+@Slf4j
+public class HtmlShellService {
+
+	/** 公開ページキャッシュ */
+	@Autowired
+	private PageCacheService pageCache;
+
+	/** ファイルパス → キャッシュエントリ */
+	private final Map<String, Entry> shells = new ConcurrentHashMap<>();
+
+	/** ファイル変更の検出回数（読み込み中に変更された古いシェルを残さないために使用） */
+	private final AtomicLong changes = new AtomicLong();
+
+	/** 監視中のディレクトリ */
+	private final Set<Path> watchedDirs = new HashSet<>();
+
+	/** ファイル監視サービス（未起動・起動失敗時はnull） */
+	private WatchService watchService;
+
+	/** ファイル監視スレッド */
+	private Thread watchThread;
+
+	/**
+	 * キャッシュエントリ
+	 */
+	private static class Entry {
+		/** 分割済みシェル */
+		private final HtmlShell shell;
+		/** 読み込み時の最終更新日時 */
+		private final long lastModified;
+		/** ファイル監視が有効かどうか */
+		private final boolean watched;
+
+		private Entry(HtmlShell shell, long lastModified, boolean watched) {
+			this.shell = shell;
+			this.lastModified = lastModified;
+			this.watched = watched;
+		}
+	}
+
+	/**
+	 * ファイルパスに対応する分割済みシェルを取得する
+	 *
+	 * @param filePath 外枠HTMLのファイルパス
+	 * @return 分割済みシェル（ファイルが存在しない場合は HtmlShell.EMPTY）
+	 */
+	public HtmlShell getShell(String filePath) {
+		Entry entry = shells.get(filePath);
+		if (entry != null && (entry.watched || entry.lastModified == new File(filePath).lastModified())) {
+			return entry.shell;
+		}
+		File file = new File(filePath);
+		boolean watched = watch(file);
+		long version = changes.get();
+		long lastModified = file.lastModified();
+		HtmlShell shell = HtmlShell.parse(CommonProc.readFile(filePath));
+		Entry loaded = new Entry(shell, lastModified, watched);
+		shells.put(filePath, loaded);
+		if (changes.get() != version || file.lastModified() != lastModified) {
+			// 読み込み中に変更された（変更イベントの処理が登録より先だった）場合は、次回利用時に読み込み直す
+			shells.remove(filePath, loaded);
+		}
+		return shell;
+	}
+
+	/**
+	 * 全エントリを破棄する
+	 */
+	public void clear() {
+		shells.clear();
+	}
+
+	/**
+	 * 監視スレッドを停止する
+	 */
+	@PreDestroy
+	public synchronized void shutdown() {
+		if (watchThread != null) {
+			watchThread.interrupt();
+			watchThread = null;
+		}
+		if (watchService != null) {
+			try {
+				watchService.close();
+			} catch (IOException e) {
+				log.info("[HtmlShellService] " + e.toString());
+			}
+			watchService = null;
+		}
+	}
+
+	/**
+	 * ファイルのディレクトリを監視対象に登録する
+	 *
+	 * @param file 外枠HTMLのファイル
+	 * @return 監視が有効な場合true
+	 */
+	private synchronized boolean watch(File file) {
+		Path dir = Paths.get(file.getAbsolutePath()).getParent();
+		if (dir == null || !dir.toFile().isDirectory()) {
+			return false;
+		}
+		if (watchedDirs.contains(dir)) {
+			return true;
+		}
+		try {
+			if (watchService == null) {
+				watchService = FileSystems.getDefault().newWatchService();
+				watchThread = new Thread(this::watchLoop, "html-shell-watcher");
+				watchThread.setDaemon(true);
+				watchThread.start();
+			}
+			dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+			watchedDirs.add(dir);
+			return true;
+		} catch (Exception e) {
+			log.info("[HtmlShellService] watch error: " + e.toString());
+			return false;
+		}
+	}
+
+	/**
+	 * ファイル変更を待ち受け、対象ファイルのキャッシュを破棄する
+	 */
+	private void watchLoop() {
+		WatchService service = watchService;
+		while (!Thread.currentThread().isInterrupted()) {
+			WatchKey key;
+			try {
+				key = service.take();
+			} catch (Exception e) {
+				return;
+			}
+			Path dir = (Path) key.watchable();
+			for (WatchEvent<?> event : key.pollEvents()) {
+				if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+					onOverflow();
+				} else if (event.context() instanceof Path) {
+					onFileChanged(dir.resolve((Path) event.context()).toString());
+				}
+			}
+			key.reset();
+		}
+	}
+
+	/**
+	 * ファイル変更時の処理
+	 * キャッシュ済みのファイルであれば破棄し、公開ページキャッシュも破棄する
+	 *
+	 * @param changedPath 変更されたファイルの絶対パス
+	 */
+	void onFileChanged(String changedPath) {
+		changes.incrementAndGet();
+		boolean removed = false;
+		for (String filePath : shells.keySet()) {
+			if (new File(filePath).getAbsolutePath().equals(changedPath)) {
+				shells.remove(filePath);
+				removed = true;
+			}
+		}
+		if (removed) {
+			log.info("[HtmlShellService] reload: " + changedPath);
+			pageCache.clear();
+		}
+	}
+
+	/**
+	 * イベントの取りこぼし（OVERFLOW）時の処理
+	 * どのファイルが変更されたか分からないため、すべてのシェルと公開ページキャッシュを破棄する
+	 */
+	void onOverflow() {
+		changes.incrementAndGet();
+		shells.clear();
+		log.info("[HtmlShellService] overflow: reload all");
+		pageCache.clear();
+	}
+}
@@ -0,0 +1,84 @@
+package com.example.skygarden.service;
+
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.logic.ShortcodeDocument;
+
+/**
+ * 動画ショートコードの描画処理
+ *
+ * [movie id=xxx] または [movie id=xxx, width=xxx, height=xxx] を YouTube の埋め込みコードに変換します。
+ * 対応形式: [movie id=11], [movie id=11, width=560px], [movie id=11, height=315px], [movie id=11, width=560px, height=315px]
+ *
+ * - サイズ指定がある場合: 指定サイズ（省略した方は 560px / 315px）の iframe
+ * - サイズ指定がない場合: レスポンシブ（16:9比率）の iframe
+ * - 動画が公開されていない・ビデオIDが空の場合: HTMLコメント
+ * - id が数字でない場合: 変換せずにそのまま出力
+ *
+ * @see ShortcodeService ショートコードの解析・描画
+ * @see com.example.skygarden.controller.MovieController 動画の登録
+ */
+@Service
+public class MovieShortcodeHandler implements ShortcodeHandler {
+
+	/** ショートコードの名前 */
+	public static final String NAME = "movie";
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public String getReferenceId(ShortcodeDocument.Segment shortcode) {
+		String id = shortcode.getAttribute("id");
+		if (id == null || id.isEmpty()) {
+			return null;
+		}
+		for (int i = 0; i < id.length(); i++) {
+			if (!Character.isDigit(id.charAt(i))) {
+				return null;
+			}
+		}
+		return id;
+	}
+
+	@Override
+	public String render(ShortcodeDocument.Segment shortcode, Map<String, String> referenced) {
+		String movieId = getReferenceId(shortcode);
+		if (movieId == null) {
+			return shortcode.getRaw();
+		}
+		if (referenced == null || !Constants.CONTENT_TYPE_MOVIE.equals(referenced.get("type"))) {
+			return "<!-- Movie ID " + movieId + ": Not found or not published -->";
+		}
+		String videoId = referenced.get("content"); // YouTube ビデオID
+		if (videoId == null || videoId.isEmpty()) {
+			return "<!-- Movie ID " + movieId + ": Video ID not found -->";
+		}
+		String width = shortcode.getAttribute("width");
+		String height = shortcode.getAttribute("height");
+		if (width != null || height != null) {
+			// サイズ指定がある場合は固定サイズで表示
+			String widthStyle = (width != null && !width.isEmpty()) ? width : "560px";
+			String heightStyle = (height != null && !height.isEmpty()) ? height : "315px";
+			return "<div class=\"sky-movie-container\">"
+				+ "<iframe src=\"https://www.youtube.com/embed/" + videoId + "\" "
+				+ "width=\"" + widthStyle + "\" "
+				+ "height=\"" + heightStyle + "\" "
+				+ "frameborder=\"0\" "
+				+ "allow=\"accelerometer; autoplay; clipboard-write; encrypted-media; gyroscope; picture-in-picture\" "
+				+ "allowfullscreen></iframe></div>";
+		}
+		// サイズ指定がない場合はレスポンシブ（16:9比率）
+		return "<div class=\"sky-movie-container\" style=\"position:relative;padding-bottom:56.25%;height:0;overflow:hidden;max-width:100%;\">"
+			+ "<iframe src=\"https://www.youtube.com/embed/" + videoId + "\" "
+			+ "style=\"position:absolute;top:0;left:0;width:100%;height:100%;\" "
+			+ "frameborder=\"0\" "
+			+ "allow=\"accelerometer; autoplay; clipboard-write; encrypted-media; gyroscope; picture-in-picture\" "
+			+ "allowfullscreen></iframe></div>";
+	}
+}
@@ -0,0 +1,456 @@
+package com.example.skygarden.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.skygarden.config.AppProperties;
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.util.CompressionUtil;
+
+import lombok.Getter;
+
+/**
+ * 公開ページキャッシュサービス
+ *
+ * RequestRoutingFilter が生成した公開ページ（HTML・CSS・JS）のレスポンスを
+ * UTF-8エンコード済みのバイト配列として公開URL単位でメモリ上に保持します。
+ * 条件付きGETに応答できるよう、生成時の ETag / Last-Modified / Cache-Control も合わせて保持します。
+ *
+ * 圧縮:
+ * createPage で生成したページは、非圧縮版に加えて gzip / deflate 版を保持します。
+ * 圧縮は登録時に一度だけ行うため、キャッシュヒット時の応答では圧縮処理を行いません。
+ * app.cache.compression-enabled / app.cache.compression-min-size で制御します。
+ * キャッシュにヒットした場合、データベースへの問い合わせとテンプレート組み立てを行わずに応答できます。
+ *
+ * 容量制御:
+ * app.cache.page-max-entries を超えた場合、最も古く参照されたエントリから破棄します（LRU）。
+ *
+ * 無効化:
+ * ContentWriteInterceptor が発行する ContentChangeEvent を受け取り、以下のルールで破棄します。
+ * - 通常コンテンツ・CSS・JSの書き込み: 該当IDのエントリを破棄
+ * - 表示結果が変わる他のページ（ContentDependencyGraph.getAffectedPages）: 破棄
+ *   テンプレート・構成要素・動画の書き込み、スタイルシート・スクリプトの公開の場合に該当します
+ * - 削除（タイプ不明）: 該当IDと、依存関係グラフから求めたページのみ破棄
+ * 依存関係グラフで判定できない場合（読み込み前など）は全件破棄します（キャッシュ済みIDの削除を除く）。
+ *
+ * 世代番号:
+ * 無効化のたびに世代番号を進めます。描画開始時の世代番号を put に渡すことで、
+ * 描画中に無効化が発生した場合に古い内容を登録してしまうことを防ぎます。
+ *
+ * 無効化前のページ（stale-while-revalidate）:
+ * 破棄したエントリは app.cache.stale-while-revalidate-seconds の間、無効化前のページとして保持します。
+ * RequestRoutingFilter は同じURLを描画中（PageRenderService.isRendering）の場合に getStale で取得して返し、
+ * 描画を待たずに応答します。新しいページを登録した時点、または保持期間を過ぎた時点で破棄します。
+ * 削除されたコンテンツの無効化前のページは保持しません。
+ *
+ * @see com.example.skygarden.config.RequestRoutingFilter キャッシュ利用元
+ * @see ContentChangeEvent 無効化のトリガー
+ */
+@Service
+public class PageCacheService {
+
+	/** アプリケーション設定プロパティ */
+	@Autowired
+	private AppProperties appProperties;
+
+	/** コンテンツ依存関係グラフ */
+	@Autowired
+	private ContentDependencyGraph dependencyGraph;
+
+	/** 公開URL → キャッシュエントリ（アクセス順） */
+	private final LinkedHashMap<String, CachedPage> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/** コンテンツID → 公開URLの集合（ID単位の無効化用） */
+	private final Map<String, Set<String>> urlsById = new HashMap<>();
+
+	/** 公開URL → 無効化前のページ（破棄した順） */
+	private final LinkedHashMap<String, StalePage> staleEntries = new LinkedHashMap<>();
+
+	/** 世代番号（無効化のたびに加算） */
+	private long generation = 0;
+
+	/**
+	 * 無効化前のページ
+	 */
+	private static final class StalePage {
+		/** 無効化前のページ */
+		private final CachedPage page;
+		/** 保持期限（エポックミリ秒） */
+		private final long expires;
+
+		private StalePage(CachedPage page, long expires) {
+			this.page = page;
+			this.expires = expires;
+		}
+	}
+
+	/**
+	 * キャッシュされたページ
+	 */
+	@Getter
+	public static class CachedPage {
+		/** コンテンツID */
+		private final String id;
+		/** Content-Type ヘッダーの値 */
+		private final String contentType;
+		/** レスポンス本文（UTF-8エンコード済み） */
+		private final byte[] body;
+		/** ETag ヘッダーの値（未設定の場合null） */
+		private final String etag;
+		/** 最終更新日時（エポックミリ秒、未設定の場合-1） */
+		private final long lastModified;
+		/** Cache-Control ヘッダーの値（未設定の場合null） */
+		private final String cacheControl;
+		/** gzip 圧縮版の本文（作成していない場合null） */
+		private final byte[] gzipBody;
+		/** deflate 圧縮版の本文（作成していない場合null） */
+		private final byte[] deflateBody;
+
+		/**
+		 * コンストラクタ
+		 *
+		 * @param id コンテンツID
+		 * @param contentType Content-Type ヘッダーの値
+		 * @param body レスポンス本文（UTF-8エンコード済み）
+		 * @param etag ETag ヘッダーの値
+		 * @param lastModified 最終更新日時（エポックミリ秒）
+		 * @param cacheControl Cache-Control ヘッダーの値
+		 * @param gzipBody gzip 圧縮版の本文
+		 * @param deflateBody deflate 圧縮版の本文
+		 */
+		public CachedPage(String id, String contentType, byte[] body, String etag, long lastModified, String cacheControl,
+				byte[] gzipBody, byte[] deflateBody) {
+			this.id = id;
+			this.contentType = contentType;
+			this.body = body;
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.cacheControl = cacheControl;
+			this.gzipBody = gzipBody;
+			this.deflateBody = deflateBody;
+		}
+
+		/**
+		 * コンストラクタ（圧縮版なし）
+		 *
+		 * @param id コンテンツID
+		 * @param contentType Content-Type ヘッダーの値
+		 * @param body レスポンス本文（UTF-8エンコード済み）
+		 * @param etag ETag ヘッダーの値
+		 * @param lastModified 最終更新日時（エポックミリ秒）
+		 * @param cacheControl Cache-Control ヘッダーの値
+		 */
+		public CachedPage(String id, String contentType, byte[] body, String etag, long lastModified, String cacheControl) {
+			this(id, contentType, body, etag, lastModified, cacheControl, null, null);
+		}
+
+		/**
+		 * コンストラクタ（検証用ヘッダーなし）
+		 *
+		 * @param id コンテンツID
+		 * @param contentType Content-Type ヘッダーの値
+		 * @param body レスポンス本文（UTF-8エンコード済み）
+		 */
+		public CachedPage(String id, String contentType, byte[] body) {
+			this(id, contentType, body, null, -1, null);
+		}
+
+		/**
+		 * コンストラクタ（検証用ヘッダーなし）
+		 *
+		 * @param id コンテンツID
+		 * @param contentType Content-Type ヘッダーの値
+		 * @param body レスポンス本文
+		 */
+		public CachedPage(String id, String contentType, String body) {
+			this(id, contentType, body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0]);
+		}
+
+		/**
+		 * 圧縮版が存在するかどうか（存在する場合は Vary: Accept-Encoding が必要）
+		 *
+		 * @return いずれかの圧縮版が存在する場合true
+		 */
+		public boolean hasCompressedVariants() {
+			return gzipBody != null || deflateBody != null;
+		}
+
+		/**
+		 * Content-Encoding に対応する本文を取得する
+		 *
+		 * @param encoding CompressionUtil.GZIP / CompressionUtil.DEFLATE（nullの場合は非圧縮）
+		 * @return 本文（対応する圧縮版がない場合は非圧縮の本文）
+		 */
+		public byte[] getBody(String encoding) {
+			if (CompressionUtil.GZIP.equals(encoding) && gzipBody != null) {
+				return gzipBody;
+			}
+			if (CompressionUtil.DEFLATE.equals(encoding) && deflateBody != null) {
+				return deflateBody;
+			}
+			return body;
+		}
+	}
+
+	/**
+	 * キャッシュに登録するページを生成する
+	 * 圧縮が有効で本文が一定サイズ以上の場合は gzip / deflate 版も作成する
+	 * （圧縮してもサイズが小さくならない形式は作成しない）
+	 * 圧縮はロックの外で行うため、put より前に呼び出すこと
+	 *
+	 * @param id コンテンツID
+	 * @param contentType Content-Type ヘッダーの値
+	 * @param body レスポンス本文（UTF-8エンコード済み）
+	 * @param etag ETag ヘッダーの値
+	 * @param lastModified 最終更新日時（エポックミリ秒）
+	 * @param cacheControl Cache-Control ヘッダーの値
+	 * @return キャッシュに登録するページ
+	 */
+	public CachedPage createPage(String id, String contentType, byte[] body, String etag, long lastModified, String cacheControl) {
+		AppProperties.Cache settings = appProperties.getCache();
+		byte[] gzipBody = null;
+		byte[] deflateBody = null;
+		if (settings.isCompressionEnabled() && body.length >= settings.getCompressionMinSize()) {
+			gzipBody = smallerOrNull(CompressionUtil.gzip(body), body);
+			deflateBody = smallerOrNull(CompressionUtil.deflate(body), body);
+		}
+		return new CachedPage(id, contentType, body, etag, lastModified, cacheControl, gzipBody, deflateBody);
+	}
+
+	/**
+	 * キャッシュが有効かどうか
+	 *
+	 * @return 有効な場合true
+	 */
+	public boolean isEnabled() {
+		return appProperties.getCache().isEnabled() && appProperties.getCache().getPageMaxEntries() > 0;
+	}
+
+	/**
+	 * 公開URLに対応するキャッシュを取得する
+	 *
+	 * @param url 公開URL（先頭スラッシュなし）
+	 * @return キャッシュエントリ（存在しない場合null）
+	 */
+	public synchronized CachedPage get(String url) {
+		if (!isEnabled()) {
+			return null;
+		}
+		return entries.get(url);
+	}
+
+	/**
+	 * 現在の世代番号を取得する
+	 * 描画開始前に取得し、put の引数として渡す
+	 *
+	 * @return 世代番号
+	 */
+	public synchronized long currentGeneration() {
+		return generation;
+	}
+
+	/**
+	 * 公開URLに対応するページをキャッシュに登録する
+	 * 描画開始後に無効化が発生していた場合は登録しない
+	 *
+	 * @param url 公開URL（先頭スラッシュなし）
+	 * @param page キャッシュするページ
+	 * @param expectedGeneration 描画開始時の世代番号
+	 */
+	public synchronized void put(String url, CachedPage page, long expectedGeneration) {
+		if (!isEnabled() || page == null || page.getId() == null || expectedGeneration != generation) {
+			return;
+		}
+		CachedPage previous = entries.put(url, page);
+		if (previous != null) {
+			unlink(previous.getId(), url);
+		}
+		staleEntries.remove(url);
+		urlsById.computeIfAbsent(page.getId(), k -> new HashSet<>()).add(url);
+		int maxEntries = appProperties.getCache().getPageMaxEntries();
+		Iterator<Map.Entry<String, CachedPage>> iterator = entries.entrySet().iterator();
+		while (entries.size() > maxEntries && iterator.hasNext()) {
+			Map.Entry<String, CachedPage> eldest = iterator.next();
+			iterator.remove();
+			unlink(eldest.getValue().getId(), eldest.getKey());
+		}
+	}
+
+	/**
+	 * 指定IDのエントリを破棄する
+	 *
+	 * @param id コンテンツID
+	 * @return 破棄したエントリが存在した場合true
+	 */
+	public synchronized boolean evictById(String id) {
+		generation++;
+		Set<String> urls = urlsById.remove(id);
+		if (urls == null) {
+			return false;
+		}
+		for (String url : urls) {
+			keepStale(url, entries.remove(url));
+		}
+		return true;
+	}
+
+	/**
+	 * 公開URLに対応する無効化前のページを取得する
+	 *
+	 * @param url 公開URL（先頭スラッシュなし）
+	 * @return 無効化前のページ（存在しない・保持期間を過ぎた場合null）
+	 */
+	public synchronized CachedPage getStale(String url) {
+		if (!isEnabled()) {
+			return null;
+		}
+		StalePage stale = staleEntries.get(url);
+		if (stale == null) {
+			return null;
+		}
+		if (stale.expires < System.currentTimeMillis()) {
+			staleEntries.remove(url);
+			return null;
+		}
+		return stale.page;
+	}
+
+	/**
+	 * 破棄したエントリを無効化前のページとして保持する
+	 * 件数が app.cache.page-max-entries を超えた場合は、最も古く破棄したものから取り除く
+	 *
+	 * @param url 公開URL
+	 * @param page 破棄したエントリ
+	 */
+	private void keepStale(String url, CachedPage page) {
+		long seconds = appProperties.getCache().getStaleWhileRevalidateSeconds();
+		if (page == null || seconds <= 0) {
+			return;
+		}
+		staleEntries.remove(url);
+		staleEntries.put(url, new StalePage(page, System.currentTimeMillis() + seconds * 1000));
+		int maxEntries = appProperties.getCache().getPageMaxEntries();
+		Iterator<String> iterator = staleEntries.keySet().iterator();
+		while (staleEntries.size() > maxEntries && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * 削除されたコンテンツの無効化前のページを取り除く
+	 *
+	 * @param id コンテンツID（nullの場合は全件）
+	 */
+	private synchronized void discardStale(String id) {
+		if (id == null) {
+			staleEntries.clear();
+			return;
+		}
+		staleEntries.values().removeIf(stale -> id.equals(stale.page.getId()));
+	}
+
+	/**
+	 * 圧縮後のデータが元のデータより小さい場合のみ返す
+	 *
+	 * @param compressed 圧縮後のデータ
+	 * @param original 元のデータ
+	 * @return 圧縮後のデータ（小さくならない場合null）
+	 */
+	private static byte[] smallerOrNull(byte[] compressed, byte[] original) {
+		return compressed.length < original.length ? compressed : null;
+	}
+
+	/**
+	 * 全エントリを破棄する
+	 */
+	public synchronized void clear() {
+		generation++;
+		for (Map.Entry<String, CachedPage> entry : entries.entrySet()) {
+			keepStale(entry.getKey(), entry.getValue());
+		}
+		entries.clear();
+		urlsById.clear();
+	}
+
+	/**
+	 * キャッシュ件数を取得する
+	 *
+	 * @return キャッシュ件数
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * コンテンツ変更イベントを受け取り、影響するエントリを破棄する
+	 *
+	 * @param event コンテンツ変更イベント
+	 */
+	@EventListener
+	public void onContentChange(ContentChangeEvent event) {
+		String id = event.getId();
+		// 表示結果が変わる他のページ（判定できない場合null）
+		Set<String> affected = dependencyGraph.getAffectedPages(event);
+		if (event.getOperation() == ContentChangeEvent.Operation.DELETE) {
+			// contentテーブルの削除は外部キー（ON DELETE CASCADE）で公開テーブルにも波及する
+			boolean evicted = id != null && evictById(id);
+			if (affected != null) {
+				evictAllById(affected);
+			} else if (!evicted) {
+				clear();
+			}
+			discardStale(id);
+			return;
+		}
+		if (!event.isSharedType()) {
+			if (id != null) {
+				evictById(id);
+			} else if (!Constants.TABLE_CONTENT.equals(event.getTable())) {
+				clear();
+				return;
+			}
+		}
+		if (affected != null) {
+			evictAllById(affected);
+		} else {
+			clear();
+		}
+	}
+
+	/**
+	 * 指定IDのエントリをまとめて破棄する
+	 *
+	 * @param ids コンテンツIDの集合
+	 */
+	private void evictAllById(Set<String> ids) {
+		for (String pageId : ids) {
+			evictById(pageId);
+		}
+	}
+
+	/**
+	 * ID → URL の対応から指定URLを取り除く
+	 *
+	 * @param id コンテンツID
+	 * @param url 公開URL
+	 */
+	private void unlink(String id, String url) {
+		Set<String> urls = urlsById.get(id);
+		if (urls != null) {
+			urls.remove(url);
+			if (urls.isEmpty()) {
+				urlsById.remove(id);
+			}
+		}
+	}
+}
@@ -0,0 +1,635 @@
+package com.example.skygarden.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.skygarden.bean.PageModel;
+import com.example.skygarden.bean.RenderedPage;
+import com.example.skygarden.config.AppProperties;
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.logic.CommonProc;
+import com.example.skygarden.logic.Content;
+import com.example.skygarden.logic.HtmlShell;
+import com.example.skygarden.mapper.ContentMapper;
+import com.example.skygarden.util.HtmlMinifier;
+import com.example.skygarden.util.HttpCacheUtil;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 公開ページ描画サービス
+ *
+ * 公開ページ（コンテンツ・CSS・JS）を外枠HTML・テンプレート・構成要素・動画タグから組み立て、
+ * UTF-8エンコード済みのレスポンス本文を生成します。
+ * 生成した本文は content_rendered テーブルに保持し、公開URLへのアクセスは
+ * RequestRoutingFilter が1回のクエリで取得して返却します（テンプレートの組み立ては行いません）。
+ *
+ * 事前描画のタイミング:
+ * ContentWriteInterceptor が発行する ContentChangeEvent を受け取り、以下のルールで更新します。
+ * Content.doCreate / doUpdate、Batch.publishedBatch など、公開テーブルへの書き込みはすべて対象になります。
+ * - 通常コンテンツ・CSS・JSの公開（content_public への作成・更新）: 該当ページを描画して登録
+ * - 表示結果が変わる他のページ（ContentDependencyGraph.getAffectedPages）: 破棄
+ *   テンプレート・構成要素・動画の書き込み、スタイルシート・スクリプトの公開の場合に該当します
+ * - 削除: 該当IDと、依存関係グラフから求めたページを破棄
+ * 依存関係グラフで判定できない場合（読み込み前など）は全件破棄します（未登録IDの削除を除く）。
+ * 破棄されたページは、次回アクセス時に RequestRoutingFilter が描画して登録し直します。
+ *
+ * 外枠HTMLの変更:
+ * 登録時の描画バージョン（getRenderVersion: 外枠HTMLのバージョンと、描画結果を変える設定）を保持し、
+ * 取得時に現在のバージョンと異なる場合は未登録として扱います。
+ * バンドルURL（AssetFingerprintService）が有効な場合、バンドルは起動中のみ解決できるため、
+ * 以前の起動で描画した通常コンテンツも未登録として扱います。
+ *
+ * 世代番号:
+ * 変更イベントのたびに世代番号を進め、破棄したページIDごとに破棄時の世代番号を記録します
+ * （全件破棄の場合はすべてのページの世代番号として記録します）。
+ * リクエスト時・RenderJobService の描画結果は、描画開始時の世代番号を save / saveAll に渡し、
+ * 描画開始後に破棄されたページのみ登録しないことで、描画中に公開された新しい内容を古い内容で
+ * 上書きしてしまうことを防ぎます（関係のないページの変更では登録を取りやめません）。
+ * 破棄の記録は描画済みページの削除より前に、登録後の確認は登録より後に行うため、
+ * 破棄と登録が並行しても古い内容は残りません（登録後に破棄が記録されていた場合は登録したページを削除します）。
+ * 世代番号の取得・登録・イベントの処理はロックを取得しないため、事前描画中も公開URLへのアクセスを妨げません。
+ *
+ * HTMLの圧縮:
+ * app.render.minify-html が有効な場合、通常コンテンツの描画結果を HtmlMinifier で圧縮してから保持します。
+ * 設定は描画バージョンに含めるため、切り替えた場合は保持済みのページを描画し直し、ETag も変わります。
+ * 圧縮は描画（事前描画・キャッシュ登録）のたびに1回だけ行い、保持しないリクエスト（ストリーミング出力）では行いません。
+ * 圧縮したページ数と削減したバイト数は RenderJobService.getStatus（RenderJobStatus）で確認できます。
+ *
+ * 同時リクエストの描画:
+ * renderShared は公開URL単位で描画を1回にまとめます。同じURLを描画中のリクエストは、
+ * 描画中のリクエストの結果を待って利用します（公開直後などにキャッシュが破棄された人気ページへの
+ * 同時アクセスで、同じ描画処理・クエリが並行して実行されることを防ぎます）。
+ * 描画中かどうかは isRendering で確認でき、RequestRoutingFilter は描画中の間、
+ * 無効化前のページ（PageCacheService.getStale）を返します。
+ *
+ * app.render.prerender-enabled で制御します。
+ *
+ * @see com.example.skygarden.config.RequestRoutingFilter 利用元
+ * @see RenderedPage 登録内容
+ */
+@Service
+@Slf4j
+public class PageRenderService {
+
+	/** コンテンツ管理のビジネスロジック */
+	@Autowired
+	private Content content;
+
+	/** コンテンツ管理用のMyBatis Mapper */
+	@Autowired
+	private ContentMapper mapper;
+
+	/** HTMLシェルキャッシュ */
+	@Autowired
+	private HtmlShellService htmlShellService;
+
+	/** アプリケーション設定プロパティ */
+	@Autowired
+	private AppProperties appProperties;
+
+	/** コンテンツ依存関係グラフ */
+	@Autowired
+	private ContentDependencyGraph dependencyGraph;
+
+	/** スタイルシート・スクリプトのフィンガープリント付きURLサービス */
+	@Autowired
+	private AssetFingerprintService assetFingerprints;
+
+	/** 世代番号（変更イベントのたびに加算） */
+	private final AtomicLong generation = new AtomicLong();
+
+	/** ページID → 最後に破棄した世代番号 */
+	private final ConcurrentHashMap<String, Long> invalidatedAt = new ConcurrentHashMap<>();
+
+	/** すべてのページを最後に破棄した世代番号 */
+	private final AtomicLong allInvalidatedAt = new AtomicLong();
+
+	/** HTMLを圧縮したページ数（起動後の累計） */
+	private final AtomicLong minifiedPages = new AtomicLong();
+
+	/** 圧縮前のHTMLのバイト数（起動後の累計） */
+	private final AtomicLong minifiedBytesBefore = new AtomicLong();
+
+	/** 圧縮で削減したバイト数（起動後の累計） */
+	private final AtomicLong minifiedBytesSaved = new AtomicLong();
+
+	/** 公開URL → 描画中の結果（同じURLの同時描画を1回にまとめる） */
+	private final ConcurrentHashMap<String, CompletableFuture<RenderedPage>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * 外枠HTMLに挿入する値
+	 */
+	@Getter
+	public static final class Slots {
+		/** タイトル */
+		private final String title;
+		/** ヘッダー部分 */
+		private final String head;
+		/** コンテンツ本文 */
+		private final String content;
+
+		private Slots(String title, String head, String content) {
+			this.title = title;
+			this.head = head;
+			this.content = content;
+		}
+	}
+
+	/**
+	 * 描画対象のコンテンツタイプかどうか
+	 *
+	 * @param type コンテンツタイプ
+	 * @return コンテンツ・CSS・JSの場合true
+	 */
+	public static boolean isRenderable(String type) {
+		return type == null || type.equals(Constants.CONTENT_TYPE_CONTENT)
+				|| type.equals(Constants.CONTENT_TYPE_STYLESHEET)
+				|| type.equals(Constants.CONTENT_TYPE_SCRIPT);
+	}
+
+	/**
+	 * 描画内容のハッシュと外枠HTMLのバージョンから ETag を生成する
+	 *
+	 * @param contentHash 描画元の内容のハッシュ
+	 * @param shellVersion 外枠HTMLのバージョン
+	 * @return ETag
+	 */
+	public static String etag(String contentHash, String shellVersion) {
+		return HttpCacheUtil.weakEtag(contentHash + "-" + shellVersion);
+	}
+
+	/**
+	 * 事前描画が有効かどうか
+	 *
+	 * @return 有効な場合true
+	 */
+	public boolean isEnabled() {
+		return appProperties.getRender().isPrerenderEnabled();
+	}
+
+	/**
+	 * 現在の世代番号を取得する
+	 *
+	 * @return 世代番号
+	 */
+	public long currentGeneration() {
+		return generation.get();
+	}
+
+	/**
+	 * コンテンツタイプに対応する外枠HTMLを取得する
+	 *
+	 * @param type コンテンツタイプ
+	 * @return 外枠HTML
+	 */
+	public HtmlShell getShell(String type) {
+		String rootpath = CommonProc.getRootPath();
+		if (type == null || type.equals(Constants.CONTENT_TYPE_CONTENT)) {
+			return htmlShellService.getShell(rootpath + "/original.html");
+		} else if (type.equals(Constants.CONTENT_TYPE_STYLESHEET)) {
+			return htmlShellService.getShell(rootpath + "/original.stylesheet.html");
+		} else if (type.equals(Constants.CONTENT_TYPE_SCRIPT)) {
+			return htmlShellService.getShell(rootpath + "/original.script.html");
+		}
+		return HtmlShell.EMPTY;
+	}
+
+	/**
+	 * 描画バージョンを取得する（RenderedPage.shellVersion・ETag に使用）
+	 * 外枠HTMLのバージョンに、通常コンテンツの描画結果を変える設定（バンドルURL・HTMLの圧縮）を加える
+	 * app.render.minify-html を切り替えた場合も、以前の描画結果・ETag は使用されなくなる
+	 *
+	 * @param type コンテンツタイプ
+	 * @param shell 外枠HTML
+	 * @return 描画バージョン
+	 */
+	public String getRenderVersion(String type, HtmlShell shell) {
+		if (!isContentPage(type)) {
+			return shell.getVersion();
+		}
+		String version = shell.getVersion();
+		String bundleVersion = assetFingerprints.getBundleVersion();
+		if (!bundleVersion.isEmpty()) {
+			version += "-" + bundleVersion;
+		}
+		return isMinifyHtml() ? version + "-m" : version;
+	}
+
+	/**
+	 * コンテンツタイプに対応する Content-Type ヘッダーの値を取得する
+	 *
+	 * @param type コンテンツタイプ
+	 * @return Content-Type ヘッダーの値
+	 */
+	public String getContentType(String type) {
+		if (type == null || type.equals(Constants.CONTENT_TYPE_CONTENT)) {
+			return "text/html; charset=UTF-8";
+		} else if (type.equals(Constants.CONTENT_TYPE_STYLESHEET)) {
+			return "text/css";
+		} else if (type.equals(Constants.CONTENT_TYPE_SCRIPT)) {
+			return "application/javascript";
+		}
+		return Constants.EMPTY_STRING;
+	}
+
+	/**
+	 * 外枠HTMLに挿入する値を生成する
+	 * コンテンツの場合はテンプレート・構成要素・動画タグを組み立て、CSS・JSの場合は圧縮済みの本文を使用する
+	 *
+	 * @param page ページ情報
+	 * @return 挿入する値
+	 */
+	public Slots getSlots(PageModel page) {
+		String type = page.getType();
+		if (type == null || type.equals(Constants.CONTENT_TYPE_CONTENT)) {
+			String title = page.getTitle() != null ? page.getTitle() : Constants.EMPTY_STRING;
+			return new Slots(title, content.getPageHead(page), content.displayPage(page));
+		} else if (type.equals(Constants.CONTENT_TYPE_STYLESHEET)) {
+			return new Slots(Constants.EMPTY_STRING, Constants.EMPTY_STRING, content.getStylesheet(page));
+		} else if (type.equals(Constants.CONTENT_TYPE_SCRIPT)) {
+			return new Slots(Constants.EMPTY_STRING, Constants.EMPTY_STRING, content.getScript(page));
+		}
+		String body = page.getContent() != null ? page.getContent() : Constants.EMPTY_STRING;
+		return new Slots(Constants.EMPTY_STRING, Constants.EMPTY_STRING, body);
+	}
+
+	/**
+	 * ページを描画する
+	 *
+	 * @param page ページ情報
+	 * @param shell 外枠HTML
+	 * @param contentHash 描画元の内容のハッシュ（Content.getPageVersion の値）
+	 * @param lastModified 最終更新日時（エポックミリ秒）
+	 * @return 描画済みのページ
+	 */
+	public RenderedPage render(PageModel page, HtmlShell shell, String contentHash, long lastModified) {
+		Slots slots = getSlots(page);
+		RenderedPage rendered = new RenderedPage();
+		rendered.setId(page.getId());
+		rendered.setUrl(page.getUrl());
+		rendered.setType(page.getType());
+		rendered.setContentHash(contentHash);
+		rendered.setShellVersion(getRenderVersion(page.getType(), shell));
+		rendered.setLastModified(lastModified);
+		if (isContentPage(page.getType()) && isMinifyHtml()) {
+			rendered.setBody(minify(shell, slots));
+		} else {
+			rendered.setBody(shell.toBytes(slots.getTitle(), slots.getHead(), slots.getContent()));
+		}
+		rendered.setRendered(CommonProc.createNow());
+		return rendered;
+	}
+
+	/**
+	 * ページを描画して登録する（同じURLの同時描画を1回にまとめる）
+	 * 同じURLを描画中の場合は、その描画の完了を待って結果を利用する
+	 * 待っている間に内容・外枠HTMLが変わっていた場合は、改めて描画する
+	 *
+	 * @param url 公開URL（まとめる単位）
+	 * @param page ページ情報
+	 * @param shell 外枠HTML
+	 * @param contentHash 描画元の内容のハッシュ（Content.getPageVersion の値）
+	 * @param lastModified 最終更新日時（エポックミリ秒）
+	 * @param expectedGeneration 描画開始時の世代番号（save に渡す）
+	 * @return 描画済みのページ
+	 */
+	public RenderedPage renderShared(String url, PageModel page, HtmlShell shell, String contentHash, long lastModified,
+			long expectedGeneration) {
+		CompletableFuture<RenderedPage> flight = new CompletableFuture<>();
+		CompletableFuture<RenderedPage> current = inFlight.putIfAbsent(url, flight);
+		if (current != null) {
+			RenderedPage shared = await(current);
+			if (Objects.equals(contentHash, shared.getContentHash())
+					&& getRenderVersion(page.getType(), shell).equals(shared.getShellVersion())) {
+				return shared;
+			}
+			RenderedPage rendered = render(page, shell, contentHash, lastModified);
+			save(rendered, expectedGeneration);
+			return rendered;
+		}
+		try {
+			RenderedPage rendered = render(page, shell, contentHash, lastModified);
+			save(rendered, expectedGeneration);
+			flight.complete(rendered);
+			return rendered;
+		} catch (RuntimeException | Error e) {
+			flight.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(url, flight);
+		}
+	}
+
+	/**
+	 * 公開URLのページを描画中かどうか
+	 *
+	 * @param url 公開URL
+	 * @return renderShared で描画中の場合true
+	 */
+	public boolean isRendering(String url) {
+		return inFlight.containsKey(url);
+	}
+
+	/**
+	 * 描画中の結果を待つ
+	 * 描画に失敗した場合は同じ例外を送出する（失敗した描画をリクエストごとにやり直さない）
+	 *
+	 * @param flight 描画中の結果
+	 * @return 描画済みのページ
+	 */
+	private static RenderedPage await(CompletableFuture<RenderedPage> flight) {
+		try {
+			return flight.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * HTMLを圧縮するかどうか
+	 *
+	 * @return 圧縮する場合true
+	 */
+	public boolean isMinifyHtml() {
+		return appProperties.getRender().isMinifyHtml();
+	}
+
+	/**
+	 * HTMLを圧縮したページ数を取得する
+	 *
+	 * @return 起動後の累計ページ数
+	 */
+	public long getMinifiedPages() {
+		return minifiedPages.get();
+	}
+
+	/**
+	 * 圧縮前のHTMLのバイト数を取得する
+	 *
+	 * @return 起動後の累計バイト数
+	 */
+	public long getMinifiedBytesBefore() {
+		return minifiedBytesBefore.get();
+	}
+
+	/**
+	 * 圧縮で削減したバイト数を取得する
+	 *
+	 * @return 起動後の累計バイト数
+	 */
+	public long getMinifiedBytesSaved() {
+		return minifiedBytesSaved.get();
+	}
+
+	/**
+	 * スロットに値を挿入したHTMLを圧縮し、UTF-8のバイト配列として生成する
+	 *
+	 * @param shell 外枠HTML
+	 * @param slots 挿入する値
+	 * @return 圧縮後のUTF-8のバイト配列
+	 */
+	private byte[] minify(HtmlShell shell, Slots slots) {
+		long before = shell.contentLength(slots.getTitle(), slots.getHead(), slots.getContent());
+		String html = shell.render(slots.getTitle(), slots.getHead(), slots.getContent());
+		byte[] body = HtmlMinifier.minify(html).getBytes(StandardCharsets.UTF_8);
+		minifiedPages.incrementAndGet();
+		minifiedBytesBefore.addAndGet(before);
+		minifiedBytesSaved.addAndGet(before - body.length);
+		return body;
+	}
+
+	/**
+	 * 公開URLのページを描画して登録する
+	 *
+	 * @param url 公開URL
+	 * @return 描画済みのページ（公開されていない・描画対象外の場合null）
+	 */
+	public RenderedPage prerender(String url) {
+		return prerender(url, currentGeneration());
+	}
+
+	/**
+	 * 公開URLのページを描画して登録する
+	 * 描画開始後に破棄された場合は登録しない
+	 *
+	 * @param url 公開URL
+	 * @param expectedGeneration 描画開始時の世代番号
+	 * @return 描画済みのページ（公開されていない・描画対象外の場合null）
+	 */
+	private RenderedPage prerender(String url, long expectedGeneration) {
+		PageModel page = content.resolvePage(url);
+		if (page == null || !isRenderable(page.getType())) {
+			return null;
+		}
+		RenderedPage rendered = render(page, getShell(page.getType()), content.getPageVersion(page),
+				content.getPageLastModified(page));
+		save(rendered, expectedGeneration);
+		return rendered;
+	}
+
+	/**
+	 * 公開URLから事前描画済みのページを取得する
+	 * 描画バージョン（外枠HTML・描画結果を変える設定）が登録時から変わっている場合は未登録として扱う
+	 *
+	 * @param url 公開URL
+	 * @return 描画済みのページ（未登録・無効な場合null）
+	 */
+	public RenderedPage findRendered(String url) {
+		if (!isEnabled()) {
+			return null;
+		}
+		RenderedPage rendered;
+		try {
+			rendered = mapper.getRenderedPage(url);
+		} catch (Exception e) {
+			log.info("[PageRenderService] lookup error: " + e.toString());
+			return null;
+		}
+		if (rendered == null || rendered.getBody() == null
+				|| !getRenderVersion(rendered.getType(), getShell(rendered.getType())).equals(rendered.getShellVersion())) {
+			return null;
+		}
+		return rendered;
+	}
+
+	/**
+	 * リクエスト時に描画したページを登録する
+	 * 描画開始後にページが破棄された場合は、古い内容の可能性があるため登録しない
+	 *
+	 * @param rendered 描画済みのページ
+	 * @param expectedGeneration 描画開始時の世代番号
+	 */
+	public void save(RenderedPage rendered, long expectedGeneration) {
+		if (!isEnabled() || rendered == null || rendered.getId() == null || rendered.getUrl() == null
+				|| !isCurrent(rendered.getId(), expectedGeneration)) {
+			return;
+		}
+		try {
+			mapper.upsertRenderedPage(rendered);
+			if (!isCurrent(rendered.getId(), expectedGeneration)) {
+				// 登録中に破棄された場合、破棄の前後どちらに登録されたかわからないため削除する
+				mapper.deleteRenderedPage(rendered.getId());
+			}
+		} catch (Exception e) {
+			log.info("[PageRenderService] save error: " + e.toString());
+		}
+	}
+
+	/**
+	 * 描画したページをまとめて登録する（RenderJobService から使用）
+	 * 描画開始後に破棄されたページは、古い内容の可能性があるため登録しない（他のページは登録する）
+	 *
+	 * @param pages 描画済みのページのリスト
+	 * @param expectedGeneration 描画開始時の世代番号
+	 * @return 登録しなかったページのIDのリスト（無効な場合はすべて、すべて登録した場合は空）
+	 */
+	public List<String> saveAll(List<RenderedPage> pages, long expectedGeneration) {
+		List<String> skipped = new ArrayList<>();
+		List<RenderedPage> current = new ArrayList<>(pages.size());
+		for (RenderedPage page : pages) {
+			if (isEnabled() && isCurrent(page.getId(), expectedGeneration)) {
+				current.add(page);
+			} else {
+				skipped.add(page.getId());
+			}
+		}
+		if (current.isEmpty()) {
+			return skipped;
+		}
+		mapper.upsertRenderedPages(current);
+		List<String> raced = new ArrayList<>();
+		for (RenderedPage page : current) {
+			if (!isCurrent(page.getId(), expectedGeneration)) {
+				raced.add(page.getId());
+			}
+		}
+		if (!raced.isEmpty()) {
+			// 登録中に破棄されたページは、破棄の前後どちらに登録されたかわからないため削除する
+			mapper.deleteRenderedPages(raced);
+			skipped.addAll(raced);
+		}
+		return skipped;
+	}
+
+	/**
+	 * 描画開始後にページが破棄されていないかどうか
+	 *
+	 * @param id ページID
+	 * @param expectedGeneration 描画開始時の世代番号
+	 * @return 破棄されていない場合true
+	 */
+	private boolean isCurrent(String id, long expectedGeneration) {
+		return allInvalidatedAt.get() <= expectedGeneration
+				&& (id == null || invalidatedAt.getOrDefault(id, 0L) <= expectedGeneration);
+	}
+
+	/**
+	 * ページを破棄した世代番号を記録する（描画済みページの削除より前に呼び出すこと）
+	 *
+	 * @param ids ページIDの集合
+	 * @param stamp 変更イベントの世代番号
+	 */
+	private void invalidate(Set<String> ids, long stamp) {
+		for (String id : ids) {
+			invalidatedAt.merge(id, stamp, Math::max);
+		}
+	}
+
+	/**
+	 * すべてのページを破棄した世代番号を記録し、描画済みページを全件削除する
+	 *
+	 * @param stamp 変更イベントの世代番号
+	 */
+	private void deleteAllRenderedPages(long stamp) {
+		allInvalidatedAt.accumulateAndGet(stamp, Math::max);
+		mapper.deleteAllRenderedPages();
+	}
+
+	/**
+	 * コンテンツ変更イベントを受け取り、公開されたページを描画して登録する
+	 *
+	 * @param event コンテンツ変更イベント
+	 */
+	@EventListener
+	public void onContentChange(ContentChangeEvent event) {
+		long stamp = generation.incrementAndGet();
+		if (!isEnabled()) {
+			return;
+		}
+		String id = event.getId();
+		// 表示結果が変わる他のページ（判定できない場合null）
+		Set<String> affected = dependencyGraph.getAffectedPages(event);
+		if (event.getOperation() == ContentChangeEvent.Operation.DELETE) {
+			// contentテーブルの削除は外部キー（ON DELETE CASCADE）で公開テーブル・描画済みテーブルにも波及する
+			int deleted = 0;
+			if (id != null) {
+				invalidate(Set.of(id), stamp);
+				deleted = mapper.deleteRenderedPage(id);
+			}
+			if (affected != null) {
+				deleteRenderedPages(affected, stamp);
+			} else if (deleted == 0) {
+				deleteAllRenderedPages(stamp);
+			}
+			return;
+		}
+		if (event.isPublicTable() && isRenderable(event.getType()) && event.getUrl() != null) {
+			if (id != null) {
+				// 描画に失敗した場合に古い内容が残らないよう、先に破棄する
+				invalidate(Set.of(id), stamp);
+				mapper.deleteRenderedPage(id);
+			}
+			try {
+				// このイベント以降に破棄された場合（続けて公開された場合など）は登録しない
+				prerender(event.getUrl(), stamp);
+			} catch (Exception e) {
+				// 描画に失敗した場合は次回アクセス時に描画する
+				log.error("[PageRenderService] prerender error: " + event.getUrl() + " " + e.toString(), e);
+			}
+		}
+		if (affected != null) {
+			deleteRenderedPages(affected, stamp);
+		} else {
+			deleteAllRenderedPages(stamp);
+		}
+	}
+
+	/**
+	 * 指定IDの描画済みページをまとめて破棄する
+	 *
+	 * @param ids コンテンツIDの集合
+	 * @param stamp 変更イベントの世代番号
+	 */
+	private void deleteRenderedPages(Set<String> ids, long stamp) {
+		if (!ids.isEmpty()) {
+			invalidate(ids, stamp);
+			mapper.deleteRenderedPages(new ArrayList<>(ids));
+		}
+	}
+
+	/**
+	 * 通常コンテンツ（HTMLページ）のタイプかどうか
+	 *
+	 * @param type コンテンツタイプ
+	 * @return 通常コンテンツの場合true
+	 */
+	private static boolean isContentPage(String type) {
+		return type == null || type.equals(Constants.CONTENT_TYPE_CONTENT);
+	}
+}
@@ -0,0 +1,557 @@
+package com.example.skygarden.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.skygarden.bean.PageModel;
+import com.example.skygarden.bean.RenderJobStatus;
+import com.example.skygarden.bean.RenderedPage;
+import com.example.skygarden.config.AppProperties;
+import com.example.skygarden.logic.CommonProc;
+import com.example.skygarden.logic.Content;
+import com.example.skygarden.mapper.ContentMapper;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 公開ページの再描画ジョブ
+ *
+ * テンプレート・構成要素・動画が変更されたとき、それらを使用している公開ページを
+ * バックグラウンドでまとめて描画し直し、content_rendered テーブルに登録します。
+ * 対象ページは ContentDependencyGraph で求めます（読み込み前の場合は描画対象の全ページ）。
+ *
+ * 並列処理:
+ * - 未処理のページIDをキューに積み、ワーカースレッドが app.render.job-batch-size 件ずつ取り出して処理します
+ * - 1件ずつではなく、ページ情報（resolvePagesByIds）・構成要素（Content.loadPageElements）を
+ *   1回のクエリでまとめて取得し、描画結果も1回のクエリでまとめて登録します
+ * - ワーカースレッド数は app.render.job-threads で指定します（0の場合は CPUコア数 - 1 と DB接続プールの半分の小さい方）
+ *
+ * 管理画面の操作を妨げないための制御:
+ * - ワーカースレッド数を上記の上限に抑え、DB接続と CPU を管理画面のリクエスト用に残します
+ * - ワーカースレッドは最低優先度・デーモンスレッドで実行します
+ * - 実行環境のスレッド数の上限もワーカースレッド数とし、上限を超えて起動した処理はキューで待たせます
+ *
+ * 古い内容の登録防止:
+ * バッチの取得前に PageRenderService の世代番号を記録し、取得後に破棄されたページのみ登録せず、
+ * そのページだけ取得からやり直します（関係のないページの変更ではバッチをやり直しません）。
+ * 規定回数やり直しても変更が続く場合は登録を見送ります（deferred、次回アクセス時に描画されます）。
+ *
+ * 再開:
+ * - stop() で停止した場合、未処理のページIDを保持し、start() に空のIDを渡すと続きから再開します
+ * - アプリケーションの再起動などで未処理のページIDが失われた場合も、start() に空のIDを渡すと
+ *   事前描画済みのページが登録されていない公開ページを対象に処理します
+ *   （変更時に影響するページは PageRenderService が先に破棄しているため、未処理のページは未登録として残ります）
+ *
+ * 自動開始:
+ * app.render.job-on-change が true の場合、ContentWriteInterceptor が発行する ContentChangeEvent を受け取り、
+ * テンプレート・構成要素・動画の書き込みと削除で影響するページを処理します。
+ * 実行中の場合は未処理のキューに追加します。
+ *
+ * @see RenderJobStatus 進捗
+ * @see com.example.skygarden.controller.RenderJobController 再描画ジョブAPIコントローラー
+ * @see PageRenderService 描画・登録処理
+ */
+@Service
+@Slf4j
+public class RenderJobService {
+
+	/** 状態: 未実行 */
+	public static final String STATE_IDLE = "IDLE";
+	/** 状態: 実行中 */
+	public static final String STATE_RUNNING = "RUNNING";
+	/** 状態: 停止中（処理中のバッチの完了待ち） */
+	public static final String STATE_STOPPING = "STOPPING";
+	/** 状態: 停止（未処理のページIDを保持） */
+	public static final String STATE_STOPPED = "STOPPED";
+	/** 状態: 完了 */
+	public static final String STATE_COMPLETED = "COMPLETED";
+
+	/** 世代番号が変わっていた場合に取得からやり直す回数の上限 */
+	private static final int MAX_ATTEMPTS = 3;
+
+	/** DB接続プールの大きさが分からない場合の値（HikariCP の既定値） */
+	private static final int DEFAULT_POOL_SIZE = 10;
+
+	/** コンテンツ管理のビジネスロジック */
+	@Autowired
+	private Content content;
+
+	/** コンテンツ管理用のMyBatis Mapper */
+	@Autowired
+	private ContentMapper mapper;
+
+	/** 公開ページ描画サービス */
+	@Autowired
+	private PageRenderService pageRenderer;
+
+	/** コンテンツ依存関係グラフ */
+	@Autowired
+	private ContentDependencyGraph dependencyGraph;
+
+	/** アプリケーション設定プロパティ */
+	@Autowired
+	private AppProperties appProperties;
+
+	/** データソース（ワーカースレッド数の算出に使用） */
+	@Autowired(required = false)
+	private DataSource dataSource;
+
+	/** 使用されていないワーカースレッドを終了するまでの時間（秒） */
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	/** ワーカースレッドの実行環境（初回起動時に作成、スレッド数はワーカースレッド数まで） */
+	private Executor executor;
+
+	/** ワーカースレッドの連番 */
+	private final AtomicInteger threadNumber = new AtomicInteger();
+
+	/** 未処理の公開ページID（処理順） */
+	private final Deque<String> pending = new ArrayDeque<>();
+
+	/** 未処理の公開ページID（重複登録の防止） */
+	private final Set<String> pendingIds = new HashSet<>();
+
+	/** 再描画のきっかけになったID */
+	private final Set<String> sourceIds = new LinkedHashSet<>();
+
+	/** ジョブの状態 */
+	private String state = STATE_IDLE;
+
+	/** 対象ページ数 */
+	private int total;
+
+	/** 登録したページ数 */
+	private int completed;
+
+	/** 失敗したページ数 */
+	private int failed;
+
+	/** 登録を見送ったページ数 */
+	private int deferred;
+
+	/** 実行中のワーカー数 */
+	private int activeWorkers;
+
+	/** ワーカースレッド数の上限 */
+	private int threads;
+
+	/** 1回の取得・登録でまとめて処理する件数 */
+	private int batchSize;
+
+	/** 開始時刻（エポックミリ秒） */
+	private long startedMillis;
+
+	/** 終了時刻（エポックミリ秒、実行中は0） */
+	private long finishedMillis;
+
+	/** 開始日時 */
+	private String started;
+
+	/** 終了日時 */
+	private String finished;
+
+	/** 最後に発生したエラー */
+	private String lastError;
+
+	/**
+	 * 再描画ジョブを開始する
+	 * IDを指定しない場合は、停止したジョブの続き、または事前描画済みのページが登録されていないページを処理する
+	 *
+	 * @param ids テンプレート・構成要素・動画のID（空の場合は再開）
+	 * @return 進捗
+	 */
+	public RenderJobStatus start(List<String> ids) {
+		if (!pageRenderer.isEnabled()) {
+			synchronized (this) {
+				lastError = "prerender is disabled";
+			}
+			return getStatus();
+		}
+		List<String> pageIds;
+		if (ids == null || ids.isEmpty()) {
+			pageIds = hasPending() ? new ArrayList<>() : mapper.getRenderablePageIds(true);
+		} else {
+			pageIds = expand(ids);
+		}
+		submit(ids, pageIds, true);
+		return getStatus();
+	}
+
+	/**
+	 * 再描画ジョブを停止する
+	 * 処理中のバッチの完了後に停止し、未処理のページIDは再開用に保持する
+	 *
+	 * @return 進捗
+	 */
+	public RenderJobStatus stop() {
+		synchronized (this) {
+			if (STATE_RUNNING.equals(state)) {
+				state = activeWorkers > 0 ? STATE_STOPPING : STATE_STOPPED;
+			}
+		}
+		return getStatus();
+	}
+
+	/**
+	 * 進捗を取得する
+	 *
+	 * @return 進捗
+	 */
+	public synchronized RenderJobStatus getStatus() {
+		RenderJobStatus status = new RenderJobStatus();
+		status.setState(state);
+		status.getSourceIds().addAll(sourceIds);
+		status.setTotal(total);
+		status.setCompleted(completed);
+		status.setFailed(failed);
+		status.setDeferred(deferred);
+		status.setPending(pending.size());
+		status.setThreads(threads);
+		status.setBatchSize(batchSize);
+		status.setStarted(started);
+		status.setFinished(finished);
+		if (startedMillis > 0) {
+			long elapsed = (finishedMillis > 0 ? finishedMillis : System.currentTimeMillis()) - startedMillis;
+			status.setElapsedMillis(elapsed);
+			if (elapsed > 0) {
+				status.setPagesPerSecond((completed + failed + deferred) * 1000.0 / elapsed);
+			}
+		}
+		status.setLastError(lastError);
+		// 描画時のHTML圧縮の累計（ジョブ以外の描画を含む）
+		status.setHtmlMinifiedPages(pageRenderer.getMinifiedPages());
+		status.setHtmlBytesBefore(pageRenderer.getMinifiedBytesBefore());
+		status.setHtmlBytesSaved(pageRenderer.getMinifiedBytesSaved());
+		return status;
+	}
+
+	/**
+	 * コンテンツ変更イベントを受け取り、影響するページを再描画ジョブに追加する
+	 *
+	 * @param event コンテンツ変更イベント
+	 */
+	@EventListener
+	public void onContentChange(ContentChangeEvent event) {
+		if (event.getId() == null || !appProperties.getRender().isJobOnChange() || !pageRenderer.isEnabled()) {
+			return;
+		}
+		// 表示結果が変わる他のページ（公開されたページ自身は PageRenderService が描画する）
+		Set<String> affected = dependencyGraph.getAffectedPages(event);
+		if (affected == null || affected.isEmpty()) {
+			// 読み込み前の場合、破棄されたページは次回アクセス時に描画する
+			return;
+		}
+		submit(List.of(event.getId()), new ArrayList<>(affected), false);
+	}
+
+	/**
+	 * ワーカースレッドを停止する
+	 */
+	@PreDestroy
+	public void shutdown() {
+		Executor current;
+		synchronized (this) {
+			if (STATE_RUNNING.equals(state)) {
+				state = STATE_STOPPING;
+			}
+			current = executor;
+		}
+		if (current instanceof ExecutorService service) {
+			service.shutdownNow();
+		}
+	}
+
+	/**
+	 * テンプレート・構成要素・動画のIDから、再描画する公開ページIDを求める
+	 *
+	 * @param ids テンプレート・構成要素・動画のID
+	 * @return 公開ページIDのリスト
+	 */
+	private List<String> expand(List<String> ids) {
+		Set<String> pages = new LinkedHashSet<>();
+		for (String id : ids) {
+			Set<String> affected = dependencyGraph.getAffectedPages(id);
+			if (affected == null) {
+				// 依存関係グラフの読み込み前は、描画対象の全ページを処理する
+				return mapper.getRenderablePageIds(false);
+			}
+			pages.addAll(affected);
+		}
+		return new ArrayList<>(pages);
+	}
+
+	/**
+	 * 未処理のページIDがあるかどうか
+	 *
+	 * @return ある場合true
+	 */
+	private synchronized boolean hasPending() {
+		return !pending.isEmpty();
+	}
+
+	/**
+	 * ページIDをキューに追加し、必要な数のワーカーを起動する
+	 * 未実行・完了の場合は新しいジョブとして進捗を初期化する
+	 * 停止中・停止の場合、明示的な開始でなければキューへの追加のみ行う
+	 *
+	 * @param sources 再描画のきっかけになったID
+	 * @param pageIds 公開ページID
+	 * @param explicit 管理画面からの明示的な開始の場合true
+	 */
+	private void submit(List<String> sources, List<String> pageIds, boolean explicit) {
+		int spawn;
+		synchronized (this) {
+			boolean newJob = STATE_IDLE.equals(state) || STATE_COMPLETED.equals(state);
+			if (!explicit && pageIds.isEmpty()) {
+				return;
+			}
+			if (newJob) {
+				reset();
+			}
+			if (sources != null) {
+				sourceIds.addAll(sources);
+			}
+			for (String pageId : pageIds) {
+				if (pendingIds.add(pageId)) {
+					pending.add(pageId);
+					total++;
+				}
+			}
+			if (explicit || newJob) {
+				state = STATE_RUNNING;
+				finishedMillis = 0;
+				finished = null;
+			}
+			if (!STATE_RUNNING.equals(state)) {
+				return;
+			}
+			if (pending.isEmpty() && activeWorkers == 0) {
+				finish(STATE_COMPLETED);
+				return;
+			}
+			int batches = (pending.size() + batchSize - 1) / batchSize;
+			spawn = Math.max(0, Math.min(threads - activeWorkers, batches));
+			activeWorkers += spawn;
+		}
+		Executor current = getExecutor();
+		for (int i = 0; i < spawn; i++) {
+			try {
+				current.execute(this::runWorker);
+			} catch (RejectedExecutionException e) {
+				// 停止処理中は起動しない（未処理のページIDは保持する）
+				workerRejected();
+			}
+		}
+	}
+
+	/**
+	 * 新しいジョブとして進捗を初期化する
+	 */
+	private void reset() {
+		sourceIds.clear();
+		total = 0;
+		completed = 0;
+		failed = 0;
+		deferred = 0;
+		lastError = null;
+		threads = resolveThreads();
+		if (executor instanceof ThreadPoolExecutor pool && pool.getMaximumPoolSize() != threads) {
+			// 設定の変更に合わせてスレッド数の上限を変える（上限は常にコア数以上にする）
+			if (threads > pool.getMaximumPoolSize()) {
+				pool.setMaximumPoolSize(threads);
+				pool.setCorePoolSize(threads);
+			} else {
+				pool.setCorePoolSize(threads);
+				pool.setMaximumPoolSize(threads);
+			}
+		}
+		batchSize = Math.max(1, appProperties.getRender().getJobBatchSize());
+		startedMillis = System.currentTimeMillis();
+		started = CommonProc.createNow();
+		finishedMillis = 0;
+		finished = null;
+	}
+
+	/**
+	 * ジョブを終了状態にする
+	 *
+	 * @param finalState 終了後の状態
+	 */
+	private void finish(String finalState) {
+		state = finalState;
+		finishedMillis = System.currentTimeMillis();
+		finished = CommonProc.createNow();
+		log.info("[RenderJobService] " + finalState + ": completed=" + completed + ", failed=" + failed
+				+ ", deferred=" + deferred + ", pending=" + pending.size() + ", "
+				+ (finishedMillis - startedMillis) + "ms");
+	}
+
+	/**
+	 * ワーカースレッド数を求める
+	 *
+	 * @return ワーカースレッド数
+	 */
+	private int resolveThreads() {
+		int configured = appProperties.getRender().getJobThreads();
+		if (configured > 0) {
+			return configured;
+		}
+		int cores = Runtime.getRuntime().availableProcessors();
+		int poolSize = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+		return Math.max(1, Math.min(cores - 1, poolSize / 2));
+	}
+
+	/**
+	 * ワーカースレッドの実行環境を取得する（初回は作成する）
+	 * スレッド数の上限はワーカースレッド数とし、上限を超える処理はスレッドが空くまでキューで待つ
+	 * 使用されていないスレッドは一定時間後に終了する
+	 *
+	 * @return 実行環境
+	 */
+	private synchronized Executor getExecutor() {
+		if (executor == null) {
+			int size = Math.max(1, threads);
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(), runnable -> {
+						Thread thread = new Thread(runnable, "render-job-" + threadNumber.incrementAndGet());
+						thread.setDaemon(true);
+						thread.setPriority(Thread.MIN_PRIORITY);
+						return thread;
+					});
+			pool.allowCoreThreadTimeOut(true);
+			executor = pool;
+		}
+		return executor;
+	}
+
+	/**
+	 * ワーカーの処理（キューが空になるか停止されるまでバッチを処理する）
+	 */
+	private void runWorker() {
+		List<String> batch;
+		while ((batch = nextBatch()) != null) {
+			processBatch(batch);
+		}
+	}
+
+	/**
+	 * キューから次のバッチを取り出す
+	 * 取り出せない場合はワーカーを終了し、最後のワーカーであればジョブを終了状態にする
+	 *
+	 * @return 公開ページIDのリスト（ワーカーを終了する場合null）
+	 */
+	private synchronized List<String> nextBatch() {
+		if (STATE_RUNNING.equals(state) && !pending.isEmpty()) {
+			List<String> batch = new ArrayList<>(batchSize);
+			while (batch.size() < batchSize && !pending.isEmpty()) {
+				String pageId = pending.poll();
+				pendingIds.remove(pageId);
+				batch.add(pageId);
+			}
+			return batch;
+		}
+		activeWorkers--;
+		if (activeWorkers == 0) {
+			finish(STATE_RUNNING.equals(state) ? STATE_COMPLETED : STATE_STOPPED);
+		}
+		return null;
+	}
+
+	/**
+	 * 起動できなかったワーカーを取り消す
+	 */
+	private synchronized void workerRejected() {
+		activeWorkers--;
+		if (activeWorkers == 0) {
+			finish(STATE_STOPPED);
+		}
+	}
+
+	/**
+	 * バッチを取得・描画・登録する
+	 *
+	 * @param batch 公開ページIDのリスト
+	 */
+	private void processBatch(List<String> batch) {
+		List<String> remaining = batch;
+		for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+			long generation = pageRenderer.currentGeneration();
+			List<RenderedPage> rendered = new ArrayList<>(remaining.size());
+			int failures = 0;
+			try {
+				List<PageModel> pages = mapper.resolvePagesByIds(remaining);
+				content.loadPageElements(pages);
+				for (PageModel page : pages) {
+					if (!PageRenderService.isRenderable(page.getType()) || page.getUrl() == null) {
+						continue;
+					}
+					try {
+						rendered.add(pageRenderer.render(page, pageRenderer.getShell(page.getType()),
+								content.getPageVersion(page), content.getPageLastModified(page)));
+					} catch (Exception e) {
+						failures++;
+						recordError(page.getId(), e);
+					}
+				}
+				List<String> skipped = pageRenderer.saveAll(rendered, generation);
+				// 公開されていない（取得できなかった）ページは処理済みとして扱う
+				record(remaining.size() - failures - skipped.size(), failures, 0);
+				if (skipped.isEmpty()) {
+					return;
+				}
+				// 描画中に破棄されたページのみ取得からやり直す
+				remaining = skipped;
+			} catch (Exception e) {
+				recordError(remaining.get(0), e);
+				record(0, remaining.size(), 0);
+				return;
+			}
+		}
+		// 描画中に変更が続いた場合、破棄されたページは次回アクセス時に描画する
+		record(0, 0, remaining.size());
+	}
+
+	/**
+	 * 処理件数を加算する
+	 *
+	 * @param completedCount 登録した件数
+	 * @param failedCount 失敗した件数
+	 * @param deferredCount 登録を見送った件数
+	 */
+	private synchronized void record(int completedCount, int failedCount, int deferredCount) {
+		completed += completedCount;
+		failed += failedCount;
+		deferred += deferredCount;
+	}
+
+	/**
+	 * エラーを記録する
+	 *
+	 * @param pageId エラーが発生したページ（バッチの場合は先頭）のID
+	 * @param e 例外
+	 */
+	private synchronized void recordError(String pageId, Exception e) {
+		lastError = pageId + ": " + e.toString();
+		log.error("[RenderJobService] render error: " + lastError, e);
+	}
+}
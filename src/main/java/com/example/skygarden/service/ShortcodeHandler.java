@@ -0,0 +1,46 @@
+package com.example.skygarden.service;
+
+import java.util.Map;
+
+import com.example.skygarden.logic.ShortcodeDocument;
+
+/**
+ * ショートコードの描画処理
+ *
+ * このインターフェースを実装した Spring Bean は ShortcodeService に自動で登録され、
+ * getName() の名前のショートコード（例: [movie id=11]）の描画を担当します。
+ *
+ * 描画の流れ:
+ * 1. ShortcodeService がページ内のすべてのショートコードについて getReferenceId() を呼び出す
+ * 2. 参照先のIDをまとめて、公開テーブル（content_public）から1回のクエリで取得する
+ * 3. ショートコードごとに render() を呼び出し、参照先のレコードから出力するHTMLを生成する
+ *
+ * @see ShortcodeService ショートコードの解析・描画
+ * @see MovieShortcodeHandler 動画（[movie id=xxx]）
+ */
+public interface ShortcodeHandler {
+
+	/**
+	 * 担当するショートコードの名前を取得する
+	 *
+	 * @return ショートコードの名前（例: movie）
+	 */
+	String getName();
+
+	/**
+	 * ショートコードが参照する公開コンテンツのIDを取得する
+	 *
+	 * @param shortcode ショートコード
+	 * @return 公開コンテンツのID（参照しない・不正な場合null）
+	 */
+	String getReferenceId(ShortcodeDocument.Segment shortcode);
+
+	/**
+	 * ショートコードを描画する
+	 *
+	 * @param shortcode ショートコード
+	 * @param referenced 参照先の公開コンテンツ（id, title, content, type, elementcolor, updated、存在しない場合null）
+	 * @return 出力するHTML
+	 */
+	String render(ShortcodeDocument.Segment shortcode, Map<String, String> referenced);
+}
@@ -0,0 +1,269 @@
+package com.example.skygarden.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.logic.ShortcodeDocument;
+import com.example.skygarden.mapper.ContentMapper;
+
+/**
+ * ショートコードの解析・描画サービス
+ *
+ * コンテンツ本文・構成要素の本文を ShortcodeDocument にコンパイルし、
+ * コンテンツIDと更新日時（updated）の組をキーとして保持します。
+ * 描画時は、ページを構成するすべての文書のショートコードの参照先を
+ * 公開テーブル（content_public）から1回のクエリでまとめて取得し、各 ShortcodeHandler に渡します。
+ * 例えば動画を20件埋め込んだページでも、クエリは1回で済みます。
+ *
+ * ショートコードの追加:
+ * ShortcodeHandler を実装した Spring Bean を追加すると、その名前のショートコードが有効になります。
+ *
+ * コンパイルのタイミング:
+ * ContentWriteInterceptor が発行する ContentChangeEvent を受け取り、
+ * 公開コンテンツ（content_public）・構成要素（content）の保存時にコンパイルして登録します。
+ * キャッシュに無い場合、または更新日時・本文が変わっている場合は、取得時にコンパイルして登録します。
+ * ショートコードを含まない本文は解析が文字列の走査1回で済むため、登録しません。
+ *
+ * @see ShortcodeDocument コンパイル済み文書
+ * @see ShortcodeHandler ショートコードの描画処理
+ */
+@Service
+public class ShortcodeService {
+
+	/** コンテンツ管理用のMyBatis Mapper */
+	@Autowired
+	private ContentMapper mapper;
+
+	/** ショートコードの描画処理 */
+	@Autowired(required = false)
+	private List<ShortcodeHandler> handlers = new ArrayList<>();
+
+	/** ショートコード名 → 描画処理（初回利用時に作成） */
+	private volatile Map<String, ShortcodeHandler> handlersByName;
+
+	/** コンテンツID → キャッシュエントリ */
+	private final Map<String, Entry> documents = new HashMap<>();
+
+	/**
+	 * キャッシュエントリ
+	 */
+	private static class Entry {
+		/** コンパイル時の更新日時 */
+		private final String updated;
+		/** コンパイル済み文書（本文も保持する） */
+		private final ShortcodeDocument document;
+
+		private Entry(String updated, ShortcodeDocument document) {
+			this.updated = updated;
+			this.document = document;
+		}
+	}
+
+	/**
+	 * 本文のコンパイル済み文書を取得する
+	 * キャッシュに無い場合、または更新日時・本文が変わっている場合はコンパイルして登録する
+	 *
+	 * @param id コンテンツID（nullの場合は登録しない）
+	 * @param updated 更新日時
+	 * @param source 本文
+	 * @return コンパイル済み文書（本文が無い場合は ShortcodeDocument.EMPTY）
+	 */
+	public ShortcodeDocument getDocument(String id, String updated, String source) {
+		if (id == null || source == null || source.indexOf('[') < 0) {
+			return parse(source);
+		}
+		synchronized (documents) {
+			Entry entry = documents.get(id);
+			if (entry != null && Objects.equals(entry.updated, updated) && entry.document.getSource().equals(source)) {
+				return entry.document;
+			}
+		}
+		ShortcodeDocument document = parse(source);
+		synchronized (documents) {
+			documents.put(id, new Entry(updated, document));
+		}
+		return document;
+	}
+
+	/**
+	 * 本文をコンパイルする（登録しない、プレビュー用）
+	 *
+	 * @param source 本文
+	 * @return コンパイル済み文書
+	 */
+	public ShortcodeDocument parse(String source) {
+		return ShortcodeDocument.parse(source, getHandlers().keySet());
+	}
+
+	/**
+	 * 文書を順に連結し、ショートコードを描画する
+	 * すべての文書のショートコードの参照先を1回のクエリでまとめて取得する
+	 *
+	 * @param parts コンパイル済み文書のリスト（出力順）
+	 * @return 描画結果のHTML
+	 */
+	public String render(List<ShortcodeDocument> parts) {
+		return render(parts, findReferences(parts));
+	}
+
+	/**
+	 * 取得済みの参照先を使って、文書を順に連結し、ショートコードを描画する
+	 *
+	 * @param parts コンパイル済み文書のリスト（出力順）
+	 * @param referenced 参照先（findReferences の結果）
+	 * @return 描画結果のHTML
+	 */
+	public String render(List<ShortcodeDocument> parts, Map<String, HashMap<String, String>> referenced) {
+		Map<String, ShortcodeHandler> byName = getHandlers();
+		int length = 0;
+		for (ShortcodeDocument document : parts) {
+			length += document.getSource().length();
+		}
+		StringBuilder output = new StringBuilder(length);
+		for (ShortcodeDocument document : parts) {
+			for (ShortcodeDocument.Segment segment : document.getSegments()) {
+				if (!segment.isShortcode()) {
+					document.appendText(output, segment);
+					continue;
+				}
+				ShortcodeHandler handler = byName.get(segment.getName());
+				if (handler == null) {
+					output.append(segment.getRaw());
+					continue;
+				}
+				String referenceId = handler.getReferenceId(segment);
+				output.append(handler.render(segment, referenceId != null ? referenced.get(referenceId) : null));
+			}
+		}
+		return output.toString();
+	}
+
+	/**
+	 * 文書のショートコードの参照先（動画など）を1回のクエリでまとめて取得する
+	 * 描画結果は参照先の内容によって変わるため、検証用ヘッダーの計算にも使用する
+	 *
+	 * @param parts コンパイル済み文書のリスト
+	 * @return 公開コンテンツID → 公開コンテンツの情報（公開されていない参照先は含まない）
+	 */
+	public HashMap<String, HashMap<String, String>> findReferences(List<ShortcodeDocument> parts) {
+		Map<String, ShortcodeHandler> byName = getHandlers();
+		Set<String> ids = new LinkedHashSet<>();
+		for (ShortcodeDocument document : parts) {
+			if (!document.hasShortcodes()) {
+				continue;
+			}
+			for (ShortcodeDocument.Segment segment : document.getSegments()) {
+				ShortcodeHandler handler = segment.isShortcode() ? byName.get(segment.getName()) : null;
+				String referenceId = handler != null ? handler.getReferenceId(segment) : null;
+				if (referenceId != null) {
+					ids.add(referenceId);
+				}
+			}
+		}
+		return findReferenced(ids);
+	}
+
+	/**
+	 * 指定IDのエントリを破棄する
+	 *
+	 * @param id コンテンツID
+	 */
+	public void evict(String id) {
+		synchronized (documents) {
+			documents.remove(id);
+		}
+	}
+
+	/**
+	 * 全エントリを破棄する
+	 */
+	public void clear() {
+		synchronized (documents) {
+			documents.clear();
+		}
+	}
+
+	/**
+	 * キャッシュ件数を取得する
+	 *
+	 * @return キャッシュ件数
+	 */
+	public int size() {
+		synchronized (documents) {
+			return documents.size();
+		}
+	}
+
+	/**
+	 * コンテンツ変更イベントを受け取り、保存された本文をコンパイルして登録する
+	 *
+	 * @param event コンテンツ変更イベント
+	 */
+	@EventListener
+	public void onContentChange(ContentChangeEvent event) {
+		String id = event.getId();
+		if (id == null) {
+			return;
+		}
+		if (event.getOperation() == ContentChangeEvent.Operation.DELETE) {
+			evict(id);
+			return;
+		}
+		String type = event.getType();
+		boolean rendered = event.isPublicTable()
+				? type == null || type.equals(Constants.CONTENT_TYPE_CONTENT)
+				: Constants.CONTENT_TYPE_ELEMENT.equals(type);
+		if (rendered) {
+			getDocument(id, event.getUpdated(), event.getContent());
+		}
+	}
+
+	/**
+	 * 参照先の公開コンテンツをまとめて取得する
+	 *
+	 * @param ids 公開コンテンツIDの集合
+	 * @return 公開コンテンツID → 公開コンテンツの情報
+	 */
+	private HashMap<String, HashMap<String, String>> findReferenced(Set<String> ids) {
+		HashMap<String, HashMap<String, String>> results = new HashMap<>();
+		if (ids.isEmpty()) {
+			return results;
+		}
+		List<HashMap<String, String>> rows = mapper.searchByIds(new ArrayList<>(ids), Constants.TABLE_CONTENT_PUBLIC);
+		if (rows != null) {
+			for (HashMap<String, String> row : rows) {
+				results.put(row.get("id"), row);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * ショートコード名 → 描画処理のMapを取得する
+	 *
+	 * @return ショートコード名 → 描画処理
+	 */
+	private Map<String, ShortcodeHandler> getHandlers() {
+		Map<String, ShortcodeHandler> byName = handlersByName;
+		if (byName == null) {
+			byName = new HashMap<>();
+			if (handlers != null) {
+				for (ShortcodeHandler handler : handlers) {
+					byName.put(handler.getName(), handler);
+				}
+			}
+			handlersByName = byName;
+		}
+		return byName;
+	}
+}
@@ -0,0 +1,141 @@
+package com.example.skygarden.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.logic.TemplateLayout;
+
+/**
+ * テンプレートレイアウトキャッシュサービス
+ *
+ * テンプレートのcontentフィールドを TemplateLayout にコンパイルし、
+ * テンプレートIDと更新日時（updated）の組をキーとして保持します。
+ * 同じテンプレートを使うページの表示では、解析済みのレイアウトを再利用します。
+ *
+ * 無効化:
+ * - 取得時に保持している updated と異なる場合は再コンパイルする
+ * - updated は分単位の精度しかないため、テンプレートの書き込みを示す
+ *   ContentChangeEvent を受け取った場合も該当IDのエントリを破棄する
+ *
+ * @see TemplateLayout コンパイル済みレイアウト
+ */
+@Service
+public class TemplateLayoutService {
+
+	/** テンプレートID → キャッシュエントリ */
+	private final Map<String, Entry> layouts = new HashMap<>();
+
+	/**
+	 * キャッシュエントリ
+	 */
+	private static class Entry {
+		/** コンパイル時の更新日時 */
+		private final String updated;
+		/** コンパイル時のテンプレート本文 */
+		private final String source;
+		/** コンパイル済みレイアウト */
+		private final TemplateLayout layout;
+
+		private Entry(String updated, String source, TemplateLayout layout) {
+			this.updated = updated;
+			this.source = source;
+			this.layout = layout;
+		}
+	}
+
+	/**
+	 * テンプレートのコンパイル済みレイアウトを取得する
+	 * キャッシュに無い場合、または更新日時・本文が変わっている場合はコンパイルして登録する
+	 *
+	 * @param templateId テンプレートID
+	 * @param template テンプレートのレコード（content, updated を参照）
+	 * @return コンパイル済みレイアウト（テンプレートが無い場合は TemplateLayout.EMPTY）
+	 */
+	public TemplateLayout getLayout(String templateId, Map<String, String> template) {
+		if (template == null) {
+			return TemplateLayout.EMPTY;
+		}
+		return getLayout(templateId, template.get("updated"), template.get("content"));
+	}
+
+	/**
+	 * テンプレートのコンパイル済みレイアウトを取得する
+	 * キャッシュに無い場合、または更新日時・本文が変わっている場合はコンパイルして登録する
+	 *
+	 * @param templateId テンプレートID
+	 * @param updated テンプレートの更新日時
+	 * @param source テンプレートのcontentフィールド
+	 * @return コンパイル済みレイアウト
+	 */
+	public TemplateLayout getLayout(String templateId, String updated, String source) {
+		if (templateId == null || templateId.isEmpty()) {
+			return TemplateLayout.parse(source);
+		}
+		synchronized (layouts) {
+			Entry entry = layouts.get(templateId);
+			if (entry != null && Objects.equals(entry.updated, updated) && Objects.equals(entry.source, source)) {
+				return entry.layout;
+			}
+		}
+		TemplateLayout layout = TemplateLayout.parse(source);
+		synchronized (layouts) {
+			layouts.put(templateId, new Entry(updated, source, layout));
+		}
+		return layout;
+	}
+
+	/**
+	 * 指定テンプレートのエントリを破棄する
+	 *
+	 * @param templateId テンプレートID
+	 */
+	public void evict(String templateId) {
+		synchronized (layouts) {
+			layouts.remove(templateId);
+		}
+	}
+
+	/**
+	 * 全エントリを破棄する
+	 */
+	public void clear() {
+		synchronized (layouts) {
+			layouts.clear();
+		}
+	}
+
+	/**
+	 * キャッシュ件数を取得する
+	 *
+	 * @return キャッシュ件数
+	 */
+	public int size() {
+		synchronized (layouts) {
+			return layouts.size();
+		}
+	}
+
+	/**
+	 * コンテンツ変更イベントを受け取り、テンプレートの書き込みであればエントリを破棄する
+	 *
+	 * @param event コンテンツ変更イベント
+	 */
+	@EventListener
+	public void onContentChange(ContentChangeEvent event) {
+		if (event.getOperation() == ContentChangeEvent.Operation.DELETE || event.getId() == null) {
+			// 削除・採番前の作成はタイプまたはIDが不明なため全件破棄する
+			if (event.getType() == null || Constants.CONTENT_TYPE_TEMPLATE.equals(event.getType())) {
+				clear();
+			}
+			return;
+		}
+		if (Constants.CONTENT_TYPE_TEMPLATE.equals(event.getType())) {
+			evict(event.getId());
+		}
+	}
+}
@@ -0,0 +1,204 @@
+package com.example.skygarden.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.skygarden.config.AppProperties;
+import com.example.skygarden.mapper.ContentMapper;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 公開URLルーティングテーブル
+ *
+ * content_public テーブルの URL → (id, type, updated) の対応をメモリ上に保持します。
+ * RequestRoutingFilter はこのテーブルを参照し、存在しないURL（ボットの探索アクセスなど）に対して
+ * データベースへ問い合わせることなく404を返します。
+ *
+ * 読み込み:
+ * アプリケーション起動完了時（ApplicationReadyEvent）に全件を読み込みます。
+ * 読み込みが完了するまでは isLoaded() が false を返し、利用側はデータベースを参照します。
+ *
+ * 更新:
+ * ContentWriteInterceptor が発行する ContentChangeEvent を受け取り、差分で更新します。
+ * - content_public への作成・更新: 該当IDのURLを登録（URL変更時は旧URLを削除）
+ * - content / content_public の削除: 該当IDのURLを削除
+ * - content（下書き）への作成・更新: 公開URLに影響しないため無視
+ *
+ * app.cache.enabled が false の場合は読み込みを行わず、常にデータベースを参照させます。
+ *
+ * @see com.example.skygarden.config.RequestRoutingFilter 利用元
+ * @see ContentChangeEvent 更新のトリガー
+ */
+@Service
+@Slf4j
+public class UrlRoutingTable {
+
+	/** コンテンツ管理用のMyBatis Mapper */
+	@Autowired
+	private ContentMapper mapper;
+
+	/** アプリケーション設定プロパティ */
+	@Autowired
+	private AppProperties appProperties;
+
+	/** 公開URL → ルート情報 */
+	private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+	/** コンテンツID → 公開URL（URL変更・削除時の逆引き用） */
+	private final Map<String, String> urlsById = new HashMap<>();
+
+	/** 全件読み込みが完了しているかどうか */
+	private volatile boolean loaded = false;
+
+	/**
+	 * ルート情報
+	 */
+	@Getter
+	public static class Route {
+		/** コンテンツID */
+		private final String id;
+		/** コンテンツタイプ */
+		private final String type;
+		/** 更新日時 */
+		private final String updated;
+
+		/**
+		 * コンストラクタ
+		 *
+		 * @param id コンテンツID
+		 * @param type コンテンツタイプ
+		 * @param updated 更新日時
+		 */
+		public Route(String id, String type, String updated) {
+			this.id = id;
+			this.type = type;
+			this.updated = updated;
+		}
+	}
+
+	/**
+	 * アプリケーション起動完了時に全件を読み込む
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (!appProperties.getCache().isEnabled()) {
+			return;
+		}
+		try {
+			reload();
+		} catch (Exception e) {
+			// 読み込みに失敗した場合はデータベース参照のまま動作させる
+			log.error("[UrlRoutingTable] load error: " + e.toString(), e);
+		}
+	}
+
+	/**
+	 * content_public から全件を読み込み直す
+	 */
+	public synchronized void reload() {
+		List<HashMap<String, String>> rows = mapper.getPublicRoutes();
+		routes.clear();
+		urlsById.clear();
+		if (rows != null) {
+			for (HashMap<String, String> row : rows) {
+				register(row.get("id"), row.get("url"), row.get("type"), row.get("updated"));
+			}
+		}
+		loaded = true;
+		log.info("[UrlRoutingTable] loaded " + routes.size() + " routes");
+	}
+
+	/**
+	 * 全件読み込みが完了しているかどうか
+	 * false の場合、lookup の結果は信頼できないためデータベースを参照すること
+	 *
+	 * @return 読み込み済みの場合true
+	 */
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * 公開URLに対応するルート情報を取得する
+	 *
+	 * @param url 公開URL（先頭スラッシュなし）
+	 * @return ルート情報（存在しない場合null）
+	 */
+	public Route lookup(String url) {
+		if (url == null) {
+			return null;
+		}
+		return routes.get(url);
+	}
+
+	/**
+	 * 登録件数を取得する
+	 *
+	 * @return 登録件数
+	 */
+	public int size() {
+		return routes.size();
+	}
+
+	/**
+	 * コンテンツ変更イベントを受け取り、ルーティングテーブルを更新する
+	 *
+	 * @param event コンテンツ変更イベント
+	 */
+	@EventListener
+	public synchronized void onContentChange(ContentChangeEvent event) {
+		if (!loaded || event.getId() == null) {
+			return;
+		}
+		if (event.getOperation() == ContentChangeEvent.Operation.DELETE) {
+			// contentテーブルの削除は外部キー（ON DELETE CASCADE）で公開テーブルにも波及する
+			unregister(event.getId());
+			return;
+		}
+		if (!event.isPublicTable()) {
+			return;
+		}
+		unregister(event.getId());
+		register(event.getId(), event.getUrl(), event.getType(), event.getUpdated());
+	}
+
+	/**
+	 * ルート情報を登録する
+	 *
+	 * @param id コンテンツID
+	 * @param url 公開URL
+	 * @param type コンテンツタイプ
+	 * @param updated 更新日時
+	 */
+	private void register(String id, String url, String type, String updated) {
+		if (id == null || url == null || url.isEmpty()) {
+			return;
+		}
+		routes.put(url, new Route(id, type, updated));
+		urlsById.put(id, url);
+	}
+
+	/**
+	 * 指定IDのルート情報を削除する
+	 *
+	 * @param id コンテンツID
+	 */
+	private void unregister(String id) {
+		String url = urlsById.remove(id);
+		if (url != null) {
+			Route route = routes.get(url);
+			if (route != null && id.equals(route.getId())) {
+				routes.remove(url);
+			}
+		}
+	}
+}
@@ -0,0 +1,420 @@
+package com.example.skygarden.util;
+
+import java.util.Set;
+
+import com.example.skygarden.constants.Constants;
+
+/**
+ * スタイルシート（CSS）・スクリプト（JS）の圧縮ユーティリティクラス
+ *
+ * このクラスはCSS・JSのコメントと不要な空白を取り除く処理を提供します。
+ * 外部ライブラリを使用せず、文字列を1回走査するだけで圧縮します。
+ * 公開時に1回だけ実行し、結果を保持して配信することを想定しています（AssetMinifyService）。
+ *
+ * CSSの圧縮:
+ * - コメントを削除する（"/*!" で始まるコメントはライセンス表記として残す）
+ * - 空白の連続を1文字にまとめ、"{" "}" ";" ":" "," ">" "(" の後、"{" "}" ";" "," ">" ")" "!" の前の空白を削除する
+ * - "}" の直前の ";" を削除する
+ * - 文字列（"..." / '...'）はそのまま残す
+ * - ":" の前の空白（"div :first-child" の子孫セレクタ）や "+" の前後（calc()）の空白は残す
+ *
+ * JSの圧縮:
+ * - コメントを削除する（"/*!" で始まるコメントは残す）
+ * - 改行を含む空白は改行1文字、それ以外は空白1文字にまとめ、記号の前後では削除する
+ * - セミコロンの自動挿入に影響しないよう、改行は "{" "(" "[" ";" "," の後、"}" ")" "]" ";" "," の前でのみ削除する
+ * - 文字列・テンプレートリテラル・正規表現リテラルはそのまま残す
+ *
+ * 閉じていないコメント・文字列・正規表現がある場合は、誤った変換を避けるため元の文字列をそのまま返します。
+ *
+ * 使用例:
+ * <pre>
+ * {@code
+ * AssetMinifier.minifyCss("body {\n  color: red;\n}"); // 結果: "body{color:red}"
+ * AssetMinifier.minifyJs("var a = 1; // comment\nvar b = 2;"); // 結果: "var a=1;var b=2;"
+ * }
+ * </pre>
+ *
+ * このクラスはstaticメソッドのみを持ち、インスタンス化できません。
+ */
+public final class AssetMinifier {
+
+	/** CSSで直後の空白を削除できる文字 */
+	private static final String CSS_NO_SPACE_AFTER = "{};:,>(";
+
+	/** CSSで直前の空白を削除できる文字 */
+	private static final String CSS_NO_SPACE_BEFORE = "{};,>)!";
+
+	/** JSで直後の改行を削除できる文字 */
+	private static final String JS_NO_NEWLINE_AFTER = "{([;,";
+
+	/** JSで直前の改行を削除できる文字 */
+	private static final String JS_NO_NEWLINE_BEFORE = "})];,";
+
+	/** 直後の "/" を正規表現リテラルの開始として扱うキーワード */
+	private static final Set<String> REGEX_KEYWORDS = Set.of(
+			"return", "typeof", "instanceof", "in", "of", "new", "delete", "void", "throw",
+			"case", "do", "else", "yield", "await");
+
+	/**
+	 * プライベートコンストラクタ
+	 * ユーティリティクラスのインスタンス化を防止する
+	 */
+	private AssetMinifier() {
+		// インスタンス化を防ぐ
+	}
+
+	/**
+	 * コンテンツタイプに応じて圧縮する
+	 *
+	 * @param type コンテンツタイプ（stylesheet / script）
+	 * @param source 圧縮前の文字列
+	 * @return 圧縮後の文字列（対象外のタイプの場合はそのまま）
+	 */
+	public static String minify(String type, String source) {
+		if (Constants.CONTENT_TYPE_STYLESHEET.equals(type)) {
+			return minifyCss(source);
+		} else if (Constants.CONTENT_TYPE_SCRIPT.equals(type)) {
+			return minifyJs(source);
+		}
+		return source != null ? source : Constants.EMPTY_STRING;
+	}
+
+	/**
+	 * CSSを圧縮する
+	 *
+	 * @param source 圧縮前のCSS
+	 * @return 圧縮後のCSS（nullの場合は空文字）
+	 */
+	public static String minifyCss(String source) {
+		if (source == null || source.isEmpty()) {
+			return Constants.EMPTY_STRING;
+		}
+		int length = source.length();
+		StringBuilder out = new StringBuilder(length);
+		boolean space = false;
+		int i = 0;
+		while (i < length) {
+			char c = source.charAt(i);
+			if (c == '/' && i + 1 < length && source.charAt(i + 1) == '*') {
+				int end = source.indexOf("*/", i + 2);
+				if (end < 0) {
+					return source;
+				}
+				if (i + 2 < length && source.charAt(i + 2) == '!') {
+					appendCssSpace(out, space, c);
+					space = false;
+					out.append(source, i, end + 2);
+				} else {
+					// コメントは区切りとして扱う
+					space = true;
+				}
+				i = end + 2;
+				continue;
+			}
+			if (Character.isWhitespace(c)) {
+				space = true;
+				i++;
+				continue;
+			}
+			appendCssSpace(out, space, c);
+			space = false;
+			if (c == '"' || c == '\'') {
+				int end = stringEnd(source, i);
+				if (end < 0) {
+					return source;
+				}
+				out.append(source, i, end + 1);
+				i = end + 1;
+				continue;
+			}
+			if (c == '}' && out.length() > 0 && out.charAt(out.length() - 1) == ';') {
+				out.setLength(out.length() - 1);
+			}
+			out.append(c);
+			i++;
+		}
+		return out.toString();
+	}
+
+	/**
+	 * JSを圧縮する
+	 *
+	 * @param source 圧縮前のJS
+	 * @return 圧縮後のJS（nullの場合は空文字）
+	 */
+	public static String minifyJs(String source) {
+		if (source == null || source.isEmpty()) {
+			return Constants.EMPTY_STRING;
+		}
+		int length = source.length();
+		StringBuilder out = new StringBuilder(length);
+		boolean space = false;
+		boolean newline = false;
+		// 直前に出力した正規表現リテラルの終了位置
+		int lastRegexEnd = -1;
+		int i = 0;
+		while (i < length) {
+			char c = source.charAt(i);
+			if (c == '/' && i + 1 < length && source.charAt(i + 1) == '/') {
+				// 行コメントは改行として扱う
+				int end = source.indexOf('\n', i + 2);
+				newline = true;
+				i = end < 0 ? length : end + 1;
+				continue;
+			}
+			if (c == '/' && i + 1 < length && source.charAt(i + 1) == '*') {
+				int end = source.indexOf("*/", i + 2);
+				if (end < 0) {
+					return source;
+				}
+				if (i + 2 < length && source.charAt(i + 2) == '!') {
+					appendJsSpace(out, space, newline, c, false);
+					space = false;
+					newline = false;
+					out.append(source, i, end + 2);
+				} else if (source.indexOf('\n', i + 2) >= 0 && source.indexOf('\n', i + 2) < end) {
+					newline = true;
+				} else {
+					space = true;
+				}
+				i = end + 2;
+				continue;
+			}
+			if (Character.isWhitespace(c)) {
+				if (c == '\n' || c == '\r' || c == '\u2028' || c == '\u2029') {
+					newline = true;
+				} else {
+					space = true;
+				}
+				i++;
+				continue;
+			}
+			appendJsSpace(out, space, newline, c, lastRegexEnd == out.length());
+			space = false;
+			newline = false;
+			int end = -1;
+			if (c == '"' || c == '\'') {
+				end = stringEnd(source, i);
+			} else if (c == '`') {
+				end = templateEnd(source, i);
+			} else if (c == '/' && isRegexAllowed(out)) {
+				end = regexEnd(source, i);
+			} else {
+				out.append(c);
+				i++;
+				continue;
+			}
+			if (end < 0) {
+				return source;
+			}
+			out.append(source, i, end + 1);
+			if (c == '/') {
+				lastRegexEnd = out.length();
+			}
+			i = end + 1;
+		}
+		return out.toString();
+	}
+
+	/**
+	 * CSSの空白を必要な場合だけ出力する
+	 *
+	 * @param out 出力先
+	 * @param space 直前に空白・コメントがあったかどうか
+	 * @param next 次の文字
+	 */
+	private static void appendCssSpace(StringBuilder out, boolean space, char next) {
+		if (!space || out.length() == 0) {
+			return;
+		}
+		char prev = out.charAt(out.length() - 1);
+		if (CSS_NO_SPACE_AFTER.indexOf(prev) >= 0 || CSS_NO_SPACE_BEFORE.indexOf(next) >= 0) {
+			return;
+		}
+		out.append(' ');
+	}
+
+	/**
+	 * JSの空白・改行を必要な場合だけ出力する
+	 *
+	 * @param out 出力先
+	 * @param space 直前に空白があったかどうか
+	 * @param newline 直前に改行があったかどうか
+	 * @param next 次の文字
+	 * @param afterRegex 直前の出力が正規表現リテラルかどうか
+	 */
+	private static void appendJsSpace(StringBuilder out, boolean space, boolean newline, char next, boolean afterRegex) {
+		if ((!space && !newline) || out.length() == 0) {
+			return;
+		}
+		char prev = out.charAt(out.length() - 1);
+		if (newline) {
+			if (JS_NO_NEWLINE_AFTER.indexOf(prev) < 0 && JS_NO_NEWLINE_BEFORE.indexOf(next) < 0) {
+				out.append('\n');
+			}
+			return;
+		}
+		if ((isIdentifierChar(prev) && isIdentifierChar(next))
+				// "a + +b" / "a - -b"
+				|| ((prev == '+' || prev == '-') && prev == next)
+				// 正規表現リテラルのフラグと区別する（"/re/ in x"）
+				|| (afterRegex && isIdentifierChar(next))
+				// 数値のプロパティ参照（"1 .toString()"）
+				|| (Character.isDigit(prev) && next == '.')
+				// HTMLコメントと解釈される並び（"<!--" / "-->"）
+				|| (prev == '<' && next == '!') || (prev == '-' && next == '>')) {
+			out.append(' ');
+		}
+	}
+
+	/**
+	 * 現在の位置の "/" が正規表現リテラルの開始かどうか
+	 * 直前の出力が値（識別子・数値・")"・"]"・文字列）の場合は除算として扱う
+	 *
+	 * @param out 出力済みの文字列
+	 * @return 正規表現リテラルの場合true
+	 */
+	private static boolean isRegexAllowed(StringBuilder out) {
+		int end = out.length() - 1;
+		while (end >= 0 && Character.isWhitespace(out.charAt(end))) {
+			end--;
+		}
+		if (end < 0) {
+			return true;
+		}
+		char prev = out.charAt(end);
+		if (prev == ')' || prev == ']' || prev == '"' || prev == '\'' || prev == '`') {
+			return false;
+		}
+		if (!isIdentifierChar(prev)) {
+			return true;
+		}
+		int start = end;
+		while (start > 0 && isIdentifierChar(out.charAt(start - 1))) {
+			start--;
+		}
+		return REGEX_KEYWORDS.contains(out.substring(start, end + 1));
+	}
+
+	/**
+	 * 文字列リテラルの終了位置を取得する
+	 *
+	 * @param source 文字列
+	 * @param start 開始の引用符の位置
+	 * @return 終了の引用符の位置（閉じていない場合-1）
+	 */
+	private static int stringEnd(String source, int start) {
+		char quote = source.charAt(start);
+		for (int i = start + 1; i < source.length(); i++) {
+			char c = source.charAt(i);
+			if (c == '\\') {
+				i++;
+			} else if (c == quote) {
+				return i;
+			} else if (c == '\n') {
+				return -1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * テンプレートリテラルの終了位置を取得する
+	 * "${...}" の中の文字列・テンプレートリテラルも考慮する
+	 *
+	 * @param source 文字列
+	 * @param start 開始の "`" の位置
+	 * @return 終了の "`" の位置（閉じていない場合-1）
+	 */
+	private static int templateEnd(String source, int start) {
+		int i = start + 1;
+		while (i < source.length()) {
+			char c = source.charAt(i);
+			if (c == '\\') {
+				i += 2;
+				continue;
+			}
+			if (c == '`') {
+				return i;
+			}
+			if (c == '$' && i + 1 < source.length() && source.charAt(i + 1) == '{') {
+				i = expressionEnd(source, i + 2);
+				if (i < 0) {
+					return -1;
+				}
+			}
+			i++;
+		}
+		return -1;
+	}
+
+	/**
+	 * テンプレートリテラルの "${...}" の終了位置を取得する
+	 *
+	 * @param source 文字列
+	 * @param start "${" の直後の位置
+	 * @return 対応する "}" の位置（閉じていない場合-1）
+	 */
+	private static int expressionEnd(String source, int start) {
+		int depth = 0;
+		int i = start;
+		while (i < source.length()) {
+			char c = source.charAt(i);
+			int end = i;
+			if (c == '"' || c == '\'') {
+				end = stringEnd(source, i);
+			} else if (c == '`') {
+				end = templateEnd(source, i);
+			} else if (c == '{') {
+				depth++;
+			} else if (c == '}') {
+				if (depth == 0) {
+					return i;
+				}
+				depth--;
+			}
+			if (end < 0) {
+				return -1;
+			}
+			i = end + 1;
+		}
+		return -1;
+	}
+
+	/**
+	 * 正規表現リテラルの終了位置を取得する
+	 * 文字クラス（[...]）の中の "/" は終了として扱わない
+	 *
+	 * @param source 文字列
+	 * @param start 開始の "/" の位置
+	 * @return 終了の "/" の位置（閉じていない場合-1）
+	 */
+	private static int regexEnd(String source, int start) {
+		boolean inClass = false;
+		for (int i = start + 1; i < source.length(); i++) {
+			char c = source.charAt(i);
+			if (c == '\\') {
+				i++;
+			} else if (c == '\n' || c == '\r') {
+				return -1;
+			} else if (c == '[') {
+				inClass = true;
+			} else if (c == ']') {
+				inClass = false;
+			} else if (c == '/' && !inClass) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * JSの識別子・数値に使用される文字かどうか
+	 *
+	 * @param c 文字
+	 * @return 英数字・"_"・"$"・"\"・非ASCII文字の場合true
+	 */
+	private static boolean isIdentifierChar(char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '\\' || c > 0x7f;
+	}
+}
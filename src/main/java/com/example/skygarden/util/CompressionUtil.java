@@ -0,0 +1,146 @@
+package com.example.skygarden.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * レスポンス圧縮ユーティリティクラス
+ *
+ * このクラスは公開ページの事前圧縮（gzip / deflate）と、
+ * Accept-Encoding ヘッダーに応じた圧縮形式の選択を提供します。
+ * 圧縮はJDK標準の java.util.zip のみを使用します。
+ *
+ * 圧縮形式:
+ * - gzip: RFC 1952 形式
+ * - deflate: HTTPの "deflate"（RFC 1950 のzlib形式）
+ *
+ * 使用例:
+ * <pre>
+ * {@code
+ * byte[] gzip = CompressionUtil.gzip(body);
+ * String encoding = CompressionUtil.selectEncoding(request.getHeader("Accept-Encoding"), true, true);
+ * }
+ * </pre>
+ *
+ * このクラスはstaticメソッドのみを持ち、インスタンス化できません。
+ */
+public final class CompressionUtil {
+
+	/** gzip の Content-Encoding 値 */
+	public static final String GZIP = "gzip";
+
+	/** deflate の Content-Encoding 値 */
+	public static final String DEFLATE = "deflate";
+
+	/**
+	 * プライベートコンストラクタ
+	 * ユーティリティクラスのインスタンス化を防止する
+	 */
+	private CompressionUtil() {
+		// インスタンス化を防ぐ
+	}
+
+	/**
+	 * gzip形式で圧縮する
+	 *
+	 * @param data 圧縮前のデータ
+	 * @return 圧縮後のデータ
+	 */
+	public static byte[] gzip(byte[] data) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+			{
+				def.setLevel(Deflater.BEST_COMPRESSION);
+			}
+		}) {
+			gzip.write(data);
+		} catch (IOException e) {
+			// ByteArrayOutputStream は IOException を送出しない
+			throw new IllegalStateException(e);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * deflate形式（zlib形式）で圧縮する
+	 *
+	 * @param data 圧縮前のデータ
+	 * @return 圧縮後のデータ
+	 */
+	public static byte[] deflate(byte[] data) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+		Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, deflater)) {
+			deflate.write(data);
+		} catch (IOException e) {
+			// ByteArrayOutputStream は IOException を送出しない
+			throw new IllegalStateException(e);
+		} finally {
+			deflater.end();
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Accept-Encoding ヘッダーから使用する圧縮形式を選択する
+	 * q値が最も大きい形式を選択し、同じ場合は gzip を優先する
+	 *
+	 * @param acceptEncoding Accept-Encoding ヘッダーの値（nullの場合は圧縮しない）
+	 * @param gzipAvailable gzip の圧縮済みデータがあるかどうか
+	 * @param deflateAvailable deflate の圧縮済みデータがあるかどうか
+	 * @return GZIP / DEFLATE（圧縮しない場合null）
+	 */
+	public static String selectEncoding(String acceptEncoding, boolean gzipAvailable, boolean deflateAvailable) {
+		if (acceptEncoding == null || acceptEncoding.isEmpty() || (!gzipAvailable && !deflateAvailable)) {
+			return null;
+		}
+		double gzipQuality = -1;
+		double deflateQuality = -1;
+		double wildcardQuality = -1;
+		for (String part : acceptEncoding.split(",")) {
+			String[] tokens = part.trim().split(";");
+			String coding = tokens[0].trim().toLowerCase();
+			double quality = 1.0;
+			for (int i = 1; i < tokens.length; i++) {
+				String param = tokens[i].trim();
+				if (param.startsWith("q=")) {
+					try {
+						quality = Double.parseDouble(param.substring(2));
+					} catch (NumberFormatException e) {
+						quality = 0;
+					}
+				}
+			}
+			if (coding.equals(GZIP) || coding.equals("x-gzip")) {
+				gzipQuality = Math.max(gzipQuality, quality);
+			} else if (coding.equals(DEFLATE)) {
+				deflateQuality = Math.max(deflateQuality, quality);
+			} else if (coding.equals("*")) {
+				wildcardQuality = Math.max(wildcardQuality, quality);
+			}
+		}
+		// 明示されていない形式はワイルドカードのq値に従う
+		if (gzipQuality < 0) {
+			gzipQuality = wildcardQuality;
+		}
+		if (deflateQuality < 0) {
+			deflateQuality = wildcardQuality;
+		}
+		if (!gzipAvailable) {
+			gzipQuality = -1;
+		}
+		if (!deflateAvailable) {
+			deflateQuality = -1;
+		}
+		if (gzipQuality > 0 && gzipQuality >= deflateQuality) {
+			return GZIP;
+		}
+		if (deflateQuality > 0) {
+			return DEFLATE;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,214 @@
+package com.example.skygarden.util;
+
+/**
+ * 公開ページ（HTML）の圧縮ユーティリティクラス
+ *
+ * このクラスは描画済みのHTMLからコメントと不要な空白を取り除く処理を提供します。
+ * 外部ライブラリを使用せず、文字列を1回走査するだけで圧縮します。
+ * ページの描画時（事前描画・キャッシュ登録時）に1回だけ実行し、結果を保持して配信することを想定しています（PageRenderService）。
+ *
+ * 圧縮の内容（表示結果が変わらない範囲に限定する）:
+ * - コメントを削除する（"&lt;!--[if" などの条件付きコメント、"&lt;!--!" で始まるコメントは残す）
+ * - テキスト中の空白の連続を1文字にまとめる（改行を含む場合は改行1文字、それ以外は空白1文字）
+ *   HTMLでは連続する空白は1つの空白として表示されるため、表示結果は変わらない
+ * - タグ（属性を含む）はそのまま残す
+ * - &lt;pre&gt; &lt;textarea&gt; &lt;script&gt; &lt;style&gt; の中身はそのまま残す
+ *
+ * 閉じていないコメント・タグがある場合は、その位置以降をそのまま残します。
+ *
+ * 使用例:
+ * <pre>
+ * {@code
+ * HtmlMinifier.minify("<p>\n    Hello   <!-- note -->  world\n</p>"); // 結果: "<p>\nHello world\n</p>"
+ * }
+ * </pre>
+ *
+ * このクラスはstaticメソッドのみを持ち、インスタンス化できません。
+ */
+public final class HtmlMinifier {
+
+	/** 中身をそのまま残す要素 */
+	private static final String[] RAW_ELEMENTS = { "pre", "textarea", "script", "style" };
+
+	/**
+	 * プライベートコンストラクタ
+	 * ユーティリティクラスのインスタンス化を防止する
+	 */
+	private HtmlMinifier() {
+		// インスタンス化を防ぐ
+	}
+
+	/**
+	 * HTMLを圧縮する
+	 *
+	 * @param html HTML
+	 * @return 圧縮後のHTML（nullの場合はnull）
+	 */
+	public static String minify(String html) {
+		if (html == null || html.isEmpty()) {
+			return html;
+		}
+		int length = html.length();
+		StringBuilder output = new StringBuilder(length);
+		// 出力を保留している空白（0: なし、' ': 空白、'\n': 改行）
+		char pendingSpace = 0;
+		int i = 0;
+		while (i < length) {
+			char c = html.charAt(i);
+			if (isSpace(c)) {
+				pendingSpace = pendingSpace == '\n' || c == '\n' || c == '\r' ? '\n' : ' ';
+				i++;
+				continue;
+			}
+			if (c != '<' || i + 1 >= length || !isTagStart(html.charAt(i + 1))) {
+				pendingSpace = flush(output, pendingSpace);
+				output.append(c);
+				i++;
+				continue;
+			}
+			if (html.startsWith("<!--", i)) {
+				int end = html.indexOf("-->", i + 4);
+				if (end < 0) {
+					pendingSpace = flush(output, pendingSpace);
+					output.append(html, i, length);
+					break;
+				}
+				end += 3;
+				if (isKeptComment(html, i)) {
+					pendingSpace = flush(output, pendingSpace);
+					output.append(html, i, end);
+				}
+				// 削除したコメントの前後の空白は1文字にまとめる
+				i = end;
+				continue;
+			}
+			pendingSpace = flush(output, pendingSpace);
+			int tagEnd = tagEnd(html, i);
+			if (tagEnd < 0) {
+				output.append(html, i, length);
+				break;
+			}
+			output.append(html, i, tagEnd);
+			String raw = rawElement(html, i);
+			if (raw != null) {
+				// 終了タグまで（終了タグが無い場合は末尾まで）をそのまま残す
+				int close = indexOfClosingTag(html, tagEnd, raw);
+				int bodyEnd = close >= 0 ? close : length;
+				output.append(html, tagEnd, bodyEnd);
+				i = bodyEnd;
+			} else {
+				i = tagEnd;
+			}
+		}
+		flush(output, pendingSpace);
+		return output.toString();
+	}
+
+	/**
+	 * 保留している空白を出力する
+	 *
+	 * @param output 出力先
+	 * @param pendingSpace 保留している空白
+	 * @return 出力後の保留状態（常に0）
+	 */
+	private static char flush(StringBuilder output, char pendingSpace) {
+		if (pendingSpace != 0) {
+			output.append(pendingSpace);
+		}
+		return 0;
+	}
+
+	/**
+	 * 残すコメントかどうか（条件付きコメント・"&lt;!--!" で始まるコメント）
+	 *
+	 * @param html HTML
+	 * @param start "&lt;!--" の位置
+	 * @return 残す場合true
+	 */
+	private static boolean isKeptComment(String html, int start) {
+		int next = start + 4;
+		return next < html.length() && (html.charAt(next) == '[' || html.charAt(next) == '!');
+	}
+
+	/**
+	 * "&lt;" の次の文字がタグの開始かどうか（"a &lt; b" などの文字列を除く）
+	 *
+	 * @param c "&lt;" の次の文字
+	 * @return タグの開始の場合true
+	 */
+	private static boolean isTagStart(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '/' || c == '!' || c == '?';
+	}
+
+	/**
+	 * 空白文字かどうか（HTMLの空白: 空白・タブ・改行・復帰・改ページ）
+	 *
+	 * @param c 文字
+	 * @return 空白文字の場合true
+	 */
+	private static boolean isSpace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+	}
+
+	/**
+	 * タグの終了位置（"&gt;" の直後）を取得する
+	 * 引用符で囲まれた属性値の中の "&gt;" は終了として扱わない
+	 *
+	 * @param html HTML
+	 * @param start "&lt;" の位置
+	 * @return "&gt;" の直後の位置（見つからない場合-1）
+	 */
+	private static int tagEnd(String html, int start) {
+		char quote = 0;
+		for (int i = start + 1; i < html.length(); i++) {
+			char c = html.charAt(i);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+			} else if (c == '"' || c == '\'') {
+				quote = c;
+			} else if (c == '>') {
+				return i + 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * 中身をそのまま残す要素の開始タグかどうか
+	 *
+	 * @param html HTML
+	 * @param start "&lt;" の位置
+	 * @return 要素名（対象外の場合null）
+	 */
+	private static String rawElement(String html, int start) {
+		for (String name : RAW_ELEMENTS) {
+			int end = start + 1 + name.length();
+			if (end < html.length() && html.regionMatches(true, start + 1, name, 0, name.length())) {
+				char c = html.charAt(end);
+				if (isSpace(c) || c == '>' || c == '/') {
+					return name;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 終了タグ（"&lt;/name"）の位置を取得する（大文字・小文字は区別しない）
+	 *
+	 * @param html HTML
+	 * @param start 検索開始位置
+	 * @param name 要素名
+	 * @return 終了タグの位置（見つからない場合-1）
+	 */
+	private static int indexOfClosingTag(String html, int start, String name) {
+		for (int i = html.indexOf("</", start); i >= 0; i = html.indexOf("</", i + 2)) {
+			if (html.regionMatches(true, i + 2, name, 0, name.length())) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,145 @@
+package com.example.skygarden.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * HTTPキャッシュ（条件付きリクエスト）ユーティリティクラス
+ *
+ * このクラスは ETag / Last-Modified による条件付きGETの判定と、
+ * 検証用ヘッダーの出力を提供します。
+ *
+ * 判定ルール（RFC 9110）:
+ * - GET / HEAD 以外のリクエストは常に対象外
+ * - If-None-Match がある場合はそれのみで判定し、If-Modified-Since は無視する
+ * - ETag の比較は弱い比較（W/ の有無を区別しない）で行う
+ * - If-Modified-Since は秒単位で比較する
+ *
+ * 使用例:
+ * <pre>
+ * {@code
+ * String etag = HttpCacheUtil.weakEtag(version);
+ * if (HttpCacheUtil.isNotModified(request, etag, lastModified)) {
+ *     HttpCacheUtil.writeNotModified(response, etag, lastModified, cacheControl);
+ *     return;
+ * }
+ * }
+ * </pre>
+ *
+ * このクラスはstaticメソッドのみを持ち、インスタンス化できません。
+ */
+public final class HttpCacheUtil {
+
+	/**
+	 * プライベートコンストラクタ
+	 * ユーティリティクラスのインスタンス化を防止する
+	 */
+	private HttpCacheUtil() {
+		// インスタンス化を防ぐ
+	}
+
+	/**
+	 * バージョン文字列から弱いETagを生成する
+	 *
+	 * @param version バージョン文字列（英数字・ハイフンのみ）
+	 * @return ETag（例: W/"abc123"）
+	 */
+	public static String weakEtag(String version) {
+		return "W/\"" + version + "\"";
+	}
+
+	/**
+	 * 条件付きリクエストに対して 304 Not Modified を返せるかどうかを判定する
+	 *
+	 * @param request HTTPリクエスト
+	 * @param etag 現在のETag（nullの場合は If-None-Match を判定しない）
+	 * @param lastModified 現在の最終更新日時（エポックミリ秒、不明な場合は負の値）
+	 * @return 304 を返せる場合true
+	 */
+	public static boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+		String method = request.getMethod();
+		if (!"GET".equals(method) && !"HEAD".equals(method)) {
+			return false;
+		}
+		String ifNoneMatch = request.getHeader("If-None-Match");
+		if (ifNoneMatch != null) {
+			return etag != null && etagMatches(ifNoneMatch, etag);
+		}
+		if (lastModified < 0) {
+			return false;
+		}
+		long ifModifiedSince;
+		try {
+			ifModifiedSince = request.getDateHeader("If-Modified-Since");
+		} catch (IllegalArgumentException e) {
+			// 日付として解釈できないヘッダーは無視する
+			return false;
+		}
+		return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+	}
+
+	/**
+	 * If-None-Match ヘッダーの値にETagが含まれるかどうか（弱い比較）
+	 *
+	 * @param ifNoneMatch If-None-Match ヘッダーの値
+	 * @param etag 現在のETag
+	 * @return 含まれる場合true
+	 */
+	public static boolean etagMatches(String ifNoneMatch, String etag) {
+		String target = opaqueTag(etag);
+		for (String candidate : ifNoneMatch.split(",")) {
+			String value = candidate.trim();
+			if (value.equals("*") || opaqueTag(value).equals(target)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 検証用ヘッダー（ETag / Last-Modified / Cache-Control）を設定する
+	 *
+	 * @param response HTTPレスポンス
+	 * @param etag ETag（nullの場合は設定しない）
+	 * @param lastModified 最終更新日時（負の値の場合は設定しない）
+	 * @param cacheControl Cache-Control の値（空・nullの場合は設定しない）
+	 */
+	public static void setValidators(HttpServletResponse response, String etag, long lastModified, String cacheControl) {
+		if (etag != null) {
+			response.setHeader("ETag", etag);
+		}
+		if (lastModified >= 0) {
+			response.setDateHeader("Last-Modified", lastModified);
+		}
+		if (cacheControl != null && !cacheControl.isEmpty()) {
+			response.setHeader("Cache-Control", cacheControl);
+		}
+	}
+
+	/**
+	 * 304 Not Modified を返す（本文は出力しない）
+	 *
+	 * @param response HTTPレスポンス
+	 * @param etag ETag
+	 * @param lastModified 最終更新日時
+	 * @param cacheControl Cache-Control の値
+	 */
+	public static void writeNotModified(HttpServletResponse response, String etag, long lastModified, String cacheControl) {
+		response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+		setValidators(response, etag, lastModified, cacheControl);
+	}
+
+	/**
+	 * ETagから W/ と引用符を取り除いた値を取得する
+	 *
+	 * @param etag ETag
+	 * @return 比較用の値
+	 */
+	private static String opaqueTag(String etag) {
+		String value = etag.startsWith("W/") ? etag.substring(2) : etag;
+		if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+			value = value.substring(1, value.length() - 1);
+		}
+		return value;
+	}
+}
@@ -1,5 +1,11 @@
 package com.example.skygarden.util;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.skygarden.bean.PagerBean;
+import com.example.skygarden.bean.PagerItemBean;
+
 /**
  * ページネーション計算ユーティリティクラス
  * 
@@ -9,6 +15,8 @@ package com.example.skygarden.util;
  * 主な機能:
  * - 総ページ数の計算（calculateTotalPages）
  * - オフセットの計算（calculateOffset）
+ * - 表示するページ番号の計算（calculateWindow）
+ * - ページネーション情報の生成（createPager）
  * 
  * 使用例:
  * <pre>
@@ -67,4 +75,85 @@ public final class PaginationUtil {
 		}
 		return (page - 1) * pageSize;
 	}
+	
+	/**
+	 * 表示するページ番号を計算する
+	 * 先頭ページ・末尾ページと現在のページの前後 window ページのみを返し、総ページ数によらず件数は一定になる
+	 * 省略する箇所には0を入れる（省略されるページが1ページだけの場合は省略せずそのページ番号を入れる）
+	 * 
+	 * 例: calculateWindow(50, 100, 2) → [1, 0, 48, 49, 50, 51, 52, 0, 100]
+	 * 
+	 * @param page 現在のページ番号
+	 * @param totalPages 総ページ数
+	 * @param window 現在のページの前後に表示するページ数
+	 * @return 表示するページ番号（昇順、省略箇所は0）
+	 */
+	public static List<Integer> calculateWindow(int page, int totalPages, int window) {
+		List<Integer> pages = new ArrayList<>();
+		if (totalPages <= 0) {
+			return pages;
+		}
+		int from = Math.max(1, Math.min(page, totalPages) - Math.max(0, window));
+		int to = Math.min(totalPages, Math.max(page, 1) + Math.max(0, window));
+		List<Integer> candidates = new ArrayList<>();
+		candidates.add(1);
+		for (int p = from; p <= to; p++) {
+			candidates.add(p);
+		}
+		candidates.add(totalPages);
+		int last = 0;
+		for (int p : candidates) {
+			if (p <= last) {
+				continue;
+			}
+			if (p - last == 2) {
+				pages.add(last + 1);
+			} else if (p - last > 2) {
+				pages.add(0);
+			}
+			pages.add(p);
+			last = p;
+		}
+		return pages;
+	}
+	
+	/**
+	 * ページネーション情報を生成する
+	 * 
+	 * @param page 現在のページ番号
+	 * @param totalPages 総ページ数
+	 * @param hasMore 総ページ数より後にもページがあるかどうか（件数を上限までしか数えていない場合true）
+	 * @param pageUrl ページURL（"?" を含む場合は "&" で、含まない場合は "?" でパラメータを続ける）
+	 * @param query page 以外のパラメータ（"&sort=..." の形式）
+	 * @param window 現在のページの前後に表示するページ数
+	 * @return ページネーション情報
+	 */
+	public static PagerBean createPager(int page, int totalPages, boolean hasMore, String pageUrl, String query, int window) {
+		String base = pageUrl + (pageUrl.contains("?") ? "&" : "?") + "page=";
+		PagerBean pager = new PagerBean();
+		pager.setPage(page);
+		pager.setTotalPages(totalPages);
+		//Previous
+		if (1 < page && totalPages != 0) {
+			pager.setPrevUrl(base + (page - 1) + query);
+		}
+		//PageNum
+		for (int number : calculateWindow(page, totalPages, window)) {
+			PagerItemBean item = new PagerItemBean();
+			item.setNumber(number);
+			if (number == 0) {
+				item.setGap(true);
+			} else if (number == page) {
+				item.setCurrent(true);
+			} else {
+				item.setUrl(base + number + query);
+			}
+			pager.getItems().add(item);
+		}
+		//Next
+		if (page < totalPages || hasMore) {
+			pager.setNextUrl(base + (page + 1) + query);
+		}
+		return pager;
+	}
 }
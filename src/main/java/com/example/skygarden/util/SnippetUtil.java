@@ -0,0 +1,212 @@
+package com.example.skygarden.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.example.skygarden.bean.HighlightBean;
+import com.example.skygarden.bean.SnippetBean;
+
+/**
+ * 検索結果のスニペット（本文の抜粋）生成ユーティリティクラス
+ *
+ * このクラスはキーワード検索の結果一覧に、本文全体の代わりに表示する
+ * 検索語の周辺の短い抜粋と、抜粋内で検索語に一致した範囲を生成します。
+ *
+ * 主な機能:
+ * - HTMLの本文からタグを除いたテキスト（プレーンテキスト）の生成（toPlainText）
+ * - プレーンテキストから検索語の周辺を切り出したスニペットの生成（create）
+ *
+ * 使用例:
+ * <pre>
+ * {@code
+ * String plain = SnippetUtil.toPlainText("<p>東京で開催します</p>");
+ * // 結果: "東京で開催します"
+ *
+ * SnippetBean snippet = SnippetUtil.create(plain, List.of("開催"), 120);
+ * // 結果: text = "東京で開催します", highlights = [{start: 3, end: 5}]
+ * }
+ * </pre>
+ *
+ * このクラスはstaticメソッドのみを持ち、インスタンス化できません。
+ */
+public final class SnippetUtil {
+
+	/** 省略記号（スニペットの前後を省略した場合に付ける） */
+	private static final String ELLIPSIS = "…";
+
+	/** script / style 要素（中身ごと除く） */
+	private static final Pattern SCRIPT_STYLE = Pattern.compile("<(script|style)\\b[^>]*>.*?</\\1\\s*>",
+			Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+	/** HTMLコメント */
+	private static final Pattern COMMENT = Pattern.compile("<!--.*?-->", Pattern.DOTALL);
+
+	/** タグ（途中で切れた先頭・末尾のタグを含む） */
+	private static final Pattern TAG = Pattern.compile("<[^>]*>|<[^>]*$|^[^<>]*>");
+
+	/** 数値文字参照 */
+	private static final Pattern NUMERIC_ENTITY = Pattern.compile("&#([xX][0-9a-fA-F]+|[0-9]+);");
+
+	/** 連続する空白 */
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	/**
+	 * プライベートコンストラクタ
+	 * ユーティリティクラスのインスタンス化を防止する
+	 */
+	private SnippetUtil() {
+		// インスタンス化を防ぐ
+	}
+
+	/**
+	 * HTMLからタグを除いたテキストを生成する
+	 * script / style 要素とコメントを除き、文字参照を戻して NFKC 正規化し、空白をまとめる
+	 * 途中で切れたHTML（データベースで切り出した本文の一部など）も扱える
+	 *
+	 * @param html HTML
+	 * @return プレーンテキスト（null の場合は空文字）
+	 */
+	public static String toPlainText(String html) {
+		if (html == null || html.isEmpty()) {
+			return "";
+		}
+		String text = SCRIPT_STYLE.matcher(html).replaceAll(" ");
+		text = COMMENT.matcher(text).replaceAll(" ");
+		text = TAG.matcher(text).replaceAll(" ");
+		text = decodeEntities(text);
+		text = Normalizer.normalize(text, Normalizer.Form.NFKC);
+		return WHITESPACE.matcher(text).replaceAll(" ").trim();
+	}
+
+	/**
+	 * プレーンテキストから検索語の周辺を切り出したスニペットを生成する
+	 * 最初に現れる検索語の少し前から length 文字を切り出し、切り出した範囲の検索語の位置を求める
+	 * 検索語が見つからない場合（タイトル・URLのみに一致した場合など）は先頭から切り出す
+	 *
+	 * @param plainText プレーンテキスト（toPlainText の結果）
+	 * @param terms 検索語（小文字に正規化済み）
+	 * @param length 切り出す文字数
+	 * @return スニペット
+	 */
+	public static SnippetBean create(String plainText, List<String> terms, int length) {
+		SnippetBean snippet = new SnippetBean();
+		String text = plainText != null ? plainText : "";
+		if (text.isEmpty() || length <= 0) {
+			return snippet;
+		}
+		// 大文字・小文字を区別せずに探す（1文字ずつ変換して位置を変えない）
+		String lower = toLowerCase(text);
+		int first = -1;
+		for (String term : terms) {
+			int index = term.isEmpty() ? -1 : lower.indexOf(term);
+			if (index >= 0 && (first < 0 || index < first)) {
+				first = index;
+			}
+		}
+		int start = 0;
+		if (first > 0 && text.length() > length) {
+			// 検索語の前に切り出す文字数の1/4程度の文脈を残す
+			start = Math.max(0, Math.min(first - length / 4, text.length() - length));
+		}
+		int end = Math.min(text.length(), start + length);
+		if (start > 0 && Character.isLowSurrogate(text.charAt(start))) {
+			start++;
+		}
+		if (end < text.length() && end > start && Character.isHighSurrogate(text.charAt(end - 1))) {
+			end--;
+		}
+		String prefix = start > 0 ? ELLIPSIS : "";
+		String suffix = end < text.length() ? ELLIPSIS : "";
+		snippet.setText(prefix + text.substring(start, end) + suffix);
+
+		List<HighlightBean> ranges = new ArrayList<>();
+		for (String term : terms) {
+			if (term.isEmpty()) {
+				continue;
+			}
+			int index = lower.indexOf(term, start);
+			while (index >= 0 && index < end) {
+				HighlightBean range = new HighlightBean();
+				range.setStart(index - start + prefix.length());
+				range.setEnd(Math.min(index + term.length(), end) - start + prefix.length());
+				ranges.add(range);
+				index = lower.indexOf(term, index + term.length());
+			}
+		}
+		snippet.setHighlights(merge(ranges));
+		return snippet;
+	}
+
+	/**
+	 * 一致した範囲を開始位置の順に並べ、重なる範囲をまとめる
+	 *
+	 * @param ranges 一致した範囲
+	 * @return 重なりのない範囲
+	 */
+	private static List<HighlightBean> merge(List<HighlightBean> ranges) {
+		ranges.sort(Comparator.comparingInt(HighlightBean::getStart));
+		List<HighlightBean> merged = new ArrayList<>();
+		for (HighlightBean range : ranges) {
+			HighlightBean last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+			if (last != null && range.getStart() <= last.getEnd()) {
+				last.setEnd(Math.max(last.getEnd(), range.getEnd()));
+			} else {
+				merged.add(range);
+			}
+		}
+		return merged;
+	}
+
+	/**
+	 * 文字数を変えずに小文字に変換する
+	 *
+	 * @param text テキスト
+	 * @return 小文字に変換したテキスト
+	 */
+	private static String toLowerCase(String text) {
+		char[] chars = text.toCharArray();
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = Character.toLowerCase(chars[i]);
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * 文字参照（主な実体参照と数値文字参照）を文字に戻す
+	 *
+	 * @param text テキスト
+	 * @return 文字参照を戻したテキスト
+	 */
+	private static String decodeEntities(String text) {
+		if (text.indexOf('&') < 0) {
+			return text;
+		}
+		Matcher matcher = NUMERIC_ENTITY.matcher(text);
+		StringBuilder sb = new StringBuilder();
+		while (matcher.find()) {
+			String value = matcher.group(1);
+			String replacement;
+			try {
+				int codePoint = value.startsWith("x") || value.startsWith("X")
+						? Integer.parseInt(value.substring(1), 16)
+						: Integer.parseInt(value);
+				replacement = Character.isValidCodePoint(codePoint) ? new String(Character.toChars(codePoint)) : " ";
+			} catch (NumberFormatException e) {
+				replacement = " ";
+			}
+			matcher.appendReplacement(sb, Matcher.quoteReplacement(replacement));
+		}
+		matcher.appendTail(sb);
+		return sb.toString()
+				.replace("&nbsp;", " ")
+				.replace("&lt;", "<")
+				.replace("&gt;", ">")
+				.replace("&quot;", "\"")
+				.replace("&apos;", "'")
+				.replace("&amp;", "&");
+	}
+}
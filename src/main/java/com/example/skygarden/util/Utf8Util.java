@@ -0,0 +1,97 @@
+package com.example.skygarden.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8エンコードユーティリティクラス
+ *
+ * このクラスは文字列をUTF-8のバイト列として扱うための処理を提供します。
+ * 公開ページの出力で、ページ全体のバイト配列を作らずにレスポンスへ書き込むために使用します。
+ *
+ * 主な機能:
+ * - エンコード後のバイト数の計算（length）
+ * - 一定サイズごとに区切ったエンコードと書き込み（write）
+ *
+ * 使用例:
+ * <pre>
+ * {@code
+ * long size = Utf8Util.length("日本語"); // 結果: 9
+ * Utf8Util.write(response.getOutputStream(), body);
+ * }
+ * </pre>
+ *
+ * このクラスはstaticメソッドのみを持ち、インスタンス化できません。
+ */
+public final class Utf8Util {
+
+	/** 1回にエンコードする最大文字数 */
+	private static final int CHUNK_CHARS = 2048;
+
+	/**
+	 * プライベートコンストラクタ
+	 * ユーティリティクラスのインスタンス化を防止する
+	 */
+	private Utf8Util() {
+		// インスタンス化を防ぐ
+	}
+
+	/**
+	 * 文字列をUTF-8でエンコードした場合のバイト数を計算する
+	 * バイト配列を生成せずに計算する
+	 *
+	 * @param value 文字列（nullの場合は0）
+	 * @return バイト数
+	 */
+	public static long length(String value) {
+		if (value == null) {
+			return 0;
+		}
+		long length = 0;
+		int size = value.length();
+		for (int i = 0; i < size; i++) {
+			char c = value.charAt(i);
+			if (c < 0x80) {
+				length += 1;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(value.charAt(i + 1))) {
+				// サロゲートペアは4バイト
+				length += 4;
+				i++;
+			} else if (Character.isSurrogate(c)) {
+				// 対になっていないサロゲートは "?"（1バイト）に置き換えられる
+				length += 1;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * 文字列をUTF-8でエンコードして書き込む
+	 * 一定文字数ごとに区切ってエンコードするため、文字列全体のバイト配列は生成しない
+	 *
+	 * @param out 出力先
+	 * @param value 文字列（nullの場合は何も書き込まない）
+	 * @throws IOException 書き込みに失敗した場合
+	 */
+	public static void write(OutputStream out, String value) throws IOException {
+		if (value == null) {
+			return;
+		}
+		int size = value.length();
+		int start = 0;
+		while (start < size) {
+			int end = Math.min(start + CHUNK_CHARS, size);
+			// サロゲートペアを分断しない
+			if (end < size && Character.isHighSurrogate(value.charAt(end - 1))) {
+				end--;
+			}
+			out.write(value.substring(start, end).getBytes(StandardCharsets.UTF_8));
+			start = end;
+		}
+	}
+}
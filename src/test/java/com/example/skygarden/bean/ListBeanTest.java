@@ -27,9 +27,12 @@ class ListBeanTest {
         assertEquals("", bean.getScreenName());
         assertEquals("", bean.getRegisterMessage());
         assertEquals("", bean.getSortOutput());
-        assertEquals("", bean.getPagerOutput());
+        assertNotNull(bean.getPager());
+        assertTrue(bean.getPager().getItems().isEmpty());
         assertNotNull(bean.getResults());
         assertTrue(bean.getResults().isEmpty());
+        assertNotNull(bean.getSnippets());
+        assertTrue(bean.getSnippets().isEmpty());
     }
 
     @Test
@@ -57,9 +60,12 @@ class ListBeanTest {
     }
 
     @Test
-    void testSetAndGetPagerOutput() {
-        bean.setPagerOutput("<li class=\"page-item\">1</li>");
-        assertEquals("<li class=\"page-item\">1</li>", bean.getPagerOutput());
+    void testSetAndGetPager() {
+        PagerBean pager = new PagerBean();
+        pager.setPage(2);
+        bean.setPager(pager);
+        assertSame(pager, bean.getPager());
+        assertEquals(2, bean.getPager().getPage());
     }
 
     @Test
@@ -142,8 +148,8 @@ class ListBeanTest {
     @Test
     void testLongStringValues() {
         String longString = "a".repeat(10000);
-        bean.setPagerOutput(longString);
-        assertEquals(longString, bean.getPagerOutput());
+        bean.setSortOutput(longString);
+        assertEquals(longString, bean.getSortOutput());
     }
 
     @Test
@@ -0,0 +1,52 @@
+package com.example.skygarden.bean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * PagerBeanのテストクラス
+ */
+class PagerBeanTest {
+
+    private PagerBean bean;
+
+    @BeforeEach
+    void setUp() {
+        bean = new PagerBean();
+    }
+
+    @Test
+    void testDefaultValues() {
+        assertEquals(0, bean.getPage());
+        assertEquals(0, bean.getTotalPages());
+        assertEquals("", bean.getPrevUrl());
+        assertEquals("", bean.getNextUrl());
+        assertEquals("", bean.getCountLabel());
+        assertNotNull(bean.getItems());
+        assertTrue(bean.getItems().isEmpty());
+    }
+
+    @Test
+    void testItemDefaultValues() {
+        PagerItemBean item = new PagerItemBean();
+
+        assertEquals(0, item.getNumber());
+        assertEquals("", item.getUrl());
+        assertFalse(item.isCurrent());
+        assertFalse(item.isGap());
+    }
+
+    @Test
+    void testSetAndGetItems() {
+        PagerItemBean item = new PagerItemBean();
+        item.setNumber(3);
+        item.setUrl("/?mode=&page=3&sort=id");
+        bean.getItems().add(item);
+
+        assertEquals(1, bean.getItems().size());
+        assertEquals(3, bean.getItems().get(0).getNumber());
+        assertEquals("/?mode=&page=3&sort=id", bean.getItems().get(0).getUrl());
+    }
+}
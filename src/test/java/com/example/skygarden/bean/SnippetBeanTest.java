@@ -0,0 +1,46 @@
+package com.example.skygarden.bean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * SnippetBeanのテストクラス
+ */
+class SnippetBeanTest {
+
+    private SnippetBean bean;
+
+    @BeforeEach
+    void setUp() {
+        bean = new SnippetBean();
+    }
+
+    @Test
+    void testDefaultValues() {
+        assertEquals("", bean.getText());
+        assertNotNull(bean.getHighlights());
+        assertTrue(bean.getHighlights().isEmpty());
+    }
+
+    @Test
+    void testHighlightDefaultValues() {
+        HighlightBean highlight = new HighlightBean();
+
+        assertEquals(0, highlight.getStart());
+        assertEquals(0, highlight.getEnd());
+    }
+
+    @Test
+    void testSetAndGetHighlights() {
+        bean.setText("東京で開催します");
+        HighlightBean highlight = new HighlightBean();
+        highlight.setStart(0);
+        highlight.setEnd(2);
+        bean.getHighlights().add(highlight);
+
+        assertEquals(1, bean.getHighlights().size());
+        assertEquals("東京", bean.getText().substring(bean.getHighlights().get(0).getStart(), bean.getHighlights().get(0).getEnd()));
+    }
+}
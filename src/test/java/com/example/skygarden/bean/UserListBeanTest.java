@@ -26,7 +26,8 @@ class UserListBeanTest {
         assertEquals("", bean.getLoginName());
         assertEquals("", bean.getRegisterMessage());
         assertEquals("", bean.getSortOutput());
-        assertEquals("", bean.getPagerOutput());
+        assertNotNull(bean.getPager());
+        assertTrue(bean.getPager().getItems().isEmpty());
         assertNotNull(bean.getResults());
         assertTrue(bean.getResults().isEmpty());
     }
@@ -50,9 +51,12 @@ class UserListBeanTest {
     }
 
     @Test
-    void testSetAndGetPagerOutput() {
-        bean.setPagerOutput("<li class=\"page-item\">1</li>");
-        assertEquals("<li class=\"page-item\">1</li>", bean.getPagerOutput());
+    void testSetAndGetPager() {
+        PagerBean pager = new PagerBean();
+        pager.setPage(2);
+        bean.setPager(pager);
+        assertSame(pager, bean.getPager());
+        assertEquals(2, bean.getPager().getPage());
     }
 
     @Test
@@ -141,8 +145,8 @@ class UserListBeanTest {
     @Test
     void testLongStringValues() {
         String longString = "a".repeat(10000);
-        bean.setPagerOutput(longString);
-        assertEquals(longString, bean.getPagerOutput());
+        bean.setSortOutput(longString);
+        assertEquals(longString, bean.getSortOutput());
     }
 
     @Test
@@ -21,6 +21,10 @@ class AppPropertiesTest {
     void testDefaultPagination() {
         assertNotNull(appProperties.getPagination());
         assertEquals(20, appProperties.getPagination().getPageSize());
+        assertFalse(appProperties.getPagination().isKeyset());
+        assertEquals(300, appProperties.getPagination().getCountRefreshSeconds());
+        assertEquals(1000, appProperties.getPagination().getSearchCountLimit());
+        assertEquals(2, appProperties.getPagination().getWindow());
     }
 
     @Test
@@ -118,4 +122,55 @@ class AppPropertiesTest {
         assertEquals("", file.getUploadDir());
         assertEquals("", file.getFileUploadDir());
     }
+
+    @Test
+    void testDefaultCache() {
+        assertNotNull(appProperties.getCache());
+        assertTrue(appProperties.getCache().isEnabled());
+        assertEquals(1000, appProperties.getCache().getPageMaxEntries());
+        assertTrue(appProperties.getCache().isCompressionEnabled());
+        assertEquals(256, appProperties.getCache().getCompressionMinSize());
+    }
+
+    @Test
+    void testSetCache() {
+        AppProperties.Cache cache = new AppProperties.Cache();
+        cache.setEnabled(false);
+        cache.setPageMaxEntries(10);
+        appProperties.setCache(cache);
+
+        assertFalse(appProperties.getCache().isEnabled());
+        assertEquals(10, appProperties.getCache().getPageMaxEntries());
+    }
+
+    @Test
+    void testDefaultHttpCache() {
+        assertNotNull(appProperties.getHttpCache());
+        assertEquals("no-cache", appProperties.getHttpCache().getPage());
+        assertEquals("public, max-age=300", appProperties.getHttpCache().getStylesheet());
+        assertEquals("public, max-age=300", appProperties.getHttpCache().getScript());
+        assertEquals("public, max-age=86400", appProperties.getHttpCache().getImage());
+        assertEquals("", appProperties.getHttpCache().getFile());
+        assertEquals("public, max-age=31536000, immutable", appProperties.getHttpCache().getFingerprinted());
+    }
+
+    @Test
+    void testDefaultSearch() {
+        assertNotNull(appProperties.getSearch());
+        assertTrue(appProperties.getSearch().isIndexEnabled());
+        assertEquals(120, appProperties.getSearch().getSnippetLength());
+    }
+
+    @Test
+    void testDefaultRender() {
+        assertNotNull(appProperties.getRender());
+        assertTrue(appProperties.getRender().isPrerenderEnabled());
+        assertEquals(0, appProperties.getRender().getJobThreads());
+        assertEquals(50, appProperties.getRender().getJobBatchSize());
+        assertTrue(appProperties.getRender().isJobOnChange());
+        assertTrue(appProperties.getRender().isMinifyAssets());
+        assertTrue(appProperties.getRender().isFingerprintAssets());
+        assertFalse(appProperties.getRender().isBundleAssets());
+        assertTrue(appProperties.getRender().isMinifyHtml());
+    }
 }
@@ -0,0 +1,152 @@
+package com.example.skygarden.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Invocation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.service.ContentChangeEvent;
+import com.example.skygarden.service.ContentChangeEvent.Operation;
+
+/**
+ * ContentWriteInterceptorのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ContentWriteInterceptorTest {
+
+    private static final String PREFIX = "com.example.skygarden.mapper.ContentMapper.";
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private Invocation invocation;
+
+    @Mock
+    private MappedStatement statement;
+
+    @InjectMocks
+    private ContentWriteInterceptor interceptor;
+
+    private HashMap<String, Object> publicParams() {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("id", 5);
+        params.put("url", "test/page");
+        params.put("type", "");
+        params.put("template", "2");
+        params.put("content", "body");
+        params.put("updated", "2024-01-01 10:00");
+        return params;
+    }
+
+    @Test
+    void testToEvent_CreatePublic() {
+        ContentChangeEvent event = interceptor.toEvent(PREFIX + "createPublic", publicParams());
+
+        assertNotNull(event);
+        assertEquals(Constants.TABLE_CONTENT_PUBLIC, event.getTable());
+        assertEquals(Operation.CREATE, event.getOperation());
+        assertEquals("5", event.getId());
+        assertEquals("test/page", event.getUrl());
+        assertEquals("2", event.getTemplate());
+        assertTrue(event.isPublicTable());
+    }
+
+    @Test
+    void testToEvent_Update() {
+        ContentChangeEvent event = interceptor.toEvent(PREFIX + "update", publicParams());
+
+        assertEquals(Constants.TABLE_CONTENT, event.getTable());
+        assertEquals(Operation.UPDATE, event.getOperation());
+        assertFalse(event.isPublicTable());
+    }
+
+    @Test
+    void testToEvent_DeletePublic() {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("table", Constants.TABLE_CONTENT_PUBLIC);
+        params.put("id", "7");
+
+        ContentChangeEvent event = interceptor.toEvent(PREFIX + "delete", params);
+
+        assertEquals(Operation.DELETE, event.getOperation());
+        assertEquals("7", event.getId());
+        assertNull(event.getType());
+    }
+
+    @Test
+    void testToEvent_DeleteWithType() {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("table", Constants.TABLE_CONTENT);
+        params.put("id", "7");
+        params.put("type", Constants.CONTENT_TYPE_IMAGE);
+
+        ContentChangeEvent event = interceptor.toEvent(PREFIX + "delete", params);
+
+        // 呼び出し元が渡したタイプを含める（件数の減算に使用）
+        assertEquals(Constants.CONTENT_TYPE_IMAGE, event.getType());
+        assertFalse(event.isPublicTable());
+    }
+
+    @Test
+    void testToEvent_DeleteOtherTable() {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("table", Constants.TABLE_USER);
+        params.put("id", "7");
+
+        assertNull(interceptor.toEvent(PREFIX + "delete", params));
+    }
+
+    @Test
+    void testToEvent_NonContentStatement() {
+        assertNull(interceptor.toEvent(PREFIX + "updateSetting", new HashMap<String, Object>()));
+        assertNull(interceptor.toEvent("other.Mapper.update", publicParams()));
+        assertNull(interceptor.toEvent(PREFIX + "update", "not a map"));
+    }
+
+    @Test
+    void testIntercept_PublishesEvent() throws Throwable {
+        when(statement.getId()).thenReturn(PREFIX + "updatePublic");
+        when(invocation.getArgs()).thenReturn(new Object[] { statement, publicParams() });
+        when(invocation.proceed()).thenReturn(1);
+
+        Object result = interceptor.intercept(invocation);
+
+        assertEquals(1, result);
+        verify(eventPublisher).publishEvent(any(ContentChangeEvent.class));
+    }
+
+    @Test
+    void testIntercept_ListenerErrorIsNotPropagated() throws Throwable {
+        when(statement.getId()).thenReturn(PREFIX + "updatePublic");
+        when(invocation.getArgs()).thenReturn(new Object[] { statement, publicParams() });
+        when(invocation.proceed()).thenReturn(1);
+        doThrow(new RuntimeException("listener error")).when(eventPublisher).publishEvent(any(Object.class));
+
+        assertEquals(1, interceptor.intercept(invocation));
+    }
+
+    @Test
+    void testIntercept_StatementErrorSkipsEvent() throws Throwable {
+        when(statement.getId()).thenReturn(PREFIX + "updatePublic");
+        when(invocation.getArgs()).thenReturn(new Object[] { statement, publicParams() });
+        when(invocation.proceed()).thenThrow(new RuntimeException("DB error"));
+
+        assertThrows(RuntimeException.class, () -> interceptor.intercept(invocation));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+}
@@ -4,32 +4,46 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.springframework.web.servlet.HandlerExecutionChain;
-import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.example.skygarden.bean.PageModel;
+import com.example.skygarden.bean.RenderedPage;
+import com.example.skygarden.config.RouteClassifier.Decision;
 import com.example.skygarden.constants.Constants;
 import com.example.skygarden.logic.Content;
+import com.example.skygarden.logic.HtmlShell;
 import com.example.skygarden.mapper.ContentMapper;
+import com.example.skygarden.service.AssetFingerprintService;
+import com.example.skygarden.service.FileDeliveryService;
+import com.example.skygarden.service.HtmlShellService;
+import com.example.skygarden.service.PageCacheService;
+import com.example.skygarden.service.PageCacheService.CachedPage;
+import com.example.skygarden.service.PageRenderService;
+import com.example.skygarden.service.UrlRoutingTable;
+import com.example.skygarden.util.CompressionUtil;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -41,10 +55,7 @@ import jakarta.servlet.http.HttpServletResponse;
 class RequestRoutingFilterTest {
 
     @Mock
-    private RequestMappingHandlerMapping handlerMapping;
-
-    @Mock
-    private ContentMapper mapper;
+    private RouteClassifier routeClassifier;
 
     @Mock
     private Content content;
@@ -55,6 +66,27 @@ class RequestRoutingFilterTest {
     @Mock
     private AppProperties.File fileProperties;
 
+    @Mock
+    private PageCacheService pageCache;
+
+    @Mock
+    private UrlRoutingTable routingTable;
+
+    @Mock
+    private AssetFingerprintService assetFingerprints;
+
+    @Mock
+    private HtmlShellService htmlShellService;
+
+    @Spy
+    private FileDeliveryService fileDelivery = new FileDeliveryService();
+
+    @Mock
+    private ContentMapper mapper;
+
+    @Spy
+    private PageRenderService pageRenderer = new PageRenderService();
+
     @Mock
     private HttpServletRequest request;
 
@@ -64,8 +96,9 @@ class RequestRoutingFilterTest {
     @Mock
     private FilterChain filterChain;
 
-    @Mock
-    private PrintWriter writer;
+    private ByteArrayOutputStream written;
+
+    private ServletOutputStream capturingStream;
 
     @Mock
     private ServletOutputStream outputStream;
@@ -76,11 +109,48 @@ class RequestRoutingFilterTest {
     @TempDir
     Path tempDir;
 
+    private AppProperties.Render render;
+
     @BeforeEach
     void setUp() throws IOException {
+        ReflectionTestUtils.setField(pageRenderer, "content", content);
+        ReflectionTestUtils.setField(pageRenderer, "mapper", mapper);
+        ReflectionTestUtils.setField(pageRenderer, "htmlShellService", htmlShellService);
+        ReflectionTestUtils.setField(pageRenderer, "appProperties", appProperties);
+        ReflectionTestUtils.setField(pageRenderer, "assetFingerprints", assetFingerprints);
+        when(assetFingerprints.getBundleVersion()).thenReturn("");
+        render = new AppProperties.Render();
+        render.setPrerenderEnabled(false);
+        render.setMinifyHtml(false);
+        when(appProperties.getRender()).thenReturn(render);
         when(appProperties.getFile()).thenReturn(fileProperties);
+        when(appProperties.getHttpCache()).thenReturn(new AppProperties.HttpCache());
+        when(pageCache.createPage(anyString(), anyString(), any(byte[].class), anyString(), anyLong(), anyString()))
+                .thenAnswer(invocation -> new CachedPage(invocation.getArgument(0), invocation.getArgument(1),
+                        invocation.getArgument(2), invocation.getArgument(3), invocation.getArgument(4), invocation.getArgument(5)));
         when(fileProperties.getUploadDir()).thenReturn(tempDir.resolve("images").toString());
         when(fileProperties.getFileUploadDir()).thenReturn(tempDir.resolve("files").toString());
+        when(htmlShellService.getShell(anyString())).thenReturn(HtmlShell.parse("###title### ###head### ###content###"));
+        written = new ByteArrayOutputStream();
+        capturingStream = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                written.write(b);
+            }
+        };
+    }
+
+    private String writtenBody() {
+        return new String(written.toByteArray(), StandardCharsets.UTF_8);
     }
 
     @Test
@@ -90,18 +160,18 @@ class RequestRoutingFilterTest {
         filter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain).doFilter(request, response);
-        verify(mapper, never()).searchByUrl(anyString(), anyString());
+        verify(content, never()).resolvePage(anyString());
     }
 
     @Test
     void testDoFilterInternal_WithHandlerMapping() throws Exception {
         when(request.getRequestURI()).thenReturn("/api/test");
-        when(handlerMapping.getHandler(request)).thenReturn(new HandlerExecutionChain(null));
+        when(routeClassifier.classify("/api/test")).thenReturn(Decision.CONTROLLER);
 
         filter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain).doFilter(request, response);
-        verify(mapper, never()).searchByUrl(anyString(), anyString());
+        verify(content, never()).resolvePage(anyString());
     }
 
     @Test
@@ -112,25 +182,413 @@ class RequestRoutingFilterTest {
         Path templateFile = rootPath.resolve("original.html");
         Files.write(templateFile, "###title### ###head### ###content###".getBytes());
 
-        HashMap<String, String> contentData = new HashMap<>();
-        contentData.put("id", "1");
-        contentData.put("type", "");
-        contentData.put("title", "Test Title");
-        contentData.put("content", "Test Content");
+        PageModel contentData = new PageModel();
+        contentData.setId("1");
+        contentData.setType("");
+        contentData.setTitle("Test Title");
+        contentData.setContent("Test Content");
 
         when(request.getRequestURI()).thenReturn("/test/page");
-        when(handlerMapping.getHandler(request)).thenReturn(null);
-        when(mapper.searchByUrl("test/page", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(contentData);
-        when(content.getTemplateHead("1", Constants.TABLE_CONTENT_PUBLIC)).thenReturn("<head>");
-        when(content.getHead("1", Constants.TABLE_CONTENT_PUBLIC)).thenReturn("</head>");
-        when(content.displayContent("1")).thenReturn("Test Content");
-        when(response.getWriter()).thenReturn(writer);
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("test/page")).thenReturn(contentData);
+        when(content.getPageHead(contentData)).thenReturn("<head></head>");
+        when(content.displayPage(contentData)).thenReturn("Test Content");
+        when(pageCache.isEnabled()).thenReturn(true);
+        when(response.getOutputStream()).thenReturn(capturingStream);
 
         filter.doFilterInternal(request, response, filterChain);
 
         verify(response).setContentType("text/html; charset=UTF-8");
-        verify(writer).write(anyString());
-        verify(writer).close();
+        assertEquals("Test Title <head></head> Test Content", writtenBody());
+        verify(response).setContentLength(written.size());
+        verify(content, never()).getTemplateHead(anyString(), anyString());
+        verify(content, never()).displayContent(anyString());
+        verify(pageCache).put(eq("test/page"), any(CachedPage.class), anyLong());
+    }
+
+    @Test
+    void testDoFilterInternal_ContentPage_Streaming() throws Exception {
+        PageModel contentData = new PageModel();
+        contentData.setId("1");
+        contentData.setType("");
+        contentData.setTitle("価格");
+        contentData.setContent("$1 \\ 円");
+
+        when(request.getRequestURI()).thenReturn("/test/page");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("test/page")).thenReturn(contentData);
+        when(content.getPageHead(contentData)).thenReturn("");
+        when(content.displayPage(contentData)).thenReturn("$1 \\ 円");
+        when(pageCache.isEnabled()).thenReturn(false);
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        // "$" や "\" を含むコンテンツもそのまま出力される
+        assertEquals("価格  $1 \\ 円", writtenBody());
+        verify(response).setContentLengthLong(written.size());
+        verify(pageCache, never()).put(anyString(), any(CachedPage.class), anyLong());
+    }
+
+    @Test
+    void testDoFilterInternal_RenderedPage() throws Exception {
+        render.setPrerenderEnabled(true);
+        RenderedPage rendered = new RenderedPage();
+        rendered.setId("1");
+        rendered.setUrl("test/page");
+        rendered.setType("");
+        rendered.setContentHash("v1");
+        rendered.setShellVersion(HtmlShell.parse("###title### ###head### ###content###").getVersion());
+        rendered.setLastModified(1700000000000L);
+        rendered.setBody("<html>rendered</html>".getBytes(StandardCharsets.UTF_8));
+
+        when(request.getRequestURI()).thenReturn("/test/page");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(mapper.getRenderedPage("test/page")).thenReturn(rendered);
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(response).setContentType("text/html; charset=UTF-8");
+        verify(response).setHeader("ETag", "W/\"v1-" + rendered.getShellVersion() + "\"");
+        assertEquals("<html>rendered</html>", writtenBody());
+        verify(response).setContentLength(written.size());
+        verify(content, never()).resolvePage(anyString());
+        verify(content, never()).displayPage(any(PageModel.class));
+    }
+
+    @Test
+    void testDoFilterInternal_RenderedPage_IfNoneMatch() throws Exception {
+        render.setPrerenderEnabled(true);
+        RenderedPage rendered = new RenderedPage();
+        rendered.setId("1");
+        rendered.setType(Constants.CONTENT_TYPE_STYLESHEET);
+        rendered.setContentHash("v1");
+        rendered.setShellVersion(HtmlShell.parse("###title### ###head### ###content###").getVersion());
+        rendered.setLastModified(1700000000000L);
+        rendered.setBody("body{}".getBytes(StandardCharsets.UTF_8));
+        String etag = "W/\"v1-" + rendered.getShellVersion() + "\"";
+
+        when(request.getRequestURI()).thenReturn("/css/style.css");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("If-None-Match")).thenReturn(etag);
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(mapper.getRenderedPage("css/style.css")).thenReturn(rendered);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response).setHeader("Cache-Control", "public, max-age=300");
+        verify(response, never()).getOutputStream();
+        verify(content, never()).resolvePage(anyString());
+    }
+
+    @Test
+    void testDoFilterInternal_RenderedPage_ShellChanged() throws Exception {
+        render.setPrerenderEnabled(true);
+        RenderedPage rendered = new RenderedPage();
+        rendered.setId("1");
+        rendered.setType("");
+        rendered.setContentHash("v1");
+        rendered.setShellVersion("old-shell");
+        rendered.setBody("<html>old</html>".getBytes(StandardCharsets.UTF_8));
+
+        PageModel contentData = new PageModel();
+        contentData.setId("1");
+        contentData.setUrl("test/page");
+        contentData.setType("");
+        contentData.setTitle("Test Title");
+
+        when(request.getRequestURI()).thenReturn("/test/page");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(mapper.getRenderedPage("test/page")).thenReturn(rendered);
+        when(content.resolvePage("test/page")).thenReturn(contentData);
+        when(content.getPageVersion(contentData)).thenReturn("v1");
+        when(content.getPageHead(contentData)).thenReturn("");
+        when(content.displayPage(contentData)).thenReturn("New Content");
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        // 外枠HTMLが変わっているため描画し直し、結果を登録し直す
+        assertEquals("Test Title  New Content", writtenBody());
+        verify(mapper).upsertRenderedPage(any(RenderedPage.class));
+    }
+
+    @Test
+    void testDoFilterInternal_ContentPage_SavesRendered() throws Exception {
+        render.setPrerenderEnabled(true);
+        PageModel contentData = new PageModel();
+        contentData.setId("1");
+        contentData.setUrl("test/page");
+        contentData.setType("");
+        contentData.setTitle("Test Title");
+
+        when(request.getRequestURI()).thenReturn("/test/page");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("test/page")).thenReturn(contentData);
+        when(content.getPageVersion(contentData)).thenReturn("v1");
+        when(content.getPageLastModified(contentData)).thenReturn(1700000000000L);
+        when(content.getPageHead(contentData)).thenReturn("");
+        when(content.displayPage(contentData)).thenReturn("Test Content");
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        ArgumentCaptor<RenderedPage> captor = ArgumentCaptor.forClass(RenderedPage.class);
+        verify(mapper).upsertRenderedPage(captor.capture());
+        assertEquals("1", captor.getValue().getId());
+        assertEquals("v1", captor.getValue().getContentHash());
+        assertEquals(1700000000000L, captor.getValue().getLastModified());
+        assertEquals("Test Title  Test Content", new String(captor.getValue().getBody(), StandardCharsets.UTF_8));
+        assertEquals("Test Title  Test Content", writtenBody());
+        verify(response).setContentLength(written.size());
+    }
+
+    @Test
+    void testDoFilterInternal_Image_SkipsRenderedLookup() throws Exception {
+        render.setPrerenderEnabled(true);
+        PageModel imageData = new PageModel();
+        imageData.setId("1");
+        imageData.setType(Constants.CONTENT_TYPE_IMAGE);
+        imageData.setContent("non-existent.jpg");
+
+        when(request.getRequestURI()).thenReturn("/images/non-existent.jpg");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(routingTable.isLoaded()).thenReturn(true);
+        when(routingTable.lookup("images/non-existent.jpg"))
+            .thenReturn(new UrlRoutingTable.Route("1", Constants.CONTENT_TYPE_IMAGE, "2024-01-01 10:00"));
+        when(content.resolvePage("images/non-existent.jpg")).thenReturn(imageData);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(mapper, never()).getRenderedPage(anyString());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_CachedPage() throws Exception {
+        when(request.getRequestURI()).thenReturn("/test/page");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(pageCache.get("test/page")).thenReturn(new CachedPage("1", "text/html; charset=UTF-8", "<html>cached</html>"));
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(response).setContentType("text/html; charset=UTF-8");
+        assertEquals("<html>cached</html>", writtenBody());
+        verify(response).setContentLength(written.size());
+        verify(content, never()).resolvePage(anyString());
+        verify(content, never()).displayPage(any(PageModel.class));
+        verify(filterChain, never()).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_StalePageWhileRendering() throws Exception {
+        when(request.getRequestURI()).thenReturn("/test/page");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        doReturn(true).when(pageRenderer).isRendering("test/page");
+        when(pageCache.getStale("test/page")).thenReturn(new CachedPage("1", "text/html; charset=UTF-8", "<html>stale</html>"));
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        // 他のリクエストが描画中のため、描画を待たずに無効化前のページを返す
+        assertEquals("<html>stale</html>", writtenBody());
+        verify(content, never()).resolvePage(anyString());
+        verify(mapper, never()).getRenderedPage(anyString());
+    }
+
+    @Test
+    void testDoFilterInternal_StalePageIgnoredWhenNotRendering() throws Exception {
+        PageModel contentData = new PageModel();
+        contentData.setId("1");
+        contentData.setUrl("test/page");
+        contentData.setType("");
+        contentData.setTitle("Test Title");
+
+        when(request.getRequestURI()).thenReturn("/test/page");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(pageCache.getStale("test/page")).thenReturn(new CachedPage("1", "text/html; charset=UTF-8", "<html>stale</html>"));
+        when(pageCache.isEnabled()).thenReturn(true);
+        when(content.resolvePage("test/page")).thenReturn(contentData);
+        when(content.getPageVersion(contentData)).thenReturn("v1");
+        when(content.getPageHead(contentData)).thenReturn("");
+        when(content.displayPage(contentData)).thenReturn("New Content");
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        // 描画中のリクエストがないため、描画した内容を返す
+        assertEquals("Test Title  New Content", writtenBody());
+        verify(pageRenderer).renderShared(eq("test/page"), eq(contentData), any(HtmlShell.class), eq("v1"), anyLong(), anyLong());
+    }
+
+    @Test
+    void testDoFilterInternal_ContentPage_Validators() throws Exception {
+        PageModel contentData = new PageModel();
+        contentData.setId("1");
+        contentData.setType("");
+        contentData.setTitle("Test Title");
+
+        when(request.getRequestURI()).thenReturn("/test/page");
+        when(request.getMethod()).thenReturn("GET");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("test/page")).thenReturn(contentData);
+        when(content.getPageVersion(contentData)).thenReturn("v1");
+        when(content.getPageLastModified(contentData)).thenReturn(1700000000000L);
+        when(content.displayPage(contentData)).thenReturn("Test Content");
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        String shellVersion = HtmlShell.parse("###title### ###head### ###content###").getVersion();
+        verify(response).setHeader("ETag", "W/\"v1-" + shellVersion + "\"");
+        verify(response).setDateHeader("Last-Modified", 1700000000000L);
+        verify(response).setHeader("Cache-Control", "no-cache");
+        verify(response, never()).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        assertFalse(writtenBody().isEmpty());
+    }
+
+    @Test
+    void testDoFilterInternal_ContentPage_IfNoneMatch() throws Exception {
+        PageModel contentData = new PageModel();
+        contentData.setId("1");
+        contentData.setType("");
+        String shellVersion = HtmlShell.parse("###title### ###head### ###content###").getVersion();
+
+        when(request.getRequestURI()).thenReturn("/test/page");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("If-None-Match")).thenReturn("\"other\", W/\"v1-" + shellVersion + "\"");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("test/page")).thenReturn(contentData);
+        when(content.getPageVersion(contentData)).thenReturn("v1");
+        when(content.getPageLastModified(contentData)).thenReturn(-1L);
+        when(pageCache.isEnabled()).thenReturn(true);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        // 描画せずに304を返す
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response).setHeader("ETag", "W/\"v1-" + shellVersion + "\"");
+        verify(content, never()).displayPage(any(PageModel.class));
+        verify(content, never()).getPageHead(any(PageModel.class));
+        verify(response, never()).getOutputStream();
+        verify(pageCache, never()).put(anyString(), any(CachedPage.class), anyLong());
+    }
+
+    @Test
+    void testDoFilterInternal_ContentPage_IfNoneMatchChanged() throws Exception {
+        PageModel contentData = new PageModel();
+        contentData.setId("1");
+        contentData.setType("");
+
+        when(request.getRequestURI()).thenReturn("/test/page");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("If-None-Match")).thenReturn("W/\"old\"");
+        // If-None-Match がある場合は If-Modified-Since を無視する
+        when(request.getDateHeader("If-Modified-Since")).thenReturn(1800000000000L);
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("test/page")).thenReturn(contentData);
+        when(content.getPageVersion(contentData)).thenReturn("v2");
+        when(content.getPageLastModified(contentData)).thenReturn(1700000000000L);
+        when(content.displayPage(contentData)).thenReturn("New Content");
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(response, never()).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        assertTrue(writtenBody().contains("New Content"));
+    }
+
+    @Test
+    void testDoFilterInternal_Stylesheet_IfModifiedSince() throws Exception {
+        PageModel stylesheetData = new PageModel();
+        stylesheetData.setId("1");
+        stylesheetData.setType(Constants.CONTENT_TYPE_STYLESHEET);
+
+        when(request.getRequestURI()).thenReturn("/css/style.css");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getDateHeader("If-Modified-Since")).thenReturn(1700000000000L);
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("css/style.css")).thenReturn(stylesheetData);
+        when(content.getPageVersion(stylesheetData)).thenReturn("v1");
+        when(content.getPageLastModified(stylesheetData)).thenReturn(1700000000000L);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response).setHeader("Cache-Control", "public, max-age=300");
+        verify(content, never()).getStylesheet(any(PageModel.class));
+    }
+
+    @Test
+    void testDoFilterInternal_CachedPage_NotModified() throws Exception {
+        when(request.getRequestURI()).thenReturn("/test/page");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("If-None-Match")).thenReturn("W/\"v1\"");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(pageCache.get("test/page")).thenReturn(new CachedPage("1", "text/html; charset=UTF-8",
+                "<html>cached</html>".getBytes(StandardCharsets.UTF_8), "W/\"v1\"", 1700000000000L, "no-cache"));
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response).setHeader("ETag", "W/\"v1\"");
+        verify(response).setHeader("Cache-Control", "no-cache");
+        verify(response, never()).getOutputStream();
+        verify(content, never()).resolvePage(anyString());
+    }
+
+    @Test
+    void testDoFilterInternal_CachedPage_PostIgnoresValidators() throws Exception {
+        when(request.getRequestURI()).thenReturn("/test/page");
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getHeader("If-None-Match")).thenReturn("W/\"v1\"");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(pageCache.get("test/page")).thenReturn(new CachedPage("1", "text/html; charset=UTF-8",
+                "<html>cached</html>".getBytes(StandardCharsets.UTF_8), "W/\"v1\"", 1700000000000L, "no-cache"));
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(response, never()).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        assertEquals("<html>cached</html>", writtenBody());
+    }
+
+    @Test
+    void testDoFilterInternal_CachedPage_Gzip() throws Exception {
+        byte[] gzipBody = CompressionUtil.gzip("<html>cached</html>".getBytes(StandardCharsets.UTF_8));
+        when(request.getRequestURI()).thenReturn("/test/page");
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip, deflate, br");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(pageCache.get("test/page")).thenReturn(new CachedPage("1", "text/html; charset=UTF-8",
+                "<html>cached</html>".getBytes(StandardCharsets.UTF_8), "W/\"v1\"", -1, "no-cache", gzipBody, null));
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(response).setHeader("Content-Encoding", "gzip");
+        verify(response).addHeader("Vary", "Accept-Encoding");
+        verify(response).setContentLength(gzipBody.length);
+        assertArrayEquals(gzipBody, written.toByteArray());
+    }
+
+    @Test
+    void testDoFilterInternal_CachedPage_IdentityWithVary() throws Exception {
+        byte[] gzipBody = CompressionUtil.gzip("<html>cached</html>".getBytes(StandardCharsets.UTF_8));
+        when(request.getRequestURI()).thenReturn("/test/page");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(pageCache.get("test/page")).thenReturn(new CachedPage("1", "text/html; charset=UTF-8",
+                "<html>cached</html>".getBytes(StandardCharsets.UTF_8), "W/\"v1\"", -1, "no-cache", gzipBody, null));
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        // Accept-Encoding がない場合は非圧縮で返すが、Vary は常に設定する
+        verify(response, never()).setHeader(eq("Content-Encoding"), anyString());
+        verify(response).addHeader("Vary", "Accept-Encoding");
+        assertEquals("<html>cached</html>", writtenBody());
     }
 
     @Test
@@ -141,42 +599,96 @@ class RequestRoutingFilterTest {
         Path templateFile = rootPath.resolve("original.stylesheet.html");
         Files.write(templateFile, "###content###".getBytes());
 
-        HashMap<String, String> stylesheetData = new HashMap<>();
-        stylesheetData.put("id", "1");
-        stylesheetData.put("type", Constants.CONTENT_TYPE_STYLESHEET);
-        stylesheetData.put("content", "body { color: red; }");
+        PageModel stylesheetData = new PageModel();
+        stylesheetData.setId("1");
+        stylesheetData.setType(Constants.CONTENT_TYPE_STYLESHEET);
+        stylesheetData.setContent("body { color: red; }");
 
         when(request.getRequestURI()).thenReturn("/css/style.css");
-        when(handlerMapping.getHandler(request)).thenReturn(null);
-        when(mapper.searchByUrl("css/style.css", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(stylesheetData);
-        when(content.getStylesheet("1", Constants.TABLE_CONTENT_PUBLIC)).thenReturn("body { color: red; }");
-        when(response.getWriter()).thenReturn(writer);
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("css/style.css")).thenReturn(stylesheetData);
+        when(content.getStylesheet(stylesheetData)).thenReturn("body { color: red; }");
+        when(response.getOutputStream()).thenReturn(capturingStream);
 
         // CommonProc.getRootPath()の戻り値をモックするために、実際のファイルシステムを使用
         // テストでは、テンプレートファイルが存在することを前提とする
         filter.doFilterInternal(request, response, filterChain);
 
         verify(response).setContentType("text/css");
-        verify(writer).write(anyString());
+        assertFalse(writtenBody().isEmpty());
     }
 
     @Test
     void testDoFilterInternal_Script() throws Exception {
-        HashMap<String, String> scriptData = new HashMap<>();
-        scriptData.put("id", "1");
-        scriptData.put("type", Constants.CONTENT_TYPE_SCRIPT);
-        scriptData.put("content", "console.log('test');");
+        PageModel scriptData = new PageModel();
+        scriptData.setId("1");
+        scriptData.setType(Constants.CONTENT_TYPE_SCRIPT);
+        scriptData.setContent("console.log('test');");
 
         when(request.getRequestURI()).thenReturn("/js/script.js");
-        when(handlerMapping.getHandler(request)).thenReturn(null);
-        when(mapper.searchByUrl("js/script.js", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(scriptData);
-        when(content.getContent("1", Constants.TABLE_CONTENT_PUBLIC)).thenReturn("console.log('test');");
-        when(response.getWriter()).thenReturn(writer);
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("js/script.js")).thenReturn(scriptData);
+        when(content.getScript(scriptData)).thenReturn("console.log('test');");
+        when(response.getOutputStream()).thenReturn(capturingStream);
 
         filter.doFilterInternal(request, response, filterChain);
 
         verify(response).setContentType("application/javascript");
-        verify(writer).write(anyString());
+        assertFalse(writtenBody().isEmpty());
+        verify(content, never()).getContent(anyString(), anyString());
+    }
+
+    @Test
+    void testDoFilterInternal_FingerprintedStylesheet() throws Exception {
+        AssetFingerprintService.Asset asset = new AssetFingerprintService.Asset("1", "css/style.css",
+                Constants.CONTENT_TYPE_STYLESHEET, "body{color:red}", "0123456789");
+        when(request.getRequestURI()).thenReturn("/css/style.0123456789.css");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(assetFingerprints.resolve("css/style.0123456789.css"))
+                .thenReturn(new AssetFingerprintService.Resolved(asset, true));
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(response).setContentType("text/css");
+        verify(response).setHeader("Cache-Control", "public, max-age=31536000, immutable");
+        assertEquals("body{color:red}", writtenBody());
+        verify(routingTable, never()).lookup(anyString());
+        verify(content, never()).resolvePage(anyString());
+    }
+
+    @Test
+    void testDoFilterInternal_FingerprintedStylesheet_Stale() throws Exception {
+        AssetFingerprintService.Asset asset = new AssetFingerprintService.Asset("1", "css/style.css",
+                Constants.CONTENT_TYPE_STYLESHEET, "body{color:blue}", "abcdefabcd");
+        when(request.getRequestURI()).thenReturn("/css/style.0123456789.css");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(assetFingerprints.resolve("css/style.0123456789.css"))
+                .thenReturn(new AssetFingerprintService.Resolved(asset, false));
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        // 古いハッシュのURLには現在の内容を通常のキャッシュ設定で返す
+        verify(response).setHeader("Cache-Control", "public, max-age=300");
+        assertEquals("body{color:blue}", writtenBody());
+    }
+
+    @Test
+    void testDoFilterInternal_FingerprintedStylesheet_IfNoneMatch() throws Exception {
+        AssetFingerprintService.Asset asset = new AssetFingerprintService.Asset("1", "css/style.css",
+                Constants.CONTENT_TYPE_STYLESHEET, "body{color:red}", "0123456789");
+        when(request.getRequestURI()).thenReturn("/css/style.0123456789.css");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("If-None-Match")).thenReturn("W/\"0123456789\"");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(assetFingerprints.resolve("css/style.0123456789.css"))
+                .thenReturn(new AssetFingerprintService.Resolved(asset, true));
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response, never()).getOutputStream();
     }
 
     @Test
@@ -186,14 +698,14 @@ class RequestRoutingFilterTest {
         Path imageFile = imageDir.resolve("test-image.jpg");
         Files.write(imageFile, "fake image content".getBytes());
 
-        HashMap<String, String> imageData = new HashMap<>();
-        imageData.put("id", "1");
-        imageData.put("type", Constants.CONTENT_TYPE_IMAGE);
-        imageData.put("content", "test-image.jpg");
+        PageModel imageData = new PageModel();
+        imageData.setId("1");
+        imageData.setType(Constants.CONTENT_TYPE_IMAGE);
+        imageData.setContent("test-image.jpg");
 
         when(request.getRequestURI()).thenReturn("/images/test-image.jpg");
-        when(handlerMapping.getHandler(request)).thenReturn(null);
-        when(mapper.searchByUrl("images/test-image.jpg", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(imageData);
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("images/test-image.jpg")).thenReturn(imageData);
         when(response.getOutputStream()).thenReturn(outputStream);
 
         filter.doFilterInternal(request, response, filterChain);
@@ -204,16 +716,97 @@ class RequestRoutingFilterTest {
         verify(filterChain, never()).doFilter(request, response);
     }
 
+    @Test
+    void testDoFilterInternal_File_Range() throws Exception {
+        Path fileDir = tempDir.resolve("files");
+        Files.createDirectories(fileDir);
+        Path filePath = fileDir.resolve("test-file.pdf");
+        Files.write(filePath, "0123456789".getBytes());
+
+        PageModel fileData = new PageModel();
+        fileData.setId("1");
+        fileData.setType(Constants.CONTENT_TYPE_FILE);
+        fileData.setContent("test-file.pdf");
+
+        when(request.getRequestURI()).thenReturn("/files/test-file.pdf");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("Range")).thenReturn("bytes=2-5");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("files/test-file.pdf")).thenReturn(fileData);
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(response).setHeader("Content-Range", "bytes 2-5/10");
+        verify(response).setHeader(eq("Content-Disposition"), contains("attachment"));
+        assertEquals("2345", writtenBody());
+    }
+
+    @Test
+    void testDoFilterInternal_Image_Metadata() throws Exception {
+        Path imageDir = tempDir.resolve("images");
+        Files.createDirectories(imageDir);
+        Path imageFile = imageDir.resolve("test-image.png");
+        Files.write(imageFile, "0123456789".getBytes());
+
+        PageModel imageData = new PageModel();
+        imageData.setId("1");
+        imageData.setType(Constants.CONTENT_TYPE_IMAGE);
+        imageData.setContent("test-image.png");
+        imageData.setFileMimeType("image/png");
+        imageData.setFileSize(10L);
+        imageData.setFileLastModified(1700000000000L);
+        imageData.setFileSha256("abc123");
+
+        when(request.getRequestURI()).thenReturn("/images/test-image.png");
+        when(request.getMethod()).thenReturn("GET");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("images/test-image.png")).thenReturn(imageData);
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(response).setContentType("image/png");
+        verify(response).setContentLengthLong(10L);
+        verify(response).setHeader("ETag", "\"abc123\"");
+        verify(fileDelivery, never()).deliver(any(), any(), any(), anyString(), anyString());
+        assertEquals("0123456789", writtenBody());
+        verify(filterChain, never()).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_Image_MetadataFileMissing() throws Exception {
+        PageModel imageData = new PageModel();
+        imageData.setId("1");
+        imageData.setType(Constants.CONTENT_TYPE_IMAGE);
+        imageData.setContent("deleted.png");
+        imageData.setFileMimeType("image/png");
+        imageData.setFileSize(10L);
+        imageData.setFileLastModified(1700000000000L);
+        imageData.setFileSha256("abc123");
+
+        when(request.getRequestURI()).thenReturn("/images/deleted.png");
+        when(request.getMethod()).thenReturn("GET");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("images/deleted.png")).thenReturn(imageData);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(response).reset();
+        verify(filterChain).doFilter(request, response);
+    }
+
     @Test
     void testDoFilterInternal_Image_FileNotExists() throws Exception {
-        HashMap<String, String> imageData = new HashMap<>();
-        imageData.put("id", "1");
-        imageData.put("type", Constants.CONTENT_TYPE_IMAGE);
-        imageData.put("content", "non-existent.jpg");
+        PageModel imageData = new PageModel();
+        imageData.setId("1");
+        imageData.setType(Constants.CONTENT_TYPE_IMAGE);
+        imageData.setContent("non-existent.jpg");
 
         when(request.getRequestURI()).thenReturn("/images/non-existent.jpg");
-        when(handlerMapping.getHandler(request)).thenReturn(null);
-        when(mapper.searchByUrl("images/non-existent.jpg", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(imageData);
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("images/non-existent.jpg")).thenReturn(imageData);
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -227,15 +820,15 @@ class RequestRoutingFilterTest {
         Path filePath = fileDir.resolve("test-file.pdf");
         Files.write(filePath, "fake file content".getBytes());
 
-        HashMap<String, String> fileData = new HashMap<>();
-        fileData.put("id", "1");
-        fileData.put("type", Constants.CONTENT_TYPE_FILE);
-        fileData.put("content", "test-file.pdf");
-        fileData.put("head", "original-name.pdf");
+        PageModel fileData = new PageModel();
+        fileData.setId("1");
+        fileData.setType(Constants.CONTENT_TYPE_FILE);
+        fileData.setContent("test-file.pdf");
+        fileData.setHead("original-name.pdf");
 
         when(request.getRequestURI()).thenReturn("/files/test-file.pdf");
-        when(handlerMapping.getHandler(request)).thenReturn(null);
-        when(mapper.searchByUrl("files/test-file.pdf", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(fileData);
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("files/test-file.pdf")).thenReturn(fileData);
         when(response.getOutputStream()).thenReturn(outputStream);
 
         filter.doFilterInternal(request, response, filterChain);
@@ -248,14 +841,14 @@ class RequestRoutingFilterTest {
 
     @Test
     void testDoFilterInternal_File_FileNotExists() throws Exception {
-        HashMap<String, String> fileData = new HashMap<>();
-        fileData.put("id", "1");
-        fileData.put("type", Constants.CONTENT_TYPE_FILE);
-        fileData.put("content", "non-existent.pdf");
+        PageModel fileData = new PageModel();
+        fileData.setId("1");
+        fileData.setType(Constants.CONTENT_TYPE_FILE);
+        fileData.setContent("non-existent.pdf");
 
         when(request.getRequestURI()).thenReturn("/files/non-existent.pdf");
-        when(handlerMapping.getHandler(request)).thenReturn(null);
-        when(mapper.searchByUrl("files/non-existent.pdf", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(fileData);
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("files/non-existent.pdf")).thenReturn(fileData);
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -265,30 +858,99 @@ class RequestRoutingFilterTest {
     @Test
     void testDoFilterInternal_NotFound() throws Exception {
         when(request.getRequestURI()).thenReturn("/unknown/page");
-        when(handlerMapping.getHandler(request)).thenReturn(null);
-        when(mapper.searchByUrl("unknown/page", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(null);
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("unknown/page")).thenReturn(null);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_NotInRoutingTable() throws Exception {
+        when(request.getRequestURI()).thenReturn("/wp-login.php");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(routingTable.isLoaded()).thenReturn(true);
+        when(routingTable.lookup("wp-login.php")).thenReturn(null);
 
         filter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain).doFilter(request, response);
+        verify(content, never()).resolvePage(anyString());
+    }
+
+    @Test
+    void testDoFilterInternal_InRoutingTable() throws Exception {
+        PageModel scriptData = new PageModel();
+        scriptData.setId("1");
+        scriptData.setType(Constants.CONTENT_TYPE_SCRIPT);
+        scriptData.setContent("console.log('test');");
+
+        when(request.getRequestURI()).thenReturn("/js/script.js");
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(routingTable.isLoaded()).thenReturn(true);
+        when(routingTable.lookup("js/script.js"))
+            .thenReturn(new UrlRoutingTable.Route("1", Constants.CONTENT_TYPE_SCRIPT, "2024-01-01 10:00"));
+        when(content.resolvePage("js/script.js")).thenReturn(scriptData);
+        when(content.getScript(scriptData)).thenReturn("console.log('test');");
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(content).resolvePage("js/script.js");
+        verify(response).setContentType("application/javascript");
+    }
+
+    @Test
+    void testDoFilterInternal_StaticResource() throws Exception {
+        when(request.getRequestURI()).thenReturn("/css/common.css");
+        when(routeClassifier.classify("/css/common.css")).thenReturn(Decision.STATIC);
+        when(routingTable.isLoaded()).thenReturn(false);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verify(content, never()).resolvePage(anyString());
+    }
+
+    @Test
+    void testDoFilterInternal_StaticResourceOverriddenByContent() throws Exception {
+        PageModel scriptData = new PageModel();
+        scriptData.setId("1");
+        scriptData.setType(Constants.CONTENT_TYPE_SCRIPT);
+        scriptData.setContent("console.log('test');");
+
+        when(request.getRequestURI()).thenReturn("/js/common.js");
+        when(routeClassifier.classify("/js/common.js")).thenReturn(Decision.STATIC);
+        when(routingTable.isLoaded()).thenReturn(true);
+        when(routingTable.lookup("js/common.js"))
+            .thenReturn(new UrlRoutingTable.Route("1", Constants.CONTENT_TYPE_SCRIPT, "2024-01-01 10:00"));
+        when(content.resolvePage("js/common.js")).thenReturn(scriptData);
+        when(content.getScript(scriptData)).thenReturn("console.log('test');");
+        when(response.getOutputStream()).thenReturn(capturingStream);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(response).setContentType("application/javascript");
+        verify(filterChain, never()).doFilter(request, response);
     }
 
     @Test
     void testDoFilterInternal_HandlerMappingException() throws Exception {
         when(request.getRequestURI()).thenReturn("/test/page");
-        when(handlerMapping.getHandler(request)).thenThrow(new RuntimeException("Mapping error"));
+        when(routeClassifier.classify(anyString())).thenThrow(new RuntimeException("Mapping error"));
 
         filter.doFilterInternal(request, response, filterChain);
 
         // 例外が発生しても処理は継続される
-        verify(mapper).searchByUrl("test/page", Constants.TABLE_CONTENT_PUBLIC);
+        verify(content).resolvePage("test/page");
     }
 
     @Test
     void testDoFilterInternal_ContentPageException() throws Exception {
         when(request.getRequestURI()).thenReturn("/test/page");
-        when(handlerMapping.getHandler(request)).thenReturn(null);
-        when(mapper.searchByUrl("test/page", Constants.TABLE_CONTENT_PUBLIC))
+        when(routeClassifier.classify(anyString())).thenReturn(Decision.CONTENT);
+        when(content.resolvePage("test/page"))
             .thenThrow(new RuntimeException("DB error"));
 
         filter.doFilterInternal(request, response, filterChain);
@@ -0,0 +1,91 @@
+package com.example.skygarden.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.example.skygarden.config.RouteClassifier.Decision;
+
+/**
+ * RouteClassifierのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RouteClassifierTest {
+
+    @Mock
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Mock
+    private HandlerMethod handlerMethod;
+
+    @InjectMocks
+    private RouteClassifier routeClassifier;
+
+    @BeforeEach
+    void setUp() {
+        Map<RequestMappingInfo, HandlerMethod> handlerMethods = new HashMap<>();
+        handlerMethods.put(RequestMappingInfo.paths("/").build(), handlerMethod);
+        handlerMethods.put(RequestMappingInfo.paths("/api/contents").build(), handlerMethod);
+        handlerMethods.put(RequestMappingInfo.paths("/api/items/{id}").build(), handlerMethod);
+        when(handlerMapping.getHandlerMethods()).thenReturn(handlerMethods);
+    }
+
+    @Test
+    void testClassify_ExactMapping() {
+        assertEquals(Decision.CONTROLLER, routeClassifier.classify("/"));
+        assertEquals(Decision.CONTROLLER, routeClassifier.classify("/api/contents"));
+    }
+
+    @Test
+    void testClassify_PatternMapping() {
+        assertEquals(Decision.CONTROLLER, routeClassifier.classify("/api/items/10"));
+    }
+
+    @Test
+    void testClassify_StaticResource() {
+        assertEquals(Decision.STATIC, routeClassifier.classify("/css/jquery-ui.min.css"));
+    }
+
+    @Test
+    void testClassify_Content() {
+        assertEquals(Decision.CONTENT, routeClassifier.classify("/about/company"));
+        assertEquals(Decision.CONTENT, routeClassifier.classify("/wp-login.php"));
+    }
+
+    @Test
+    void testClassify_CachedPerPath() {
+        routeClassifier.classify("/about/company");
+        routeClassifier.classify("/about/company");
+        routeClassifier.classify("/api/contents");
+
+        // マッピング一覧の構築は初回の1回のみ
+        verify(handlerMapping, times(1)).getHandlerMethods();
+    }
+
+    @Test
+    void testRefresh_RebuildsMappings() {
+        assertEquals(Decision.CONTENT, routeClassifier.classify("/new-api"));
+
+        Map<RequestMappingInfo, HandlerMethod> handlerMethods = new HashMap<>();
+        handlerMethods.put(RequestMappingInfo.paths("/new-api").build(), handlerMethod);
+        when(handlerMapping.getHandlerMethods()).thenReturn(handlerMethods);
+        routeClassifier.refresh();
+
+        assertEquals(Decision.CONTROLLER, routeClassifier.classify("/new-api"));
+    }
+}
@@ -21,10 +21,13 @@ import org.mockito.quality.Strictness;
 
 import com.example.skygarden.bean.ContentBean;
 import com.example.skygarden.bean.ListBean;
+import com.example.skygarden.bean.PagerBean;
+import com.example.skygarden.bean.SnippetBean;
 import com.example.skygarden.config.AppProperties;
 import com.example.skygarden.config.AppProperties.Pagination;
 import com.example.skygarden.constants.Constants;
 import com.example.skygarden.logic.Content;
+import com.example.skygarden.logic.ListCursor;
 import com.example.skygarden.logic.Setting;
 import com.example.skygarden.service.OpenAIService;
 
@@ -151,13 +154,19 @@ class ContentControllerTest {
         when(request.getParameter("id")).thenReturn("1");
         when(request.getParameter("mode")).thenReturn(Constants.CONTENT_TYPE_TEMPLATE);
         when(content.doSearch("1")).thenReturn(templateData);
-        when(content.doSearch("10")).thenReturn(elementData);
+        HashMap<String, HashMap<String, String>> elements = new HashMap<>();
+        elements.put("10", elementData);
+        when(content.doSearchByIds(List.of("10"))).thenReturn(elements);
         when(setting.elementsColorList()).thenReturn(new ArrayList<>());
 
         ContentBean result = controller.getById("1", Constants.CONTENT_TYPE_TEMPLATE, request, response);
 
         assertNotNull(result);
         assertEquals("Template", result.getTitle());
+        assertEquals(2, result.getEleResults().size());
+        assertEquals("Element 10", result.getEleResults().get(0).get("title"));
+        assertEquals(Constants.FLAG_YES, result.getEleResults().get(1).get("content"));
+        verify(content, never()).doSearch("10");
     }
 
     @Test
@@ -248,14 +257,14 @@ class ContentControllerTest {
         results.add(content1);
 
         when(content.searchList("updated desc", 1, "", "test")).thenReturn(results);
-        when(content.getSearchPager(1, "", "updated desc", "test")).thenReturn("<li>1</li>");
+        when(content.getSearchPager(1, "", "updated desc", "test")).thenReturn(new PagerBean());
 
-        ListBean result = controller.getListApi("", "updated desc", "1", "test", request, response, session);
+        ListBean result = controller.getListApi("", "updated desc", "1", "test", "", request, response, session);
 
         assertNotNull(result);
         assertEquals("testuser", result.getLoginName());
         assertEquals("登録しました。", result.getRegisterMessage());
-        assertEquals(1, result.getResults().size());
+        assertEquals(1, result.getEleResults().size());
         verify(session).setAttribute(Constants.SESSION_LOGIN_NAME, Constants.EMPTY_STRING);
         verify(session).setAttribute(Constants.SESSION_REGISTER_MESSAGE, Constants.EMPTY_STRING);
     }
@@ -267,14 +276,40 @@ class ContentControllerTest {
 
         List<HashMap<String, String>> results = new ArrayList<>();
         when(content.getList("updated desc", 1, "")).thenReturn(results);
-        when(content.getPager(1, "", "updated desc")).thenReturn("");
+        when(content.getPager(1, "", "updated desc")).thenReturn(new PagerBean());
 
-        ListBean result = controller.getListApi("", "updated desc", "1", "", request, response, session);
+        ListBean result = controller.getListApi("", "updated desc", "1", "", "", request, response, session);
 
         assertNotNull(result);
         assertEquals("", result.getLoginName());
     }
 
+    @Test
+    void testGetListApi_WithCursor() throws IOException {
+        when(session.getAttribute(Constants.SESSION_LOGIN_NAME)).thenReturn(null);
+        when(session.getAttribute(Constants.SESSION_REGISTER_MESSAGE)).thenReturn(null);
+
+        List<HashMap<String, String>> rows = new ArrayList<>();
+        for (int i = 3; i >= 1; i--) {
+            HashMap<String, String> row = new HashMap<>();
+            row.put("id", String.valueOf(i));
+            row.put("updated", "2024-01-0" + i);
+            rows.add(row);
+        }
+        ListCursor.Page cursorPage = ListCursor.first("updated desc").page(rows, 2);
+        when(content.getListByCursor("updated desc", "abc", "")).thenReturn(cursorPage);
+        PagerBean pager = new PagerBean();
+        when(content.getCursorPager(cursorPage, "", "updated desc", "")).thenReturn(pager);
+
+        ListBean result = controller.getListApi("", "updated desc", "1", "", "abc", request, response, session);
+
+        assertEquals(2, result.getResults().size());
+        assertSame(pager, result.getPager());
+        assertEquals(cursorPage.getNextCursor(), result.getNextCursor());
+        assertEquals("", result.getPrevCursor());
+        verify(content, never()).getList(anyString(), anyInt(), anyString());
+    }
+
     @Test
     void testUrlMatches_Matches() throws IOException {
         when(content.urlMatches("test/page", "1")).thenReturn(true);
@@ -357,26 +392,87 @@ class ContentControllerTest {
     void testGetContentsForLink_WithKeyword() {
         List<HashMap<String, String>> results = new ArrayList<>();
         when(content.searchList("updated desc", 1, "", "test")).thenReturn(results);
-        when(content.getSearchPager(1, "", "updated desc", "test")).thenReturn("");
+        when(content.getSearchPager(1, "", "updated desc", "test")).thenReturn(new PagerBean());
 
-        ListBean result = controller.getContentsForLink("", "test", "updated desc", "1");
+        HashMap<String, SnippetBean> snippets = new HashMap<>();
+        snippets.put("1", new SnippetBean());
+        when(content.getSearchSnippets(results, "test")).thenReturn(snippets);
+
+        ListBean result = controller.getContentsForLink("", "test", "updated desc", "1", "");
 
         assertNotNull(result);
         verify(content).searchList("updated desc", 1, "", "test");
+        assertSame(snippets, result.getSnippets());
+    }
+
+    @Test
+    void testGetContentsForLink_KeywordDefaultsToRelevance() {
+        List<HashMap<String, String>> results = new ArrayList<>();
+        when(content.searchList("", 1, "", "test")).thenReturn(results);
+        when(content.getSearchPager(1, "", "", "test")).thenReturn(new PagerBean());
+
+        controller.getContentsForLink("", "test", "", "1", "");
+
+        verify(content).searchList("", 1, "", "test");
+    }
+
+    @Test
+    void testGetContentsForLink_WithoutKeywordDefaultsToUpdated() {
+        when(content.getList("updated desc", 1, "")).thenReturn(new ArrayList<>());
+        when(content.getPager(1, "", "updated desc")).thenReturn(new PagerBean());
+
+        controller.getContentsForLink("", "", "", "1", "");
+
+        verify(content).getList("updated desc", 1, "");
     }
 
     @Test
     void testGetContentsForLink_WithoutKeyword() {
         List<HashMap<String, String>> results = new ArrayList<>();
         when(content.getList("updated desc", 1, "")).thenReturn(results);
-        when(content.getPager(1, "", "updated desc")).thenReturn("");
+        when(content.getPager(1, "", "updated desc")).thenReturn(new PagerBean());
 
-        ListBean result = controller.getContentsForLink("", "", "updated desc", "1");
+        ListBean result = controller.getContentsForLink("", "", "updated desc", "1", "");
 
         assertNotNull(result);
         verify(content).getList("updated desc", 1, "");
     }
 
+    @Test
+    void testGetContentsForLink_Keyset() {
+        when(content.isKeysetPagination()).thenReturn(true);
+        List<HashMap<String, String>> rows = new ArrayList<>();
+        for (int i = 3; i >= 1; i--) {
+            HashMap<String, String> row = new HashMap<>();
+            row.put("id", String.valueOf(i));
+            row.put("updated", "2024-01-0" + i);
+            rows.add(row);
+        }
+        ListCursor.Page cursorPage = ListCursor.first("updated desc").page(rows, 2);
+        when(content.getListByCursor("updated desc", "", "")).thenReturn(cursorPage);
+        when(content.getCursorPager(cursorPage, "", "updated desc", "")).thenReturn(new PagerBean());
+
+        ListBean result = controller.getContentsForLink("", "", "", "1", "");
+
+        // 画面は次のページをカーソルで読み込む
+        assertEquals(2, result.getResults().size());
+        assertEquals(cursorPage.getNextCursor(), result.getNextCursor());
+        assertEquals("", result.getPrevCursor());
+        verify(content, never()).getList(anyString(), anyInt(), anyString());
+    }
+
+    @Test
+    void testGetContentsForLink_WithCursor() {
+        ListCursor.Page cursorPage = ListCursor.first("updated desc").page(new ArrayList<>(), 2);
+        when(content.searchListByCursor("", "abc", "", "test")).thenReturn(cursorPage);
+        when(content.getCursorPager(cursorPage, "", "", "test")).thenReturn(new PagerBean());
+
+        controller.getContentsForLink("", "test", "", "1", "abc");
+
+        verify(content).searchListByCursor("", "abc", "", "test");
+        verify(content, never()).searchList(anyString(), anyInt(), anyString(), anyString());
+    }
+
     @Test
     void testGenerateTitle_Success() throws IOException, InterruptedException {
         Map<String, Object> titleResult = new HashMap<>();
@@ -455,9 +551,9 @@ class ContentControllerTest {
         when(session.getAttribute(Constants.SESSION_REGISTER_MESSAGE)).thenReturn(null);
 
         when(content.getList("updated desc", 1, "")).thenReturn(new ArrayList<>());
-        when(content.getPager(1, "", "updated desc")).thenReturn("");
+        when(content.getPager(1, "", "updated desc")).thenReturn(new PagerBean());
 
-        ListBean result = controller.getListApi("", "updated desc", "invalid", "", request, response, session);
+        ListBean result = controller.getListApi("", "updated desc", "invalid", "", "", request, response, session);
 
         assertNotNull(result);
         verify(content).getList("updated desc", 1, "");
@@ -469,9 +565,9 @@ class ContentControllerTest {
         when(session.getAttribute(Constants.SESSION_REGISTER_MESSAGE)).thenReturn(null);
 
         when(content.getList("updated desc", 1, "")).thenReturn(new ArrayList<>());
-        when(content.getPager(1, "", "updated desc")).thenReturn("");
+        when(content.getPager(1, "", "updated desc")).thenReturn(new PagerBean());
 
-        ListBean result = controller.getListApi("", "updated desc", "1", "", request, response, session);
+        ListBean result = controller.getListApi("", "updated desc", "1", "", "", request, response, session);
 
         assertNotNull(result);
     }
@@ -483,9 +579,9 @@ class ContentControllerTest {
 
         when(content.getList("updated desc", 1, Constants.CONTENT_TYPE_IMAGE))
             .thenReturn(new ArrayList<>());
-        when(content.getPager(1, Constants.CONTENT_TYPE_IMAGE, "updated desc")).thenReturn("");
+        when(content.getPager(1, Constants.CONTENT_TYPE_IMAGE, "updated desc")).thenReturn(new PagerBean());
 
-        ListBean result = controller.getListApi(Constants.CONTENT_TYPE_IMAGE, "updated desc", "1", "", request, response, session);
+        ListBean result = controller.getListApi(Constants.CONTENT_TYPE_IMAGE, "updated desc", "1", "", "", request, response, session);
 
         assertNotNull(result);
         verify(content).getList("updated desc", 1, Constants.CONTENT_TYPE_IMAGE);
@@ -642,9 +738,9 @@ class ContentControllerTest {
     void testGetContentsForLink_InvalidPage() {
         List<HashMap<String, String>> results = new ArrayList<>();
         when(content.getList("updated desc", 1, "")).thenReturn(results);
-        when(content.getPager(1, "", "updated desc")).thenReturn("");
+        when(content.getPager(1, "", "updated desc")).thenReturn(new PagerBean());
 
-        ListBean result = controller.getContentsForLink("", "", "updated desc", "invalid");
+        ListBean result = controller.getContentsForLink("", "", "updated desc", "invalid", "");
 
         assertNotNull(result);
         verify(content).getList("updated desc", 1, "");
@@ -656,9 +752,9 @@ class ContentControllerTest {
         when(session.getAttribute(Constants.SESSION_REGISTER_MESSAGE)).thenReturn(null);
 
         when(content.getList("updated desc", 1, "")).thenReturn(new ArrayList<>());
-        when(content.getPager(1, "", "updated desc")).thenReturn("");
+        when(content.getPager(1, "", "updated desc")).thenReturn(new PagerBean());
 
-        ListBean result = controller.getListApi("", "updated desc", "1", "", request, response, session);
+        ListBean result = controller.getListApi("", "updated desc", "1", "", "", request, response, session);
 
         assertNotNull(result);
         assertEquals("testuser", result.getLoginName());
@@ -671,9 +767,9 @@ class ContentControllerTest {
         when(session.getAttribute(Constants.SESSION_REGISTER_MESSAGE)).thenReturn("登録しました。");
 
         when(content.getList("updated desc", 1, "")).thenReturn(new ArrayList<>());
-        when(content.getPager(1, "", "updated desc")).thenReturn("");
+        when(content.getPager(1, "", "updated desc")).thenReturn(new PagerBean());
 
-        ListBean result = controller.getListApi("", "updated desc", "1", "", request, response, session);
+        ListBean result = controller.getListApi("", "updated desc", "1", "", "", request, response, session);
 
         assertNotNull(result);
         assertEquals("登録しました。", result.getRegisterMessage());
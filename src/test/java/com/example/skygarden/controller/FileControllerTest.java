@@ -5,6 +5,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.HashMap;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -22,6 +23,7 @@ import com.example.skygarden.config.AppProperties;
 import com.example.skygarden.constants.Constants;
 import com.example.skygarden.mapper.ContentMapper;
 import com.example.skygarden.service.EmailService;
+import com.example.skygarden.service.FileMetadataService;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -43,6 +45,9 @@ class FileControllerTest {
     @Mock
     private AppProperties.File fileProperties;
 
+    @Mock
+    private FileMetadataService fileMetadataService;
+
     @Mock
     private EmailService emailService;
 
@@ -81,6 +86,7 @@ class FileControllerTest {
                 eq("test/file.pdf"), eq("Test File"), eq("test.pdf"), anyString(),
                 eq(Constants.CONTENT_TYPE_FILE), anyString(), anyString(),
                 anyString(), anyString(), eq(Constants.FLAG_NO));
+        verify(fileMetadataService).store(eq(file), any(Path.class));
     }
 
     @Test
@@ -99,6 +105,8 @@ class FileControllerTest {
         controller.uploadFile(null, "1", "Updated File", "test/updated.pdf",
                 Constants.FLAG_NO, "", "", request, response, session);
 
+        verify(fileMetadataService, never()).store(any(MultipartFile.class), any(Path.class));
+
         verify(mapper).update(eq("1"), anyString(), anyString(),
                 eq("test/updated.pdf"), eq("Updated File"), eq("old-name.pdf"), eq("old-file.pdf"),
                 eq(Constants.CONTENT_TYPE_FILE), anyString(), anyString(),
@@ -19,8 +19,11 @@ import org.mockito.quality.Strictness;
 import org.springframework.ui.Model;
 
 import com.example.skygarden.bean.DirectoryNodeBean;
+import com.example.skygarden.bean.PagerBean;
+import com.example.skygarden.bean.SnippetBean;
 import com.example.skygarden.constants.Constants;
 import com.example.skygarden.logic.Content;
+import com.example.skygarden.logic.ListCursor;
 import com.example.skygarden.logic.Setting;
 import com.example.skygarden.logic.User;
 
@@ -66,9 +69,9 @@ class HomeControllerTest {
     void testIndex_WithoutKeyword() {
         when(session.getAttribute(Constants.SESSION_REGISTER_MESSAGE)).thenReturn(null);
         when(content.getList(anyString(), anyInt(), anyString())).thenReturn(new ArrayList<>());
-        when(content.getPager(anyInt(), anyString(), anyString())).thenReturn("");
+        when(content.getPager(anyInt(), anyString(), anyString())).thenReturn(new PagerBean());
 
-        String result = controller.index("", "updated desc", "1", "", model, session);
+        String result = controller.index("", "updated desc", "1", "", "", model, session);
 
         assertEquals("list", result);
         verify(model).addAttribute("mode", "");
@@ -80,21 +83,37 @@ class HomeControllerTest {
     void testIndex_WithKeyword() {
         when(session.getAttribute(Constants.SESSION_REGISTER_MESSAGE)).thenReturn(null);
         when(content.searchList(anyString(), anyInt(), anyString(), anyString())).thenReturn(new ArrayList<>());
-        when(content.getSearchPager(anyInt(), anyString(), anyString(), anyString())).thenReturn("");
+        when(content.getSearchPager(anyInt(), anyString(), anyString(), anyString())).thenReturn(new PagerBean());
 
-        String result = controller.index("", "updated desc", "1", "test", model, session);
+        String result = controller.index("", "updated desc", "1", "test", "", model, session);
 
         assertEquals("list", result);
         verify(model).addAttribute("keyword", "test");
+        verify(content).getSearchSnippets(anyList(), eq("test"));
+    }
+
+    @Test
+    void testIndex_WithKeywordAddsSnippets() {
+        when(session.getAttribute(Constants.SESSION_REGISTER_MESSAGE)).thenReturn(null);
+        List<HashMap<String, String>> results = new ArrayList<>();
+        when(content.searchList("updated desc", 1, "", "test")).thenReturn(results);
+        when(content.getSearchPager(1, "", "updated desc", "test")).thenReturn(new PagerBean());
+        HashMap<String, SnippetBean> snippets = new HashMap<>();
+        snippets.put("1", new SnippetBean());
+        when(content.getSearchSnippets(results, "test")).thenReturn(snippets);
+
+        controller.index("", "updated desc", "1", "test", "", model, session);
+
+        verify(model).addAttribute("snippets", snippets);
     }
 
     @Test
     void testIndex_WithRegisterMessage() {
         when(session.getAttribute(Constants.SESSION_REGISTER_MESSAGE)).thenReturn("登録しました。");
         when(content.getList(anyString(), anyInt(), anyString())).thenReturn(new ArrayList<>());
-        when(content.getPager(anyInt(), anyString(), anyString())).thenReturn("");
+        when(content.getPager(anyInt(), anyString(), anyString())).thenReturn(new PagerBean());
 
-        String result = controller.index("", "updated desc", "1", "", model, session);
+        String result = controller.index("", "updated desc", "1", "", "", model, session);
 
         assertEquals("list", result);
         verify(session).setAttribute(Constants.SESSION_REGISTER_MESSAGE, Constants.EMPTY_STRING);
@@ -105,14 +124,29 @@ class HomeControllerTest {
     void testIndex_InvalidPage() {
         when(session.getAttribute(Constants.SESSION_REGISTER_MESSAGE)).thenReturn(null);
         when(content.getList(anyString(), anyInt(), anyString())).thenReturn(new ArrayList<>());
-        when(content.getPager(anyInt(), anyString(), anyString())).thenReturn("");
+        when(content.getPager(anyInt(), anyString(), anyString())).thenReturn(new PagerBean());
 
-        String result = controller.index("", "updated desc", "invalid", "", model, session);
+        String result = controller.index("", "updated desc", "invalid", "", "", model, session);
 
         assertEquals("list", result);
         verify(content).getList("updated desc", 1, "");
     }
 
+    @Test
+    void testIndex_KeysetPagination() {
+        when(session.getAttribute(Constants.SESSION_REGISTER_MESSAGE)).thenReturn(null);
+        when(content.isKeysetPagination()).thenReturn(true);
+        ListCursor.Page cursorPage = ListCursor.first("updated desc").page(new ArrayList<>(), 20);
+        when(content.searchListByCursor("updated desc", "", "", "test")).thenReturn(cursorPage);
+        when(content.getCursorPager(cursorPage, "", "updated desc", "test")).thenReturn(new PagerBean());
+
+        String result = controller.index("", "updated desc", "1", "test", "", model, session);
+
+        assertEquals("list", result);
+        verify(content).searchListByCursor("updated desc", "", "", "test");
+        verify(content, never()).searchList(anyString(), anyInt(), anyString(), anyString());
+    }
+
     @Test
     void testContent_NewContent() {
         when(setting.getDefaultPublishOn()).thenReturn("1");
@@ -158,7 +192,12 @@ class HomeControllerTest {
         templateData.put("content", "###element(10),###content###");
 
         when(content.doSearch("1")).thenReturn(templateData);
-        when(content.doSearch("10")).thenReturn(new HashMap<>());
+        HashMap<String, String> elementData = new HashMap<>();
+        elementData.put("id", "10");
+        elementData.put("title", "Header");
+        HashMap<String, HashMap<String, String>> elements = new HashMap<>();
+        elements.put("10", elementData);
+        when(content.doSearchByIds(List.of("10"))).thenReturn(elements);
         when(content.getAllList(anyString(), anyString(), anyString())).thenReturn(new ArrayList<>());
         when(setting.getAIGenerationVisible()).thenReturn("1");
 
@@ -226,9 +265,9 @@ class HomeControllerTest {
     void testUserList_WithoutRegisterMessage() {
         when(session.getAttribute(Constants.SESSION_REGISTER_MESSAGE)).thenReturn(null);
         when(user.getList(anyString(), anyInt())).thenReturn(new ArrayList<>());
-        when(user.getPager(anyInt(), anyString(), anyString())).thenReturn("");
+        when(user.getPager(anyInt(), anyString(), anyString())).thenReturn(new PagerBean());
 
-        String result = controller.userList("updated desc", "1", model, session);
+        String result = controller.userList("updated desc", "1", "", model, session);
 
         assertEquals("user-list", result);
         verify(model).addAttribute("registerMessage", "");
@@ -238,14 +277,28 @@ class HomeControllerTest {
     void testUserList_WithRegisterMessage() {
         when(session.getAttribute(Constants.SESSION_REGISTER_MESSAGE)).thenReturn("登録しました。");
         when(user.getList(anyString(), anyInt())).thenReturn(new ArrayList<>());
-        when(user.getPager(anyInt(), anyString(), anyString())).thenReturn("");
+        when(user.getPager(anyInt(), anyString(), anyString())).thenReturn(new PagerBean());
 
-        String result = controller.userList("updated desc", "1", model, session);
+        String result = controller.userList("updated desc", "1", "", model, session);
 
         assertEquals("user-list", result);
         verify(session).setAttribute(Constants.SESSION_REGISTER_MESSAGE, Constants.EMPTY_STRING);
     }
 
+    @Test
+    void testUserList_WithCursor() {
+        when(session.getAttribute(Constants.SESSION_REGISTER_MESSAGE)).thenReturn(null);
+        ListCursor.Page cursorPage = ListCursor.first("id").page(new ArrayList<>(), 20);
+        when(user.getListByCursor("id", "abc")).thenReturn(cursorPage);
+        when(user.getCursorPager(cursorPage, Constants.PATH_USER_LIST, "id")).thenReturn(new PagerBean());
+
+        String result = controller.userList("id", "1", "abc", model, session);
+
+        assertEquals("user-list", result);
+        verify(user).getListByCursor("id", "abc");
+        verify(user, never()).getList(anyString(), anyInt());
+    }
+
     @Test
     void testUser_NewUser() {
         String result = controller.user("", model);
@@ -351,7 +404,7 @@ class HomeControllerTest {
         when(session.getAttribute(Constants.SESSION_REGISTER_MESSAGE)).thenReturn(null);
         when(content.getList(anyString(), anyInt(), anyString())).thenThrow(new RuntimeException("DB Error"));
 
-        String result = controller.index("", "updated desc", "1", "", model, session);
+        String result = controller.index("", "updated desc", "1", "", "", model, session);
 
         assertEquals("list", result);
         verify(model).addAttribute("screenName", Constants.SCREEN_NAME_CONTENT);
@@ -362,7 +415,7 @@ class HomeControllerTest {
         when(session.getAttribute(Constants.SESSION_REGISTER_MESSAGE)).thenReturn(null);
         when(user.getList(anyString(), anyInt())).thenThrow(new RuntimeException("DB Error"));
 
-        String result = controller.userList("updated desc", "1", model, session);
+        String result = controller.userList("updated desc", "1", "", model, session);
 
         assertEquals("user-list", result);
         verify(model).addAttribute("registerMessage", "");
@@ -24,6 +24,7 @@ import com.example.skygarden.config.AppProperties;
 import com.example.skygarden.constants.Constants;
 import com.example.skygarden.mapper.ContentMapper;
 import com.example.skygarden.service.EmailService;
+import com.example.skygarden.service.FileMetadataService;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -45,6 +46,9 @@ class ImageControllerTest {
     @Mock
     private AppProperties.File fileProperties;
 
+    @Mock
+    private FileMetadataService fileMetadataService;
+
     @Mock
     private EmailService emailService;
 
@@ -83,6 +87,7 @@ class ImageControllerTest {
                 eq("test/image.jpg"), eq("Test Image"), anyString(), anyString(),
                 eq(Constants.CONTENT_TYPE_IMAGE), anyString(), anyString(),
                 anyString(), anyString(), eq(Constants.FLAG_NO));
+        verify(fileMetadataService).store(eq(file), any(Path.class));
     }
 
     @Test
@@ -20,6 +20,8 @@ import com.example.skygarden.config.AppProperties;
 import com.example.skygarden.config.AppProperties.File;
 import com.example.skygarden.constants.Constants;
 import com.example.skygarden.logic.Content;
+import com.example.skygarden.logic.HtmlShell;
+import com.example.skygarden.service.HtmlShellService;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -39,6 +41,9 @@ class PreviewControllerTest {
     @Mock
     private File file;
 
+    @Mock
+    private HtmlShellService htmlShellService;
+
     @Mock
     private HttpServletRequest request;
 
@@ -58,6 +63,8 @@ class PreviewControllerTest {
         when(response.getWriter()).thenReturn(printWriter);
         when(appProperties.getFile()).thenReturn(file);
         when(file.getPreviewFileName()).thenReturn("preview.html");
+        lenient().when(htmlShellService.getShell(anyString()))
+            .thenReturn(HtmlShell.parse("<title>###title###</title>###head###<body>###content###</body>"));
     }
 
     @Test
@@ -155,14 +162,15 @@ class PreviewControllerTest {
     @Test
     void testGetById_PreviewFileNotFound() throws IOException {
         when(content.previewContent(eq("Content"), eq(""))).thenReturn("Content");
-        // CommonProc.readFileが空文字列を返す場合、デフォルトHTMLが使用される
-        // 実際のファイル読み込みはCommonProcで行われるため、モックできない
+        // プレビューファイルが空の場合、デフォルトHTMLが使用される
+        when(htmlShellService.getShell(anyString())).thenReturn(HtmlShell.EMPTY);
 
         controller.getById("", "Title", "Head", "Content", request, response);
 
         printWriter.flush();
         String result = stringWriter.toString();
-        assertNotNull(result);
+        assertTrue(result.startsWith("<!DOCTYPE html>"));
+        assertTrue(result.contains("<title>Title</title>Head</head><body>Content</body>"));
         verify(response).setContentType("text/html; charset=UTF-8");
     }
 
@@ -174,7 +182,7 @@ class PreviewControllerTest {
 
         printWriter.flush();
         String result = stringWriter.toString();
-        assertNotNull(result);
+        assertEquals("<title>Test Title</title><style>test</style><body>Test Content</body>", result);
         verify(response).setContentType("text/html; charset=UTF-8");
         verify(response).setCharacterEncoding("UTF-8");
     }
@@ -202,4 +210,15 @@ class PreviewControllerTest {
         assertNotNull(result);
         verify(response).setContentType("text/html; charset=UTF-8");
     }
+
+    @Test
+    void testGetById_DollarAndBackslashInContent() throws IOException {
+        when(content.previewContent(eq("Price $1 \\n"), eq(""))).thenReturn("Price $1 \\n");
+
+        controller.getById("", "$title", "Head", "Price $1 \\n", request, response);
+
+        printWriter.flush();
+        String result = stringWriter.toString();
+        assertEquals("<title>$title</title>Head<body>Price $1 \\n</body>", result);
+    }
 }
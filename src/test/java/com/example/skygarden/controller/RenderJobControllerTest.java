@@ -0,0 +1,64 @@
+package com.example.skygarden.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.skygarden.bean.RenderJobStatus;
+import com.example.skygarden.service.RenderJobService;
+
+/**
+ * RenderJobControllerのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+class RenderJobControllerTest {
+
+    @Mock
+    private RenderJobService renderJob;
+
+    @InjectMocks
+    private RenderJobController controller;
+
+    @Test
+    void testGetStatus() {
+        RenderJobStatus status = new RenderJobStatus();
+        when(renderJob.getStatus()).thenReturn(status);
+
+        assertSame(status, controller.getStatus());
+    }
+
+    @Test
+    void testStart_WithIds() {
+        RenderJobStatus status = new RenderJobStatus();
+        when(renderJob.start(anyList())).thenReturn(status);
+
+        assertSame(status, controller.start("3, 5,,"));
+
+        verify(renderJob).start(List.of("3", "5"));
+    }
+
+    @Test
+    void testStart_Resume() {
+        when(renderJob.start(anyList())).thenReturn(new RenderJobStatus());
+
+        controller.start("");
+
+        verify(renderJob).start(List.of());
+    }
+
+    @Test
+    void testStop() {
+        RenderJobStatus status = new RenderJobStatus();
+        when(renderJob.stop()).thenReturn(status);
+
+        assertSame(status, controller.stop());
+    }
+}
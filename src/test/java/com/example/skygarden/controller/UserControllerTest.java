@@ -16,6 +16,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.example.skygarden.bean.PagerBean;
 import com.example.skygarden.bean.UserBean;
 import com.example.skygarden.bean.UserListBean;
 import com.example.skygarden.config.AppProperties;
@@ -164,7 +165,7 @@ class UserControllerTest {
         userList.add(user1);
 
         when(user.getList("id desc", 1)).thenReturn(userList);
-        when(user.getPager(1, Constants.PATH_USER_LIST, "id desc")).thenReturn("<li>1</li>");
+        when(user.getPager(1, Constants.PATH_USER_LIST, "id desc")).thenReturn(new PagerBean());
 
         UserListBean result = controller.getList("id desc", "1", request, response, session);
 
@@ -183,7 +184,7 @@ class UserControllerTest {
         when(request.getParameter("page")).thenReturn(null);
 
         when(user.getList("", 1)).thenReturn(new ArrayList<>());
-        when(user.getPager(1, Constants.PATH_USER_LIST, "")).thenReturn("");
+        when(user.getPager(1, Constants.PATH_USER_LIST, "")).thenReturn(new PagerBean());
 
         UserListBean result = controller.getList("", "1", request, response, session);
 
@@ -200,7 +201,7 @@ class UserControllerTest {
         when(request.getParameter("page")).thenReturn("invalid");
 
         when(user.getList("", 1)).thenReturn(new ArrayList<>());
-        when(user.getPager(1, Constants.PATH_USER_LIST, "")).thenReturn("");
+        when(user.getPager(1, Constants.PATH_USER_LIST, "")).thenReturn(new PagerBean());
 
         UserListBean result = controller.getList("", "1", request, response, session);
 
@@ -215,7 +216,7 @@ class UserControllerTest {
         when(request.getParameter("page")).thenReturn("2");
 
         when(user.getList("name", 2)).thenReturn(new ArrayList<>());
-        when(user.getPager(2, Constants.PATH_USER_LIST, "name")).thenReturn("");
+        when(user.getPager(2, Constants.PATH_USER_LIST, "name")).thenReturn(new PagerBean());
 
         UserListBean result = controller.getList("", "1", request, response, session);
 
@@ -231,7 +232,7 @@ class UserControllerTest {
         when(request.getParameter("page")).thenReturn("3");
 
         when(user.getList("", 3)).thenReturn(new ArrayList<>());
-        when(user.getPager(3, Constants.PATH_USER_LIST, "")).thenReturn("");
+        when(user.getPager(3, Constants.PATH_USER_LIST, "")).thenReturn(new PagerBean());
 
         UserListBean result = controller.getList("", "1", request, response, session);
 
@@ -247,7 +248,7 @@ class UserControllerTest {
         when(request.getParameter("page")).thenReturn(null);
 
         when(user.getList("id desc", 1)).thenReturn(new ArrayList<>());
-        when(user.getPager(1, Constants.PATH_USER_LIST, "id desc")).thenReturn("");
+        when(user.getPager(1, Constants.PATH_USER_LIST, "id desc")).thenReturn(new PagerBean());
 
         UserListBean result = controller.getList("id desc", "1", request, response, session);
 
@@ -264,7 +265,7 @@ class UserControllerTest {
         when(request.getParameter("page")).thenReturn(null);
 
         when(user.getList("", 1)).thenReturn(new ArrayList<>());
-        when(user.getPager(1, Constants.PATH_USER_LIST, "")).thenReturn("");
+        when(user.getPager(1, Constants.PATH_USER_LIST, "")).thenReturn(new PagerBean());
 
         UserListBean result = controller.getList("", "1", request, response, session);
 
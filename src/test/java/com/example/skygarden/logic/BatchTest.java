@@ -255,7 +255,7 @@ class BatchTest {
 
         batch.unPublishedBatch();
 
-        verify(mapper).delete(Constants.TABLE_CONTENT_PUBLIC, "1");
+        verify(mapper).delete(Constants.TABLE_CONTENT_PUBLIC, "1", null);
         verify(mapper).clearScheduleUnpublished("1");
     }
 
@@ -273,8 +273,8 @@ class BatchTest {
 
         batch.unPublishedBatch();
 
-        verify(mapper).delete(Constants.TABLE_CONTENT_PUBLIC, "1");
-        verify(mapper).delete(Constants.TABLE_CONTENT_PUBLIC, "2");
+        verify(mapper).delete(Constants.TABLE_CONTENT_PUBLIC, "1", null);
+        verify(mapper).delete(Constants.TABLE_CONTENT_PUBLIC, "2", null);
         verify(mapper).clearScheduleUnpublished("1");
         verify(mapper).clearScheduleUnpublished("2");
     }
@@ -287,7 +287,7 @@ class BatchTest {
 
         batch.unPublishedBatch();
 
-        verify(mapper, never()).delete(anyString(), anyString());
+        verify(mapper, never()).delete(anyString(), anyString(), any());
         verify(mapper, never()).clearScheduleUnpublished(anyString());
     }
 
@@ -297,7 +297,7 @@ class BatchTest {
         scheduleList.add(scheduleItem);
 
         when(mapper.getScheduleUnpublishedIds(anyString())).thenReturn(scheduleList);
-        doThrow(new RuntimeException("DB Error")).when(mapper).delete(Constants.TABLE_CONTENT_PUBLIC, "1");
+        doThrow(new RuntimeException("DB Error")).when(mapper).delete(Constants.TABLE_CONTENT_PUBLIC, "1", null);
 
         batch.unPublishedBatch();
 
@@ -76,6 +76,21 @@ class CommonProcTest {
         assertTrue(result.matches("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}"));
     }
 
+    @Test
+    void testToEpochMillis() throws Exception {
+        long expected = new SimpleDateFormat("yyyy-MM-dd HH:mm").parse("2024-01-02 03:04").getTime();
+        assertEquals(expected, CommonProc.toEpochMillis("2024-01-02 03:04"));
+        // 秒以降は切り捨てる
+        assertEquals(expected, CommonProc.toEpochMillis("2024-01-02 03:04:59"));
+    }
+
+    @Test
+    void testToEpochMillis_Invalid() {
+        assertEquals(-1, CommonProc.toEpochMillis(null));
+        assertEquals(-1, CommonProc.toEpochMillis(""));
+        assertEquals(-1, CommonProc.toEpochMillis("not a date value"));
+    }
+
     @Test
     void testCreateNow_CurrentTime() {
         String result1 = CommonProc.createNow();
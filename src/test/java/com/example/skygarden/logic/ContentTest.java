@@ -11,22 +11,38 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.example.skygarden.bean.DirectoryNodeBean;
+import com.example.skygarden.bean.PageModel;
+import com.example.skygarden.bean.PagerBean;
+import com.example.skygarden.bean.SnippetBean;
 import com.example.skygarden.config.AppProperties;
 import com.example.skygarden.config.AppProperties.Pagination;
 import com.example.skygarden.constants.Constants;
 import com.example.skygarden.mapper.ContentMapper;
+import com.example.skygarden.service.AssetFingerprintService;
+import com.example.skygarden.service.AssetMinifyService;
+import com.example.skygarden.service.ContentCountService;
+import com.example.skygarden.service.ContentSearchIndex;
 import com.example.skygarden.service.EmailService;
+import com.example.skygarden.service.FileMetadataService;
+import com.example.skygarden.service.MovieShortcodeHandler;
+import com.example.skygarden.service.ShortcodeHandler;
+import com.example.skygarden.service.ShortcodeService;
+import com.example.skygarden.service.TemplateLayoutService;
+import com.example.skygarden.service.UrlRoutingTable;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -60,6 +76,30 @@ class ContentTest {
     @Mock
     private HttpSession session;
 
+    @Spy
+    private TemplateLayoutService templateLayoutService = new TemplateLayoutService();
+
+    @Spy
+    private ShortcodeService shortcodeService = new ShortcodeService();
+
+    @Spy
+    private AssetMinifyService assetMinifyService = new AssetMinifyService();
+
+    @Spy
+    private AssetFingerprintService assetFingerprintService = new AssetFingerprintService();
+
+    @Spy
+    private ContentCountService contentCountService = new ContentCountService();
+
+    @Mock
+    private UrlRoutingTable routingTable;
+
+    @Mock
+    private ContentSearchIndex contentSearchIndex;
+
+    @Mock
+    private FileMetadataService fileMetadataService;
+
     @InjectMocks
     private Content content;
 
@@ -67,6 +107,16 @@ class ContentTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(shortcodeService, "mapper", mapper);
+        ReflectionTestUtils.setField(shortcodeService, "handlers", List.<ShortcodeHandler>of(new MovieShortcodeHandler()));
+        ReflectionTestUtils.setField(assetMinifyService, "appProperties", appProperties);
+        ReflectionTestUtils.setField(assetFingerprintService, "mapper", mapper);
+        ReflectionTestUtils.setField(assetFingerprintService, "assetMinifyService", assetMinifyService);
+        ReflectionTestUtils.setField(contentCountService, "mapper", mapper);
+        ReflectionTestUtils.setField(contentCountService, "appProperties", appProperties);
+        ReflectionTestUtils.setField(assetFingerprintService, "routingTable", routingTable);
+        ReflectionTestUtils.setField(assetFingerprintService, "appProperties", appProperties);
+        when(appProperties.getRender()).thenReturn(new AppProperties.Render());
         // appPropertiesとpaginationのモックは各テストで必要に応じて設定
         contentData = new HashMap<>();
         contentData.put("id", "1");
@@ -114,6 +164,33 @@ class ContentTest {
         verify(mapper).search("", Constants.TABLE_CONTENT);
     }
 
+    @Test
+    void testDoSearchByIds() {
+        HashMap<String, String> element10 = new HashMap<>();
+        element10.put("id", "10");
+        element10.put("title", "Header");
+        HashMap<String, String> element20 = new HashMap<>();
+        element20.put("id", "20");
+        element20.put("title", "Footer");
+        when(mapper.searchByIds(List.of("10", "20", "30"), Constants.TABLE_CONTENT))
+            .thenReturn(List.of(element10, element20));
+
+        HashMap<String, HashMap<String, String>> result = content.doSearchByIds(List.of("10", "20", "30"));
+
+        assertEquals(2, result.size());
+        assertEquals("Header", result.get("10").get("title"));
+        assertEquals("Footer", result.get("20").get("title"));
+        assertNull(result.get("30"));
+    }
+
+    @Test
+    void testDoSearchByIds_Empty() {
+        HashMap<String, HashMap<String, String>> result = content.doSearchByIds(new ArrayList<>());
+
+        assertTrue(result.isEmpty());
+        verify(mapper, never()).searchByIds(anyList(), anyString());
+    }
+
     @Test
     void testGetList_FirstPage() {
         when(appProperties.getPagination()).thenReturn(pagination);
@@ -194,6 +271,66 @@ class ContentTest {
         assertNotNull(result);
     }
 
+    @Test
+    void testGetListByCursor_FirstPage() {
+        when(appProperties.getPagination()).thenReturn(pagination);
+        when(pagination.getPageSize()).thenReturn(20);
+
+        List<HashMap<String, String>> expected = new ArrayList<>();
+        expected.add(contentData);
+        when(mapper.selectAllKeyset(Constants.TABLE_CONTENT, "", "updated", true, null, null, 21)).thenReturn(expected);
+
+        ListCursor.Page result = content.getListByCursor("updated desc", "", "");
+
+        assertEquals(1, result.getResults().size());
+        assertNull(result.getNextCursor());
+        assertNull(result.getPrevCursor());
+    }
+
+    @Test
+    void testGetListByCursor_InvalidSortUsesDefault() {
+        when(appProperties.getPagination()).thenReturn(pagination);
+        when(pagination.getPageSize()).thenReturn(20);
+
+        content.getListByCursor("id; delete from content", "", "");
+
+        verify(mapper).selectAllKeyset(Constants.TABLE_CONTENT, "", "updated", true, null, null, 21);
+    }
+
+    @Test
+    void testSearchListByCursor_WithCursor() {
+        when(appProperties.getPagination()).thenReturn(pagination);
+        when(pagination.getPageSize()).thenReturn(1);
+
+        List<HashMap<String, String>> rows = new ArrayList<>();
+        HashMap<String, String> row1 = new HashMap<>();
+        row1.put("id", "3");
+        row1.put("title", "b");
+        rows.add(row1);
+        rows.add(new HashMap<>(row1));
+        String cursor = ListCursor.first("title").page(rows, 1).getNextCursor();
+
+        content.searchListByCursor("title", cursor, "", "test");
+
+        verify(mapper).searchByKeywordKeyset(Constants.TABLE_CONTENT, "", "test", "title", false, "b", 3L, 2);
+    }
+
+    @Test
+    void testGetCursorPager() {
+        List<HashMap<String, String>> rows = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            HashMap<String, String> row = new HashMap<>();
+            row.put("id", String.valueOf(i));
+            rows.add(row);
+        }
+        ListCursor.Page page = ListCursor.first("id").page(rows, 2);
+
+        PagerBean result = content.getCursorPager(page, "", "id", "a b");
+
+        assertEquals("/?mode=&cursor=" + page.getNextCursor() + "&sort=id&keyword=a+b", result.getNextUrl());
+        assertEquals("", result.getPrevUrl());
+    }
+
     @Test
     void testGetSearchPager_FirstPage() {
         when(appProperties.getPagination()).thenReturn(pagination);
@@ -201,13 +338,13 @@ class ContentTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSizeByKeyword(Constants.TABLE_CONTENT, "", "test")).thenReturn(50);
 
-        String result = content.getSearchPager(1, "", "updated desc", "test");
+        PagerBean result = content.getSearchPager(1, "", "updated desc", "test");
 
         assertNotNull(result);
-        assertFalse(result.contains("Previous"));
-        assertTrue(result.contains("1"));
-        assertTrue(result.contains("Next"));
-        assertTrue(result.contains("test"));
+        assertEquals("", result.getPrevUrl());
+        assertEquals(1, result.getPage());
+        assertFalse(result.getNextUrl().isEmpty());
+        assertTrue(result.getNextUrl().contains("&keyword=test"));
     }
 
     @Test
@@ -217,12 +354,12 @@ class ContentTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSizeByKeyword(Constants.TABLE_CONTENT, "", "keyword")).thenReturn(100);
 
-        String result = content.getSearchPager(3, "", "id", "keyword");
+        PagerBean result = content.getSearchPager(3, "", "id", "keyword");
 
         assertNotNull(result);
-        assertTrue(result.contains("Previous"));
-        assertTrue(result.contains("3"));
-        assertTrue(result.contains("Next"));
+        assertFalse(result.getPrevUrl().isEmpty());
+        assertEquals(3, result.getPage());
+        assertFalse(result.getNextUrl().isEmpty());
     }
 
     @Test
@@ -232,11 +369,11 @@ class ContentTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSizeByKeyword(Constants.TABLE_CONTENT, "", "test")).thenReturn(100);
 
-        String result = content.getSearchPager(5, "", "id", "test");
+        PagerBean result = content.getSearchPager(5, "", "id", "test");
 
         assertNotNull(result);
-        assertTrue(result.contains("Previous"));
-        assertFalse(result.contains("Next"));
+        assertFalse(result.getPrevUrl().isEmpty());
+        assertEquals("", result.getNextUrl());
     }
 
     @Test
@@ -246,11 +383,11 @@ class ContentTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSizeByKeyword(Constants.TABLE_CONTENT, "", "test")).thenReturn(0);
 
-        String result = content.getSearchPager(1, "", "id", "test");
+        PagerBean result = content.getSearchPager(1, "", "id", "test");
 
         assertNotNull(result);
-        assertFalse(result.contains("Previous"));
-        assertFalse(result.contains("Next"));
+        assertEquals("", result.getPrevUrl());
+        assertEquals("", result.getNextUrl());
     }
 
     @Test
@@ -260,11 +397,185 @@ class ContentTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSizeByKeyword(Constants.TABLE_CONTENT, "", "test & keyword")).thenReturn(10);
 
-        String result = content.getSearchPager(1, "", "id", "test & keyword");
+        PagerBean result = content.getSearchPager(1, "", "id", "test & keyword");
 
         assertNotNull(result);
     }
 
+    @Test
+    void testGetSearchPager_OverCountLimit() {
+        when(appProperties.getPagination()).thenReturn(pagination);
+        when(pagination.getPageSize()).thenReturn(20);
+        when(pagination.getSearchCountLimit()).thenReturn(1000);
+        when(mapper.getContentSizeByKeywordLimit(Constants.TABLE_CONTENT, "", "test", 1001)).thenReturn(1001);
+
+        PagerBean result = content.getSearchPager(50, "", "id", "test");
+
+        assertEquals("1000+", result.getCountLabel());
+        assertTrue(result.getNextUrl().contains("page=51"));
+        verify(mapper, never()).getContentSizeByKeyword(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void testGetSearchPager_OverCountLimitBeyondLimitPage() {
+        when(appProperties.getPagination()).thenReturn(pagination);
+        when(pagination.getPageSize()).thenReturn(20);
+        when(pagination.getSearchCountLimit()).thenReturn(1000);
+        when(mapper.getContentSizeByKeywordLimit(Constants.TABLE_CONTENT, "", "test", 1201)).thenReturn(1201);
+
+        PagerBean result = content.getSearchPager(60, "", "id", "test");
+
+        // 表示中のページまで数えた件数を表示する
+        assertEquals("1200+", result.getCountLabel());
+    }
+
+    @Test
+    void testGetSearchPager_UnderCountLimit() {
+        when(appProperties.getPagination()).thenReturn(pagination);
+        when(pagination.getPageSize()).thenReturn(20);
+        when(pagination.getSearchCountLimit()).thenReturn(1000);
+        when(mapper.getContentSizeByKeywordLimit(Constants.TABLE_CONTENT, "", "test", 1001)).thenReturn(30);
+
+        PagerBean result = content.getSearchPager(2, "", "id", "test");
+
+        assertEquals("", result.getCountLabel());
+        assertEquals("", result.getNextUrl());
+    }
+
+    @Test
+    void testSearchList_UsesSearchIndex() {
+        when(appProperties.getPagination()).thenReturn(pagination);
+        when(pagination.getPageSize()).thenReturn(20);
+        when(contentSearchIndex.isLoaded()).thenReturn(true);
+        when(contentSearchIndex.search("", "test", "", 20, 20))
+            .thenReturn(new ContentSearchIndex.Result(List.of("3", "1", "2"), 43));
+        HashMap<String, String> row1 = new HashMap<>();
+        row1.put("id", "1");
+        HashMap<String, String> row3 = new HashMap<>();
+        row3.put("id", "3");
+        when(mapper.selectSummariesByIds(List.of("3", "1", "2"), Constants.TABLE_CONTENT)).thenReturn(List.of(row1, row3));
+
+        List<HashMap<String, String>> result = content.searchList("", 2, "", "test");
+
+        // インデックスの順（関連度順）に並べ、取得できなかったIDは除く
+        assertEquals(2, result.size());
+        assertEquals("3", result.get(0).get("id"));
+        assertEquals("1", result.get(1).get("id"));
+        verify(mapper, never()).searchByKeyword(anyString(), anyString(), anyString(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testSearchListByCursor_UsesSearchIndex() {
+        when(appProperties.getPagination()).thenReturn(pagination);
+        when(pagination.getPageSize()).thenReturn(1);
+        when(contentSearchIndex.isLoaded()).thenReturn(true);
+        List<HashMap<String, String>> rows = new ArrayList<>();
+        HashMap<String, String> row1 = new HashMap<>();
+        row1.put("id", "3");
+        row1.put("title", "b");
+        rows.add(row1);
+        rows.add(new HashMap<>(row1));
+        String cursor = ListCursor.first("title").page(rows, 1).getNextCursor();
+        when(contentSearchIndex.searchAfter("", "test", "title", false, "b", 3L, 2)).thenReturn(List.of("5", "4"));
+        HashMap<String, String> row4 = new HashMap<>();
+        row4.put("id", "4");
+        row4.put("title", "d");
+        HashMap<String, String> row5 = new HashMap<>();
+        row5.put("id", "5");
+        row5.put("title", "c");
+        when(mapper.selectSummariesByIds(List.of("5", "4"), Constants.TABLE_CONTENT)).thenReturn(List.of(row4, row5));
+
+        ListCursor.Page result = content.searchListByCursor("title", cursor, "", "test");
+
+        assertEquals(1, result.getResults().size());
+        assertEquals("5", result.getResults().get(0).get("id"));
+        assertNotNull(result.getNextCursor());
+        verify(mapper, never()).searchByKeywordKeyset(anyString(), anyString(), anyString(), anyString(), anyBoolean(),
+                any(), any(), anyInt());
+    }
+
+    @Test
+    void testSearchList_SearchIndexNoMatch() {
+        when(appProperties.getPagination()).thenReturn(pagination);
+        when(pagination.getPageSize()).thenReturn(20);
+        when(contentSearchIndex.isLoaded()).thenReturn(true);
+        when(contentSearchIndex.search("", "none", "id", 0, 20)).thenReturn(new ContentSearchIndex.Result(new ArrayList<>(), 0));
+
+        List<HashMap<String, String>> result = content.searchList("id", 1, "", "none");
+
+        assertTrue(result.isEmpty());
+        verify(mapper, never()).selectSummariesByIds(any(), anyString());
+    }
+
+    @Test
+    void testGetSearchSnippets_FromSearchIndex() {
+        when(appProperties.getSearch()).thenReturn(new AppProperties.Search());
+        when(contentSearchIndex.isLoaded()).thenReturn(true);
+        SnippetBean snippet = new SnippetBean();
+        snippet.setText("東京で開催します");
+        HashMap<String, SnippetBean> indexed = new HashMap<>();
+        indexed.put("1", snippet);
+        when(contentSearchIndex.snippets(List.of("1"), "東京", 120)).thenReturn(indexed);
+
+        HashMap<String, SnippetBean> result = content.getSearchSnippets(List.of(contentData), "東京");
+
+        assertSame(snippet, result.get("1"));
+    }
+
+    @Test
+    void testGetSearchSnippets_FromSnippetSource() {
+        when(appProperties.getSearch()).thenReturn(new AppProperties.Search());
+        when(contentSearchIndex.isLoaded()).thenReturn(false);
+        HashMap<String, String> row = new HashMap<>();
+        row.put("id", "5");
+        row.put("title", "イベント");
+        row.put("snippet_source", "iv class=\"a\"><p>東京で開催します</p><di");
+
+        HashMap<String, SnippetBean> result = content.getSearchSnippets(List.of(row), "東京");
+
+        // 途中で切れたタグを除いた本文の抜粋から生成し、一覧の行からは取り除く
+        assertEquals("東京で開催します", result.get("5").getText());
+        assertEquals(0, result.get("5").getHighlights().get(0).getStart());
+        assertEquals(2, result.get("5").getHighlights().get(0).getEnd());
+        assertFalse(row.containsKey("snippet_source"));
+        verify(contentSearchIndex, never()).snippets(any(), anyString(), anyInt());
+    }
+
+    @Test
+    void testGetSearchSnippets_EmptyResults() {
+        HashMap<String, SnippetBean> result = content.getSearchSnippets(new ArrayList<>(), "東京");
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void testGetSearchPager_UsesSearchIndexCount() {
+        when(appProperties.getPagination()).thenReturn(pagination);
+        when(pagination.getPageSize()).thenReturn(20);
+        when(pagination.getSearchCountLimit()).thenReturn(1000);
+        when(contentSearchIndex.isLoaded()).thenReturn(true);
+        when(contentSearchIndex.count("", "test")).thenReturn(2500);
+
+        PagerBean result = content.getSearchPager(1, "", "id", "test");
+
+        // インデックスの件数は上限で打ち切らない
+        assertEquals(125, result.getTotalPages());
+        assertEquals("", result.getCountLabel());
+        verify(mapper, never()).getContentSizeByKeywordLimit(anyString(), anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void testGetSearchPager_PageBeyondCountLimit() {
+        when(appProperties.getPagination()).thenReturn(pagination);
+        when(pagination.getPageSize()).thenReturn(20);
+        when(pagination.getSearchCountLimit()).thenReturn(100);
+
+        content.getSearchPager(8, "", "id", "test");
+
+        // 表示中のページの次の行まで数え、次のページの有無を判定する
+        verify(mapper).getContentSizeByKeywordLimit(Constants.TABLE_CONTENT, "", "test", 161);
+    }
+
     @Test
     void testGetAllList() {
         List<HashMap<String, String>> expected = new ArrayList<>();
@@ -433,12 +744,63 @@ class ContentTest {
 
         when(mapper.search("1", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(contentWithTemplate);
         when(mapper.search("2", Constants.TABLE_CONTENT)).thenReturn(templateData);
-        when(mapper.search("10", Constants.TABLE_CONTENT)).thenReturn(element10);
-        when(mapper.search("20", Constants.TABLE_CONTENT)).thenReturn(element20);
+        element10.put("id", "10");
+        element20.put("id", "20");
+        when(mapper.searchByIds(List.of("10", "20"), Constants.TABLE_CONTENT)).thenReturn(List.of(element10, element20));
 
         String result = content.displayContent("1");
 
         assertNotNull(result);
+        assertEquals("<header>Header</header>Main Content<footer>Footer</footer>", result);
+        verify(mapper, times(1)).searchByIds(anyList(), anyString());
+        verify(mapper, never()).search("10", Constants.TABLE_CONTENT);
+    }
+
+    @Test
+    void testDisplayContent_WithTemplate_ReusesCompiledLayout() {
+        HashMap<String, String> contentWithTemplate = new HashMap<>();
+        contentWithTemplate.put("id", "1");
+        contentWithTemplate.put("template", "2");
+        contentWithTemplate.put("content", "Main Content");
+
+        HashMap<String, String> templateData = new HashMap<>();
+        templateData.put("id", "2");
+        templateData.put("updated", "2024-01-01 00:00");
+        templateData.put("content", "###element(10),###content###");
+
+        HashMap<String, String> element10 = new HashMap<>();
+        element10.put("content", "<header>Header</header>");
+
+        when(mapper.search("1", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(contentWithTemplate);
+        when(mapper.search("2", Constants.TABLE_CONTENT)).thenReturn(templateData);
+        element10.put("id", "10");
+        when(mapper.searchByIds(List.of("10"), Constants.TABLE_CONTENT)).thenReturn(List.of(element10));
+
+        String first = content.displayContent("1");
+        String second = content.displayContent("1");
+
+        assertEquals("<header>Header</header>Main Content", first);
+        assertEquals(first, second);
+        assertEquals(1, templateLayoutService.size());
+    }
+
+    @Test
+    void testDisplayContent_WithTemplate_MissingElement() {
+        HashMap<String, String> contentWithTemplate = new HashMap<>();
+        contentWithTemplate.put("id", "1");
+        contentWithTemplate.put("template", "2");
+        contentWithTemplate.put("content", "Main Content");
+
+        HashMap<String, String> templateData = new HashMap<>();
+        templateData.put("content", "###element(99),###content###");
+
+        when(mapper.search("1", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(contentWithTemplate);
+        when(mapper.search("2", Constants.TABLE_CONTENT)).thenReturn(templateData);
+        when(mapper.searchByIds(List.of("99"), Constants.TABLE_CONTENT)).thenReturn(List.of());
+
+        String result = content.displayContent("1");
+
+        assertEquals("Main Content", result);
     }
 
     @Test
@@ -453,7 +815,7 @@ class ContentTest {
         movieData.put("content", "dQw4w9WgXcQ");
 
         when(mapper.search("1", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(contentWithMovie);
-        when(mapper.search("11", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(movieData);
+        when(mapper.searchByIds(List.of("11"), Constants.TABLE_CONTENT_PUBLIC)).thenReturn(List.of(movieData));
 
         String result = content.displayContent("1");
 
@@ -474,7 +836,7 @@ class ContentTest {
         movieData.put("content", "dQw4w9WgXcQ");
 
         when(mapper.search("1", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(contentWithMovie);
-        when(mapper.search("11", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(movieData);
+        when(mapper.searchByIds(List.of("11"), Constants.TABLE_CONTENT_PUBLIC)).thenReturn(List.of(movieData));
 
         String result = content.displayContent("1");
 
@@ -495,7 +857,7 @@ class ContentTest {
         movieData.put("content", "dQw4w9WgXcQ");
 
         when(mapper.search("1", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(contentWithMovie);
-        when(mapper.search("11", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(movieData);
+        when(mapper.searchByIds(List.of("11"), Constants.TABLE_CONTENT_PUBLIC)).thenReturn(List.of(movieData));
 
         String result = content.displayContent("1");
 
@@ -516,7 +878,7 @@ class ContentTest {
         movieData.put("content", "dQw4w9WgXcQ");
 
         when(mapper.search("1", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(contentWithMovie);
-        when(mapper.search("11", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(movieData);
+        when(mapper.searchByIds(List.of("11"), Constants.TABLE_CONTENT_PUBLIC)).thenReturn(List.of(movieData));
 
         String result = content.displayContent("1");
 
@@ -532,7 +894,7 @@ class ContentTest {
         contentWithMovie.put("content", "Test [movie id=999] Content");
 
         when(mapper.search("1", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(contentWithMovie);
-        when(mapper.search("999", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(null);
+        when(mapper.searchByIds(List.of("999"), Constants.TABLE_CONTENT_PUBLIC)).thenReturn(List.of());
 
         String result = content.displayContent("1");
 
@@ -554,7 +916,8 @@ class ContentTest {
 
         when(mapper.search("1", "content_public")).thenReturn(contentData);
         when(mapper.search("1", Constants.TABLE_CONTENT)).thenReturn(templateData);
-        when(mapper.search("999", Constants.TABLE_CONTENT)).thenReturn(emptyElement);
+        emptyElement.put("id", "999");
+        when(mapper.searchByIds(List.of("999"), Constants.TABLE_CONTENT)).thenReturn(List.of(emptyElement));
 
         String result = content.displayContent("1");
 
@@ -598,8 +961,9 @@ class ContentTest {
         element20.put("content", "<footer>Footer</footer>");
 
         when(mapper.search("2", Constants.TABLE_CONTENT)).thenReturn(templateData);
-        when(mapper.search("10", Constants.TABLE_CONTENT)).thenReturn(element10);
-        when(mapper.search("20", Constants.TABLE_CONTENT)).thenReturn(element20);
+        element10.put("id", "10");
+        element20.put("id", "20");
+        when(mapper.searchByIds(List.of("10", "20"), Constants.TABLE_CONTENT)).thenReturn(List.of(element10, element20));
 
         String result = content.previewContent("Main Content", "2");
 
@@ -613,7 +977,7 @@ class ContentTest {
         movieData.put("type", Constants.CONTENT_TYPE_MOVIE);
         movieData.put("content", "dQw4w9WgXcQ");
 
-        when(mapper.search("11", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(movieData);
+        when(mapper.searchByIds(List.of("11"), Constants.TABLE_CONTENT_PUBLIC)).thenReturn(List.of(movieData));
 
         String result = content.previewContent("Test [movie id=11] Content", null);
 
@@ -627,12 +991,12 @@ class ContentTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSize(Constants.TABLE_CONTENT, "")).thenReturn(50);
 
-        String result = content.getPager(1, "", "updated desc");
+        PagerBean result = content.getPager(1, "", "updated desc");
 
         assertNotNull(result);
-        assertFalse(result.contains("Previous"));
-        assertTrue(result.contains("1"));
-        assertTrue(result.contains("Next"));
+        assertEquals("", result.getPrevUrl());
+        assertEquals(1, result.getPage());
+        assertFalse(result.getNextUrl().isEmpty());
     }
 
     @Test
@@ -641,12 +1005,12 @@ class ContentTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSize(Constants.TABLE_CONTENT, "")).thenReturn(100);
 
-        String result = content.getPager(3, "", "id");
+        PagerBean result = content.getPager(3, "", "id");
 
         assertNotNull(result);
-        assertTrue(result.contains("Previous"));
-        assertTrue(result.contains("3"));
-        assertTrue(result.contains("Next"));
+        assertFalse(result.getPrevUrl().isEmpty());
+        assertEquals(3, result.getPage());
+        assertFalse(result.getNextUrl().isEmpty());
     }
 
     @Test
@@ -655,11 +1019,11 @@ class ContentTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSize(Constants.TABLE_CONTENT, "")).thenReturn(100);
 
-        String result = content.getPager(5, "", "id");
+        PagerBean result = content.getPager(5, "", "id");
 
         assertNotNull(result);
-        assertTrue(result.contains("Previous"));
-        assertFalse(result.contains("Next"));
+        assertFalse(result.getPrevUrl().isEmpty());
+        assertEquals("", result.getNextUrl());
     }
 
     @Test
@@ -668,11 +1032,23 @@ class ContentTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSize(Constants.TABLE_CONTENT, "")).thenReturn(0);
 
-        String result = content.getPager(1, "", "id");
+        PagerBean result = content.getPager(1, "", "id");
 
         assertNotNull(result);
-        assertFalse(result.contains("Previous"));
-        assertFalse(result.contains("Next"));
+        assertEquals("", result.getPrevUrl());
+        assertEquals("", result.getNextUrl());
+    }
+
+    @Test
+    void testGetPager_CountCached() {
+        when(appProperties.getPagination()).thenReturn(pagination);
+        when(pagination.getPageSize()).thenReturn(20);
+        when(mapper.getContentSize(Constants.TABLE_CONTENT, "")).thenReturn(50);
+
+        content.getPager(1, "", "id");
+        content.getPager(2, "", "id");
+
+        verify(mapper, times(1)).getContentSize(Constants.TABLE_CONTENT, "");
     }
 
     @Test
@@ -1301,11 +1677,43 @@ class ContentTest {
         boolean result = content.doDelete("1", "", response, session);
 
         assertTrue(result);
-        verify(mapper).delete(Constants.TABLE_CONTENT, "1");
-        verify(mapper).delete(Constants.TABLE_CONTENT_PUBLIC, "1");
+        verify(mapper).delete(eq(Constants.TABLE_CONTENT), eq("1"), any());
+        verify(mapper).delete(eq(Constants.TABLE_CONTENT_PUBLIC), eq("1"), any());
         verify(session).setAttribute(Constants.SESSION_REGISTER_MESSAGE, Constants.MESSAGE_DELETE_SUCCESS);
     }
 
+    @Test
+    void testDoDelete_PassesTypeToEvent() throws IOException {
+        when(mapper.searchContentByAttribute("1", "type", Constants.TABLE_CONTENT)).thenReturn(Constants.CONTENT_TYPE_IMAGE);
+        when(mapper.searchContentByAttribute("1", "id", Constants.TABLE_CONTENT_PUBLIC)).thenReturn("1");
+
+        content.doDelete("1", Constants.CONTENT_TYPE_IMAGE, response, session);
+
+        // 削除のイベントにタイプを含め、件数はイベントから減らす
+        verify(mapper).delete(Constants.TABLE_CONTENT, "1", Constants.CONTENT_TYPE_IMAGE);
+        verify(mapper).delete(Constants.TABLE_CONTENT_PUBLIC, "1", Constants.CONTENT_TYPE_IMAGE);
+    }
+
+    @Test
+    void testDoDelete_DeletesFileMetadata() throws IOException {
+        when(mapper.searchContentByAttribute("1", "type", Constants.TABLE_CONTENT)).thenReturn(Constants.CONTENT_TYPE_FILE);
+        when(mapper.searchContentByAttribute("1", "content", Constants.TABLE_CONTENT)).thenReturn("20240101_doc.pdf");
+
+        content.doDelete("1", Constants.CONTENT_TYPE_FILE, response, session);
+
+        verify(fileMetadataService).delete("20240101_doc.pdf");
+    }
+
+    @Test
+    void testDoDelete_ContentKeepsFileMetadata() throws IOException {
+        when(mapper.searchContentByAttribute("1", "type", Constants.TABLE_CONTENT)).thenReturn("");
+
+        content.doDelete("1", "", response, session);
+
+        verify(mapper, never()).searchContentByAttribute("1", "content", Constants.TABLE_CONTENT);
+        verify(fileMetadataService).delete(null);
+    }
+
     @Test
     void testDoDelete_NoPublicContent() throws IOException {
         when(mapper.searchContentByAttribute("1", "id", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(null);
@@ -1313,26 +1721,26 @@ class ContentTest {
         boolean result = content.doDelete("1", "", response, session);
 
         assertTrue(result);
-        verify(mapper).delete(Constants.TABLE_CONTENT, "1");
-        verify(mapper, never()).delete(Constants.TABLE_CONTENT_PUBLIC, "1");
+        verify(mapper).delete(eq(Constants.TABLE_CONTENT), eq("1"), any());
+        verify(mapper, never()).delete(eq(Constants.TABLE_CONTENT_PUBLIC), eq("1"), any());
     }
 
     @Test
     void testDoDelete_PublicContentWithEmptyId() throws IOException {
         when(mapper.searchContentByAttribute("1", "id", "content_public")).thenReturn("");
-        doNothing().when(mapper).delete(anyString(), anyString());
+        doNothing().when(mapper).delete(anyString(), anyString(), any());
         doNothing().when(response).sendRedirect(anyString());
 
         boolean result = content.doDelete("1", "content", response, session);
 
         assertTrue(result);
-        verify(mapper).delete(Constants.TABLE_CONTENT, "1");
-        verify(mapper, never()).delete(Constants.TABLE_CONTENT_PUBLIC, "1");
+        verify(mapper).delete(eq(Constants.TABLE_CONTENT), eq("1"), any());
+        verify(mapper, never()).delete(eq(Constants.TABLE_CONTENT_PUBLIC), eq("1"), any());
     }
 
     @Test
     void testDoDelete_Exception() throws IOException {
-        doThrow(new RuntimeException("DB Error")).when(mapper).delete(Constants.TABLE_CONTENT, "1");
+        doThrow(new RuntimeException("DB Error")).when(mapper).delete(eq(Constants.TABLE_CONTENT), eq("1"), any());
 
         boolean result = content.doDelete("1", "", response, session);
 
@@ -1348,7 +1756,7 @@ class ContentTest {
         boolean result = content.doDelete("1", "", response, session);
 
         assertTrue(result);
-        verify(mapper).delete(Constants.TABLE_CONTENT, "1");
+        verify(mapper).delete(eq(Constants.TABLE_CONTENT), eq("1"), any());
     }
 
     @Test
@@ -1474,7 +1882,8 @@ class ContentTest {
 
         when(mapper.search("1", "content_public")).thenReturn(contentData);
         when(mapper.search("1", Constants.TABLE_CONTENT)).thenReturn(templateData);
-        when(mapper.search("10", Constants.TABLE_CONTENT)).thenReturn(elementData);
+        elementData.put("id", "10");
+        when(mapper.searchByIds(List.of("10"), Constants.TABLE_CONTENT)).thenReturn(List.of(elementData));
 
         String result = content.displayContent("1");
 
@@ -1490,21 +1899,26 @@ class ContentTest {
         contentData.put("content", "Video 1: [movie id=1] Video 2: [movie id=2]");
 
         HashMap<String, String> movie1 = new HashMap<>();
+        movie1.put("id", "1");
         movie1.put("type", Constants.CONTENT_TYPE_MOVIE);
         movie1.put("content", "video1");
 
         HashMap<String, String> movie2 = new HashMap<>();
+        movie2.put("id", "2");
         movie2.put("type", Constants.CONTENT_TYPE_MOVIE);
         movie2.put("content", "video2");
 
-        when(mapper.search("1", "content_public")).thenReturn(contentData);
-        when(mapper.search("1", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(movie1);
-        when(mapper.search("2", Constants.TABLE_CONTENT_PUBLIC)).thenReturn(movie2);
+        when(mapper.search("5", "content_public")).thenReturn(contentData);
+        when(mapper.searchByIds(List.of("1", "2"), Constants.TABLE_CONTENT_PUBLIC)).thenReturn(List.of(movie1, movie2));
 
-        String result = content.displayContent("1");
+        String result = content.displayContent("5");
 
         assertNotNull(result);
-        assertTrue(result.contains("video1") || result.contains("video2"));
+        assertTrue(result.contains("video1"));
+        assertTrue(result.contains("video2"));
+        // 動画は1回のクエリでまとめて取得する
+        verify(mapper, times(1)).searchByIds(anyList(), eq(Constants.TABLE_CONTENT_PUBLIC));
+        verify(mapper, never()).search("1", Constants.TABLE_CONTENT_PUBLIC);
     }
 
 
@@ -1786,7 +2200,8 @@ class ContentTest {
         elementData.put("content", "Element Content");
         
         when(mapper.search(templateId, Constants.TABLE_CONTENT)).thenReturn(templateData);
-        when(mapper.search("10", Constants.TABLE_CONTENT)).thenReturn(elementData);
+        elementData.put("id", "10");
+        when(mapper.searchByIds(List.of("10"), Constants.TABLE_CONTENT)).thenReturn(List.of(elementData));
 
         String result = content.previewContent(contentStr, templateId);
 
@@ -1898,7 +2313,8 @@ class ContentTest {
         emptyElement.put("content", null);
 
         when(mapper.search(templateId, Constants.TABLE_CONTENT)).thenReturn(templateData);
-        when(mapper.search("999", Constants.TABLE_CONTENT)).thenReturn(emptyElement);
+        emptyElement.put("id", "999");
+        when(mapper.searchByIds(List.of("999"), Constants.TABLE_CONTENT)).thenReturn(List.of(emptyElement));
 
         String result = content.previewContent(contentStr, templateId);
 
@@ -1919,7 +2335,8 @@ class ContentTest {
 
         when(mapper.search("1", "content_public")).thenReturn(contentData);
         when(mapper.search("1", Constants.TABLE_CONTENT)).thenReturn(templateData);
-        when(mapper.search("10", Constants.TABLE_CONTENT)).thenReturn(elementData);
+        elementData.put("id", "10");
+        when(mapper.searchByIds(List.of("10"), Constants.TABLE_CONTENT)).thenReturn(List.of(elementData));
 
         String result = content.displayContent("1");
 
@@ -2028,4 +2445,310 @@ class ContentTest {
         assertNotNull(result);
         assertEquals(1, result.size());
     }
+
+    @Test
+    void testResolvePage() {
+        PageModel page = new PageModel();
+        page.setId("1");
+        page.setUrl("test/page");
+        when(mapper.resolvePage("test/page")).thenReturn(page);
+
+        PageModel result = content.resolvePage("test/page");
+
+        assertSame(page, result);
+    }
+
+    @Test
+    void testResolvePage_NotFound() {
+        when(mapper.resolvePage("unknown")).thenReturn(null);
+
+        assertNull(content.resolvePage("unknown"));
+    }
+
+    @Test
+    void testGetPageHead() {
+        PageModel page = new PageModel();
+        page.setTemplate("2");
+        page.setTemplateHead("<link rel=\"stylesheet\">");
+        page.setHead("<script></script>");
+
+        assertEquals("<link rel=\"stylesheet\"><script></script>", content.getPageHead(page));
+    }
+
+    @Test
+    void testGetPageHead_RewritesAssetReferences() {
+        PageModel stylesheet = new PageModel();
+        stylesheet.setId("5");
+        stylesheet.setType(Constants.CONTENT_TYPE_STYLESHEET);
+        stylesheet.setUpdated("2024/01/01 00:00");
+        stylesheet.setContent("body { color: red; }");
+        when(routingTable.lookup("css/site.css"))
+                .thenReturn(new UrlRoutingTable.Route("5", Constants.CONTENT_TYPE_STYLESHEET, "2024/01/01 00:00"));
+        when(mapper.resolvePage("css/site.css")).thenReturn(stylesheet);
+        PageModel page = new PageModel();
+        page.setTemplate("");
+        page.setHead("<link rel=\"stylesheet\" href=\"/css/site.css\">");
+
+        String fingerprint = AssetFingerprintService.fingerprint("body{color:red}");
+        assertEquals("<link rel=\"stylesheet\" href=\"/css/site." + fingerprint + ".css\">", content.getPageHead(page));
+    }
+
+    @Test
+    void testGetPageHead_NoTemplate() {
+        PageModel page = new PageModel();
+        page.setTemplate("");
+        page.setTemplateHead("<ignored>");
+        page.setHead(null);
+
+        assertEquals(Constants.EMPTY_STRING, content.getPageHead(page));
+    }
+
+    @Test
+    void testDisplayPage_WithTemplate() {
+        PageModel page = new PageModel();
+        page.setId("1");
+        page.setTemplate("2");
+        page.setContent("Main Content");
+        page.setTemplateContent("###element(10),###content###");
+        page.setTemplateUpdated("2024-01-01 10:00");
+
+        HashMap<String, String> element10 = new HashMap<>();
+        element10.put("id", "10");
+        element10.put("content", "<header>Header</header>");
+        when(mapper.searchByIds(List.of("10"), Constants.TABLE_CONTENT)).thenReturn(List.of(element10));
+
+        String result = content.displayPage(page);
+
+        assertEquals("<header>Header</header>Main Content", result);
+        verify(mapper, never()).search(anyString(), anyString());
+    }
+
+    @Test
+    void testDisplayPage_NoTemplate() {
+        PageModel page = new PageModel();
+        page.setId("1");
+        page.setContent("Only Content");
+
+        String result = content.displayPage(page);
+
+        assertEquals("Only Content", result);
+        verify(mapper, never()).searchByIds(anyList(), anyString());
+    }
+
+    @Test
+    void testLoadPageElements() {
+        PageModel page1 = new PageModel();
+        page1.setId("1");
+        page1.setTemplate("2");
+        page1.setTemplateContent("###element(10),###content###");
+        PageModel page2 = new PageModel();
+        page2.setId("3");
+        page2.setTemplate("4");
+        page2.setTemplateContent("###element(10),###content###,###element(11)");
+        page2.setContent("Main");
+        PageModel page3 = new PageModel();
+        page3.setId("5");
+        page3.setContent("No Template");
+
+        HashMap<String, String> element10 = new HashMap<>();
+        element10.put("id", "10");
+        element10.put("content", "<header>Header</header>");
+        HashMap<String, String> element11 = new HashMap<>();
+        element11.put("id", "11");
+        element11.put("content", "<footer>Footer</footer>");
+        when(mapper.searchByIds(List.of("10", "11"), Constants.TABLE_CONTENT)).thenReturn(List.of(element10, element11));
+
+        content.loadPageElements(List.of(page1, page2, page3));
+
+        assertEquals(Map.of("10", element10), page1.getElements());
+        assertEquals(Map.of("10", element10, "11", element11), page2.getElements());
+        assertNull(page3.getElements());
+        assertEquals("<header>Header</header>Main<footer>Footer</footer>", content.displayPage(page2));
+        verify(mapper, times(1)).searchByIds(anyList(), anyString());
+    }
+
+    @Test
+    void testLoadPageElements_NoTemplates() {
+        PageModel page = new PageModel();
+        page.setId("1");
+        page.setContent("No Template");
+
+        content.loadPageElements(List.of(page));
+
+        verify(mapper, never()).searchByIds(anyList(), anyString());
+    }
+
+    @Test
+    void testGetStylesheet_PageModel() {
+        PageModel page = new PageModel();
+        page.setType(Constants.CONTENT_TYPE_STYLESHEET);
+        page.setContent("body {\r\n color: red;\r\n}");
+
+        assertEquals("body{color:red}", content.getStylesheet(page));
+    }
+
+    @Test
+    void testGetScript_PageModel() {
+        PageModel page = new PageModel();
+        page.setId("3");
+        page.setType(Constants.CONTENT_TYPE_SCRIPT);
+        page.setContent("// comment\nvar a = 1;\r\n");
+
+        assertEquals("var a=1;", content.getScript(page));
+    }
+
+    @Test
+    void testGetPageVersion_ChangesWithElement() {
+        PageModel page = new PageModel();
+        page.setId("1");
+        page.setTemplate("2");
+        page.setContent("Main Content");
+        page.setUpdated("2024-01-01 10:00");
+        page.setTemplateContent("###element(10),###content###");
+        page.setTemplateUpdated("2024-01-01 10:00");
+
+        HashMap<String, String> element10 = new HashMap<>();
+        element10.put("id", "10");
+        element10.put("content", "<header>Header</header>");
+        element10.put("updated", "2024-01-01 10:00");
+        when(mapper.searchByIds(List.of("10"), Constants.TABLE_CONTENT)).thenReturn(List.of(element10));
+
+        String version = content.getPageVersion(page);
+        assertEquals(version, content.getPageVersion(page));
+
+        PageModel changed = new PageModel();
+        changed.setId("1");
+        changed.setTemplate("2");
+        changed.setContent("Main Content");
+        changed.setUpdated("2024-01-01 10:00");
+        changed.setTemplateContent("###element(10),###content###");
+        changed.setTemplateUpdated("2024-01-01 10:00");
+        HashMap<String, String> updatedElement = new HashMap<>(element10);
+        updatedElement.put("content", "<header>New Header</header>");
+        changed.setElements(new HashMap<>(Map.of("10", updatedElement)));
+
+        assertNotEquals(version, content.getPageVersion(changed));
+    }
+
+    @Test
+    void testGetPageVersion_SameMinuteEdit() {
+        PageModel page = new PageModel();
+        page.setId("1");
+        page.setUpdated("2024-01-01 10:00");
+        page.setContent("Before");
+        PageModel edited = new PageModel();
+        edited.setId("1");
+        edited.setUpdated("2024-01-01 10:00");
+        edited.setContent("After");
+
+        // 更新日時が同じ分でも本文が異なればバージョンも異なる
+        assertNotEquals(content.getPageVersion(page), content.getPageVersion(edited));
+    }
+
+    @Test
+    void testGetPageLastModified_UsesNewestDependency() {
+        PageModel page = new PageModel();
+        page.setId("1");
+        page.setTemplate("2");
+        page.setUpdated("2024-01-01 10:00");
+        page.setTemplateContent("###element(10),###content###");
+        page.setTemplateUpdated("2024-01-02 10:00");
+
+        HashMap<String, String> element10 = new HashMap<>();
+        element10.put("id", "10");
+        element10.put("content", "<header>Header</header>");
+        element10.put("updated", "2024-01-03 10:00");
+        when(mapper.searchByIds(List.of("10"), Constants.TABLE_CONTENT)).thenReturn(List.of(element10));
+
+        assertEquals(CommonProc.toEpochMillis("2024-01-03 10:00"), content.getPageLastModified(page));
+    }
+
+    @Test
+    void testGetPageValidatorsAndDisplayPage_ShareElementQuery() {
+        PageModel page = new PageModel();
+        page.setId("1");
+        page.setTemplate("2");
+        page.setContent("Main Content");
+        page.setTemplateContent("###element(10),###content###");
+        page.setTemplateUpdated("2024-01-01 10:00");
+
+        HashMap<String, String> element10 = new HashMap<>();
+        element10.put("id", "10");
+        element10.put("content", "<header>Header</header>");
+        when(mapper.searchByIds(List.of("10"), Constants.TABLE_CONTENT)).thenReturn(List.of(element10));
+
+        content.getPageVersion(page);
+        content.getPageLastModified(page);
+        assertEquals("<header>Header</header>Main Content", content.displayPage(page));
+
+        verify(mapper, times(1)).searchByIds(List.of("10"), Constants.TABLE_CONTENT);
+    }
+
+    @Test
+    void testGetPageVersion_StylesheetIgnoresTemplate() {
+        PageModel page = new PageModel();
+        page.setId("1");
+        page.setType(Constants.CONTENT_TYPE_STYLESHEET);
+        page.setTemplate("2");
+        page.setContent("body {}");
+
+        assertNotNull(content.getPageVersion(page));
+        verify(mapper, never()).searchByIds(anyList(), anyString());
+    }
+
+    @Test
+    void testGetPageVersion_ChangesWithMovie() {
+        HashMap<String, String> movie = new HashMap<>();
+        movie.put("id", "11");
+        movie.put("type", Constants.CONTENT_TYPE_MOVIE);
+        movie.put("content", "dQw4w9WgXcQ");
+        movie.put("updated", "2024-01-01 10:00");
+        HashMap<String, String> editedMovie = new HashMap<>(movie);
+        editedMovie.put("content", "newVideoId");
+        when(mapper.searchByIds(List.of("11"), Constants.TABLE_CONTENT_PUBLIC))
+                .thenReturn(List.of(movie))
+                .thenReturn(List.of(editedMovie));
+
+        // ページ本体が同じでも、埋め込んだ動画が変わればバージョンも変わる
+        String version = content.getPageVersion(moviePage());
+        assertNotEquals(version, content.getPageVersion(moviePage()));
+    }
+
+    @Test
+    void testGetPageLastModified_IncludesMovie() {
+        HashMap<String, String> movie = new HashMap<>();
+        movie.put("id", "11");
+        movie.put("type", Constants.CONTENT_TYPE_MOVIE);
+        movie.put("content", "dQw4w9WgXcQ");
+        movie.put("updated", "2024-02-01 10:00");
+        when(mapper.searchByIds(List.of("11"), Constants.TABLE_CONTENT_PUBLIC)).thenReturn(List.of(movie));
+
+        assertEquals(CommonProc.toEpochMillis("2024-02-01 10:00"), content.getPageLastModified(moviePage()));
+    }
+
+    @Test
+    void testGetPageValidatorsAndDisplayPage_ShareReferenceQuery() {
+        HashMap<String, String> movie = new HashMap<>();
+        movie.put("id", "11");
+        movie.put("type", Constants.CONTENT_TYPE_MOVIE);
+        movie.put("content", "dQw4w9WgXcQ");
+        movie.put("updated", "2024-01-01 10:00");
+        when(mapper.searchByIds(List.of("11"), Constants.TABLE_CONTENT_PUBLIC)).thenReturn(List.of(movie));
+        PageModel page = moviePage();
+
+        content.getPageVersion(page);
+        content.getPageLastModified(page);
+        String result = content.displayPage(page);
+
+        assertTrue(result.contains("youtube.com/embed/dQw4w9WgXcQ"));
+        verify(mapper, times(1)).searchByIds(List.of("11"), Constants.TABLE_CONTENT_PUBLIC);
+    }
+
+    private PageModel moviePage() {
+        PageModel page = new PageModel();
+        page.setId("1");
+        page.setUpdated("2024-01-01 10:00");
+        page.setContent("Video: [movie id=11]");
+        return page;
+    }
 }
@@ -0,0 +1,86 @@
+package com.example.skygarden.logic;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.skygarden.logic.HeadAssets.Kind;
+import com.example.skygarden.logic.HeadAssets.Reference;
+
+/**
+ * HeadAssetsのテストクラス
+ */
+class HeadAssetsTest {
+
+    private String tag(String head, Reference reference) {
+        return head.substring(reference.getTagStart(), reference.getTagEnd());
+    }
+
+    @Test
+    void testParse_Stylesheets() {
+        String head = "<link rel=\"stylesheet\" href=\"/css/a.css\">\n<link rel=stylesheet href=/css/b.css />";
+
+        HeadAssets assets = HeadAssets.parse(head);
+
+        assertEquals(List.of("css/a.css", "css/b.css"), assets.getUrls());
+        Reference first = assets.getReferences().get(0);
+        assertEquals(Kind.STYLESHEET, first.getKind());
+        assertEquals("<link rel=\"stylesheet\" href=\"/css/a.css\">", tag(head, first));
+        assertEquals("/css/a.css", head.substring(first.getValueStart(), first.getValueEnd()));
+        assertEquals("/css/b.css", head.substring(assets.getReferences().get(1).getValueStart(),
+                assets.getReferences().get(1).getValueEnd()));
+    }
+
+    @Test
+    void testParse_ScriptIncludesClosingTag() {
+        String head = "<script src='/js/a.js'></script><script src=\"/js/c.js\">  </SCRIPT><meta>";
+
+        HeadAssets assets = HeadAssets.parse(head);
+
+        assertEquals(List.of("js/a.js", "js/c.js"), assets.getUrls());
+        assertEquals(Kind.SCRIPT, assets.getReferences().get(0).getKind());
+        assertEquals("<script src='/js/a.js'></script>", tag(head, assets.getReferences().get(0)));
+        assertEquals("<script src=\"/js/c.js\">  </SCRIPT>", tag(head, assets.getReferences().get(1)));
+    }
+
+    @Test
+    void testParse_IgnoresUnsupportedReferences() {
+        String head = "<link rel=\"icon\" href=\"/favicon.ico\">"
+                + "<link rel=\"stylesheet\" href=\"/css/a.css?v=1\">"
+                + "<link rel=\"stylesheet\" href=\"//cdn.example.com/a.css\">"
+                + "<link rel=\"stylesheet\" href=\"https://example.com/a.css\">"
+                + "<link rel=\"stylesheet\" href=\"css/relative.css\">"
+                + "<script src=\"/js/inline.js\">alert(1)</script>"
+                + "<script>var a = '<link rel=\"stylesheet\" href=\"/x.css\">';</script>";
+
+        HeadAssets assets = HeadAssets.parse(head);
+
+        assertFalse(assets.hasReferences());
+    }
+
+    @Test
+    void testParse_QuotedGreaterThanAndCase() {
+        String head = "<LINK data-x=\">\" REL=\"Stylesheet preload\" HREF=\"/css/d.css\">";
+
+        HeadAssets assets = HeadAssets.parse(head);
+
+        assertEquals(List.of("css/d.css"), assets.getUrls());
+        assertEquals(head, tag(head, assets.getReferences().get(0)));
+    }
+
+    @Test
+    void testParse_Empty() {
+        assertSame(HeadAssets.EMPTY, HeadAssets.parse(null));
+        assertSame(HeadAssets.EMPTY, HeadAssets.parse(""));
+        assertFalse(HeadAssets.parse("plain text").hasReferences());
+    }
+
+    @Test
+    void testParse_UnterminatedTag() {
+        HeadAssets assets = HeadAssets.parse("<link rel=\"stylesheet\" href=\"/css/a.css\"><link rel=\"stylesheet\"");
+
+        assertEquals(List.of("css/a.css"), assets.getUrls());
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.skygarden.logic;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.skygarden.logic.HtmlShell.Segment;
+import com.example.skygarden.logic.HtmlShell.SegmentType;
+
+/**
+ * HtmlShellのテストクラス
+ */
+class HtmlShellTest {
+
+    @Test
+    void testParse_Segments() {
+        HtmlShell shell = HtmlShell.parse("<title>###title###</title>###head###<body>###content###</body>");
+
+        List<Segment> segments = shell.getSegments();
+        assertEquals(7, segments.size());
+        assertEquals(SegmentType.TEXT, segments.get(0).getType());
+        assertEquals("<title>", segments.get(0).getText());
+        assertEquals(SegmentType.TITLE, segments.get(1).getType());
+        assertNull(segments.get(1).getText());
+        assertEquals("</title>", segments.get(2).getText());
+        assertEquals(SegmentType.HEAD, segments.get(3).getType());
+        assertEquals(SegmentType.CONTENT, segments.get(5).getType());
+        assertEquals("</body>", segments.get(6).getText());
+    }
+
+    @Test
+    void testParse_NoPlaceholder() {
+        HtmlShell shell = HtmlShell.parse("<p>### not a placeholder ###</p>");
+
+        assertEquals(1, shell.getSegments().size());
+        assertEquals("<p>### not a placeholder ###</p>", shell.render("t", "h", "c"));
+    }
+
+    @Test
+    void testParse_Empty() {
+        assertSame(HtmlShell.EMPTY, HtmlShell.parse(null));
+        assertSame(HtmlShell.EMPTY, HtmlShell.parse(""));
+        assertTrue(HtmlShell.EMPTY.isEmpty());
+    }
+
+    @Test
+    void testRender() {
+        HtmlShell shell = HtmlShell.parse("<title>###title###</title>###head###<body>###content###</body>");
+
+        assertEquals("<title>T</title><style></style><body>C</body>", shell.render("T", "<style></style>", "C"));
+    }
+
+    @Test
+    void testRender_RepeatedSlot() {
+        HtmlShell shell = HtmlShell.parse("###title###|###title###");
+
+        assertEquals("A|A", shell.render("A", null, null));
+    }
+
+    @Test
+    void testRender_NullValues() {
+        HtmlShell shell = HtmlShell.parse("[###title###][###head###][###content###]");
+
+        assertEquals("[][][]", shell.render(null, null, null));
+    }
+
+    @Test
+    void testRender_SpecialCharacters() {
+        HtmlShell shell = HtmlShell.parse("<body>###content###</body>");
+
+        assertEquals("<body>$1 \\ ###head###</body>", shell.render("t", "h", "$1 \\ ###head###"));
+    }
+
+    @Test
+    void testContentLength_Multibyte() {
+        HtmlShell shell = HtmlShell.parse("<title>###title###</title><body>###content###</body>");
+        String expected = shell.render("日本語", null, "本文😀");
+
+        assertEquals(expected.getBytes(StandardCharsets.UTF_8).length, shell.contentLength("日本語", null, "本文😀"));
+    }
+
+    @Test
+    void testWriteTo() throws Exception {
+        HtmlShell shell = HtmlShell.parse("<p>固定</p>###head######content###");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        shell.writeTo(out, "t", "<meta>", "$1 \\ 本文");
+
+        assertEquals("<p>固定</p><meta>$1 \\ 本文", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testToBytes() {
+        HtmlShell shell = HtmlShell.parse("<title>###title###</title>###content###");
+
+        byte[] bytes = shell.toBytes("タイトル", null, "内容");
+
+        assertArrayEquals(shell.render("タイトル", null, "内容").getBytes(StandardCharsets.UTF_8), bytes);
+    }
+
+    @Test
+    void testVersion() {
+        HtmlShell shell = HtmlShell.parse("<body>###content###</body>");
+
+        assertEquals(shell.getVersion(), HtmlShell.parse("<body>###content###</body>").getVersion());
+        assertNotEquals(shell.getVersion(), HtmlShell.parse("<body class=\"x\">###content###</body>").getVersion());
+    }
+}
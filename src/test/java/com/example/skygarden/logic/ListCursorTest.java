@@ -0,0 +1,126 @@
+package com.example.skygarden.logic;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.skygarden.constants.Constants;
+
+/**
+ * ListCursorのテストクラス
+ */
+class ListCursorTest {
+
+    private List<HashMap<String, String>> rows(int... ids) {
+        List<HashMap<String, String>> rows = new ArrayList<>();
+        for (int id : ids) {
+            HashMap<String, String> row = new HashMap<>();
+            row.put("id", String.valueOf(id));
+            row.put("updated", "2024-01-" + (10 + id));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Test
+    void testResolveSort() {
+        assertEquals("updated", ListCursor.resolveSort("updated", Constants.SORT_OPTIONS_CONTENT, Constants.DEFAULT_SORT_CONTENT));
+        assertEquals("updated desc", ListCursor.resolveSort("id; drop table", Constants.SORT_OPTIONS_CONTENT, Constants.DEFAULT_SORT_CONTENT));
+        assertEquals("updated desc", ListCursor.resolveSort(null, Constants.SORT_OPTIONS_CONTENT, Constants.DEFAULT_SORT_CONTENT));
+    }
+
+    @Test
+    void testFirst() {
+        ListCursor cursor = ListCursor.first("updated desc");
+
+        assertTrue(cursor.isFirst());
+        assertEquals("updated", cursor.getColumn());
+        assertTrue(cursor.isDescending());
+        assertTrue(cursor.isQueryDescending());
+        assertNull(cursor.encode());
+    }
+
+    @Test
+    void testPage_FirstPageForward() {
+        ListCursor.Page page = ListCursor.first("updated desc").page(rows(5, 4, 3), 2);
+
+        assertEquals(2, page.getResults().size());
+        assertEquals("5", page.getResults().get(0).get("id"));
+        assertNull(page.getPrevCursor());
+        assertNotNull(page.getNextCursor());
+
+        ListCursor next = ListCursor.parse(page.getNextCursor(), "updated desc");
+        assertFalse(next.isBackward());
+        assertEquals(4L, next.getId());
+        assertEquals("2024-01-14", next.getValue());
+        assertTrue(next.isQueryDescending());
+    }
+
+    @Test
+    void testPage_LastPageForward() {
+        ListCursor cursor = ListCursor.parse(ListCursor.first("updated desc").page(rows(5, 4, 3), 2).getNextCursor(), "updated desc");
+
+        ListCursor.Page page = cursor.page(rows(3), 2);
+
+        assertEquals(1, page.getResults().size());
+        assertNull(page.getNextCursor());
+        assertNotNull(page.getPrevCursor());
+
+        ListCursor prev = ListCursor.parse(page.getPrevCursor(), "updated desc");
+        assertTrue(prev.isBackward());
+        assertEquals(3L, prev.getId());
+        assertFalse(prev.isQueryDescending());
+    }
+
+    @Test
+    void testPage_BackwardReversesRows() {
+        ListCursor.Page last = ListCursor.parse(
+                ListCursor.first("updated desc").page(rows(5, 4, 3), 2).getNextCursor(), "updated desc").page(rows(3), 2);
+        ListCursor backward = ListCursor.parse(last.getPrevCursor(), "updated desc");
+
+        // 前のページは逆順（昇順）で取得される
+        ListCursor.Page page = backward.page(rows(4, 5), 2);
+
+        assertEquals("5", page.getResults().get(0).get("id"));
+        assertEquals("4", page.getResults().get(1).get("id"));
+        assertNull(page.getPrevCursor());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void testPage_Empty() {
+        ListCursor.Page page = ListCursor.first("id").page(new ArrayList<>(), 20);
+
+        assertTrue(page.getResults().isEmpty());
+        assertNull(page.getNextCursor());
+        assertNull(page.getPrevCursor());
+    }
+
+    @Test
+    void testParse_NullValue() {
+        HashMap<String, String> row = new HashMap<>();
+        row.put("id", "7");
+        List<HashMap<String, String>> rows = new ArrayList<>();
+        rows.add(row);
+        rows.add(new HashMap<>(row));
+
+        ListCursor next = ListCursor.parse(ListCursor.first("title").page(rows, 1).getNextCursor(), "title");
+
+        assertEquals(7L, next.getId());
+        assertNull(next.getValue());
+    }
+
+    @Test
+    void testParse_InvalidOrOtherSort() {
+        String token = ListCursor.first("updated desc").page(rows(5, 4, 3), 2).getNextCursor();
+
+        assertTrue(ListCursor.parse(token, "updated").isFirst());
+        assertTrue(ListCursor.parse("not a cursor!", "updated desc").isFirst());
+        assertTrue(ListCursor.parse("", "updated desc").isFirst());
+        assertTrue(ListCursor.parse(null, "updated desc").isFirst());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.skygarden.logic;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.skygarden.logic.ShortcodeDocument.Segment;
+import com.example.skygarden.logic.ShortcodeDocument.SegmentType;
+
+/**
+ * ShortcodeDocumentのテストクラス
+ */
+class ShortcodeDocumentTest {
+
+    private static final Set<String> NAMES = Set.of("movie");
+
+    private String render(ShortcodeDocument document) {
+        StringBuilder output = new StringBuilder();
+        for (Segment segment : document.getSegments()) {
+            if (segment.isShortcode()) {
+                output.append("{").append(segment.getName()).append("}");
+            } else {
+                document.appendText(output, segment);
+            }
+        }
+        return output.toString();
+    }
+
+    @Test
+    void testParse_TextAndShortcode() {
+        ShortcodeDocument document = ShortcodeDocument.parse("Before [movie id=11] After", NAMES);
+
+        List<Segment> segments = document.getSegments();
+        assertEquals(3, segments.size());
+        assertEquals(SegmentType.TEXT, segments.get(0).getType());
+        assertEquals(SegmentType.SHORTCODE, segments.get(1).getType());
+        assertEquals("movie", segments.get(1).getName());
+        assertEquals("11", segments.get(1).getAttribute("id"));
+        assertEquals("[movie id=11]", segments.get(1).getRaw());
+        assertTrue(document.hasShortcodes());
+        assertEquals("Before {movie} After", render(document));
+    }
+
+    @Test
+    void testParse_Attributes() {
+        ShortcodeDocument document = ShortcodeDocument.parse("[movie id=11, width=800px ,height= 600px]", NAMES);
+
+        Segment segment = document.getSegments().get(0);
+        assertEquals(1, document.getSegments().size());
+        assertEquals("11", segment.getAttribute("id"));
+        assertEquals("800px", segment.getAttribute("width"));
+        assertEquals("600px", segment.getAttribute("height"));
+        assertEquals(List.of("id", "width", "height"), List.copyOf(segment.getAttributes().keySet()));
+    }
+
+    @Test
+    void testParse_MultipleShortcodes() {
+        ShortcodeDocument document = ShortcodeDocument.parse("[movie id=1][movie id=2] end", NAMES);
+
+        assertEquals(3, document.getSegments().size());
+        assertEquals("{movie}{movie} end", render(document));
+    }
+
+    @Test
+    void testParse_UnknownNameIsText() {
+        ShortcodeDocument document = ShortcodeDocument.parse("[gallery id=1] [movies id=2] [link]", NAMES);
+
+        assertFalse(document.hasShortcodes());
+        assertEquals(1, document.getSegments().size());
+        assertEquals("[gallery id=1] [movies id=2] [link]", render(document));
+    }
+
+    @Test
+    void testParse_UnclosedOrNestedIsText() {
+        ShortcodeDocument document = ShortcodeDocument.parse("[movie [movie id=3] [movie id=4", NAMES);
+
+        assertEquals("[movie {movie} [movie id=4", render(document));
+    }
+
+    @Test
+    void testParse_EmptyAndNull() {
+        assertSame(ShortcodeDocument.EMPTY, ShortcodeDocument.parse(null, NAMES));
+        assertSame(ShortcodeDocument.EMPTY, ShortcodeDocument.parse("", NAMES));
+        assertTrue(ShortcodeDocument.EMPTY.getSegments().isEmpty());
+    }
+
+    @Test
+    void testParse_WithoutShortcodes() {
+        ShortcodeDocument document = ShortcodeDocument.parse("<p>Plain</p>", NAMES);
+
+        assertFalse(document.hasShortcodes());
+        assertEquals("<p>Plain</p>", render(document));
+    }
+
+    @Test
+    void testSegments_Unmodifiable() {
+        ShortcodeDocument document = ShortcodeDocument.parse("[movie id=11]", NAMES);
+
+        assertThrows(UnsupportedOperationException.class, () -> document.getSegments().clear());
+        assertThrows(UnsupportedOperationException.class,
+                () -> document.getSegments().get(0).getAttributes().put("id", "12"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.skygarden.logic;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.skygarden.logic.TemplateLayout.Segment;
+import com.example.skygarden.logic.TemplateLayout.SegmentType;
+
+/**
+ * TemplateLayoutのテストクラス
+ */
+class TemplateLayoutTest {
+
+    @Test
+    void testParse_ElementsAndContent() {
+        TemplateLayout layout = TemplateLayout.parse("###element(10),###content###,###element(20)");
+
+        List<Segment> segments = layout.getSegments();
+        assertEquals(3, segments.size());
+        assertEquals(SegmentType.ELEMENT, segments.get(0).getType());
+        assertEquals("10", segments.get(0).getElementId());
+        assertTrue(segments.get(1).isContent());
+        assertNull(segments.get(1).getElementId());
+        assertEquals("20", segments.get(2).getElementId());
+        assertEquals(List.of("10", "20"), layout.getElementIds());
+    }
+
+    @Test
+    void testParse_TrimsAndSkipsEmptyTokens() {
+        TemplateLayout layout = TemplateLayout.parse(" ###element(10) ,, ###content### ,");
+
+        assertEquals(2, layout.getSegments().size());
+        assertEquals("10", layout.getSegments().get(0).getElementId());
+        assertTrue(layout.getSegments().get(1).isContent());
+    }
+
+    @Test
+    void testParse_DuplicateElementIds() {
+        TemplateLayout layout = TemplateLayout.parse("###element(10),###content###,###element(10)");
+
+        assertEquals(3, layout.getSegments().size());
+        assertEquals(List.of("10"), layout.getElementIds());
+    }
+
+    @Test
+    void testParse_NullOrEmpty() {
+        assertSame(TemplateLayout.EMPTY, TemplateLayout.parse(null));
+        assertSame(TemplateLayout.EMPTY, TemplateLayout.parse(""));
+        assertSame(TemplateLayout.EMPTY, TemplateLayout.parse(" , "));
+        assertTrue(TemplateLayout.EMPTY.isEmpty());
+    }
+
+    @Test
+    void testSegments_Unmodifiable() {
+        TemplateLayout layout = TemplateLayout.parse("###content###");
+
+        assertThrows(UnsupportedOperationException.class, () -> layout.getSegments().clear());
+        assertThrows(UnsupportedOperationException.class, () -> layout.getElementIds().add("1"));
+    }
+}
@@ -16,6 +16,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.example.skygarden.bean.PagerBean;
 import com.example.skygarden.config.AppProperties;
 import com.example.skygarden.constants.Constants;
 import com.example.skygarden.mapper.ContentMapper;
@@ -207,6 +208,40 @@ class UserTest {
         assertNotNull(result);
     }
 
+    @Test
+    void testGetListByCursor_FirstPage() {
+        when(appProperties.getPagination()).thenReturn(pagination);
+        when(pagination.getPageSize()).thenReturn(20);
+
+        List<HashMap<String, String>> expected = new ArrayList<>();
+        HashMap<String, String> user1 = new HashMap<>();
+        user1.put("id", "1");
+        expected.add(user1);
+        when(mapper.selectAllKeyset(Constants.TABLE_USER, Constants.EMPTY_STRING, "id", false, null, null, 21))
+            .thenReturn(expected);
+
+        ListCursor.Page result = user.getListByCursor("", "");
+
+        assertEquals(1, result.getResults().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void testGetCursorPager() {
+        List<HashMap<String, String>> rows = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            HashMap<String, String> row = new HashMap<>();
+            row.put("id", String.valueOf(i));
+            rows.add(row);
+        }
+        ListCursor.Page page = ListCursor.first("id").page(rows, 2);
+
+        PagerBean result = user.getCursorPager(page, "/user-list", "id");
+
+        assertEquals("/user-list?cursor=" + page.getNextCursor() + "&sort=id", result.getNextUrl());
+        assertEquals("", result.getPrevUrl());
+    }
+
     @Test
     void testGetUser_Exists() {
         HashMap<String, String> expected = new HashMap<>();
@@ -248,12 +283,12 @@ class UserTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSize(Constants.TABLE_USER, Constants.EMPTY_STRING)).thenReturn(50);
 
-        String result = user.getPager(1, "/user-list", "id desc");
+        PagerBean result = user.getPager(1, "/user-list", "id desc");
 
         assertNotNull(result);
-        assertFalse(result.contains("Previous"));
-        assertTrue(result.contains("1"));
-        assertTrue(result.contains("Next"));
+        assertEquals("", result.getPrevUrl());
+        assertEquals(1, result.getPage());
+        assertFalse(result.getNextUrl().isEmpty());
     }
 
     @Test
@@ -262,12 +297,12 @@ class UserTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSize(Constants.TABLE_USER, Constants.EMPTY_STRING)).thenReturn(100);
 
-        String result = user.getPager(3, "/user-list", "name");
+        PagerBean result = user.getPager(3, "/user-list", "name");
 
         assertNotNull(result);
-        assertTrue(result.contains("Previous"));
-        assertTrue(result.contains("3"));
-        assertTrue(result.contains("Next"));
+        assertFalse(result.getPrevUrl().isEmpty());
+        assertEquals(3, result.getPage());
+        assertFalse(result.getNextUrl().isEmpty());
     }
 
     @Test
@@ -276,12 +311,12 @@ class UserTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSize(Constants.TABLE_USER, Constants.EMPTY_STRING)).thenReturn(100);
 
-        String result = user.getPager(5, "/user-list", "id");
+        PagerBean result = user.getPager(5, "/user-list", "id");
 
         assertNotNull(result);
-        assertTrue(result.contains("Previous"));
-        assertTrue(result.contains("5"));
-        assertFalse(result.contains("Next"));
+        assertFalse(result.getPrevUrl().isEmpty());
+        assertEquals(5, result.getPage());
+        assertEquals("", result.getNextUrl());
     }
 
     @Test
@@ -290,12 +325,12 @@ class UserTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSize(Constants.TABLE_USER, Constants.EMPTY_STRING)).thenReturn(10);
 
-        String result = user.getPager(1, "/user-list", "id desc");
+        PagerBean result = user.getPager(1, "/user-list", "id desc");
 
         assertNotNull(result);
-        assertFalse(result.contains("Previous"));
-        assertFalse(result.contains("Next"));
-        assertTrue(result.contains("1"));
+        assertEquals("", result.getPrevUrl());
+        assertEquals("", result.getNextUrl());
+        assertEquals(1, result.getPage());
     }
 
     @Test
@@ -304,11 +339,11 @@ class UserTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSize(Constants.TABLE_USER, Constants.EMPTY_STRING)).thenReturn(0);
 
-        String result = user.getPager(1, "/user-list", "id");
+        PagerBean result = user.getPager(1, "/user-list", "id");
 
         assertNotNull(result);
-        assertFalse(result.contains("Previous"));
-        assertFalse(result.contains("Next"));
+        assertEquals("", result.getPrevUrl());
+        assertEquals("", result.getNextUrl());
     }
 
     @Test
@@ -317,7 +352,7 @@ class UserTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSize(Constants.TABLE_USER, Constants.EMPTY_STRING)).thenReturn(50);
 
-        String result = user.getPager(0, "/user-list", "id");
+        PagerBean result = user.getPager(0, "/user-list", "id");
 
         assertNotNull(result);
     }
@@ -328,7 +363,7 @@ class UserTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSize(Constants.TABLE_USER, Constants.EMPTY_STRING)).thenReturn(50);
 
-        String result = user.getPager(-1, "/user-list", "id");
+        PagerBean result = user.getPager(-1, "/user-list", "id");
 
         assertNotNull(result);
     }
@@ -339,11 +374,13 @@ class UserTest {
         when(pagination.getPageSize()).thenReturn(20);
         when(mapper.getContentSize(Constants.TABLE_USER, Constants.EMPTY_STRING)).thenReturn(100);
 
-        String result = user.getPager(1, "/user-list", "id desc");
+        when(pagination.getWindow()).thenReturn(2);
+
+        PagerBean result = user.getPager(1, "/user-list", "id desc");
 
         // 5ページ分のリンクが含まれることを確認
         for (int i = 1; i <= 5; i++) {
-            assertTrue(result.contains(String.valueOf(i)), "Page " + i + " should be in pager");
+            assertEquals(i, result.getItems().get(i - 1).getNumber(), "Page " + i + " should be in pager");
         }
     }
 }
@@ -0,0 +1,341 @@
+package com.example.skygarden.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.skygarden.bean.PageModel;
+import com.example.skygarden.config.AppProperties;
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.mapper.ContentMapper;
+import com.example.skygarden.service.ContentChangeEvent.Operation;
+
+/**
+ * AssetFingerprintServiceのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AssetFingerprintServiceTest {
+
+    private static final String HEAD = "<link rel=\"stylesheet\" href=\"/css/a.css\">\n"
+            + "<link rel=\"stylesheet\" href=\"/css/b.css\">"
+            + "<script src=\"/js/app.js\"></script>";
+
+    @Mock
+    private ContentMapper mapper;
+
+    @Mock
+    private UrlRoutingTable routingTable;
+
+    @Mock
+    private AppProperties appProperties;
+
+    @Spy
+    private AssetMinifyService assetMinifyService = new AssetMinifyService();
+
+    @InjectMocks
+    private AssetFingerprintService assetFingerprints;
+
+    private AppProperties.Render render;
+
+    private PageModel stylesheetA;
+
+    @BeforeEach
+    void setUp() {
+        render = new AppProperties.Render();
+        when(appProperties.getRender()).thenReturn(render);
+        ReflectionTestUtils.setField(assetMinifyService, "appProperties", appProperties);
+        when(routingTable.isLoaded()).thenReturn(true);
+        stylesheetA = asset("3", "css/a.css", Constants.CONTENT_TYPE_STYLESHEET, "a { color: red; }");
+        PageModel stylesheetB = asset("5", "css/b.css", Constants.CONTENT_TYPE_STYLESHEET, "b { color: blue; }");
+        asset("7", "js/app.js", Constants.CONTENT_TYPE_SCRIPT, "run();");
+        when(mapper.resolvePagesByIds(List.of("3", "5"))).thenReturn(List.of(stylesheetA, stylesheetB));
+        when(routingTable.lookup("news")).thenReturn(new UrlRoutingTable.Route("9", "", "2024-01-01 10:00"));
+    }
+
+    private PageModel asset(String id, String url, String type, String content) {
+        PageModel page = new PageModel();
+        page.setId(id);
+        page.setUrl(url);
+        page.setType(type);
+        page.setUpdated("2024-01-01 10:00");
+        page.setContent(content);
+        when(routingTable.lookup(url)).thenReturn(new UrlRoutingTable.Route(id, type, page.getUpdated()));
+        when(mapper.resolvePage(url)).thenReturn(page);
+        return page;
+    }
+
+    @Test
+    void testFingerprintedUrl() {
+        assertEquals("css/site.0123456789.css", AssetFingerprintService.fingerprintedUrl("css/site.css", "0123456789"));
+        assertEquals("js/app.0123456789", AssetFingerprintService.fingerprintedUrl("js/app", "0123456789"));
+        assertEquals("a.b/c.0123456789", AssetFingerprintService.fingerprintedUrl("a.b/c", "0123456789"));
+    }
+
+    @Test
+    void testFingerprint() {
+        String fingerprint = AssetFingerprintService.fingerprint("a{color:red}");
+
+        assertEquals(AssetFingerprintService.FINGERPRINT_LENGTH, fingerprint.length());
+        assertEquals(fingerprint, AssetFingerprintService.fingerprint("a{color:red}"));
+        assertNotEquals(fingerprint, AssetFingerprintService.fingerprint("a{color:blue}"));
+    }
+
+    @Test
+    void testRewriteHead() {
+        String a = AssetFingerprintService.fingerprint("a{color:red}");
+        String b = AssetFingerprintService.fingerprint("b{color:blue}");
+        String app = AssetFingerprintService.fingerprint("run();");
+
+        String head = assetFingerprints.rewriteHead(HEAD + "<link rel=\"stylesheet\" href=\"/news\">");
+
+        assertEquals("<link rel=\"stylesheet\" href=\"/css/a." + a + ".css\">\n"
+                + "<link rel=\"stylesheet\" href=\"/css/b." + b + ".css\">"
+                + "<script src=\"/js/app." + app + ".js\"></script>"
+                + "<link rel=\"stylesheet\" href=\"/news\">", head);
+    }
+
+    @Test
+    void testRewriteHead_CachesAssets() {
+        assetFingerprints.rewriteHead(HEAD);
+        assetFingerprints.rewriteHead(HEAD);
+
+        verify(mapper, times(1)).resolvePage("css/a.css");
+        assertEquals(3, assetFingerprints.size());
+    }
+
+    @Test
+    void testRewriteHead_UnknownUrlNotQueried() {
+        String head = "<link rel=\"stylesheet\" href=\"/css/missing.css\">";
+
+        assertEquals(head, assetFingerprints.rewriteHead(head));
+        verify(mapper, never()).resolvePage(anyString());
+    }
+
+    @Test
+    void testRewriteHead_Disabled() {
+        render.setFingerprintAssets(false);
+
+        assertSame(HEAD, assetFingerprints.rewriteHead(HEAD));
+        verify(mapper, never()).resolvePage(anyString());
+    }
+
+    @Test
+    void testRewriteHead_Bundle() {
+        render.setBundleAssets(true);
+        String fingerprint = AssetFingerprintService.fingerprint("a{color:red}\nb{color:blue}");
+
+        String head = assetFingerprints.rewriteHead(HEAD);
+
+        // 同じ形のタグが連続するスタイルシートのみまとめる
+        assertTrue(head.startsWith("<link rel=\"stylesheet\" href=\"/_bundle/3,5." + fingerprint + ".css\">"
+                + "<script src=\"/js/app."), head);
+    }
+
+    @Test
+    void testRewriteHead_BundleRequiresSameTag() {
+        render.setBundleAssets(true);
+        String head = "<link rel=\"stylesheet\" href=\"/css/a.css\"><p></p>"
+                + "<link rel=\"stylesheet\" media=\"print\" href=\"/css/b.css\">";
+
+        String rewritten = assetFingerprints.rewriteHead(head);
+
+        assertFalse(rewritten.contains("_bundle"));
+        assertTrue(rewritten.contains("/css/b."));
+    }
+
+    @Test
+    void testResolve_Current() {
+        String fingerprint = AssetFingerprintService.fingerprint("a{color:red}");
+
+        AssetFingerprintService.Resolved resolved = assetFingerprints.resolve("css/a." + fingerprint + ".css");
+
+        assertTrue(resolved.isCurrent());
+        assertEquals("3", resolved.getAsset().getId());
+        assertEquals("a{color:red}", resolved.getAsset().getBody());
+    }
+
+    @Test
+    void testResolve_StaleFingerprint() {
+        AssetFingerprintService.Resolved resolved = assetFingerprints.resolve("css/a.0123456789.css");
+
+        assertFalse(resolved.isCurrent());
+        assertEquals("a{color:red}", resolved.getAsset().getBody());
+    }
+
+    @Test
+    void testRewriteHead_BundleSkipsRelativeReferences() {
+        render.setBundleAssets(true);
+        asset("5", "css/b.css", Constants.CONTENT_TYPE_STYLESHEET, "b { background: url(img/b.png); }");
+
+        String head = assetFingerprints.rewriteHead(HEAD);
+
+        // バンドルURLでは相対パスの参照先が変わるため、まとめずに単体のURLにする
+        assertFalse(head.contains("_bundle"));
+        assertTrue(head.contains("/css/b."));
+        verify(mapper, never()).resolvePagesByIds(anyList());
+    }
+
+    @Test
+    void testRewriteHead_BundleStopsAtDuplicate() {
+        render.setBundleAssets(true);
+        String head = "<link rel=\"stylesheet\" href=\"/css/a.css\"><link rel=\"stylesheet\" href=\"/css/a.css\">";
+
+        assertFalse(assetFingerprints.rewriteHead(head).contains("_bundle"));
+    }
+
+    @Test
+    void testHasRelativeReference() {
+        assertTrue(AssetFingerprintService.hasRelativeReference("a{background:url(img/a.png)}"));
+        assertTrue(AssetFingerprintService.hasRelativeReference("a{background:url('../a.png')}"));
+        assertTrue(AssetFingerprintService.hasRelativeReference("@import \"base.css\";"));
+        assertFalse(AssetFingerprintService.hasRelativeReference("a{background:url(/img/a.png)}"));
+        assertFalse(AssetFingerprintService.hasRelativeReference("a{background:url(\"https://example.com/a.png\")}"));
+        assertFalse(AssetFingerprintService.hasRelativeReference("a{background:url(data:image/png;base64,AAAA)}"));
+        assertFalse(AssetFingerprintService.hasRelativeReference("a{color:red}"));
+    }
+
+    @Test
+    void testGetAsset_InvalidatedDuringLoadNotCached() {
+        when(mapper.resolvePage("css/a.css")).thenAnswer(invocation -> {
+            // 取得中に公開された場合
+            assetFingerprints.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE,
+                    "3", "css/a.css", Constants.CONTENT_TYPE_STYLESHEET, null, "a {}", null));
+            return stylesheetA;
+        });
+
+        assertNotNull(assetFingerprints.getAsset("css/a.css"));
+
+        assertEquals(0, assetFingerprints.size());
+    }
+
+    @Test
+    void testResolve_Bundle() {
+        render.setBundleAssets(true);
+        String fingerprint = AssetFingerprintService.fingerprint("a{color:red}\nb{color:blue}");
+        assetFingerprints.rewriteHead(HEAD);
+        assetFingerprints.clear();
+
+        AssetFingerprintService.Resolved resolved = assetFingerprints.resolve("_bundle/3,5." + fingerprint + ".css");
+
+        assertTrue(resolved.isCurrent());
+        assertEquals(List.of("3", "5"), resolved.getAsset().getIds());
+        assertEquals("a{color:red}\nb{color:blue}", resolved.getAsset().getBody());
+        // 拡張子がタイプと一致しない場合は解決しない
+        assertNull(assetFingerprints.resolve("_bundle/3,5." + fingerprint + ".js"));
+        assertNull(assetFingerprints.resolve("_bundle/3,x." + fingerprint + ".css"));
+    }
+
+    @Test
+    void testResolve_BundleNotRegistered() {
+        render.setBundleAssets(true);
+        String fingerprint = AssetFingerprintService.fingerprint("a{color:red}\nb{color:blue}");
+
+        // rewriteHead が生成していない組み合わせは作成しない
+        assertNull(assetFingerprints.resolve("_bundle/3,5." + fingerprint + ".css"));
+        assertNull(assetFingerprints.resolve("_bundle/3,3." + fingerprint + ".css"));
+        assertNull(assetFingerprints.resolve("_bundle/03,5." + fingerprint + ".css"));
+        verify(mapper, never()).resolvePagesByIds(anyList());
+    }
+
+    @Test
+    void testResolve_BundleDisabled() {
+        render.setBundleAssets(true);
+        assetFingerprints.rewriteHead(HEAD);
+        render.setBundleAssets(false);
+        String fingerprint = AssetFingerprintService.fingerprint("a{color:red}\nb{color:blue}");
+
+        assertNull(assetFingerprints.resolve("_bundle/3,5." + fingerprint + ".css"));
+    }
+
+    @Test
+    void testResolve_BundleStaleFingerprintNotCached() {
+        render.setBundleAssets(true);
+        assetFingerprints.rewriteHead(HEAD);
+        assetFingerprints.clear();
+
+        AssetFingerprintService.Resolved resolved = assetFingerprints.resolve("_bundle/3,5.0123456789.css");
+        assetFingerprints.resolve("_bundle/3,5.0123456789.css");
+
+        assertFalse(resolved.isCurrent());
+        // 1回目は rewriteHead、以降はハッシュが一致しないため保持せずに毎回作成する
+        verify(mapper, times(3)).resolvePagesByIds(List.of("3", "5"));
+    }
+
+    @Test
+    void testGetBundleVersion() {
+        assertEquals("", assetFingerprints.getBundleVersion());
+
+        render.setBundleAssets(true);
+
+        assertFalse(assetFingerprints.getBundleVersion().isEmpty());
+        assertEquals(assetFingerprints.getBundleVersion(), assetFingerprints.getBundleVersion());
+    }
+
+    @Test
+    void testResolve_NotFingerprinted() {
+        assertNull(assetFingerprints.resolve("css/a.css"));
+        assertNull(assetFingerprints.resolve("css/missing.0123456789.css"));
+        assertNull(assetFingerprints.resolve("css/a.ABCDEF0123.css"));
+        verify(mapper, never()).resolvePage(anyString());
+    }
+
+    @Test
+    void testResolve_ExistingRouteTakesPrecedence() {
+        when(routingTable.lookup("docs/v.0123456789.css"))
+                .thenReturn(new UrlRoutingTable.Route("11", Constants.CONTENT_TYPE_STYLESHEET, null));
+
+        assertNull(assetFingerprints.resolve("docs/v.0123456789.css"));
+    }
+
+    @Test
+    void testOnContentChange_PublicUpdateEvicts() {
+        String before = assetFingerprints.rewriteHead(HEAD);
+        stylesheetA.setContent("a { color: green; }");
+        stylesheetA.setUpdated("2024-01-01 10:05");
+
+        assetFingerprints.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE,
+                "3", "css/a.css", Constants.CONTENT_TYPE_STYLESHEET, null, stylesheetA.getContent(), null));
+
+        String after = assetFingerprints.rewriteHead(HEAD);
+        assertNotEquals(before, after);
+        assertTrue(after.contains("/css/a." + AssetFingerprintService.fingerprint("a{color:green}") + ".css"));
+    }
+
+    @Test
+    void testOnContentChange_DraftUpdateIgnored() {
+        assetFingerprints.rewriteHead(HEAD);
+
+        assetFingerprints.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "3", "css/a.css", Constants.CONTENT_TYPE_STYLESHEET, null, "a {}", null));
+
+        assertEquals(3, assetFingerprints.size());
+    }
+
+    @Test
+    void testOnContentChange_DeleteEvictsBundles() {
+        render.setBundleAssets(true);
+        assetFingerprints.rewriteHead(HEAD);
+
+        assetFingerprints.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.DELETE,
+                "5", null, null, null, null, null));
+        assetFingerprints.rewriteHead(HEAD);
+
+        verify(mapper, times(2)).resolvePagesByIds(List.of("3", "5"));
+        verify(mapper, times(2)).resolvePage("css/b.css");
+        verify(mapper, times(1)).resolvePage("css/a.css");
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.skygarden.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.example.skygarden.bean.PageModel;
+import com.example.skygarden.config.AppProperties;
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.service.ContentChangeEvent.Operation;
+
+/**
+ * AssetMinifyServiceのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AssetMinifyServiceTest {
+
+    private static final String CSS = "body {\r\n  color: red;\r\n}";
+
+    @Mock
+    private AppProperties appProperties;
+
+    @InjectMocks
+    private AssetMinifyService assetMinifyService;
+
+    private AppProperties.Render render;
+
+    @BeforeEach
+    void setUp() {
+        render = new AppProperties.Render();
+        when(appProperties.getRender()).thenReturn(render);
+    }
+
+    private PageModel page(String type, String updated, String content) {
+        PageModel page = new PageModel();
+        page.setId("3");
+        page.setType(type);
+        page.setUpdated(updated);
+        page.setContent(content);
+        return page;
+    }
+
+    @Test
+    void testGetMinified_CachedByIdAndUpdated() {
+        String first = assetMinifyService.getMinified(page(Constants.CONTENT_TYPE_STYLESHEET, "2024-01-01 10:00", CSS));
+        String second = assetMinifyService.getMinified(page(Constants.CONTENT_TYPE_STYLESHEET, "2024-01-01 10:00", CSS));
+
+        assertEquals("body{color:red}", first);
+        assertSame(first, second);
+        assertEquals(1, assetMinifyService.size());
+    }
+
+    @Test
+    void testGetMinified_RecompiledWhenChanged() {
+        assetMinifyService.getMinified(page(Constants.CONTENT_TYPE_STYLESHEET, "2024-01-01 10:00", CSS));
+
+        String edited = assetMinifyService.getMinified(page(Constants.CONTENT_TYPE_STYLESHEET, "2024-01-01 10:00", "a { b: c; }"));
+
+        assertEquals("a{b:c}", edited);
+        assertEquals(1, assetMinifyService.size());
+    }
+
+    @Test
+    void testGetMinified_Script() {
+        assertEquals("var a=1;", assetMinifyService.getMinified(page(Constants.CONTENT_TYPE_SCRIPT, null, "var a = 1; // c")));
+    }
+
+    @Test
+    void testGetMinified_Disabled() {
+        render.setMinifyAssets(false);
+
+        assertEquals(CSS, assetMinifyService.getMinified(page(Constants.CONTENT_TYPE_STYLESHEET, "2024-01-01 10:00", CSS)));
+        assertEquals(0, assetMinifyService.size());
+    }
+
+    @Test
+    void testGetMinified_NullContent() {
+        assertEquals("", assetMinifyService.getMinified(page(Constants.CONTENT_TYPE_STYLESHEET, null, null)));
+    }
+
+    @Test
+    void testOnContentChange_PublishMinifies() {
+        assetMinifyService.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE,
+                "3", "css/site.css", Constants.CONTENT_TYPE_STYLESHEET, null, CSS, "2024-01-01 10:00"));
+
+        assertEquals(1, assetMinifyService.size());
+    }
+
+    @Test
+    void testOnContentChange_DraftIgnored() {
+        assetMinifyService.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "3", "css/site.css", Constants.CONTENT_TYPE_STYLESHEET, null, CSS, "2024-01-01 10:00"));
+
+        assertEquals(0, assetMinifyService.size());
+    }
+
+    @Test
+    void testOnContentChange_DeleteEvicts() {
+        assetMinifyService.getMinified(page(Constants.CONTENT_TYPE_STYLESHEET, "2024-01-01 10:00", CSS));
+
+        assetMinifyService.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.DELETE,
+                "3", null, null, null, null, null));
+
+        assertEquals(0, assetMinifyService.size());
+    }
+}
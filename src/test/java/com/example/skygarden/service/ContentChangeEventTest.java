@@ -0,0 +1,71 @@
+package com.example.skygarden.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.service.ContentChangeEvent.Operation;
+
+/**
+ * ContentChangeEventのテストクラス
+ */
+class ContentChangeEventTest {
+
+    @Test
+    void testOf_AllValues() {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("id", 3);
+        params.put("url", "a/b");
+        params.put("title", "お知らせ");
+        params.put("type", Constants.CONTENT_TYPE_TEMPLATE);
+        params.put("template", "");
+        params.put("head", "<link rel=\"stylesheet\" href=\"/css/site.css\">");
+        params.put("content", "###content###");
+        params.put("updated", "2024-01-01 10:00");
+
+        ContentChangeEvent event = ContentChangeEvent.of(Constants.TABLE_CONTENT, Operation.UPDATE, params);
+
+        assertEquals(Constants.TABLE_CONTENT, event.getTable());
+        assertEquals(Operation.UPDATE, event.getOperation());
+        assertEquals("3", event.getId());
+        assertEquals("a/b", event.getUrl());
+        assertEquals("お知らせ", event.getTitle());
+        assertEquals(Constants.CONTENT_TYPE_TEMPLATE, event.getType());
+        assertEquals("", event.getTemplate());
+        assertEquals("<link rel=\"stylesheet\" href=\"/css/site.css\">", event.getHead());
+        assertEquals("###content###", event.getContent());
+        assertEquals("2024-01-01 10:00", event.getUpdated());
+    }
+
+    @Test
+    void testOf_MissingValues() {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("id", "9");
+
+        ContentChangeEvent event = ContentChangeEvent.of(Constants.TABLE_CONTENT_PUBLIC, Operation.DELETE, params);
+
+        assertEquals("9", event.getId());
+        assertNull(event.getUrl());
+        assertNull(event.getTitle());
+        assertNull(event.getType());
+        assertTrue(event.isPublicTable());
+        assertFalse(event.isSharedType());
+    }
+
+    @Test
+    void testIsSharedType() {
+        assertTrue(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE, "1", null, Constants.CONTENT_TYPE_ELEMENT, null, null, null).isSharedType());
+        assertTrue(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE, "1", null, Constants.CONTENT_TYPE_MOVIE, null, null, null).isSharedType());
+        assertFalse(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE, "1", null, Constants.CONTENT_TYPE_STYLESHEET, null, null, null).isSharedType());
+    }
+
+    @Test
+    void testIsAssetType() {
+        assertTrue(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE, "1", "css/site.css", Constants.CONTENT_TYPE_STYLESHEET, null, null, null).isAssetType());
+        assertTrue(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE, "1", "js/app.js", Constants.CONTENT_TYPE_SCRIPT, null, null, null).isAssetType());
+        assertFalse(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE, "1", "news/1", "", null, null, null).isAssetType());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.skygarden.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.skygarden.config.AppProperties;
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.mapper.ContentMapper;
+import com.example.skygarden.service.ContentChangeEvent.Operation;
+
+/**
+ * ContentCountServiceのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ContentCountServiceTest {
+
+    @Mock
+    private ContentMapper mapper;
+
+    @InjectMocks
+    private ContentCountService contentCountService;
+
+    private AppProperties appProperties;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        ReflectionTestUtils.setField(contentCountService, "appProperties", appProperties);
+        when(mapper.getContentSize(Constants.TABLE_CONTENT, "")).thenReturn(10);
+        when(mapper.getContentSize(Constants.TABLE_CONTENT, Constants.CONTENT_TYPE_IMAGE)).thenReturn(3);
+    }
+
+    private ContentChangeEvent event(String table, Operation operation, String type) {
+        return new ContentChangeEvent(table, operation, null, "page", type, null, null, null);
+    }
+
+    @Test
+    void testGetCount_CountedOncePerType() {
+        assertEquals(10, contentCountService.getCount(""));
+        assertEquals(10, contentCountService.getCount(""));
+        assertEquals(3, contentCountService.getCount(Constants.CONTENT_TYPE_IMAGE));
+
+        verify(mapper, times(1)).getContentSize(Constants.TABLE_CONTENT, "");
+        verify(mapper, times(1)).getContentSize(Constants.TABLE_CONTENT, Constants.CONTENT_TYPE_IMAGE);
+    }
+
+    @Test
+    void testOnContentChange_CreateIncrements() {
+        contentCountService.getCount("");
+
+        contentCountService.onContentChange(event(Constants.TABLE_CONTENT, Operation.CREATE, ""));
+
+        assertEquals(11, contentCountService.getCount(""));
+        verify(mapper, times(1)).getContentSize(Constants.TABLE_CONTENT, "");
+    }
+
+    @Test
+    void testOnContentChange_PublicAndUpdateIgnored() {
+        contentCountService.getCount("");
+
+        contentCountService.onContentChange(event(Constants.TABLE_CONTENT_PUBLIC, Operation.CREATE, ""));
+        contentCountService.onContentChange(event(Constants.TABLE_CONTENT, Operation.UPDATE, ""));
+
+        assertEquals(10, contentCountService.getCount(""));
+    }
+
+    @Test
+    void testOnContentChange_CreateBeforeCountedNotApplied() {
+        contentCountService.onContentChange(event(Constants.TABLE_CONTENT, Operation.CREATE, Constants.CONTENT_TYPE_IMAGE));
+
+        assertEquals(3, contentCountService.getCount(Constants.CONTENT_TYPE_IMAGE));
+    }
+
+    @Test
+    void testOnContentChange_DeleteDecrements() {
+        contentCountService.getCount(Constants.CONTENT_TYPE_IMAGE);
+
+        contentCountService.onContentChange(event(Constants.TABLE_CONTENT, Operation.DELETE, Constants.CONTENT_TYPE_IMAGE));
+
+        assertEquals(2, contentCountService.getCount(Constants.CONTENT_TYPE_IMAGE));
+    }
+
+    @Test
+    void testOnContentChange_DeleteUnknownTypeRecounts() {
+        contentCountService.getCount("");
+
+        contentCountService.onContentChange(event(Constants.TABLE_CONTENT, Operation.DELETE, null));
+        contentCountService.getCount("");
+
+        verify(mapper, times(2)).getContentSize(Constants.TABLE_CONTENT, "");
+    }
+
+    @Test
+    void testOnContentChange_PublicDeleteIgnored() {
+        contentCountService.getCount(Constants.CONTENT_TYPE_IMAGE);
+
+        contentCountService.onContentChange(event(Constants.TABLE_CONTENT_PUBLIC, Operation.DELETE, Constants.CONTENT_TYPE_IMAGE));
+
+        assertEquals(3, contentCountService.getCount(Constants.CONTENT_TYPE_IMAGE));
+    }
+
+    @Test
+    void testGetCount_RecountedAfterRefreshInterval() {
+        appProperties.getPagination().setCountRefreshSeconds(1);
+        contentCountService.getCount("");
+        Object entry = ((Map<?, ?>) ReflectionTestUtils.getField(contentCountService, "counts")).get("");
+        ReflectionTestUtils.setField(entry, "loadedAt", System.currentTimeMillis() - 2000L);
+
+        contentCountService.getCount("");
+
+        verify(mapper, times(2)).getContentSize(Constants.TABLE_CONTENT, "");
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.skygarden.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.mapper.ContentMapper;
+import com.example.skygarden.service.ContentChangeEvent.Operation;
+
+/**
+ * ContentDependencyGraphのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ContentDependencyGraphTest {
+
+    @Mock
+    private ContentMapper mapper;
+
+    @InjectMocks
+    private ContentDependencyGraph graph;
+
+    private List<HashMap<String, String>> layouts;
+
+    private List<HashMap<String, String>> pages;
+
+    @BeforeEach
+    void setUp() {
+        layouts = new ArrayList<>();
+        layouts.add(row("id", "10", "type", Constants.CONTENT_TYPE_TEMPLATE,
+                "content", "###element(20)###,###content###,###element(21)###"));
+        layouts.add(row("id", "11", "type", Constants.CONTENT_TYPE_TEMPLATE, "content", "###element(21)###"));
+        layouts.add(row("id", "20", "type", Constants.CONTENT_TYPE_ELEMENT, "content", "[movie id=30, width=640]"));
+        layouts.add(row("id", "21", "type", Constants.CONTENT_TYPE_ELEMENT, "content", null));
+        pages = new ArrayList<>();
+        pages.add(row("id", "1", "template", "10", "content", null));
+        pages.add(row("id", "2", "template", "11", "content", "[movie id=31]"));
+        pages.add(row("id", "3", "template", "", "content", "[movie id=30]"));
+        when(mapper.getLayoutDependencies()).thenReturn(layouts);
+        when(mapper.getPageDependencies()).thenReturn(pages);
+    }
+
+    private static HashMap<String, String> row(String... keyValues) {
+        HashMap<String, String> row = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            row.put(keyValues[i], keyValues[i + 1]);
+        }
+        return row;
+    }
+
+    @Test
+    void testGetAffectedPages_NotLoaded() {
+        assertFalse(graph.isLoaded());
+        assertNull(graph.getAffectedPages("10"));
+    }
+
+    @Test
+    void testReload() {
+        graph.reload();
+
+        assertTrue(graph.isLoaded());
+        assertEquals(Set.of("10", "11"), graph.getTemplatesForElement("21"));
+        assertEquals(Set.of("1"), graph.getPagesForTemplate("10"));
+        assertEquals(Set.of("1", "3"), graph.getPagesForMovie("30"));
+        assertEquals(Set.of("2"), graph.getPagesForMovie("31"));
+    }
+
+    @Test
+    void testGetAffectedPages() {
+        graph.reload();
+
+        assertEquals(Set.of("1"), graph.getAffectedPages("10"));
+        assertEquals(Set.of("1"), graph.getAffectedPages("20"));
+        assertEquals(Set.of("1", "2"), graph.getAffectedPages("21"));
+        assertEquals(Set.of("1", "3"), graph.getAffectedPages("30"));
+        assertTrue(graph.getAffectedPages("1").isEmpty());
+        assertTrue(graph.getAffectedPages("99").isEmpty());
+    }
+
+    @Test
+    void testGetAffectedPages_Event() {
+        assertNull(graph.getAffectedPages(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "20", null, Constants.CONTENT_TYPE_ELEMENT, null, "footer", null)));
+        graph.reload();
+
+        assertEquals(Set.of("1"), graph.getAffectedPages(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "20", null, Constants.CONTENT_TYPE_ELEMENT, null, "footer", null)));
+        assertEquals(Set.of("1", "3"), graph.getAffectedPages(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.DELETE,
+                "30", null, null, null, null, null)));
+        // 対象自身の破棄は利用側で行うため、通常コンテンツ・採番前の作成は影響するページなし
+        assertTrue(graph.getAffectedPages(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE,
+                "1", "news/1", "", null, "Body", null)).isEmpty());
+        assertTrue(graph.getAffectedPages(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.CREATE,
+                null, null, Constants.CONTENT_TYPE_TEMPLATE, null, "", null)).isEmpty());
+        // IDのない削除は判定できない
+        assertNull(graph.getAffectedPages(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.DELETE,
+                null, null, null, null, null, null)));
+    }
+
+    @Test
+    void testOnContentChange_TemplateUpdate() {
+        graph.reload();
+
+        graph.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "10", null, Constants.CONTENT_TYPE_TEMPLATE, null, "###element(22)###", null));
+
+        assertTrue(graph.getTemplatesForElement("20").isEmpty());
+        assertEquals(Set.of("11"), graph.getTemplatesForElement("21"));
+        assertEquals(Set.of("1"), graph.getAffectedPages("22"));
+        assertEquals(Set.of("3"), graph.getPagesForMovie("30"));
+    }
+
+    @Test
+    void testOnContentChange_ElementUpdate() {
+        graph.reload();
+
+        graph.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "21", null, Constants.CONTENT_TYPE_ELEMENT, null, "[movie id=32]", null));
+
+        assertEquals(Set.of("1", "2"), graph.getPagesForMovie("32"));
+        assertEquals(Set.of("10", "11"), graph.getTemplatesForElement("21"));
+    }
+
+    @Test
+    void testOnContentChange_PageTemplateChanged() {
+        graph.reload();
+
+        graph.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE,
+                "1", "news/1", Constants.CONTENT_TYPE_CONTENT, "11", "body", null));
+
+        assertTrue(graph.getPagesForTemplate("10").isEmpty());
+        assertEquals(Set.of("1", "2"), graph.getPagesForTemplate("11"));
+    }
+
+    @Test
+    void testOnContentChange_DraftPageUpdateIgnored() {
+        graph.reload();
+
+        graph.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "1", "news/1", Constants.CONTENT_TYPE_CONTENT, "11", "body", null));
+
+        assertEquals(Set.of("1"), graph.getPagesForTemplate("10"));
+        assertEquals(Set.of("2"), graph.getPagesForTemplate("11"));
+    }
+
+    @Test
+    void testOnContentChange_PublicStylesheetNotRegistered() {
+        graph.reload();
+
+        graph.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.CREATE,
+                "5", "css/a.css", Constants.CONTENT_TYPE_STYLESHEET, "10", "body {}", null));
+
+        assertEquals(Set.of("1"), graph.getPagesForTemplate("10"));
+    }
+
+    @Test
+    void testGetAffectedPages_Asset() {
+        pages.add(row("id", "4", "type", "", "template", "", "content", null,
+                "head", "<link rel=\"stylesheet\" href=\"/css/site.css\">"));
+        pages.add(row("id", "10", "type", Constants.CONTENT_TYPE_TEMPLATE, "template", null, "content", null,
+                "head", "<script src=\"/js/app.js\"></script>"));
+        pages.add(row("id", "5", "url", "css/site.css", "type", Constants.CONTENT_TYPE_STYLESHEET));
+        pages.add(row("id", "6", "url", "js/app.js", "type", Constants.CONTENT_TYPE_SCRIPT));
+        graph.reload();
+
+        assertEquals(Set.of("4"), graph.getPagesForAsset("css/site.css"));
+        assertEquals(Set.of("4"), graph.getAffectedPages("5"));
+        // テンプレートのヘッダーで参照している場合は、テンプレートを使用しているページ
+        assertEquals(Set.of("1"), graph.getAffectedPages("6"));
+        assertEquals(Set.of(), graph.getPagesForAsset("css/unknown.css"));
+    }
+
+    @Test
+    void testOnContentChange_PageHeadUpdate() {
+        graph.reload();
+
+        graph.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE,
+                "3", "news/3", "", "", "<link rel=\"stylesheet\" href=\"/css/news.css\">", "[movie id=30]", null));
+        // 登録前のスタイルシートも、変更後の公開URLから参照しているページを求める
+        assertEquals(Set.of("3"), graph.getAffectedPages("7", "css/news.css"));
+
+        graph.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.CREATE,
+                "7", "css/news.css", Constants.CONTENT_TYPE_STYLESHEET, null, null, "body {}", null));
+        assertEquals(Set.of("3"), graph.getAffectedPages("7"));
+
+        graph.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE,
+                "3", "news/3", "", "", null, "[movie id=30]", null));
+        assertEquals(Set.of(), graph.getAffectedPages("7"));
+        assertEquals(Set.of("1", "3"), graph.getPagesForMovie("30"));
+    }
+
+    @Test
+    void testOnContentChange_DeleteAssetKeepsReferrers() {
+        pages.add(row("id", "4", "type", "", "template", "", "content", null,
+                "head", "<link rel=\"stylesheet\" href=\"/css/site.css\">"));
+        pages.add(row("id", "5", "url", "css/site.css", "type", Constants.CONTENT_TYPE_STYLESHEET));
+        graph.reload();
+
+        graph.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.DELETE,
+                "5", null, null, null, null, null));
+
+        assertEquals(Set.of("4"), graph.getAffectedPages("5"));
+    }
+
+    @Test
+    void testOnContentChange_DeletePage() {
+        graph.reload();
+
+        graph.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.DELETE,
+                "3", null, null, null, null, null));
+
+        assertEquals(Set.of("1"), graph.getPagesForMovie("30"));
+    }
+
+    @Test
+    void testOnContentChange_DeleteTemplateKeepsPages() {
+        graph.reload();
+
+        graph.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.DELETE,
+                "10", null, null, null, null, null));
+
+        // 参照元（公開ページ）の情報は残るため、削除されたテンプレートの影響範囲を求められる
+        assertEquals(Set.of("1"), graph.getAffectedPages("10"));
+        assertEquals(Set.of("11"), graph.getTemplatesForElement("21"));
+    }
+
+    @Test
+    void testOnContentChange_CreateWithoutIdReloads() {
+        graph.reload();
+        layouts.add(row("id", "12", "type", Constants.CONTENT_TYPE_TEMPLATE, "content", "###element(20)###"));
+
+        graph.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.CREATE,
+                null, null, Constants.CONTENT_TYPE_TEMPLATE, null, "###element(20)###", null));
+
+        verify(mapper, times(2)).getLayoutDependencies();
+        assertEquals(Set.of("10", "12"), graph.getTemplatesForElement("20"));
+    }
+
+    @Test
+    void testOnContentChange_NotLoadedIgnored() {
+        graph.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.CREATE,
+                null, null, Constants.CONTENT_TYPE_TEMPLATE, null, "###element(20)###", null));
+
+        verify(mapper, never()).getLayoutDependencies();
+        assertFalse(graph.isLoaded());
+    }
+
+    @Test
+    void testOnApplicationReady_LoadError() {
+        when(mapper.getLayoutDependencies()).thenThrow(new RuntimeException("DB error"));
+
+        assertDoesNotThrow(() -> graph.onApplicationReady());
+        assertFalse(graph.isLoaded());
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.skygarden.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.skygarden.bean.SnippetBean;
+import com.example.skygarden.config.AppProperties;
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.mapper.ContentMapper;
+import com.example.skygarden.service.ContentChangeEvent.Operation;
+
+/**
+ * ContentSearchIndexのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ContentSearchIndexTest {
+
+    @Mock
+    private ContentMapper mapper;
+
+    @InjectMocks
+    private ContentSearchIndex searchIndex;
+
+    private AppProperties appProperties;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        ReflectionTestUtils.setField(searchIndex, "appProperties", appProperties);
+        List<HashMap<String, String>> rows = new ArrayList<>();
+        rows.add(row("1", "", "東京都のお知らせ", "news/1", "<p>東京の本文</p>", "2024-01-01 10:00"));
+        rows.add(row("2", "", "イベント", "event/2", "東京で開催します。東京、東京", "2024-02-01 10:00"));
+        rows.add(row("3", "", "ＡＢＣ Company", "abc", "hello", "2024-03-01 10:00"));
+        rows.add(row("4", Constants.CONTENT_TYPE_IMAGE, "東京", "images/tokyo.png", "", "2024-04-01 10:00"));
+        when(mapper.getSearchDocuments(null)).thenReturn(rows);
+    }
+
+    private HashMap<String, String> row(String id, String type, String title, String url, String content, String updated) {
+        HashMap<String, String> row = new HashMap<>();
+        row.put("id", id);
+        row.put("type", type);
+        row.put("title", title);
+        row.put("url", url);
+        row.put("content", content);
+        row.put("updated", updated);
+        return row;
+    }
+
+    @Test
+    void testOnApplicationReady_Loads() {
+        assertFalse(searchIndex.isLoaded());
+
+        searchIndex.onApplicationReady();
+
+        assertTrue(searchIndex.isLoaded());
+        assertEquals(4, searchIndex.size());
+    }
+
+    @Test
+    void testOnApplicationReady_DisabledSkipsLoad() {
+        appProperties.getSearch().setIndexEnabled(false);
+
+        searchIndex.onApplicationReady();
+
+        assertFalse(searchIndex.isLoaded());
+        verify(mapper, never()).getSearchDocuments(any());
+    }
+
+    @Test
+    void testSearch_RankedByRelevance() {
+        searchIndex.reload();
+
+        ContentSearchIndex.Result result = searchIndex.search("", "東京", "", 0, 20);
+
+        // タイトルに含むコンテンツが本文のみに含むコンテンツより先になる
+        assertEquals(List.of("1", "2"), result.getIds());
+        assertEquals(2, result.getTotal());
+    }
+
+    @Test
+    void testSearch_SortColumn() {
+        searchIndex.reload();
+
+        assertEquals(List.of("2", "1"), searchIndex.search("", "東京", "updated desc", 0, 20).getIds());
+        assertEquals(List.of("1", "2"), searchIndex.search("", "東京", "id", 0, 20).getIds());
+    }
+
+    @Test
+    void testSearch_FiltersByType() {
+        searchIndex.reload();
+
+        assertEquals(List.of("4"), searchIndex.search(Constants.CONTENT_TYPE_IMAGE, "東京", "", 0, 20).getIds());
+    }
+
+    @Test
+    void testSearch_PartialMatchLikeSql() {
+        searchIndex.reload();
+
+        assertEquals(List.of("1"), searchIndex.search("", "京都", "", 0, 20).getIds());
+        assertEquals(List.of("1"), searchIndex.search("", "news", "", 0, 20).getIds());
+        assertTrue(searchIndex.search("", "京の都", "", 0, 20).getIds().isEmpty());
+    }
+
+    @Test
+    void testSearch_NormalizesWidthAndCase() {
+        searchIndex.reload();
+
+        assertEquals(List.of("3"), searchIndex.search("", "abc", "", 0, 20).getIds());
+        assertEquals(List.of("3"), searchIndex.search("", "ＣＯＭＰＡＮＹ", "", 0, 20).getIds());
+    }
+
+    @Test
+    void testSearch_AllTermsRequired() {
+        searchIndex.reload();
+
+        assertEquals(List.of("1"), searchIndex.search("", "東京　お知らせ", "", 0, 20).getIds());
+        assertTrue(searchIndex.search("", "東京 hello", "", 0, 20).getIds().isEmpty());
+    }
+
+    @Test
+    void testSearch_DoesNotMatchAcrossFields() {
+        searchIndex.reload();
+
+        // タイトル「ＡＢＣ Company」とURL「abc」の境界をまたぐ語には一致しない
+        assertTrue(searchIndex.search("", "companyabc", "", 0, 20).getIds().isEmpty());
+    }
+
+    @Test
+    void testSearch_PagesAndExactTotal() {
+        searchIndex.reload();
+
+        ContentSearchIndex.Result result = searchIndex.search("", "", "id", 1, 1);
+
+        assertEquals(List.of("2"), result.getIds());
+        assertEquals(3, result.getTotal());
+        assertEquals(3, searchIndex.count("", ""));
+        assertEquals(2, searchIndex.count("", "東京"));
+    }
+
+    @Test
+    void testOnContentChange_Update() {
+        searchIndex.reload();
+
+        searchIndex.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE, "1", "news/1",
+                "大阪のお知らせ", "", null, null, "大阪の本文", "2024-05-01 10:00"));
+
+        assertEquals(List.of("2"), searchIndex.search("", "東京", "", 0, 20).getIds());
+        assertEquals(List.of("1"), searchIndex.search("", "大阪", "", 0, 20).getIds());
+    }
+
+    @Test
+    void testOnContentChange_CreateLoadsNewRows() {
+        searchIndex.reload();
+        List<HashMap<String, String>> created = new ArrayList<>();
+        created.add(row("5", "", "新しい東京", "new", "", "2024-06-01 10:00"));
+        when(mapper.getSearchDocuments(4)).thenReturn(created);
+
+        searchIndex.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.CREATE, null, "new",
+                "新しい東京", "", null, null, "", "2024-06-01 10:00"));
+
+        assertEquals(List.of("5", "2", "1"), searchIndex.search("", "東京", "updated desc", 0, 20).getIds());
+        verify(mapper).getSearchDocuments(4);
+    }
+
+    @Test
+    void testOnContentChange_Delete() {
+        searchIndex.reload();
+
+        searchIndex.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.DELETE, "1", null, null, null, null, null));
+
+        assertEquals(List.of("2"), searchIndex.search("", "東京", "", 0, 20).getIds());
+        assertEquals(3, searchIndex.size());
+    }
+
+    @Test
+    void testOnContentChange_PublicTableIgnored() {
+        searchIndex.reload();
+
+        searchIndex.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.DELETE, "1", null, null, null, null, null));
+
+        assertEquals(4, searchIndex.size());
+    }
+
+    @Test
+    void testOnContentChange_NotLoadedIgnored() {
+        searchIndex.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.CREATE, null, "new", "", null, null, null));
+
+        verify(mapper, never()).getSearchDocuments(anyInt());
+        assertEquals(0, searchIndex.size());
+    }
+
+    @Test
+    void testReload_ReplaysEventsDuringLoad() {
+        List<HashMap<String, String>> rows = new ArrayList<>();
+        rows.add(row("1", "", "東京都のお知らせ", "news/1", "", "2024-01-01 10:00"));
+        List<HashMap<String, String>> created = new ArrayList<>();
+        created.add(row("2", "", "新しい東京", "new", "", "2024-06-01 10:00"));
+        when(mapper.getSearchDocuments(1)).thenReturn(created);
+        when(mapper.getSearchDocuments(null)).thenAnswer(invocation -> {
+            // 読み込み中の書き込み（読み込み結果には含まれない）
+            searchIndex.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE, "1", "news/1",
+                    "大阪のお知らせ", "", null, null, "", "2024-05-01 10:00"));
+            searchIndex.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.CREATE, null, "new",
+                    "新しい東京", "", null, null, "", "2024-06-01 10:00"));
+            return rows;
+        });
+
+        searchIndex.reload();
+
+        assertTrue(searchIndex.isLoaded());
+        assertEquals(List.of("1"), searchIndex.search("", "大阪", "", 0, 20).getIds());
+        assertEquals(List.of("2"), searchIndex.search("", "東京", "", 0, 20).getIds());
+        verify(mapper).getSearchDocuments(1);
+    }
+
+    @Test
+    void testReload_ErrorStopsBuffering() {
+        when(mapper.getSearchDocuments(null)).thenThrow(new RuntimeException("db"));
+
+        assertThrows(RuntimeException.class, () -> searchIndex.reload());
+        searchIndex.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.DELETE, "1", null, null, null, null, null));
+
+        assertFalse(searchIndex.isLoaded());
+        assertEquals(0, searchIndex.size());
+    }
+
+    @Test
+    void testSearchAfter_Keyset() {
+        searchIndex.reload();
+
+        assertEquals(List.of("2", "1"), searchIndex.searchAfter("", "東京", "updated", true, null, null, 20));
+        assertEquals(List.of("1"), searchIndex.searchAfter("", "東京", "updated", true, "2024-02-01 10:00", 2L, 20));
+        assertEquals(List.of("2"), searchIndex.searchAfter("", "東京", "id", false, null, 1L, 20));
+        assertEquals(List.of("1"), searchIndex.searchAfter("", "", "id", false, null, null, 1));
+    }
+
+    @Test
+    void testSearchAfter_SameValueOrderedById() {
+        List<HashMap<String, String>> rows = new ArrayList<>();
+        rows.add(row("1", "", "東京", "a", "", "2024-01-01 10:00"));
+        rows.add(row("2", "", "東京", "b", "", "2024-01-01 10:00"));
+        rows.add(row("3", "", "東京", "c", "", "2024-01-01 10:00"));
+        when(mapper.getSearchDocuments(null)).thenReturn(rows);
+        searchIndex.reload();
+
+        assertEquals(List.of("3"), searchIndex.searchAfter("", "東京", "title", false, "東京", 2L, 20));
+        assertEquals(List.of("1"), searchIndex.searchAfter("", "東京", "title", true, "東京", 2L, 20));
+    }
+
+    @Test
+    void testSearch_TitleSortIgnoresCase() {
+        List<HashMap<String, String>> rows = new ArrayList<>();
+        rows.add(row("1", "", "Banana", "a", "", "2024-01-01 10:00"));
+        rows.add(row("2", "", "apple", "b", "", "2024-01-01 10:00"));
+        rows.add(row("3", "", "Cherry", "c", "", "2024-01-01 10:00"));
+        rows.add(row("4", "", "APPLE", "d", "", "2024-01-01 10:00"));
+        when(mapper.getSearchDocuments(null)).thenReturn(rows);
+        searchIndex.reload();
+
+        // データベースの照合順序（utf8mb4_unicode_ci）と同じく大文字・小文字を区別しない（同じ値はID順）
+        assertEquals(List.of("2", "4", "1", "3"), searchIndex.search("", "", "title", 0, 20).getIds());
+        assertEquals(List.of("1", "3"), searchIndex.searchAfter("", "", "title", false, "Apple", 4L, 20));
+    }
+
+    @Test
+    void testSnippets() {
+        searchIndex.reload();
+
+        HashMap<String, SnippetBean> snippets = searchIndex.snippets(List.of("2", "1", "99"), "東京", 120);
+
+        // タグを除いた本文から生成し、インデックスにないIDは含まない
+        assertEquals(2, snippets.size());
+        assertEquals("東京の本文", snippets.get("1").getText());
+        assertEquals(1, snippets.get("1").getHighlights().size());
+        assertEquals(3, snippets.get("2").getHighlights().size());
+        verify(mapper, times(1)).getSearchDocuments(null);
+    }
+
+    @Test
+    void testGrams() {
+        assertEquals(Set.of("東", "京", "東京"), ContentSearchIndex.grams("東京"));
+        assertEquals(Set.of("a", "b"), ContentSearchIndex.grams("a b"));
+        assertEquals(Set.of("東京", "京都"), ContentSearchIndex.queryGrams("東京都"));
+    }
+}
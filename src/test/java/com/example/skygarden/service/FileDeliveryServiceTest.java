@@ -0,0 +1,261 @@
+package com.example.skygarden.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.example.skygarden.service.FileDeliveryService.ByteRange;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * FileDeliveryServiceのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FileDeliveryServiceTest {
+
+    private static final String ETAG = "\"a-1\"";
+
+    private static final long LAST_MODIFIED = 1700000000000L;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    private final FileDeliveryService fileDelivery = new FileDeliveryService();
+
+    private ByteArrayOutputStream written;
+
+    private Path file;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = tempDir.resolve("data.bin");
+        Files.write(file, "0123456789".getBytes(StandardCharsets.US_ASCII));
+        written = new ByteArrayOutputStream();
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getDateHeader(anyString())).thenReturn(-1L);
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                written.write(b);
+            }
+        });
+    }
+
+    private void deliver() throws Exception {
+        fileDelivery.deliver(request, response, file, "application/pdf", 10, LAST_MODIFIED, ETAG, "public, max-age=60");
+    }
+
+    private String writtenBody() {
+        return new String(written.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void testDeliver_Full() throws Exception {
+        deliver();
+
+        verify(response).setHeader("Accept-Ranges", "bytes");
+        verify(response).setContentType("application/pdf");
+        verify(response).setContentLengthLong(10);
+        verify(response).setHeader("ETag", ETAG);
+        verify(response).setHeader("Cache-Control", "public, max-age=60");
+        verify(response, never()).setStatus(anyInt());
+        assertEquals("0123456789", writtenBody());
+    }
+
+    @Test
+    void testDeliver_FromFileAttributes() throws Exception {
+        fileDelivery.deliver(request, response, file, "application/pdf", "");
+
+        verify(response).setContentLengthLong(10);
+        verify(response).setHeader(eq("ETag"), startsWith("\"a-"));
+        assertEquals("0123456789", writtenBody());
+    }
+
+    @Test
+    void testDeliver_SingleRange() throws Exception {
+        when(request.getHeader("Range")).thenReturn("bytes=2-5");
+
+        deliver();
+
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(response).setHeader("Content-Range", "bytes 2-5/10");
+        verify(response).setContentLengthLong(4);
+        assertEquals("2345", writtenBody());
+    }
+
+    @Test
+    void testDeliver_SuffixRange() throws Exception {
+        when(request.getHeader("Range")).thenReturn("bytes=-3");
+
+        deliver();
+
+        verify(response).setHeader("Content-Range", "bytes 7-9/10");
+        assertEquals("789", writtenBody());
+    }
+
+    @Test
+    void testDeliver_MultipleRanges() throws Exception {
+        when(request.getHeader("Range")).thenReturn("bytes=0-1, 8-");
+
+        deliver();
+
+        ArgumentCaptor<String> contentType = ArgumentCaptor.forClass(String.class);
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(response).setContentType(contentType.capture());
+        assertTrue(contentType.getValue().startsWith("multipart/byteranges; boundary="));
+        String boundary = contentType.getValue().substring("multipart/byteranges; boundary=".length());
+        String expected = "\r\n--" + boundary + "\r\nContent-Type: application/pdf\r\nContent-Range: bytes 0-1/10\r\n\r\n01"
+                + "\r\n--" + boundary + "\r\nContent-Type: application/pdf\r\nContent-Range: bytes 8-9/10\r\n\r\n89"
+                + "\r\n--" + boundary + "--\r\n";
+        assertEquals(expected, writtenBody());
+        verify(response).setContentLengthLong(expected.length());
+    }
+
+    @Test
+    void testDeliver_Unsatisfiable() throws Exception {
+        when(request.getHeader("Range")).thenReturn("bytes=20-30");
+
+        deliver();
+
+        verify(response).setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        verify(response).setHeader("Content-Range", "bytes */10");
+        assertEquals(0, written.size());
+    }
+
+    @Test
+    void testDeliver_IfRangeEtagMismatch() throws Exception {
+        when(request.getHeader("Range")).thenReturn("bytes=2-5");
+        when(request.getHeader("If-Range")).thenReturn("\"other\"");
+
+        deliver();
+
+        // 一致しない場合は全体を返す
+        verify(response, never()).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertEquals("0123456789", writtenBody());
+    }
+
+    @Test
+    void testDeliver_IfRangeEtagMatch() throws Exception {
+        when(request.getHeader("Range")).thenReturn("bytes=2-5");
+        when(request.getHeader("If-Range")).thenReturn(ETAG);
+
+        deliver();
+
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertEquals("2345", writtenBody());
+    }
+
+    @Test
+    void testDeliver_IfRangeDate() throws Exception {
+        when(request.getHeader("Range")).thenReturn("bytes=2-5");
+        when(request.getHeader("If-Range")).thenReturn("Tue, 14 Nov 2023 22:13:20 GMT");
+        when(request.getDateHeader("If-Range")).thenReturn(LAST_MODIFIED);
+
+        deliver();
+
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertEquals("2345", writtenBody());
+    }
+
+    @Test
+    void testDeliver_NotModified() throws Exception {
+        when(request.getHeader("If-None-Match")).thenReturn(ETAG);
+
+        deliver();
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        assertEquals(0, written.size());
+    }
+
+    @Test
+    void testDeliver_Head() throws Exception {
+        when(request.getMethod()).thenReturn("HEAD");
+
+        deliver();
+
+        verify(response).setContentLengthLong(10);
+        assertEquals(0, written.size());
+    }
+
+    @Test
+    void testDeliver_Sendfile() throws Exception {
+        when(request.getAttribute(FileDeliveryService.SENDFILE_SUPPORT_ATTR)).thenReturn(Boolean.TRUE);
+        when(request.getHeader("Range")).thenReturn("bytes=2-5");
+
+        deliver();
+
+        // コンテナに転送を委ねるため、本文は書き込まない
+        verify(request).setAttribute(FileDeliveryService.SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+        verify(request).setAttribute(FileDeliveryService.SENDFILE_START_ATTR, 2L);
+        verify(request).setAttribute(FileDeliveryService.SENDFILE_END_ATTR, 6L);
+        assertEquals(0, written.size());
+    }
+
+    @Test
+    void testDeliver_SendfileMissingFile() throws Exception {
+        when(request.getAttribute(FileDeliveryService.SENDFILE_SUPPORT_ATTR)).thenReturn(Boolean.TRUE);
+        Files.delete(file);
+
+        // メタデータから配信する場合もファイルがなければ例外にし、コンテナに転送を委ねない
+        assertThrows(NoSuchFileException.class, () -> deliver());
+        verify(request, never()).setAttribute(eq(FileDeliveryService.SENDFILE_FILENAME_ATTR), any());
+    }
+
+    @Test
+    void testParseRanges() {
+        List<ByteRange> ranges = FileDeliveryService.parseRanges("bytes=0-0,5-100", 10);
+
+        assertEquals(2, ranges.size());
+        assertEquals(0, ranges.get(0).getStart());
+        assertEquals(0, ranges.get(0).getEnd());
+        assertEquals(5, ranges.get(1).getStart());
+        assertEquals(9, ranges.get(1).getEnd());
+    }
+
+    @Test
+    void testParseRanges_Invalid() {
+        assertNull(FileDeliveryService.parseRanges(null, 10));
+        assertNull(FileDeliveryService.parseRanges("items=0-1", 10));
+        assertNull(FileDeliveryService.parseRanges("bytes=5-2", 10));
+        assertNull(FileDeliveryService.parseRanges("bytes=a-b", 10));
+        assertNull(FileDeliveryService.parseRanges("bytes=" + "0-0,".repeat(30) + "0-0", 10));
+        assertTrue(FileDeliveryService.parseRanges("bytes=10-", 10).isEmpty());
+    }
+}
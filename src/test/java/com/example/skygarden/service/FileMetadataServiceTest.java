@@ -0,0 +1,131 @@
+package com.example.skygarden.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.example.skygarden.bean.FileMetadata;
+import com.example.skygarden.mapper.ContentMapper;
+
+/**
+ * FileMetadataServiceのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FileMetadataServiceTest {
+
+    /** "hello" の SHA-256 */
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @Mock
+    private ContentMapper mapper;
+
+    @InjectMocks
+    private FileMetadataService fileMetadataService;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testStore() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "hello.txt", "text/plain",
+                "hello".getBytes(StandardCharsets.US_ASCII));
+        Path target = tempDir.resolve("20240101_hello.txt");
+
+        FileMetadata metadata = fileMetadataService.store(file, target);
+
+        assertEquals("hello", Files.readString(target));
+        assertEquals("20240101_hello.txt", metadata.getFileName());
+        assertEquals(5L, metadata.getSize());
+        assertEquals(HELLO_SHA256, metadata.getSha256());
+        assertEquals(Files.getLastModifiedTime(target).toMillis(), metadata.getLastModified());
+        assertNotNull(metadata.getMimeType());
+        assertNotNull(metadata.getCreated());
+        verify(mapper).upsertFileMetadata(metadata);
+    }
+
+    @Test
+    void testStore_UnknownMimeType() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "data", null, new byte[] { 1, 2, 3 });
+        Path target = tempDir.resolve("data.unknownext");
+
+        FileMetadata metadata = fileMetadataService.store(file, target);
+
+        assertEquals(3L, metadata.getSize());
+        assertEquals("application/octet-stream", metadata.getMimeType());
+    }
+
+    @Test
+    void testStore_IgnoresUploadedContentType() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "a.unknownext", "image/svg+xml",
+                "<svg><script>alert(1)</script></svg>".getBytes(StandardCharsets.US_ASCII));
+        Path target = tempDir.resolve("a.unknownext");
+
+        FileMetadata metadata = fileMetadataService.store(file, target);
+
+        // ブラウザが送信した Content-Type では公開しない
+        assertEquals("application/octet-stream", metadata.getMimeType());
+    }
+
+    @Test
+    void testStore_Overwrite() throws Exception {
+        Path target = tempDir.resolve("same.txt");
+        Files.writeString(target, "old content");
+        MockMultipartFile file = new MockMultipartFile("file", "same.txt", "text/plain",
+                "hello".getBytes(StandardCharsets.US_ASCII));
+
+        FileMetadata metadata = fileMetadataService.store(file, target);
+
+        assertEquals("hello", Files.readString(target));
+        assertEquals(5L, metadata.getSize());
+    }
+
+    @Test
+    void testStore_RegisterError() throws Exception {
+        doThrow(new RuntimeException("DB error")).when(mapper).upsertFileMetadata(any(FileMetadata.class));
+        MockMultipartFile file = new MockMultipartFile("file", "hello.txt", "text/plain",
+                "hello".getBytes(StandardCharsets.US_ASCII));
+        Path target = tempDir.resolve("hello.txt");
+
+        FileMetadata metadata = assertDoesNotThrow(() -> fileMetadataService.store(file, target));
+
+        assertTrue(Files.exists(target));
+        assertEquals(HELLO_SHA256, metadata.getSha256());
+    }
+
+    @Test
+    void testDelete() {
+        fileMetadataService.delete("20240101_hello.txt");
+
+        verify(mapper).deleteFileMetadata("20240101_hello.txt");
+    }
+
+    @Test
+    void testDelete_EmptyNameIgnored() {
+        fileMetadataService.delete(null);
+        fileMetadataService.delete("");
+
+        verify(mapper, never()).deleteFileMetadata(anyString());
+    }
+
+    @Test
+    void testDelete_ErrorIgnored() {
+        doThrow(new RuntimeException("db")).when(mapper).deleteFileMetadata("a.txt");
+
+        assertDoesNotThrow(() -> fileMetadataService.delete("a.txt"));
+    }
+}
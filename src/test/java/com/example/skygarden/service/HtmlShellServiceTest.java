@@ -0,0 +1,103 @@
+package com.example.skygarden.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.example.skygarden.logic.HtmlShell;
+
+/**
+ * HtmlShellServiceのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HtmlShellServiceTest {
+
+    @Mock
+    private PageCacheService pageCache;
+
+    @InjectMocks
+    private HtmlShellService htmlShellService;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        htmlShellService.shutdown();
+    }
+
+    @Test
+    void testGetShell_LoadsOnce() throws IOException {
+        Path file = tempDir.resolve("original.html");
+        Files.write(file, "<title>###title###</title>".getBytes());
+
+        HtmlShell first = htmlShellService.getShell(file.toString());
+        HtmlShell second = htmlShellService.getShell(file.toString());
+
+        assertSame(first, second);
+        // CommonProc.readFile と同様に行末は \r\n で連結される
+        assertEquals("<title>T</title>\r\n", first.render("T", null, null));
+    }
+
+    @Test
+    void testGetShell_FileNotFound() {
+        HtmlShell shell = htmlShellService.getShell(tempDir.resolve("missing.html").toString());
+
+        assertTrue(shell.isEmpty());
+    }
+
+    @Test
+    void testOnFileChanged_EvictsAndClearsPageCache() throws IOException {
+        Path file = tempDir.resolve("original.html");
+        Files.write(file, "v1 ###content###".getBytes());
+        HtmlShell first = htmlShellService.getShell(file.toString());
+
+        Files.write(file, "v2 ###content###".getBytes());
+        htmlShellService.onFileChanged(file.toAbsolutePath().toString());
+        HtmlShell second = htmlShellService.getShell(file.toString());
+
+        assertNotSame(first, second);
+        assertEquals("v2 C\r\n", second.render(null, null, "C"));
+        verify(pageCache).clear();
+    }
+
+    @Test
+    void testOnFileChanged_UnrelatedFile() throws IOException {
+        Path file = tempDir.resolve("original.html");
+        Files.write(file, "v1".getBytes());
+        htmlShellService.getShell(file.toString());
+
+        htmlShellService.onFileChanged(tempDir.resolve("other.txt").toAbsolutePath().toString());
+
+        verify(pageCache, never()).clear();
+    }
+
+    @Test
+    void testOnOverflow_EvictsAllAndClearsPageCache() throws IOException {
+        Path file = tempDir.resolve("original.html");
+        Files.write(file, "v1 ###content###".getBytes());
+        HtmlShell first = htmlShellService.getShell(file.toString());
+
+        Files.write(file, "v2 ###content###".getBytes());
+        htmlShellService.onOverflow();
+        HtmlShell second = htmlShellService.getShell(file.toString());
+
+        assertNotSame(first, second);
+        assertEquals("v2 C\r\n", second.render(null, null, "C"));
+        verify(pageCache).clear();
+    }
+}
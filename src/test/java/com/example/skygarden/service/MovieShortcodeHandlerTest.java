@@ -0,0 +1,78 @@
+package com.example.skygarden.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.logic.ShortcodeDocument;
+
+/**
+ * MovieShortcodeHandlerのテストクラス
+ */
+class MovieShortcodeHandlerTest {
+
+    private MovieShortcodeHandler handler;
+
+    private HashMap<String, String> movie;
+
+    @BeforeEach
+    void setUp() {
+        handler = new MovieShortcodeHandler();
+        movie = new HashMap<>();
+        movie.put("id", "11");
+        movie.put("type", Constants.CONTENT_TYPE_MOVIE);
+        movie.put("content", "dQw4w9WgXcQ");
+    }
+
+    private ShortcodeDocument.Segment shortcode(String source) {
+        return ShortcodeDocument.parse(source, Set.of(MovieShortcodeHandler.NAME)).getSegments().get(0);
+    }
+
+    @Test
+    void testGetReferenceId() {
+        assertEquals("11", handler.getReferenceId(shortcode("[movie id=11]")));
+        assertNull(handler.getReferenceId(shortcode("[movie id=abc]")));
+        assertNull(handler.getReferenceId(shortcode("[movie width=560px]")));
+    }
+
+    @Test
+    void testRender_Responsive() {
+        String result = handler.render(shortcode("[movie id=11]"), movie);
+
+        assertTrue(result.contains("https://www.youtube.com/embed/dQw4w9WgXcQ"));
+        assertTrue(result.contains("padding-bottom:56.25%"));
+    }
+
+    @Test
+    void testRender_FixedSize() {
+        String result = handler.render(shortcode("[movie id=11, height=600px]"), movie);
+
+        assertTrue(result.contains("width=\"560px\""));
+        assertTrue(result.contains("height=\"600px\""));
+    }
+
+    @Test
+    void testRender_NotFound() {
+        assertEquals("<!-- Movie ID 11: Not found or not published -->", handler.render(shortcode("[movie id=11]"), null));
+
+        movie.put("type", Constants.CONTENT_TYPE_IMAGE);
+        assertEquals("<!-- Movie ID 11: Not found or not published -->", handler.render(shortcode("[movie id=11]"), movie));
+    }
+
+    @Test
+    void testRender_VideoIdNotFound() {
+        movie.put("content", "");
+
+        assertEquals("<!-- Movie ID 11: Video ID not found -->", handler.render(shortcode("[movie id=11]"), movie));
+    }
+
+    @Test
+    void testRender_InvalidIdKeepsRaw() {
+        assertEquals("[movie id=abc]", handler.render(shortcode("[movie id=abc]"), null));
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.skygarden.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.example.skygarden.config.AppProperties;
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.service.ContentChangeEvent.Operation;
+import com.example.skygarden.service.PageCacheService.CachedPage;
+import com.example.skygarden.util.CompressionUtil;
+
+/**
+ * PageCacheServiceのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PageCacheServiceTest {
+
+    @Mock
+    private AppProperties appProperties;
+
+    @Mock
+    private AppProperties.Cache cacheProperties;
+
+    @Mock
+    private ContentDependencyGraph dependencyGraph;
+
+    @InjectMocks
+    private PageCacheService pageCache;
+
+    @BeforeEach
+    void setUp() {
+        when(appProperties.getCache()).thenReturn(cacheProperties);
+        when(cacheProperties.isEnabled()).thenReturn(true);
+        when(cacheProperties.getPageMaxEntries()).thenReturn(2);
+        // 依存関係グラフは未読み込みとして扱う
+        when(dependencyGraph.getAffectedPages(anyString())).thenReturn(null);
+        // イベントから影響するページを求める処理は実際のメソッドを使う
+        when(dependencyGraph.getAffectedPages(any(ContentChangeEvent.class))).thenCallRealMethod();
+    }
+
+    private void putPage(String url, String id) {
+        pageCache.put(url, new CachedPage(id, "text/html; charset=UTF-8", "body-" + id), pageCache.currentGeneration());
+    }
+
+    private ContentChangeEvent event(String table, Operation operation, String id, String type) {
+        return new ContentChangeEvent(table, operation, id, null, type, null, null, null);
+    }
+
+    @Test
+    void testPutAndGet() {
+        putPage("test/page", "1");
+
+        CachedPage result = pageCache.get("test/page");
+
+        assertNotNull(result);
+        assertEquals("1", result.getId());
+        assertEquals("body-1", new String(result.getBody(), StandardCharsets.UTF_8));
+        assertEquals("text/html; charset=UTF-8", result.getContentType());
+    }
+
+    @Test
+    void testGet_Miss() {
+        assertNull(pageCache.get("unknown"));
+    }
+
+    @Test
+    void testGet_Disabled() {
+        putPage("test/page", "1");
+        when(cacheProperties.isEnabled()).thenReturn(false);
+
+        assertNull(pageCache.get("test/page"));
+    }
+
+    @Test
+    void testPut_StaleGenerationIgnored() {
+        long generation = pageCache.currentGeneration();
+        pageCache.evictById("1");
+
+        pageCache.put("test/page", new CachedPage("1", "text/css", "body"), generation);
+
+        assertNull(pageCache.get("test/page"));
+    }
+
+    @Test
+    void testPut_EvictsLeastRecentlyUsed() {
+        putPage("a", "1");
+        putPage("b", "2");
+        pageCache.get("a");
+        putPage("c", "3");
+
+        assertEquals(2, pageCache.size());
+        assertNotNull(pageCache.get("a"));
+        assertNull(pageCache.get("b"));
+        assertNotNull(pageCache.get("c"));
+    }
+
+    @Test
+    void testGetStale_AfterEvict() {
+        when(cacheProperties.getStaleWhileRevalidateSeconds()).thenReturn(30);
+        putPage("a", "1");
+
+        pageCache.evictById("1");
+
+        assertNull(pageCache.get("a"));
+        assertEquals("body-1", new String(pageCache.getStale("a").getBody(), StandardCharsets.UTF_8));
+        // 新しいページを登録した時点で破棄する
+        putPage("a", "1");
+        assertNull(pageCache.getStale("a"));
+    }
+
+    @Test
+    void testGetStale_AfterClear() {
+        when(cacheProperties.getStaleWhileRevalidateSeconds()).thenReturn(30);
+        putPage("a", "1");
+
+        pageCache.clear();
+
+        assertEquals(0, pageCache.size());
+        assertNotNull(pageCache.getStale("a"));
+    }
+
+    @Test
+    void testGetStale_Disabled() {
+        when(cacheProperties.getStaleWhileRevalidateSeconds()).thenReturn(0);
+        putPage("a", "1");
+
+        pageCache.evictById("1");
+
+        assertNull(pageCache.getStale("a"));
+    }
+
+    @Test
+    void testGetStale_LimitedToMaxEntries() {
+        when(cacheProperties.getStaleWhileRevalidateSeconds()).thenReturn(30);
+        putPage("a", "1");
+        putPage("b", "2");
+        pageCache.evictById("1");
+        putPage("c", "3");
+
+        pageCache.clear();
+
+        // 最も古く破棄したものから取り除く
+        assertNull(pageCache.getStale("a"));
+        assertNotNull(pageCache.getStale("b"));
+        assertNotNull(pageCache.getStale("c"));
+    }
+
+    @Test
+    void testOnContentChange_DeleteDiscardsStale() {
+        when(cacheProperties.getStaleWhileRevalidateSeconds()).thenReturn(30);
+        putPage("a", "1");
+        putPage("b", "2");
+        pageCache.onContentChange(event(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE, "1", Constants.CONTENT_TYPE_CONTENT));
+        assertNotNull(pageCache.getStale("a"));
+
+        pageCache.onContentChange(event(Constants.TABLE_CONTENT_PUBLIC, Operation.DELETE, "1", null));
+        pageCache.onContentChange(event(Constants.TABLE_CONTENT_PUBLIC, Operation.DELETE, "2", null));
+
+        assertNull(pageCache.getStale("a"));
+        assertNull(pageCache.getStale("b"));
+    }
+
+    @Test
+    void testEvictById() {
+        putPage("a", "1");
+        putPage("b", "2");
+
+        assertTrue(pageCache.evictById("1"));
+
+        assertNull(pageCache.get("a"));
+        assertNotNull(pageCache.get("b"));
+        assertFalse(pageCache.evictById("1"));
+    }
+
+    @Test
+    void testOnContentChange_PublicUpdateEvictsOnlyTarget() {
+        putPage("a", "1");
+        putPage("b", "2");
+
+        pageCache.onContentChange(event(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE, "1", Constants.CONTENT_TYPE_CONTENT));
+
+        assertNull(pageCache.get("a"));
+        assertNotNull(pageCache.get("b"));
+    }
+
+    @Test
+    void testOnContentChange_ElementUpdateClearsAll() {
+        putPage("a", "1");
+        putPage("b", "2");
+
+        pageCache.onContentChange(event(Constants.TABLE_CONTENT, Operation.UPDATE, "10", Constants.CONTENT_TYPE_ELEMENT));
+
+        assertEquals(0, pageCache.size());
+    }
+
+    @Test
+    void testOnContentChange_ElementUpdateEvictsDependentPages() {
+        when(cacheProperties.getPageMaxEntries()).thenReturn(10);
+        when(dependencyGraph.getAffectedPages("10")).thenReturn(Set.of("1", "3"));
+        putPage("a", "1");
+        putPage("b", "2");
+        putPage("c", "3");
+
+        pageCache.onContentChange(event(Constants.TABLE_CONTENT, Operation.UPDATE, "10", Constants.CONTENT_TYPE_ELEMENT));
+
+        assertNull(pageCache.get("a"));
+        assertNotNull(pageCache.get("b"));
+        assertNull(pageCache.get("c"));
+    }
+
+    @Test
+    void testOnContentChange_PublicStylesheetEvictsReferringPages() {
+        when(cacheProperties.getPageMaxEntries()).thenReturn(10);
+        when(dependencyGraph.getAffectedPages("5", "css/site.css")).thenReturn(Set.of("1"));
+        putPage("css/site.0123456789.css", "5");
+        putPage("a", "1");
+        putPage("b", "2");
+
+        pageCache.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE, "5",
+                "css/site.css", Constants.CONTENT_TYPE_STYLESHEET, null, "body {}", null));
+
+        assertNull(pageCache.get("css/site.0123456789.css"));
+        assertNull(pageCache.get("a"));
+        assertNotNull(pageCache.get("b"));
+    }
+
+    @Test
+    void testOnContentChange_SharedCreateWithoutIdKeepsEntriesWhenLoaded() {
+        when(dependencyGraph.isLoaded()).thenReturn(true);
+        putPage("a", "1");
+
+        pageCache.onContentChange(event(Constants.TABLE_CONTENT, Operation.CREATE, null, Constants.CONTENT_TYPE_TEMPLATE));
+
+        assertNotNull(pageCache.get("a"));
+    }
+
+    @Test
+    void testOnContentChange_DeleteTemplateEvictsDependentPages() {
+        when(dependencyGraph.getAffectedPages("20")).thenReturn(Set.of("2"));
+        putPage("a", "1");
+        putPage("b", "2");
+
+        pageCache.onContentChange(event(Constants.TABLE_CONTENT, Operation.DELETE, "20", null));
+
+        assertNotNull(pageCache.get("a"));
+        assertNull(pageCache.get("b"));
+    }
+
+    @Test
+    void testOnContentChange_DeleteCachedId() {
+        putPage("a", "1");
+        putPage("b", "2");
+
+        pageCache.onContentChange(event(Constants.TABLE_CONTENT_PUBLIC, Operation.DELETE, "2", null));
+
+        assertNotNull(pageCache.get("a"));
+        assertNull(pageCache.get("b"));
+    }
+
+    @Test
+    void testOnContentChange_DeleteUnknownIdClearsAll() {
+        putPage("a", "1");
+
+        pageCache.onContentChange(event(Constants.TABLE_CONTENT, Operation.DELETE, "99", null));
+
+        assertEquals(0, pageCache.size());
+    }
+
+    @Test
+    void testOnContentChange_DraftCreateWithoutIdKeepsEntries() {
+        putPage("a", "1");
+
+        pageCache.onContentChange(event(Constants.TABLE_CONTENT, Operation.CREATE, null, Constants.CONTENT_TYPE_CONTENT));
+
+        assertNotNull(pageCache.get("a"));
+    }
+
+    @Test
+    void testCreatePage_CompressedVariants() throws Exception {
+        when(cacheProperties.isCompressionEnabled()).thenReturn(true);
+        when(cacheProperties.getCompressionMinSize()).thenReturn(16);
+        byte[] body = "<p>繰り返しの本文</p>".repeat(50).getBytes(StandardCharsets.UTF_8);
+
+        CachedPage page = pageCache.createPage("1", "text/html; charset=UTF-8", body, "W/\"v1\"", 1000L, "no-cache");
+
+        assertTrue(page.hasCompressedVariants());
+        assertArrayEquals(body, new GZIPInputStream(new ByteArrayInputStream(page.getGzipBody())).readAllBytes());
+        assertArrayEquals(body, new InflaterInputStream(new ByteArrayInputStream(page.getDeflateBody())).readAllBytes());
+        assertSame(page.getGzipBody(), page.getBody(CompressionUtil.GZIP));
+        assertSame(body, page.getBody(null));
+        assertEquals("W/\"v1\"", page.getEtag());
+    }
+
+    @Test
+    void testCreatePage_BelowMinSize() {
+        when(cacheProperties.isCompressionEnabled()).thenReturn(true);
+        when(cacheProperties.getCompressionMinSize()).thenReturn(256);
+
+        CachedPage page = pageCache.createPage("1", "text/css", "body{}".getBytes(StandardCharsets.UTF_8), null, -1, null);
+
+        assertFalse(page.hasCompressedVariants());
+        assertNull(page.getGzipBody());
+    }
+
+    @Test
+    void testCreatePage_CompressionDisabled() {
+        when(cacheProperties.isCompressionEnabled()).thenReturn(false);
+        byte[] body = "a".repeat(1000).getBytes(StandardCharsets.UTF_8);
+
+        CachedPage page = pageCache.createPage("1", "text/css", body, null, -1, null);
+
+        assertFalse(page.hasCompressedVariants());
+        assertSame(body, page.getBody(CompressionUtil.DEFLATE));
+    }
+}
@@ -0,0 +1,589 @@
+package com.example.skygarden.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.skygarden.bean.PageModel;
+import com.example.skygarden.bean.RenderedPage;
+import com.example.skygarden.config.AppProperties;
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.logic.Content;
+import com.example.skygarden.logic.HtmlShell;
+import com.example.skygarden.mapper.ContentMapper;
+import com.example.skygarden.service.ContentChangeEvent.Operation;
+
+/**
+ * PageRenderServiceのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PageRenderServiceTest {
+
+    private static final HtmlShell SHELL = HtmlShell.parse("<title>###title###</title>###head###<body>###content###</body>");
+
+    @Mock
+    private Content content;
+
+    @Mock
+    private ContentMapper mapper;
+
+    @Mock
+    private HtmlShellService htmlShellService;
+
+    @Mock
+    private AppProperties appProperties;
+
+    @Mock
+    private ContentDependencyGraph dependencyGraph;
+
+    @Mock
+    private AssetFingerprintService assetFingerprints;
+
+    @InjectMocks
+    private PageRenderService pageRenderer;
+
+    private AppProperties.Render render;
+
+    @BeforeEach
+    void setUp() {
+        render = new AppProperties.Render();
+        when(appProperties.getRender()).thenReturn(render);
+        when(htmlShellService.getShell(anyString())).thenReturn(SHELL);
+        // 依存関係グラフは未読み込みとして扱う
+        when(dependencyGraph.getAffectedPages(anyString())).thenReturn(null);
+        // イベントから影響するページを求める処理は実際のメソッドを使う
+        when(dependencyGraph.getAffectedPages(any(ContentChangeEvent.class))).thenCallRealMethod();
+        when(assetFingerprints.getBundleVersion()).thenReturn("");
+    }
+
+    private PageModel page(String id, String url, String type) {
+        PageModel page = new PageModel();
+        page.setId(id);
+        page.setUrl(url);
+        page.setType(type);
+        page.setTitle("Title");
+        page.setContent("Body");
+        return page;
+    }
+
+    @Test
+    void testIsRenderable() {
+        assertTrue(PageRenderService.isRenderable(null));
+        assertTrue(PageRenderService.isRenderable(Constants.CONTENT_TYPE_CONTENT));
+        assertTrue(PageRenderService.isRenderable(Constants.CONTENT_TYPE_STYLESHEET));
+        assertTrue(PageRenderService.isRenderable(Constants.CONTENT_TYPE_SCRIPT));
+        assertFalse(PageRenderService.isRenderable(Constants.CONTENT_TYPE_IMAGE));
+        assertFalse(PageRenderService.isRenderable(Constants.CONTENT_TYPE_TEMPLATE));
+    }
+
+    @Test
+    void testEtag() {
+        assertEquals("W/\"abc-1f-2\"", PageRenderService.etag("abc", "1f-2"));
+    }
+
+    @Test
+    void testRender_Content() {
+        PageModel page = page("1", "news/1", "");
+        when(content.getPageHead(page)).thenReturn("<meta>");
+        when(content.displayPage(page)).thenReturn("<p>Body</p>");
+
+        RenderedPage rendered = pageRenderer.render(page, SHELL, "v1", 1700000000000L);
+
+        assertEquals("1", rendered.getId());
+        assertEquals("news/1", rendered.getUrl());
+        assertEquals("v1", rendered.getContentHash());
+        assertEquals(SHELL.getVersion() + "-m", rendered.getShellVersion());
+        assertEquals(1700000000000L, rendered.getLastModified());
+        assertEquals("<title>Title</title><meta><body><p>Body</p></body>",
+                new String(rendered.getBody(), StandardCharsets.UTF_8));
+        assertNotNull(rendered.getRendered());
+    }
+
+    @Test
+    void testRender_Script() {
+        PageModel page = page("2", "js/app.js", Constants.CONTENT_TYPE_SCRIPT);
+        when(content.getScript(page)).thenReturn("Body");
+
+        RenderedPage rendered = pageRenderer.render(page, SHELL, "v1", -1);
+
+        assertEquals("<title></title><body>Body</body>", new String(rendered.getBody(), StandardCharsets.UTF_8));
+        verify(content).getScript(page);
+        verify(content, never()).displayPage(any(PageModel.class));
+    }
+
+    @Test
+    void testRender_MinifiesHtml() {
+        PageModel page = page("1", "news/1", "");
+        when(content.getPageHead(page)).thenReturn("\n    <meta>  <!-- head -->\n");
+        when(content.displayPage(page)).thenReturn("<p>  Body  </p>\n\n<pre>  a\n  b</pre>");
+
+        RenderedPage rendered = pageRenderer.render(page, SHELL, "v1", -1);
+
+        assertEquals("<title>Title</title>\n<meta>\n<body><p> Body </p>\n<pre>  a\n  b</pre></body>",
+                new String(rendered.getBody(), StandardCharsets.UTF_8));
+        assertEquals(1, pageRenderer.getMinifiedPages());
+        assertEquals(rendered.getBody().length + pageRenderer.getMinifiedBytesSaved(), pageRenderer.getMinifiedBytesBefore());
+        assertTrue(pageRenderer.getMinifiedBytesSaved() > 0);
+    }
+
+    @Test
+    void testRender_MinifyDisabled() {
+        render.setMinifyHtml(false);
+        PageModel page = page("1", "news/1", "");
+        when(content.getPageHead(page)).thenReturn("");
+        when(content.displayPage(page)).thenReturn("<p>  Body  </p>");
+
+        RenderedPage rendered = pageRenderer.render(page, SHELL, "v1", -1);
+
+        assertEquals("<title>Title</title><body><p>  Body  </p></body>", new String(rendered.getBody(), StandardCharsets.UTF_8));
+        assertEquals(0, pageRenderer.getMinifiedPages());
+    }
+
+    @Test
+    void testRender_ScriptNotMinified() {
+        PageModel page = page("2", "js/app.js", Constants.CONTENT_TYPE_SCRIPT);
+        when(content.getScript(page)).thenReturn("a  =  1;");
+
+        RenderedPage rendered = pageRenderer.render(page, SHELL, "v1", -1);
+
+        assertEquals("<title></title><body>a  =  1;</body>", new String(rendered.getBody(), StandardCharsets.UTF_8));
+        assertEquals(0, pageRenderer.getMinifiedPages());
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConcurrentHashMap<String, CompletableFuture<RenderedPage>> inFlight() {
+        return (ConcurrentHashMap<String, CompletableFuture<RenderedPage>>) ReflectionTestUtils.getField(pageRenderer, "inFlight");
+    }
+
+    @Test
+    void testRenderShared_RendersAndSaves() {
+        PageModel page = page("1", "news/1", "");
+        when(content.getPageHead(page)).thenReturn("");
+        when(content.displayPage(page)).thenAnswer(invocation -> {
+            // 描画中は同じURLの描画中として扱う
+            assertTrue(pageRenderer.isRendering("news/1"));
+            return "Body";
+        });
+
+        RenderedPage rendered = pageRenderer.renderShared("news/1", page, SHELL, "v1", -1, pageRenderer.currentGeneration());
+
+        assertEquals("<title>Title</title><body>Body</body>", new String(rendered.getBody(), StandardCharsets.UTF_8));
+        verify(mapper).upsertRenderedPage(rendered);
+        assertFalse(pageRenderer.isRendering("news/1"));
+    }
+
+    @Test
+    void testRenderShared_WaitsForInFlightRender() {
+        PageModel page = page("1", "news/1", "");
+        when(content.getPageHead(page)).thenReturn("");
+        when(content.displayPage(page)).thenReturn("Body");
+        RenderedPage shared = pageRenderer.render(page, SHELL, "v1", -1);
+        inFlight().put("news/1", CompletableFuture.completedFuture(shared));
+
+        RenderedPage rendered = pageRenderer.renderShared("news/1", page, SHELL, "v1", -1, pageRenderer.currentGeneration());
+
+        // 描画中の結果を利用し、描画・登録は行わない
+        assertSame(shared, rendered);
+        verify(content, times(1)).displayPage(page);
+        verify(mapper, never()).upsertRenderedPage(any(RenderedPage.class));
+    }
+
+    @Test
+    void testRenderShared_InFlightRenderOutdated() {
+        PageModel page = page("1", "news/1", "");
+        when(content.getPageHead(page)).thenReturn("");
+        when(content.displayPage(page)).thenReturn("Body");
+        RenderedPage shared = pageRenderer.render(page, SHELL, "v1", -1);
+        inFlight().put("news/1", CompletableFuture.completedFuture(shared));
+
+        RenderedPage rendered = pageRenderer.renderShared("news/1", page, SHELL, "v2", -1, pageRenderer.currentGeneration());
+
+        // 描画中の結果と内容が異なるため描画し直す
+        assertNotSame(shared, rendered);
+        assertEquals("v2", rendered.getContentHash());
+        verify(mapper).upsertRenderedPage(rendered);
+    }
+
+    @Test
+    void testRenderShared_InFlightRenderFailed() {
+        PageModel page = page("1", "news/1", "");
+        inFlight().put("news/1", CompletableFuture.failedFuture(new IllegalStateException("db")));
+
+        assertThrows(IllegalStateException.class,
+                () -> pageRenderer.renderShared("news/1", page, SHELL, "v1", -1, pageRenderer.currentGeneration()));
+        verify(content, never()).displayPage(any(PageModel.class));
+    }
+
+    @Test
+    void testRenderShared_FailureReleasesUrl() {
+        PageModel page = page("1", "news/1", "");
+        when(content.displayPage(page)).thenThrow(new IllegalStateException("db"));
+
+        assertThrows(IllegalStateException.class,
+                () -> pageRenderer.renderShared("news/1", page, SHELL, "v1", -1, pageRenderer.currentGeneration()));
+        assertFalse(pageRenderer.isRendering("news/1"));
+    }
+
+    @Test
+    void testGetContentType() {
+        assertEquals("text/html; charset=UTF-8", pageRenderer.getContentType(""));
+        assertEquals("text/css", pageRenderer.getContentType(Constants.CONTENT_TYPE_STYLESHEET));
+        assertEquals("application/javascript", pageRenderer.getContentType(Constants.CONTENT_TYPE_SCRIPT));
+    }
+
+    @Test
+    void testPrerender() {
+        PageModel page = page("1", "news/1", "");
+        when(content.resolvePage("news/1")).thenReturn(page);
+        when(content.getPageVersion(page)).thenReturn("v1");
+        when(content.getPageLastModified(page)).thenReturn(1700000000000L);
+        when(content.displayPage(page)).thenReturn("Body");
+
+        RenderedPage rendered = pageRenderer.prerender("news/1");
+
+        assertNotNull(rendered);
+        verify(mapper).upsertRenderedPage(rendered);
+    }
+
+    @Test
+    void testPrerender_NotRenderable() {
+        when(content.resolvePage("images/a.png")).thenReturn(page("1", "images/a.png", Constants.CONTENT_TYPE_IMAGE));
+
+        assertNull(pageRenderer.prerender("images/a.png"));
+        verify(mapper, never()).upsertRenderedPage(any(RenderedPage.class));
+    }
+
+    @Test
+    void testFindRendered() {
+        RenderedPage rendered = new RenderedPage();
+        rendered.setType("");
+        rendered.setShellVersion(SHELL.getVersion() + "-m");
+        rendered.setBody(new byte[] { 1 });
+        when(mapper.getRenderedPage("news/1")).thenReturn(rendered);
+
+        assertSame(rendered, pageRenderer.findRendered("news/1"));
+    }
+
+    @Test
+    void testFindRendered_ShellChanged() {
+        RenderedPage rendered = new RenderedPage();
+        rendered.setType("");
+        rendered.setShellVersion("old");
+        rendered.setBody(new byte[] { 1 });
+        when(mapper.getRenderedPage("news/1")).thenReturn(rendered);
+
+        assertNull(pageRenderer.findRendered("news/1"));
+    }
+
+    @Test
+    void testFindRendered_BundleVersionChanged() {
+        RenderedPage rendered = new RenderedPage();
+        rendered.setType("");
+        rendered.setShellVersion(SHELL.getVersion());
+        rendered.setBody(new byte[] { 1 });
+        when(mapper.getRenderedPage("news/1")).thenReturn(rendered);
+        when(assetFingerprints.getBundleVersion()).thenReturn("epoch");
+
+        // 以前の起動で描画したページはバンドルURLを解決できないため描画し直す
+        assertNull(pageRenderer.findRendered("news/1"));
+        assertEquals(SHELL.getVersion() + "-epoch-m", pageRenderer.getRenderVersion("", SHELL));
+        assertEquals(SHELL.getVersion(), pageRenderer.getRenderVersion(Constants.CONTENT_TYPE_STYLESHEET, SHELL));
+    }
+
+    @Test
+    void testFindRendered_MinifyHtmlChanged() {
+        RenderedPage rendered = new RenderedPage();
+        rendered.setType("");
+        rendered.setShellVersion(SHELL.getVersion() + "-m");
+        rendered.setBody(new byte[] { 1 });
+        when(mapper.getRenderedPage("news/1")).thenReturn(rendered);
+        render.setMinifyHtml(false);
+
+        // 圧縮の設定を切り替えた場合は描画し直し、ETag も変える
+        assertNull(pageRenderer.findRendered("news/1"));
+        assertEquals(SHELL.getVersion(), pageRenderer.getRenderVersion("", SHELL));
+        assertEquals(SHELL.getVersion(), pageRenderer.getRenderVersion(Constants.CONTENT_TYPE_STYLESHEET, SHELL));
+    }
+
+    @Test
+    void testFindRendered_Disabled() {
+        render.setPrerenderEnabled(false);
+
+        assertNull(pageRenderer.findRendered("news/1"));
+        verify(mapper, never()).getRenderedPage(anyString());
+    }
+
+    @Test
+    void testFindRendered_QueryError() {
+        when(mapper.getRenderedPage("news/1")).thenThrow(new RuntimeException("table missing"));
+
+        assertNull(pageRenderer.findRendered("news/1"));
+    }
+
+    @Test
+    void testSave() {
+        RenderedPage rendered = new RenderedPage();
+        rendered.setId("1");
+        rendered.setUrl("news/1");
+
+        pageRenderer.save(rendered, pageRenderer.currentGeneration());
+
+        verify(mapper).upsertRenderedPage(rendered);
+    }
+
+    @Test
+    void testSave_StaleGeneration() {
+        RenderedPage rendered = new RenderedPage();
+        rendered.setId("1");
+        rendered.setUrl("news/1");
+        long generation = pageRenderer.currentGeneration();
+
+        pageRenderer.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.DELETE,
+                "1", null, null, null, null, null));
+        pageRenderer.save(rendered, generation);
+
+        verify(mapper, never()).upsertRenderedPage(any(RenderedPage.class));
+    }
+
+    @Test
+    void testSave_UnrelatedChangeDoesNotBlock() {
+        RenderedPage rendered = new RenderedPage();
+        rendered.setId("1");
+        rendered.setUrl("news/1");
+        long generation = pageRenderer.currentGeneration();
+        when(mapper.deleteRenderedPage("5")).thenReturn(1);
+
+        pageRenderer.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.DELETE,
+                "5", null, null, null, null, null));
+        pageRenderer.save(rendered, generation);
+
+        // 他のページの変更では登録を取りやめない
+        verify(mapper).upsertRenderedPage(rendered);
+    }
+
+    @Test
+    void testSave_InvalidatedWhileSavingDeletes() {
+        RenderedPage rendered = new RenderedPage();
+        rendered.setId("1");
+        rendered.setUrl("news/1");
+        long generation = pageRenderer.currentGeneration();
+        doAnswer(invocation -> {
+            // 登録中に公開ページが削除された
+            pageRenderer.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.DELETE,
+                    "1", null, null, null, null, null));
+            return 1;
+        }).when(mapper).upsertRenderedPage(rendered);
+
+        pageRenderer.save(rendered, generation);
+
+        verify(mapper, times(2)).deleteRenderedPage("1");
+    }
+
+    @Test
+    void testSaveAll() {
+        List<RenderedPage> pages = List.of(new RenderedPage());
+
+        assertTrue(pageRenderer.saveAll(pages, pageRenderer.currentGeneration()).isEmpty());
+
+        verify(mapper).upsertRenderedPages(pages);
+    }
+
+    @Test
+    void testSaveAll_StaleGeneration() {
+        RenderedPage page1 = new RenderedPage();
+        page1.setId("1");
+        RenderedPage page2 = new RenderedPage();
+        page2.setId("2");
+        long generation = pageRenderer.currentGeneration();
+        when(dependencyGraph.getAffectedPages("3")).thenReturn(Set.of("2"));
+        pageRenderer.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "3", null, Constants.CONTENT_TYPE_TEMPLATE, null, "###element(1)###", null));
+
+        // 破棄されたページのみ登録しない
+        assertEquals(List.of("2"), pageRenderer.saveAll(List.of(page1, page2), generation));
+
+        verify(mapper).upsertRenderedPages(List.of(page1));
+    }
+
+    @Test
+    void testSaveAll_AllInvalidated() {
+        RenderedPage page1 = new RenderedPage();
+        page1.setId("1");
+        long generation = pageRenderer.currentGeneration();
+        pageRenderer.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.DELETE,
+                null, null, null, null, null, null));
+
+        assertEquals(List.of("1"), pageRenderer.saveAll(List.of(page1), generation));
+
+        verify(mapper, never()).upsertRenderedPages(anyList());
+    }
+
+    @Test
+    void testCurrentGeneration_DoesNotWaitForPrerender() throws Exception {
+        PageModel page = page("1", "news/1", "");
+        when(content.getPageVersion(page)).thenReturn("v1");
+        when(content.displayPage(page)).thenReturn("Body");
+        CountDownLatch resolving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(content.resolvePage("news/1")).thenAnswer(invocation -> {
+            resolving.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return page;
+        });
+        Thread publisher = new Thread(() -> pageRenderer.onContentChange(new ContentChangeEvent(
+                Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE, "1", "news/1", "", null, "Body", null)));
+        publisher.start();
+        assertTrue(resolving.await(5, TimeUnit.SECONDS));
+
+        // 事前描画中も世代番号を取得できる
+        long generation = pageRenderer.currentGeneration();
+
+        release.countDown();
+        publisher.join(5000);
+        assertTrue(generation > 0);
+    }
+
+    @Test
+    void testOnContentChange_PublicUpdate() {
+        PageModel page = page("1", "news/1", "");
+        when(content.resolvePage("news/1")).thenReturn(page);
+        when(content.getPageVersion(page)).thenReturn("v1");
+        when(content.displayPage(page)).thenReturn("Body");
+
+        pageRenderer.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE,
+                "1", "news/1", "", null, "Body", "2024-01-01 10:00"));
+
+        ArgumentCaptor<RenderedPage> captor = ArgumentCaptor.forClass(RenderedPage.class);
+        verify(mapper).deleteRenderedPage("1");
+        verify(mapper).upsertRenderedPage(captor.capture());
+        assertEquals("v1", captor.getValue().getContentHash());
+    }
+
+    @Test
+    void testOnContentChange_PublicStylesheetDeletesReferringPages() {
+        PageModel page = page("5", "css/site.css", Constants.CONTENT_TYPE_STYLESHEET);
+        when(content.resolvePage("css/site.css")).thenReturn(page);
+        when(content.getPageVersion(page)).thenReturn("v1");
+        when(content.getStylesheet(page)).thenReturn("body{}");
+        when(dependencyGraph.getAffectedPages("5", "css/site.css")).thenReturn(Set.of("1", "2"));
+
+        pageRenderer.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE,
+                "5", "css/site.css", Constants.CONTENT_TYPE_STYLESHEET, null, "body {}", "2024-01-01 10:00"));
+
+        verify(mapper).upsertRenderedPage(any(RenderedPage.class));
+        // ヘッダーのフィンガープリント付きURLが変わるため、参照しているページも破棄する
+        verify(mapper).deleteRenderedPages(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of("1", "2"))));
+    }
+
+    @Test
+    void testOnContentChange_DraftUpdateIgnored() {
+        pageRenderer.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "1", "news/1", "", null, "Body", "2024-01-01 10:00"));
+
+        verify(content, never()).resolvePage(anyString());
+        verify(mapper, never()).upsertRenderedPage(any(RenderedPage.class));
+    }
+
+    @Test
+    void testOnContentChange_SharedType() {
+        pageRenderer.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "3", null, Constants.CONTENT_TYPE_TEMPLATE, null, "###element(1)###", null));
+
+        verify(mapper).deleteAllRenderedPages();
+        verify(content, never()).resolvePage(anyString());
+    }
+
+    @Test
+    void testOnContentChange_SharedTypeDeletesDependentPages() {
+        when(dependencyGraph.getAffectedPages("3")).thenReturn(Set.of("1"));
+
+        pageRenderer.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "3", null, Constants.CONTENT_TYPE_TEMPLATE, null, "###element(1)###", null));
+
+        verify(mapper).deleteRenderedPages(List.of("1"));
+        verify(mapper, never()).deleteAllRenderedPages();
+    }
+
+    @Test
+    void testOnContentChange_SharedTypeWithoutDependents() {
+        when(dependencyGraph.getAffectedPages("3")).thenReturn(Set.of());
+
+        pageRenderer.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "3", null, Constants.CONTENT_TYPE_ELEMENT, null, "footer", null));
+
+        verify(mapper, never()).deleteRenderedPages(anyList());
+        verify(mapper, never()).deleteAllRenderedPages();
+    }
+
+    @Test
+    void testOnContentChange_DeleteUnknownWithDependents() {
+        when(mapper.deleteRenderedPage("9")).thenReturn(0);
+        when(dependencyGraph.getAffectedPages("9")).thenReturn(Set.of("1"));
+
+        pageRenderer.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.DELETE,
+                "9", null, null, null, null, null));
+
+        verify(mapper).deleteRenderedPages(List.of("1"));
+        verify(mapper, never()).deleteAllRenderedPages();
+    }
+
+    @Test
+    void testOnContentChange_DeleteRenderedPage() {
+        when(mapper.deleteRenderedPage("1")).thenReturn(1);
+
+        pageRenderer.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.DELETE,
+                "1", null, null, null, null, null));
+
+        verify(mapper).deleteRenderedPage("1");
+        verify(mapper, never()).deleteAllRenderedPages();
+    }
+
+    @Test
+    void testOnContentChange_DeleteUnknown() {
+        when(mapper.deleteRenderedPage("9")).thenReturn(0);
+
+        pageRenderer.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.DELETE,
+                "9", null, null, null, null, null));
+
+        verify(mapper).deleteAllRenderedPages();
+    }
+
+    @Test
+    void testOnContentChange_PrerenderError() {
+        when(content.resolvePage("news/1")).thenThrow(new RuntimeException("DB error"));
+
+        assertDoesNotThrow(() -> pageRenderer.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC,
+                Operation.CREATE, "1", "news/1", "", null, "Body", null)));
+        verify(mapper).deleteRenderedPage("1");
+    }
+
+    @Test
+    void testOnContentChange_Disabled() {
+        render.setPrerenderEnabled(false);
+
+        pageRenderer.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE,
+                "1", "news/1", "", null, "Body", null));
+
+        verifyNoInteractions(mapper);
+    }
+}
@@ -0,0 +1,377 @@
+package com.example.skygarden.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.skygarden.bean.PageModel;
+import com.example.skygarden.bean.RenderJobStatus;
+import com.example.skygarden.bean.RenderedPage;
+import com.example.skygarden.config.AppProperties;
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.logic.Content;
+import com.example.skygarden.logic.HtmlShell;
+import com.example.skygarden.mapper.ContentMapper;
+import com.example.skygarden.service.ContentChangeEvent.Operation;
+
+/**
+ * RenderJobServiceのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RenderJobServiceTest {
+
+    @Mock
+    private Content content;
+
+    @Mock
+    private ContentMapper mapper;
+
+    @Mock
+    private PageRenderService pageRenderer;
+
+    @Mock
+    private ContentDependencyGraph dependencyGraph;
+
+    @Mock
+    private AppProperties appProperties;
+
+    @InjectMocks
+    private RenderJobService renderJob;
+
+    private AppProperties.Render render;
+
+    /** 実行を保留したワーカー（nullの場合は呼び出し元のスレッドで即時実行） */
+    private List<Runnable> heldWorkers;
+
+    @BeforeEach
+    void setUp() {
+        render = new AppProperties.Render();
+        render.setJobThreads(2);
+        render.setJobBatchSize(2);
+        when(appProperties.getRender()).thenReturn(render);
+        when(pageRenderer.isEnabled()).thenReturn(true);
+        // イベントから影響するページを求める処理は実際のメソッドを使う
+        when(dependencyGraph.getAffectedPages(any(ContentChangeEvent.class))).thenCallRealMethod();
+        when(pageRenderer.getShell(any())).thenReturn(HtmlShell.EMPTY);
+        when(pageRenderer.render(any(PageModel.class), any(HtmlShell.class), any(), anyLong()))
+                .thenAnswer(invocation -> {
+                    RenderedPage rendered = new RenderedPage();
+                    rendered.setId(((PageModel) invocation.getArgument(0)).getId());
+                    return rendered;
+                });
+        when(pageRenderer.saveAll(anyList(), anyLong())).thenReturn(List.of());
+        when(mapper.resolvePagesByIds(anyList())).thenAnswer(invocation -> {
+            List<PageModel> pages = new ArrayList<>();
+            for (Object id : (List<?>) invocation.getArgument(0)) {
+                pages.add(page((String) id));
+            }
+            return pages;
+        });
+        ReflectionTestUtils.setField(renderJob, "executor", (Executor) runnable -> {
+            if (heldWorkers != null) {
+                heldWorkers.add(runnable);
+            } else {
+                runnable.run();
+            }
+        });
+    }
+
+    private PageModel page(String id) {
+        PageModel page = new PageModel();
+        page.setId(id);
+        page.setUrl("page/" + id);
+        page.setType("");
+        return page;
+    }
+
+    @Test
+    void testStart_ExpandsToAffectedPages() {
+        when(dependencyGraph.getAffectedPages("10")).thenReturn(Set.of("1", "2"));
+        when(dependencyGraph.getAffectedPages("11")).thenReturn(Set.of("2", "3"));
+
+        RenderJobStatus status = renderJob.start(List.of("10", "11"));
+
+        assertEquals(RenderJobService.STATE_COMPLETED, status.getState());
+        assertEquals(List.of("10", "11"), status.getSourceIds());
+        assertEquals(3, status.getTotal());
+        assertEquals(3, status.getCompleted());
+        assertEquals(0, status.getPending());
+        assertEquals(2, status.getThreads());
+        assertEquals(2, status.getBatchSize());
+        assertNotNull(status.getFinished());
+        // 2件ずつまとめて取得・構成要素の取得・登録を行う
+        verify(mapper, times(2)).resolvePagesByIds(anyList());
+        verify(content, times(2)).loadPageElements(anyList());
+        verify(pageRenderer, times(2)).saveAll(anyList(), anyLong());
+    }
+
+    @Test
+    void testStart_GraphNotLoadedRendersAll() {
+        when(dependencyGraph.getAffectedPages("10")).thenReturn(null);
+        when(mapper.getRenderablePageIds(false)).thenReturn(List.of("1", "2", "3", "4", "5"));
+
+        RenderJobStatus status = renderJob.start(List.of("10"));
+
+        assertEquals(5, status.getCompleted());
+    }
+
+    @Test
+    void testStart_WithoutIdsRendersMissingPages() {
+        when(mapper.getRenderablePageIds(true)).thenReturn(List.of("7"));
+
+        RenderJobStatus status = renderJob.start(List.of());
+
+        assertEquals(RenderJobService.STATE_COMPLETED, status.getState());
+        assertEquals(1, status.getCompleted());
+        verify(mapper).resolvePagesByIds(List.of("7"));
+    }
+
+    @Test
+    void testStart_Disabled() {
+        when(pageRenderer.isEnabled()).thenReturn(false);
+
+        RenderJobStatus status = renderJob.start(List.of("10"));
+
+        assertEquals(RenderJobService.STATE_IDLE, status.getState());
+        assertNotNull(status.getLastError());
+        verify(mapper, never()).resolvePagesByIds(anyList());
+    }
+
+    @Test
+    void testStart_LimitsWorkersToThreads() {
+        heldWorkers = new ArrayList<>();
+        when(dependencyGraph.getAffectedPages("10")).thenReturn(Set.of("1", "2", "3", "4", "5", "6", "7"));
+
+        RenderJobStatus status = renderJob.start(List.of("10"));
+
+        assertEquals(RenderJobService.STATE_RUNNING, status.getState());
+        assertEquals(2, heldWorkers.size());
+        heldWorkers.get(0).run();
+        heldWorkers.get(1).run();
+        assertEquals(RenderJobService.STATE_COMPLETED, renderJob.getStatus().getState());
+        assertEquals(7, renderJob.getStatus().getCompleted());
+    }
+
+    @Test
+    void testExecutor_BoundedByThreads() throws Exception {
+        ReflectionTestUtils.setField(renderJob, "executor", null);
+        when(dependencyGraph.getAffectedPages("10")).thenReturn(Set.of("1", "2", "3", "4", "5"));
+
+        renderJob.start(List.of("10"));
+        awaitFinished();
+
+        // スレッド数の上限は実行環境自体で制限する
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) ReflectionTestUtils.getField(renderJob, "executor");
+        assertEquals(2, pool.getMaximumPoolSize());
+        assertEquals(5, renderJob.getStatus().getCompleted());
+
+        // 次のジョブの開始時に設定の変更を反映する
+        render.setJobThreads(3);
+        renderJob.start(List.of("10"));
+        awaitFinished();
+        assertEquals(3, pool.getMaximumPoolSize());
+        assertEquals(3, pool.getCorePoolSize());
+        renderJob.shutdown();
+    }
+
+    private void awaitFinished() throws InterruptedException {
+        for (int i = 0; i < 500 && RenderJobService.STATE_RUNNING.equals(renderJob.getStatus().getState()); i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(RenderJobService.STATE_COMPLETED, renderJob.getStatus().getState());
+    }
+
+    @Test
+    void testGetStatus_HtmlMinifyCounters() {
+        when(pageRenderer.getMinifiedPages()).thenReturn(3L);
+        when(pageRenderer.getMinifiedBytesBefore()).thenReturn(1200L);
+        when(pageRenderer.getMinifiedBytesSaved()).thenReturn(200L);
+
+        RenderJobStatus status = renderJob.getStatus();
+
+        assertEquals(3, status.getHtmlMinifiedPages());
+        assertEquals(1200, status.getHtmlBytesBefore());
+        assertEquals(200, status.getHtmlBytesSaved());
+    }
+
+    @Test
+    void testStopAndResume() {
+        heldWorkers = new ArrayList<>();
+        when(dependencyGraph.getAffectedPages("10")).thenReturn(Set.of("1", "2", "3", "4", "5"));
+        renderJob.start(List.of("10"));
+
+        renderJob.stop();
+        assertEquals(RenderJobService.STATE_STOPPING, renderJob.getStatus().getState());
+        for (Runnable worker : new ArrayList<>(heldWorkers)) {
+            worker.run();
+        }
+
+        RenderJobStatus stopped = renderJob.getStatus();
+        assertEquals(RenderJobService.STATE_STOPPED, stopped.getState());
+        assertEquals(5, stopped.getPending());
+        assertEquals(0, stopped.getCompleted());
+
+        heldWorkers = null;
+        RenderJobStatus resumed = renderJob.start(List.of());
+
+        assertEquals(RenderJobService.STATE_COMPLETED, resumed.getState());
+        assertEquals(5, resumed.getTotal());
+        assertEquals(5, resumed.getCompleted());
+        verify(mapper, never()).getRenderablePageIds(anyBoolean());
+    }
+
+    @Test
+    void testProcessBatch_StaleGenerationRetries() {
+        when(dependencyGraph.getAffectedPages("10")).thenReturn(Set.of("1"));
+        when(pageRenderer.saveAll(anyList(), anyLong())).thenReturn(List.of("1"), List.of());
+
+        RenderJobStatus status = renderJob.start(List.of("10"));
+
+        assertEquals(1, status.getCompleted());
+        verify(mapper, times(2)).resolvePagesByIds(List.of("1"));
+    }
+
+    @Test
+    void testProcessBatch_StaleGenerationDeferred() {
+        when(dependencyGraph.getAffectedPages("10")).thenReturn(Set.of("1"));
+        when(pageRenderer.saveAll(anyList(), anyLong())).thenReturn(List.of("1"));
+
+        RenderJobStatus status = renderJob.start(List.of("10"));
+
+        assertEquals(0, status.getCompleted());
+        assertEquals(1, status.getDeferred());
+        verify(mapper, times(3)).resolvePagesByIds(List.of("1"));
+    }
+
+    @Test
+    void testProcessBatch_RetriesOnlyStalePages() {
+        when(dependencyGraph.getAffectedPages("10")).thenReturn(Set.of("1", "2"));
+        when(pageRenderer.saveAll(anyList(), anyLong())).thenReturn(List.of("2"), List.of());
+
+        RenderJobStatus status = renderJob.start(List.of("10"));
+
+        // 描画中に破棄されたページのみ取得からやり直す
+        assertEquals(2, status.getCompleted());
+        assertEquals(0, status.getDeferred());
+        verify(mapper).resolvePagesByIds(List.of("2"));
+        verify(mapper, times(2)).resolvePagesByIds(anyList());
+    }
+
+    @Test
+    void testProcessBatch_RenderError() {
+        when(dependencyGraph.getAffectedPages("10")).thenReturn(Set.of("1", "2"));
+        doThrow(new RuntimeException("render error")).when(pageRenderer)
+                .render(argThat(page -> page != null && "1".equals(page.getId())), any(HtmlShell.class), any(), anyLong());
+
+        RenderJobStatus status = renderJob.start(List.of("10"));
+
+        assertEquals(1, status.getCompleted());
+        assertEquals(1, status.getFailed());
+        assertTrue(status.getLastError().contains("render error"));
+    }
+
+    @Test
+    void testProcessBatch_SaveError() {
+        when(dependencyGraph.getAffectedPages("10")).thenReturn(Set.of("1", "2"));
+        when(pageRenderer.saveAll(anyList(), anyLong())).thenThrow(new RuntimeException("DB error"));
+
+        RenderJobStatus status = renderJob.start(List.of("10"));
+
+        assertEquals(RenderJobService.STATE_COMPLETED, status.getState());
+        assertEquals(2, status.getFailed());
+    }
+
+    @Test
+    void testOnContentChange_ElementUpdate() {
+        when(dependencyGraph.getAffectedPages("20")).thenReturn(Set.of("1"));
+
+        renderJob.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "20", null, Constants.CONTENT_TYPE_ELEMENT, null, "footer", null));
+
+        assertEquals(1, renderJob.getStatus().getCompleted());
+        verify(mapper).resolvePagesByIds(List.of("1"));
+    }
+
+    @Test
+    void testOnContentChange_PublicStylesheetUpdate() {
+        when(dependencyGraph.getAffectedPages("5", "css/site.css")).thenReturn(Set.of("1"));
+
+        renderJob.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE,
+                "5", "css/site.css", Constants.CONTENT_TYPE_STYLESHEET, null, "body {}", null));
+
+        assertEquals(1, renderJob.getStatus().getCompleted());
+        verify(mapper).resolvePagesByIds(List.of("1"));
+    }
+
+    @Test
+    void testOnContentChange_DraftStylesheetIgnored() {
+        renderJob.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "5", "css/site.css", Constants.CONTENT_TYPE_STYLESHEET, null, "body {}", null));
+
+        assertEquals(RenderJobService.STATE_IDLE, renderJob.getStatus().getState());
+    }
+
+    @Test
+    void testOnContentChange_ContentUpdateIgnored() {
+        renderJob.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE,
+                "1", "news/1", "", null, "Body", null));
+
+        assertEquals(RenderJobService.STATE_IDLE, renderJob.getStatus().getState());
+        verify(dependencyGraph, never()).getAffectedPages(anyString());
+    }
+
+    @Test
+    void testOnContentChange_NoAffectedPagesKeepsStatus() {
+        when(dependencyGraph.getAffectedPages("5")).thenReturn(Set.of());
+
+        renderJob.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.DELETE,
+                "5", null, null, null, null, null));
+
+        assertEquals(RenderJobService.STATE_IDLE, renderJob.getStatus().getState());
+    }
+
+    @Test
+    void testOnContentChange_Disabled() {
+        render.setJobOnChange(false);
+
+        renderJob.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "20", null, Constants.CONTENT_TYPE_ELEMENT, null, "footer", null));
+
+        verify(dependencyGraph, never()).getAffectedPages(anyString());
+    }
+
+    @Test
+    void testOnContentChange_WhileStoppedOnlyQueues() {
+        heldWorkers = new ArrayList<>();
+        when(dependencyGraph.getAffectedPages("10")).thenReturn(Set.of("1"));
+        when(dependencyGraph.getAffectedPages("20")).thenReturn(Set.of("2"));
+        renderJob.start(List.of("10"));
+        renderJob.stop();
+        heldWorkers.get(0).run();
+
+        renderJob.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "20", null, Constants.CONTENT_TYPE_ELEMENT, null, "footer", null));
+
+        RenderJobStatus status = renderJob.getStatus();
+        assertEquals(RenderJobService.STATE_STOPPED, status.getState());
+        assertEquals(2, status.getPending());
+        assertEquals(1, heldWorkers.size());
+    }
+}
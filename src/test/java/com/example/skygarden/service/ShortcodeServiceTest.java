@@ -0,0 +1,168 @@
+package com.example.skygarden.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.logic.ShortcodeDocument;
+import com.example.skygarden.mapper.ContentMapper;
+import com.example.skygarden.service.ContentChangeEvent.Operation;
+
+/**
+ * ShortcodeServiceのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ShortcodeServiceTest {
+
+    @Mock
+    private ContentMapper mapper;
+
+    @InjectMocks
+    private ShortcodeService shortcodeService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(shortcodeService, "handlers", List.<ShortcodeHandler>of(new MovieShortcodeHandler()));
+    }
+
+    private HashMap<String, String> movie(String id, String videoId) {
+        HashMap<String, String> movie = new HashMap<>();
+        movie.put("id", id);
+        movie.put("type", Constants.CONTENT_TYPE_MOVIE);
+        movie.put("content", videoId);
+        return movie;
+    }
+
+    @Test
+    void testRender_ResolvesAllReferencesInOneQuery() {
+        when(mapper.searchByIds(List.of("1", "2", "3"), Constants.TABLE_CONTENT_PUBLIC))
+                .thenReturn(List.of(movie("1", "video1"), movie("2", "video2"), movie("3", "video3")));
+        ShortcodeDocument header = shortcodeService.getDocument("20", "2024-01-01 10:00", "[movie id=1]");
+        ShortcodeDocument body = shortcodeService.getDocument("5", "2024-01-01 10:00", "A [movie id=2] B [movie id=3] C [movie id=2]");
+
+        String result = shortcodeService.render(List.of(header, body));
+
+        assertTrue(result.contains("embed/video1"));
+        assertTrue(result.contains("embed/video2"));
+        assertTrue(result.contains("embed/video3"));
+        assertTrue(result.contains("</div> B <div"));
+        verify(mapper, times(1)).searchByIds(anyList(), anyString());
+        verify(mapper, never()).search(anyString(), anyString());
+    }
+
+    @Test
+    void testRender_WithoutShortcodesNoQuery() {
+        String result = shortcodeService.render(List.of(
+                shortcodeService.getDocument("20", null, "<header>"),
+                shortcodeService.getDocument("5", null, "[link] Body"),
+                ShortcodeDocument.EMPTY));
+
+        assertEquals("<header>[link] Body", result);
+        verify(mapper, never()).searchByIds(anyList(), anyString());
+    }
+
+    @Test
+    void testFindReferences_RenderWithoutQuery() {
+        when(mapper.searchByIds(List.of("1", "2"), Constants.TABLE_CONTENT_PUBLIC))
+                .thenReturn(List.of(movie("1", "video1"), movie("2", "video2")));
+        List<ShortcodeDocument> parts = List.of(shortcodeService.parse("[movie id=1] [movie id=2] [movie id=x]"));
+
+        HashMap<String, HashMap<String, String>> references = shortcodeService.findReferences(parts);
+        String result = shortcodeService.render(parts, references);
+
+        assertEquals(Set.of("1", "2"), references.keySet());
+        assertTrue(result.contains("embed/video2"));
+        verify(mapper, times(1)).searchByIds(anyList(), anyString());
+    }
+
+    @Test
+    void testRender_MissingReference() {
+        when(mapper.searchByIds(List.of("999"), Constants.TABLE_CONTENT_PUBLIC)).thenReturn(List.of());
+
+        String result = shortcodeService.render(List.of(shortcodeService.parse("Test [movie id=999] Content")));
+
+        assertEquals("Test <!-- Movie ID 999: Not found or not published --> Content", result);
+    }
+
+    @Test
+    void testGetDocument_CachedByIdAndUpdated() {
+        ShortcodeDocument first = shortcodeService.getDocument("5", "2024-01-01 10:00", "[movie id=1]");
+        ShortcodeDocument second = shortcodeService.getDocument("5", "2024-01-01 10:00", "[movie id=1]");
+
+        assertSame(first, second);
+        assertEquals(1, shortcodeService.size());
+    }
+
+    @Test
+    void testGetDocument_RecompiledWhenChanged() {
+        ShortcodeDocument first = shortcodeService.getDocument("5", "2024-01-01 10:00", "[movie id=1]");
+
+        ShortcodeDocument edited = shortcodeService.getDocument("5", "2024-01-01 10:00", "[movie id=2]");
+        ShortcodeDocument updated = shortcodeService.getDocument("5", "2024-01-01 10:05", "[movie id=2]");
+
+        assertNotSame(first, edited);
+        assertNotSame(edited, updated);
+        assertEquals("2", updated.getSegments().get(0).getAttribute("id"));
+        assertEquals(1, shortcodeService.size());
+    }
+
+    @Test
+    void testGetDocument_WithoutShortcodeNotCached() {
+        shortcodeService.getDocument("5", "2024-01-01 10:00", "<p>Plain</p>");
+        shortcodeService.getDocument("6", "2024-01-01 10:00", null);
+
+        assertEquals(0, shortcodeService.size());
+    }
+
+    @Test
+    void testOnContentChange_PublishCompiles() {
+        shortcodeService.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE,
+                "5", "news/5", "", null, "[movie id=1]", "2024-01-01 10:00"));
+
+        assertEquals(1, shortcodeService.size());
+        assertSame(shortcodeService.getDocument("5", "2024-01-01 10:00", "[movie id=1]"),
+                shortcodeService.getDocument("5", "2024-01-01 10:00", "[movie id=1]"));
+    }
+
+    @Test
+    void testOnContentChange_ElementSaveCompiles() {
+        shortcodeService.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "20", null, Constants.CONTENT_TYPE_ELEMENT, null, "[movie id=1]", "2024-01-01 10:00"));
+
+        assertEquals(1, shortcodeService.size());
+    }
+
+    @Test
+    void testOnContentChange_DraftIgnored() {
+        shortcodeService.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "5", "news/5", "", null, "[movie id=1]", "2024-01-01 10:00"));
+
+        assertEquals(0, shortcodeService.size());
+    }
+
+    @Test
+    void testOnContentChange_DeleteEvicts() {
+        shortcodeService.getDocument("5", "2024-01-01 10:00", "[movie id=1]");
+
+        shortcodeService.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT_PUBLIC, Operation.DELETE,
+                "5", null, null, null, null, null));
+
+        assertEquals(0, shortcodeService.size());
+    }
+}
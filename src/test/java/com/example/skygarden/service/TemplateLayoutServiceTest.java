@@ -0,0 +1,98 @@
+package com.example.skygarden.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.logic.TemplateLayout;
+import com.example.skygarden.service.ContentChangeEvent.Operation;
+
+/**
+ * TemplateLayoutServiceのテストクラス
+ */
+class TemplateLayoutServiceTest {
+
+    private TemplateLayoutService templateLayoutService;
+
+    private HashMap<String, String> template;
+
+    @BeforeEach
+    void setUp() {
+        templateLayoutService = new TemplateLayoutService();
+        template = new HashMap<>();
+        template.put("id", "2");
+        template.put("updated", "2024-01-01 10:00");
+        template.put("content", "###element(10),###content###");
+    }
+
+    @Test
+    void testGetLayout_CachedByIdAndUpdated() {
+        TemplateLayout first = templateLayoutService.getLayout("2", template);
+        TemplateLayout second = templateLayoutService.getLayout("2", template);
+
+        assertSame(first, second);
+        assertEquals(1, templateLayoutService.size());
+    }
+
+    @Test
+    void testGetLayout_RecompiledWhenUpdatedChanges() {
+        TemplateLayout first = templateLayoutService.getLayout("2", template);
+        template.put("updated", "2024-01-01 10:05");
+        template.put("content", "###content###");
+
+        TemplateLayout second = templateLayoutService.getLayout("2", template);
+
+        assertNotSame(first, second);
+        assertEquals(1, second.getSegments().size());
+    }
+
+    @Test
+    void testGetLayout_RecompiledWhenContentChangesWithinSameMinute() {
+        templateLayoutService.getLayout("2", template);
+        template.put("content", "###content###,###element(20)");
+
+        TemplateLayout layout = templateLayoutService.getLayout("2", template);
+
+        assertEquals("20", layout.getElementIds().get(0));
+    }
+
+    @Test
+    void testGetLayout_NullTemplate() {
+        assertSame(TemplateLayout.EMPTY, templateLayoutService.getLayout("2", null));
+        assertEquals(0, templateLayoutService.size());
+    }
+
+    @Test
+    void testOnContentChange_TemplateUpdateEvicts() {
+        templateLayoutService.getLayout("2", template);
+
+        templateLayoutService.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "2", "", Constants.CONTENT_TYPE_TEMPLATE, "", "", "2024-01-01 10:00"));
+
+        assertEquals(0, templateLayoutService.size());
+    }
+
+    @Test
+    void testOnContentChange_OtherTypeKeeps() {
+        templateLayoutService.getLayout("2", template);
+
+        templateLayoutService.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.UPDATE,
+                "5", "page", "", "2", "body", "2024-01-01 10:00"));
+
+        assertEquals(1, templateLayoutService.size());
+    }
+
+    @Test
+    void testOnContentChange_DeleteClears() {
+        templateLayoutService.getLayout("2", template);
+
+        templateLayoutService.onContentChange(new ContentChangeEvent(Constants.TABLE_CONTENT, Operation.DELETE,
+                "7", null, null, null, null, null));
+
+        assertEquals(0, templateLayoutService.size());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.skygarden.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.example.skygarden.config.AppProperties;
+import com.example.skygarden.constants.Constants;
+import com.example.skygarden.mapper.ContentMapper;
+import com.example.skygarden.service.ContentChangeEvent.Operation;
+import com.example.skygarden.service.UrlRoutingTable.Route;
+
+/**
+ * UrlRoutingTableのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class UrlRoutingTableTest {
+
+    @Mock
+    private ContentMapper mapper;
+
+    @Mock
+    private AppProperties appProperties;
+
+    @Mock
+    private AppProperties.Cache cacheProperties;
+
+    @InjectMocks
+    private UrlRoutingTable routingTable;
+
+    @BeforeEach
+    void setUp() {
+        when(appProperties.getCache()).thenReturn(cacheProperties);
+        when(cacheProperties.isEnabled()).thenReturn(true);
+        when(mapper.getPublicRoutes()).thenReturn(List.of(
+            row("1", "about", Constants.CONTENT_TYPE_CONTENT),
+            row("2", "css/style.css", Constants.CONTENT_TYPE_STYLESHEET)));
+    }
+
+    private HashMap<String, String> row(String id, String url, String type) {
+        HashMap<String, String> row = new HashMap<>();
+        row.put("id", id);
+        row.put("url", url);
+        row.put("type", type);
+        row.put("updated", "2024-01-01 10:00");
+        return row;
+    }
+
+    private ContentChangeEvent event(String table, Operation operation, String id, String url) {
+        return new ContentChangeEvent(table, operation, id, url, Constants.CONTENT_TYPE_CONTENT, null, null, "2024-01-02 10:00");
+    }
+
+    @Test
+    void testNotLoadedBeforeReady() {
+        assertFalse(routingTable.isLoaded());
+        assertNull(routingTable.lookup("about"));
+    }
+
+    @Test
+    void testOnApplicationReady_Loads() {
+        routingTable.onApplicationReady();
+
+        assertTrue(routingTable.isLoaded());
+        assertEquals(2, routingTable.size());
+        Route route = routingTable.lookup("css/style.css");
+        assertEquals("2", route.getId());
+        assertEquals(Constants.CONTENT_TYPE_STYLESHEET, route.getType());
+        assertNull(routingTable.lookup("wp-login.php"));
+    }
+
+    @Test
+    void testOnApplicationReady_Disabled() {
+        when(cacheProperties.isEnabled()).thenReturn(false);
+
+        routingTable.onApplicationReady();
+
+        assertFalse(routingTable.isLoaded());
+        verify(mapper, never()).getPublicRoutes();
+    }
+
+    @Test
+    void testOnApplicationReady_LoadError() {
+        when(mapper.getPublicRoutes()).thenThrow(new RuntimeException("DB error"));
+
+        routingTable.onApplicationReady();
+
+        assertFalse(routingTable.isLoaded());
+    }
+
+    @Test
+    void testOnContentChange_Publish() {
+        routingTable.reload();
+
+        routingTable.onContentChange(event(Constants.TABLE_CONTENT_PUBLIC, Operation.CREATE, "3", "news"));
+
+        assertEquals("3", routingTable.lookup("news").getId());
+        assertEquals("2024-01-02 10:00", routingTable.lookup("news").getUpdated());
+    }
+
+    @Test
+    void testOnContentChange_UrlChanged() {
+        routingTable.reload();
+
+        routingTable.onContentChange(event(Constants.TABLE_CONTENT_PUBLIC, Operation.UPDATE, "1", "company/about"));
+
+        assertNull(routingTable.lookup("about"));
+        assertEquals("1", routingTable.lookup("company/about").getId());
+    }
+
+    @Test
+    void testOnContentChange_DraftIgnored() {
+        routingTable.reload();
+
+        routingTable.onContentChange(event(Constants.TABLE_CONTENT, Operation.UPDATE, "1", "draft/about"));
+
+        assertNotNull(routingTable.lookup("about"));
+        assertNull(routingTable.lookup("draft/about"));
+    }
+
+    @Test
+    void testOnContentChange_Delete() {
+        routingTable.reload();
+
+        routingTable.onContentChange(event(Constants.TABLE_CONTENT, Operation.DELETE, "1", null));
+
+        assertNull(routingTable.lookup("about"));
+        assertEquals(1, routingTable.size());
+    }
+
+    @Test
+    void testOnContentChange_IgnoredBeforeLoad() {
+        routingTable.onContentChange(event(Constants.TABLE_CONTENT_PUBLIC, Operation.CREATE, "3", "news"));
+
+        assertNull(routingTable.lookup("news"));
+    }
+}
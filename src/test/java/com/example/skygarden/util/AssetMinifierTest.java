@@ -0,0 +1,89 @@
+package com.example.skygarden.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.skygarden.constants.Constants;
+
+/**
+ * AssetMinifierのテストクラス
+ */
+class AssetMinifierTest {
+
+    @Test
+    void testMinifyCss_WhitespaceAndComments() {
+        String css = "/* header */\nbody {\r\n  color: red;\r\n  background: blue;\n}\n\na , b > c { margin: 0 auto ; }";
+
+        assertEquals("body{color:red;background:blue}a,b>c{margin:0 auto}", AssetMinifier.minifyCss(css));
+    }
+
+    @Test
+    void testMinifyCss_KeepsSignificantSpaces() {
+        String css = "div :first-child { width: calc(100% - 2px) !important; }\n@media screen and (max-width: 600px) { .a { margin: 0; } }";
+
+        assertEquals("div :first-child{width:calc(100% - 2px)!important}@media screen and (max-width:600px){.a{margin:0}}",
+                AssetMinifier.minifyCss(css));
+    }
+
+    @Test
+    void testMinifyCss_KeepsStringsAndLicense() {
+        String css = "/*! license */\na::before { content: \"a  /* b */  c\"; font-family: 'Noto Sans'; }";
+
+        assertEquals("/*! license */ a::before{content:\"a  /* b */  c\";font-family:'Noto Sans'}", AssetMinifier.minifyCss(css));
+    }
+
+    @Test
+    void testMinifyCss_UnclosedCommentUnchanged() {
+        String css = "body { color: red; } /* open";
+
+        assertEquals(css, AssetMinifier.minifyCss(css));
+    }
+
+    @Test
+    void testMinifyCss_NullAndEmpty() {
+        assertEquals("", AssetMinifier.minifyCss(null));
+        assertEquals("", AssetMinifier.minifyCss(""));
+    }
+
+    @Test
+    void testMinifyJs_WhitespaceAndComments() {
+        String js = "// comment\nfunction f(x) {\n  /* block */\n  return x / 2 / y;\n}\n";
+
+        assertEquals("function f(x){return x/2/y;}", AssetMinifier.minifyJs(js));
+    }
+
+    @Test
+    void testMinifyJs_KeepsNewlineForAsi() {
+        String js = "var a = b\nvar c = d\n++e";
+
+        assertEquals("var a=b\nvar c=d\n++e", AssetMinifier.minifyJs(js));
+    }
+
+    @Test
+    void testMinifyJs_KeepsStringsTemplatesAndRegex() {
+        String js = "var s = 'a  // b';\nvar t = `x ${ y + `z` }  w`;\nvar re = /a b\\/[/]/g;\nif (re.test(s)) { return /  +/ .test(t); }";
+
+        assertEquals("var s='a  // b';var t=`x ${ y + `z` }  w`;var re=/a b\\/[/]/g;if(re.test(s)){return/  +/.test(t);}",
+                AssetMinifier.minifyJs(js));
+    }
+
+    @Test
+    void testMinifyJs_KeepsAmbiguousOperators() {
+        assertEquals("a+ +b;c- -d;e< !--f;1 .toString()", AssetMinifier.minifyJs("a + +b; c - -d; e < ! --f; 1 .toString()"));
+    }
+
+    @Test
+    void testMinifyJs_UnclosedStringUnchanged() {
+        String js = "var s = 'open;\nvar a = 1;";
+
+        assertEquals(js, AssetMinifier.minifyJs(js));
+    }
+
+    @Test
+    void testMinify_ByType() {
+        assertEquals("a{b:c}", AssetMinifier.minify(Constants.CONTENT_TYPE_STYLESHEET, "a { b: c; }"));
+        assertEquals("var a=1;", AssetMinifier.minify(Constants.CONTENT_TYPE_SCRIPT, "var a = 1;"));
+        assertEquals("<p> a </p>", AssetMinifier.minify(Constants.CONTENT_TYPE_CONTENT, "<p> a </p>"));
+    }
+}
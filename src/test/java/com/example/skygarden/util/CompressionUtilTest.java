@@ -0,0 +1,60 @@
+package com.example.skygarden.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * CompressionUtilのテストクラス
+ */
+class CompressionUtilTest {
+
+    private final byte[] data = "<html><body>本文本文本文</body></html>".repeat(20).getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testGzip_RoundTrip() throws Exception {
+        byte[] compressed = CompressionUtil.gzip(data);
+
+        assertTrue(compressed.length < data.length);
+        assertArrayEquals(data, new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes());
+    }
+
+    @Test
+    void testDeflate_RoundTrip() throws Exception {
+        byte[] compressed = CompressionUtil.deflate(data);
+
+        assertTrue(compressed.length < data.length);
+        assertArrayEquals(data, new InflaterInputStream(new ByteArrayInputStream(compressed)).readAllBytes());
+    }
+
+    @Test
+    void testSelectEncoding_PrefersGzip() {
+        assertEquals("gzip", CompressionUtil.selectEncoding("gzip, deflate, br", true, true));
+        assertEquals("gzip", CompressionUtil.selectEncoding("deflate, gzip", true, true));
+    }
+
+    @Test
+    void testSelectEncoding_QualityValues() {
+        assertEquals("deflate", CompressionUtil.selectEncoding("gzip;q=0.5, deflate;q=0.8", true, true));
+        assertNull(CompressionUtil.selectEncoding("gzip;q=0", true, false));
+        assertEquals("deflate", CompressionUtil.selectEncoding("gzip;q=0, *", true, true));
+    }
+
+    @Test
+    void testSelectEncoding_Availability() {
+        assertEquals("deflate", CompressionUtil.selectEncoding("gzip, deflate", false, true));
+        assertNull(CompressionUtil.selectEncoding("br", true, true));
+        assertNull(CompressionUtil.selectEncoding("gzip", false, false));
+    }
+
+    @Test
+    void testSelectEncoding_NoHeader() {
+        assertNull(CompressionUtil.selectEncoding(null, true, true));
+        assertNull(CompressionUtil.selectEncoding("", true, true));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.skygarden.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * HtmlMinifierのテストクラス
+ */
+class HtmlMinifierTest {
+
+    @Test
+    void testMinify_WhitespaceAndComments() {
+        String html = "<p>\n    Hello   <!-- note -->  world\n</p>";
+
+        assertEquals("<p>\nHello world\n</p>", HtmlMinifier.minify(html));
+    }
+
+    @Test
+    void testMinify_KeepsConditionalAndBangComments() {
+        String html = "<!--[if IE]><p>IE</p><![endif]-->  <!--! license -->  <!-- drop -->";
+
+        assertEquals("<!--[if IE]><p>IE</p><![endif]--> <!--! license --> ", HtmlMinifier.minify(html));
+    }
+
+    @Test
+    void testMinify_KeepsRawElements() {
+        String html = "<PRE>  keep  </PRE>  x  <textarea name=\"t\">\n  a  </textarea>"
+                + "<script>if (a  <  b) {  }</script><style>a  {  }</style>";
+
+        assertEquals("<PRE>  keep  </PRE> x <textarea name=\"t\">\n  a  </textarea>"
+                + "<script>if (a  <  b) {  }</script><style>a  {  }</style>", HtmlMinifier.minify(html));
+    }
+
+    @Test
+    void testMinify_KeepsTagsAndAttributes() {
+        String html = "<a  title=\"a  >  b\"   href='/x'>link</a>  a < b";
+
+        assertEquals("<a  title=\"a  >  b\"   href='/x'>link</a> a < b", HtmlMinifier.minify(html));
+    }
+
+    @Test
+    void testMinify_UnterminatedUnchanged() {
+        assertEquals("<p> a <!--  open  ", HtmlMinifier.minify("<p>  a  <!--  open  "));
+        assertEquals("<p> a <div  class=\"x", HtmlMinifier.minify("<p>  a  <div  class=\"x"));
+        assertEquals("<pre>  a  ", HtmlMinifier.minify("<pre>  a  "));
+    }
+
+    @Test
+    void testMinify_Empty() {
+        assertNull(HtmlMinifier.minify(null));
+        assertEquals("", HtmlMinifier.minify(""));
+    }
+}
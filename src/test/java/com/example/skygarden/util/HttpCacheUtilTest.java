@@ -0,0 +1,108 @@
+package com.example.skygarden.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * HttpCacheUtilのテストクラス
+ */
+class HttpCacheUtilTest {
+
+    @Test
+    void testWeakEtag() {
+        assertEquals("W/\"abc\"", HttpCacheUtil.weakEtag("abc"));
+    }
+
+    @Test
+    void testEtagMatches_WeakComparison() {
+        assertTrue(HttpCacheUtil.etagMatches("\"abc\"", "W/\"abc\""));
+        assertTrue(HttpCacheUtil.etagMatches("W/\"x\", W/\"abc\"", "W/\"abc\""));
+        assertTrue(HttpCacheUtil.etagMatches("*", "W/\"abc\""));
+        assertFalse(HttpCacheUtil.etagMatches("W/\"abcd\"", "W/\"abc\""));
+    }
+
+    @Test
+    void testIsNotModified_IfNoneMatch() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("If-None-Match")).thenReturn("W/\"abc\"");
+
+        assertTrue(HttpCacheUtil.isNotModified(request, "W/\"abc\"", -1));
+        assertFalse(HttpCacheUtil.isNotModified(request, "W/\"def\"", -1));
+    }
+
+    @Test
+    void testIsNotModified_IfNoneMatchTakesPrecedence() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("If-None-Match")).thenReturn("W/\"old\"");
+        when(request.getDateHeader("If-Modified-Since")).thenReturn(2000000L);
+
+        assertFalse(HttpCacheUtil.isNotModified(request, "W/\"new\"", 1000000L));
+    }
+
+    @Test
+    void testIsNotModified_IfModifiedSince() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn("HEAD");
+        when(request.getDateHeader("If-Modified-Since")).thenReturn(1000000L);
+
+        // 秒未満は切り捨てて比較する
+        assertTrue(HttpCacheUtil.isNotModified(request, "W/\"abc\"", 1000500L));
+        assertFalse(HttpCacheUtil.isNotModified(request, "W/\"abc\"", 1001000L));
+        assertFalse(HttpCacheUtil.isNotModified(request, "W/\"abc\"", -1));
+    }
+
+    @Test
+    void testIsNotModified_NoConditionalHeaders() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getDateHeader("If-Modified-Since")).thenReturn(-1L);
+
+        assertFalse(HttpCacheUtil.isNotModified(request, "W/\"abc\"", 1000000L));
+    }
+
+    @Test
+    void testIsNotModified_InvalidDate() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getDateHeader("If-Modified-Since")).thenThrow(new IllegalArgumentException());
+
+        assertFalse(HttpCacheUtil.isNotModified(request, "W/\"abc\"", 1000000L));
+    }
+
+    @Test
+    void testIsNotModified_PostRequest() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getHeader("If-None-Match")).thenReturn("W/\"abc\"");
+
+        assertFalse(HttpCacheUtil.isNotModified(request, "W/\"abc\"", -1));
+    }
+
+    @Test
+    void testWriteNotModified() {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        HttpCacheUtil.writeNotModified(response, "W/\"abc\"", 1000000L, "no-cache");
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response).setHeader("ETag", "W/\"abc\"");
+        verify(response).setDateHeader("Last-Modified", 1000000L);
+        verify(response).setHeader("Cache-Control", "no-cache");
+    }
+
+    @Test
+    void testSetValidators_SkipsEmptyValues() {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        HttpCacheUtil.setValidators(response, null, -1, "");
+
+        verifyNoInteractions(response);
+    }
+}
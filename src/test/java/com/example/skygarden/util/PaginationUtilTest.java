@@ -2,8 +2,12 @@ package com.example.skygarden.util;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
+import com.example.skygarden.bean.PagerBean;
+
 /**
  * PaginationUtilのテストクラス
  */
@@ -99,4 +103,71 @@ class PaginationUtilTest {
         int result = PaginationUtil.calculateOffset(100, 20);
         assertEquals(1980, result);
     }
+
+    @Test
+    void testCalculateWindow_Middle() {
+        // 先頭・末尾と現在のページの前後のみ（省略箇所は0）
+        assertEquals(List.of(1, 0, 48, 49, 50, 51, 52, 0, 100), PaginationUtil.calculateWindow(50, 100, 2));
+    }
+
+    @Test
+    void testCalculateWindow_NearEdges() {
+        // 省略されるページが1ページだけの場合はそのページを表示する
+        assertEquals(List.of(1, 2, 3, 0, 100), PaginationUtil.calculateWindow(1, 100, 2));
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 0, 100), PaginationUtil.calculateWindow(4, 100, 2));
+        assertEquals(List.of(1, 0, 98, 99, 100), PaginationUtil.calculateWindow(100, 100, 2));
+    }
+
+    @Test
+    void testCalculateWindow_FewPages() {
+        assertEquals(List.of(1, 2, 3, 4, 5), PaginationUtil.calculateWindow(1, 5, 2));
+        assertEquals(List.of(1), PaginationUtil.calculateWindow(1, 1, 2));
+        assertTrue(PaginationUtil.calculateWindow(1, 0, 2).isEmpty());
+    }
+
+    @Test
+    void testCalculateWindow_PageOutOfRange() {
+        // 総ページ数を超えるページ番号の場合は末尾ページの前後
+        assertEquals(List.of(1, 0, 8, 9, 10), PaginationUtil.calculateWindow(200, 10, 2));
+    }
+
+    @Test
+    void testCreatePager_LargeTotalPages() {
+        // 総ページ数が多くてもページ番号の件数は一定
+        PagerBean pager = PaginationUtil.createPager(5000, 10000, false, "/?mode=", "&sort=id", 2);
+
+        assertEquals(9, pager.getItems().size());
+        assertEquals("/?mode=&page=4999&sort=id", pager.getPrevUrl());
+        assertEquals("/?mode=&page=5001&sort=id", pager.getNextUrl());
+        assertTrue(pager.getItems().get(1).isGap());
+        assertTrue(pager.getItems().get(4).isCurrent());
+        assertEquals("", pager.getItems().get(4).getUrl());
+        assertEquals("/?mode=&page=10000&sort=id", pager.getItems().get(8).getUrl());
+    }
+
+    @Test
+    void testCreatePager_UrlWithoutQuery() {
+        PagerBean pager = PaginationUtil.createPager(1, 2, false, "/user-list", "&sort=id", 2);
+
+        assertEquals("", pager.getPrevUrl());
+        assertEquals("/user-list?page=2&sort=id", pager.getNextUrl());
+        assertEquals("/user-list?page=2&sort=id", pager.getItems().get(1).getUrl());
+    }
+
+    @Test
+    void testCreatePager_HasMore() {
+        // 件数を上限までしか数えていない場合は末尾ページでも次のページへのリンクを出力する
+        PagerBean pager = PaginationUtil.createPager(3, 3, true, "/?mode=", "&sort=id", 2);
+
+        assertEquals("/?mode=&page=4&sort=id", pager.getNextUrl());
+    }
+
+    @Test
+    void testCreatePager_ZeroPages() {
+        PagerBean pager = PaginationUtil.createPager(1, 0, false, "/?mode=", "&sort=id", 2);
+
+        assertEquals("", pager.getPrevUrl());
+        assertEquals("", pager.getNextUrl());
+        assertTrue(pager.getItems().isEmpty());
+    }
 }
@@ -0,0 +1,108 @@
+package com.example.skygarden.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.skygarden.bean.HighlightBean;
+import com.example.skygarden.bean.SnippetBean;
+
+/**
+ * SnippetUtilのテストクラス
+ */
+class SnippetUtilTest {
+
+    private String highlighted(SnippetBean snippet, int index) {
+        HighlightBean highlight = snippet.getHighlights().get(index);
+        return snippet.getText().substring(highlight.getStart(), highlight.getEnd());
+    }
+
+    @Test
+    void testToPlainText_RemovesTags() {
+        String result = SnippetUtil.toPlainText("<div class=\"box\">\n<p>東京で<strong>開催</strong>します</p>\n</div>");
+        assertEquals("東京で 開催 します", result);
+    }
+
+    @Test
+    void testToPlainText_RemovesScriptStyleAndComments() {
+        String result = SnippetUtil.toPlainText("<style>p { color: red; }</style><!-- memo --><p>本文</p><script>var a = 1 < 2;</script>");
+        assertEquals("本文", result);
+    }
+
+    @Test
+    void testToPlainText_DecodesEntities() {
+        String result = SnippetUtil.toPlainText("<p>A&amp;B &lt;tag&gt; &quot;q&quot;&nbsp;&#26481;&#x4EAC;</p>");
+        assertEquals("A&B <tag> \"q\" 東京", result);
+    }
+
+    @Test
+    void testToPlainText_CutHtml() {
+        // 途中で切り出したHTMLの先頭・末尾の切れたタグを除く
+        String result = SnippetUtil.toPlainText("ss=\"lead\">お知らせです</p><img src=\"a.p");
+        assertEquals("お知らせです", result);
+    }
+
+    @Test
+    void testToPlainText_NullAndEmpty() {
+        assertEquals("", SnippetUtil.toPlainText(null));
+        assertEquals("", SnippetUtil.toPlainText(""));
+    }
+
+    @Test
+    void testCreate_ShortTextWithHighlights() {
+        SnippetBean result = SnippetUtil.create("東京で開催します。東京駅から徒歩5分", List.of("東京"), 120);
+
+        assertEquals("東京で開催します。東京駅から徒歩5分", result.getText());
+        assertEquals(2, result.getHighlights().size());
+        assertEquals("東京", highlighted(result, 0));
+        assertEquals("東京", highlighted(result, 1));
+    }
+
+    @Test
+    void testCreate_WindowAroundFirstMatch() {
+        String text = "あ".repeat(200) + "東京" + "い".repeat(200);
+
+        SnippetBean result = SnippetUtil.create(text, List.of("東京"), 40);
+
+        // 前後を省略し、検索語の前に文脈を残す
+        assertTrue(result.getText().startsWith("…"));
+        assertTrue(result.getText().endsWith("…"));
+        assertEquals(42, result.getText().length());
+        assertEquals(1, result.getHighlights().size());
+        assertEquals("東京", highlighted(result, 0));
+        assertEquals(11, result.getHighlights().get(0).getStart());
+    }
+
+    @Test
+    void testCreate_CaseInsensitive() {
+        SnippetBean result = SnippetUtil.create("SkyGarden CMS", List.of("garden"), 120);
+
+        assertEquals("Garden", highlighted(result, 0));
+    }
+
+    @Test
+    void testCreate_MergesOverlappingTerms() {
+        SnippetBean result = SnippetUtil.create("東京都庁", List.of("東京", "京都"), 120);
+
+        assertEquals(1, result.getHighlights().size());
+        assertEquals("東京都", highlighted(result, 0));
+    }
+
+    @Test
+    void testCreate_NoMatchStartsAtBeginning() {
+        SnippetBean result = SnippetUtil.create("お知らせの本文です", List.of("タイトル"), 5);
+
+        assertEquals("お知らせの…", result.getText());
+        assertTrue(result.getHighlights().isEmpty());
+    }
+
+    @Test
+    void testCreate_EmptyText() {
+        SnippetBean result = SnippetUtil.create(null, List.of("東京"), 120);
+
+        assertEquals("", result.getText());
+        assertTrue(result.getHighlights().isEmpty());
+    }
+}
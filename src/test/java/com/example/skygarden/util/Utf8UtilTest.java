@@ -0,0 +1,71 @@
+package com.example.skygarden.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Utf8Utilのテストクラス
+ */
+class Utf8UtilTest {
+
+    @Test
+    void testLength_Ascii() {
+        assertEquals(5, Utf8Util.length("hello"));
+    }
+
+    @Test
+    void testLength_Japanese() {
+        // 日本語は1文字3バイト
+        assertEquals(9, Utf8Util.length("日本語"));
+    }
+
+    @Test
+    void testLength_Mixed() {
+        String value = "aé日😀";
+        assertEquals(value.getBytes(StandardCharsets.UTF_8).length, Utf8Util.length(value));
+    }
+
+    @Test
+    void testLength_UnpairedSurrogate() {
+        String value = "a\uD800b";
+        assertEquals(value.getBytes(StandardCharsets.UTF_8).length, Utf8Util.length(value));
+    }
+
+    @Test
+    void testLength_Null() {
+        assertEquals(0, Utf8Util.length(null));
+    }
+
+    @Test
+    void testWrite() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Utf8Util.write(out, "本文 $1 \\");
+
+        assertEquals("本文 $1 \\", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWrite_SurrogatePairAcrossChunk() throws Exception {
+        // 区切り位置にサロゲートペアが跨る文字列
+        String value = "a".repeat(2047) + "😀" + "日本語".repeat(1000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Utf8Util.write(out, value);
+
+        assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), out.toByteArray());
+    }
+
+    @Test
+    void testWrite_Null() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Utf8Util.write(out, null);
+
+        assertEquals(0, out.size());
+    }
+}